@@ -0,0 +1,238 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a corpus of texts in newline-delimited json, one text per line, as written by
+ * {@link AdmCorpusWriter}. The lines are split off in the calling thread and read into texts
+ * on an executor, such as a {@link java.util.concurrent.ForkJoinPool} or a virtual-thread
+ * executor; the texts still come out in the order of the lines. At most a given number of
+ * texts are read ahead, which bounds the memory in use. Blank lines are skipped.
+ * <br>
+ * Failures to read a text come out of {@link #next()} as {@link UncheckedIOException}s
+ * that give the line number.
+ */
+public class AdmCorpusReader implements Iterator<AnnotatedText>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectReader reader;
+    private final InputStream in;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Queue<Pending> pending = new ArrayDeque<>();
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] line = new byte[BUFFER_SIZE];
+    private int lineLength;
+    private long lineNumber;
+    private boolean endOfInput;
+
+    /* A text being read, with the number of its line. */
+    private static final class Pending {
+        final long lineNumber;
+        final Future<AnnotatedText> text;
+
+        Pending(long lineNumber, Future<AnnotatedText> text) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Creates a reader.
+     * @param mapper a mapper set up with {@link AnnotatedDataModelModule}.
+     * @param in the input; it is closed by {@link #close()}.
+     * @param executor the executor that reads the texts; it is not shut down.
+     * @param maxInFlight the largest number of texts to read ahead.
+     */
+    public AdmCorpusReader(ObjectMapper mapper, InputStream in, ExecutorService executor, int maxInFlight) {
+        this(mapper.reader(), in, executor, maxInFlight);
+    }
+
+    /**
+     * Creates a reader that reads texts with the configuration of an {@link ObjectReader},
+     * such as {@link DataDeserializer#compact(ObjectReader)}.
+     * @param reader a reader from a mapper set up with {@link AnnotatedDataModelModule}.
+     * @param in the input; it is closed by {@link #close()}.
+     * @param executor the executor that reads the texts; it is not shut down.
+     * @param maxInFlight the largest number of texts to read ahead.
+     */
+    public AdmCorpusReader(ObjectReader reader, InputStream in, ExecutorService executor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.reader = reader.forType(AnnotatedText.class);
+        this.in = in;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public AnnotatedText next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Pending next = pending.remove();
+        try {
+            return await(next);
+        } finally {
+            // read ahead again only now, so that no more than maxInFlight texts are held here.
+            fill();
+        }
+    }
+
+    private static AnnotatedText await(Pending next) {
+        try {
+            return next.text.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted reading line " + next.lineNumber));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException("Could not read the text on line " + next.lineNumber, (IOException) e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the texts as a sequential stream; closing the stream closes this reader.
+     */
+    public Stream<AnnotatedText> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private void fill() {
+        while (!endOfInput && pending.size() < maxInFlight) {
+            byte[] text;
+            try {
+                text = readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (text == null) {
+                endOfInput = true;
+            } else {
+                pending.add(new Pending(lineNumber, executor.submit(() -> reader.<AnnotatedText>readValue(text))));
+            }
+        }
+    }
+
+    /* Returns the next line that is not blank, without its terminator, or null at the end of the input. */
+    private byte[] readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+                position = 0;
+                if (limit == 0) {
+                    if (lineLength == 0) {
+                        return null;
+                    }
+                    lineNumber++;
+                    return blank() ? null : Arrays.copyOf(line, lineLength);
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position - start);
+            if (position < limit) {
+                position++; // the newline
+                lineNumber++;
+                if (!blank()) {
+                    return Arrays.copyOf(line, lineLength);
+                }
+                lineLength = 0;
+            }
+        }
+    }
+
+    private void append(int start, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, start, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean blank() {
+        for (int x = 0; x < lineLength; x++) {
+            if (line[x] != ' ' && line[x] != '\t' && line[x] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops reading ahead, and closes the input.
+     * @throws IOException from closing the input.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Pending next : pending) {
+            next.text.cancel(true);
+        }
+        pending.clear();
+        endOfInput = true;
+        in.close();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Writes a corpus of texts in newline-delimited json, one text per line, for
+ * {@link AdmCorpusReader}. The texts are written to json on an executor, such as a
+ * {@link java.util.concurrent.ForkJoinPool} or a virtual-thread executor, and come out
+ * in the order in which they were given. At most a given number of texts wait to be
+ * written out, which bounds the memory in use; past that, {@link #write(AnnotatedText)}
+ * waits for the oldest.
+ * <br>
+ * This writer is not itself thread-safe; call it from one thread.
+ */
+public class AdmCorpusWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Queue<Future<byte[]>> pending = new ArrayDeque<>();
+
+    /**
+     * Creates a writer.
+     * @param mapper a mapper set up with {@link AnnotatedDataModelModule}.
+     * @param out the output; it is closed by {@link #close()}.
+     * @param executor the executor that writes the texts; it is not shut down.
+     * @param maxInFlight the largest number of texts to hold.
+     */
+    public AdmCorpusWriter(ObjectMapper mapper, OutputStream out, ExecutorService executor, int maxInFlight) {
+        this(mapper.writer(), out, executor, maxInFlight);
+    }
+
+    /**
+     * Creates a writer that writes texts with the configuration of an {@link ObjectWriter},
+     * such as {@link AlternateOffsets#withUnit(ObjectWriter, com.basistech.rosette.dm.OffsetUnit)}.
+     * Indentation is turned off, since it would break the lines.
+     * @param writer a writer from a mapper set up with {@link AnnotatedDataModelModule}.
+     * @param out the output; it is closed by {@link #close()}.
+     * @param executor the executor that writes the texts; it is not shut down.
+     * @param maxInFlight the largest number of texts to hold.
+     */
+    public AdmCorpusWriter(ObjectWriter writer, OutputStream out, ExecutorService executor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.writer = writer.forType(AnnotatedText.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Writes a text, after the ones before it.
+     * @param text the text.
+     * @throws IOException from writing this or an earlier text.
+     */
+    public void write(AnnotatedText text) throws IOException {
+        while (pending.size() >= maxInFlight) {
+            writeOldest();
+        }
+        pending.add(executor.submit(() -> writer.writeValueAsBytes(text)));
+    }
+
+    private void writeOldest() throws IOException {
+        Future<byte[]> oldest = pending.remove();
+        byte[] bytes;
+        try {
+            bytes = oldest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted writing a text");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        out.write(bytes);
+        out.write('\n');
+    }
+
+    /**
+     * Writes out all the texts given so far, and flushes the output.
+     * @throws IOException from writing a text.
+     */
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes out all the texts given so far, and closes the output.
+     * @throws IOException from writing a text.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (Future<byte[]> text : pending) {
+                text.cancel(true);
+            }
+            pending.clear();
+            out.close();
+        }
+    }
+}
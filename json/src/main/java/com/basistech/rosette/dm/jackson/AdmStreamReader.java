@@ -0,0 +1,506 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.CompactCharSequence;
+import com.basistech.rosette.dm.ListAttribute;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a serialized {@link com.basistech.rosette.dm.AnnotatedText} a piece at a time, without
+ * building the whole text. The items of list attributes, such as tokens and entities, come
+ * one by one; everything else, such as the data, the document metadata, and attributes that
+ * are not lists, comes whole. The pieces come in the order in which they were written.
+ * <br>
+ * The reader takes the plain format of {@link AnnotatedDataModelModule} and the array format of
+ * {@link com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule}, telling them
+ * apart by the first token; the mapper or reader must be set up with the matching module.
+ * Attributes left out with {@link AttributeFilter} are skipped without any events.
+ * <pre>
+ * try (AdmStreamReader reader = new AdmStreamReader(mapper, mapper.getFactory().createParser(file))) {
+ *     for (AdmStreamReader.Event event = reader.next(); event != null; event = reader.next()) {
+ *         if (event == AdmStreamReader.Event.LIST_START &amp;&amp; reader.getItemClass() != Entity.class) {
+ *             reader.skipItems();
+ *         } else if (event == AdmStreamReader.Event.ITEM) {
+ *             index((Entity) reader.getItem());
+ *         }
+ *     }
+ * }
+ * </pre>
+ */
+public class AdmStreamReader implements Closeable {
+
+    /**
+     * The pieces of a text.
+     */
+    public enum Event {
+        /** The data; see {@link #getData()}. */
+        DATA,
+        /** The document metadata; see {@link #getDocumentMetadata()}. */
+        DOCUMENT_METADATA,
+        /** A whole attribute that is not a list; see {@link #getAttributeKey()} and {@link #getAttribute()}. */
+        ATTRIBUTE,
+        /** The start of a list attribute; see {@link #getAttributeKey()} and {@link #getItemClass()}. */
+        LIST_START,
+        /** An item of the current list attribute; see {@link #getItem()}. */
+        ITEM,
+        /** The end of the current list attribute; see {@link #getExtendedProperties()}. */
+        LIST_END
+    }
+
+    private enum State {
+        START, TOP, ATTRIBUTES, ITEMS, LIST_FIELDS, DONE
+    }
+
+    private static final TypeReference<Map<String, List<String>>> METADATA_TYPE = new TypeReference<Map<String, List<String>>>() { };
+    private static final TypeReference<Map<String, Object>> PROPERTIES_TYPE = new TypeReference<Map<String, Object>>() { };
+
+    private final ObjectReader reader;
+    private final AttributeTypes types;
+    private final JsonParser parser;
+    private boolean array;
+    private State state = State.START;
+    private int topIndex;
+
+    private String version;
+    private CharSequence data;
+    private Map<String, List<String>> documentMetadata;
+    private String attributeKey;
+    private BaseAttribute attribute;
+    private Class<? extends BaseAttribute> itemClass;
+    private ObjectReader itemReader;
+    private BaseAttribute item;
+    private Map<String, Object> extendedProperties;
+    /* items already read, in lists whose items came before their type; otherwise, null. */
+    private Iterator<BaseAttribute> pendingItems;
+    /* whether the current list was read whole, so there are no more fields to look at after its items. */
+    private boolean wholeList;
+    /* whether to skip the items of the current list when they come. */
+    private boolean skipping;
+
+    /**
+     * Creates a reader.
+     * @param mapper a mapper set up with the module for the format.
+     * @param parser the parser, at the start of the text or before it.
+     */
+    public AdmStreamReader(ObjectMapper mapper, JsonParser parser) {
+        this(mapper.reader(), parser);
+    }
+
+    /**
+     * Creates a reader that reads the pieces with the configuration of an {@link ObjectReader},
+     * such as {@link DataDeserializer#compact(ObjectReader)}.
+     * @param reader a reader from a mapper set up with the module for the format.
+     * @param parser the parser, at the start of the text or before it.
+     */
+    public AdmStreamReader(ObjectReader reader, JsonParser parser) {
+        this.reader = reader;
+        this.types = ModuleOptions.of(reader.getConfig()).getAttributeTypes();
+        this.parser = parser;
+        if (parser.getCodec() == null) {
+            parser.setCodec(reader);
+        }
+    }
+
+    /**
+     * Moves to the next piece of the text.
+     * @return the piece, or {@code null} at the end of the text.
+     * @throws IOException for errors reading or binding the input.
+     */
+    public Event next() throws IOException {
+        item = null;
+        attribute = null;
+        switch (state) {
+        case START:
+            return start();
+        case TOP:
+            return nextTop();
+        case ATTRIBUTES:
+            return nextAttribute();
+        case ITEMS:
+            return nextItem();
+        case LIST_FIELDS:
+            return nextListField();
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Skips the items of the current list, or the rest of them, without binding them; call it after
+     * {@link Event#LIST_START} or {@link Event#ITEM}. The next event is the {@link Event#LIST_END} of the list.
+     * @throws IOException for errors reading the input.
+     */
+    public void skipItems() throws IOException {
+        if (state == State.LIST_FIELDS && itemClass != null) {
+            // the items are yet to come.
+            skipping = true;
+            return;
+        }
+        if (state != State.ITEMS) {
+            throw new IllegalStateException("Not in the items of a list");
+        }
+        if (pendingItems != null) {
+            pendingItems = Collections.emptyIterator();
+            return;
+        }
+        for (JsonToken t = parser.nextToken(); t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+            if (t == null) {
+                throw JsonMappingException.from(parser, "Unexpected end of input in the items of a list");
+            }
+            parser.skipChildren();
+        }
+        state = State.LIST_FIELDS;
+    }
+
+    private Event start() throws IOException {
+        JsonToken t = parser.currentToken();
+        if (t == null) {
+            t = parser.nextToken();
+        }
+        if (t == JsonToken.START_ARRAY) {
+            array = true;
+        } else if (t != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(parser, "Expected the start of an AnnotatedText");
+        }
+        state = State.TOP;
+        return nextTop();
+    }
+
+    private Event nextTop() throws IOException {
+        while (true) {
+            JsonToken t = parser.nextToken();
+            if (t == JsonToken.END_OBJECT || t == JsonToken.END_ARRAY) {
+                state = State.DONE;
+                return null;
+            }
+            if (t == null) {
+                throw JsonMappingException.from(parser, "Unexpected end of input in an AnnotatedText");
+            }
+            String name;
+            if (array) {
+                name = topIndex < 4 ? new String[] {"data", "attributes", "documentMetadata", "version"}[topIndex] : "";
+                topIndex++;
+            } else {
+                name = parser.getCurrentName();
+                parser.nextToken();
+            }
+            switch (name) {
+            case "data":
+                data = readData();
+                return Event.DATA;
+            case "attributes":
+                if (!parser.hasToken(JsonToken.START_OBJECT)) {
+                    throw JsonMappingException.from(parser, "Expected an object of attributes");
+                }
+                state = State.ATTRIBUTES;
+                return nextAttribute();
+            case "documentMetadata":
+                documentMetadata = reader.forType(METADATA_TYPE).readValue(parser);
+                return Event.DOCUMENT_METADATA;
+            case "version":
+                version = parser.getValueAsString();
+                String problem = version == null ? "The value of 'version' must be a string" : VersionCheckDeserializer.checkVersion(version);
+                if (problem != null) {
+                    throw JsonMappingException.from(parser, problem);
+                }
+                break;
+            default:
+                parser.skipChildren();
+                break;
+            }
+        }
+    }
+
+    private CharSequence readData() throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING) && Boolean.TRUE.equals(reader.getConfig().getAttributes().getAttribute(CompactCharSequence.class))) {
+            return CompactCharSequence.of(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return reader.forType(String.class).readValue(parser);
+    }
+
+    private Event nextAttribute() throws IOException {
+        JsonToken t = parser.nextToken();
+        if (t == JsonToken.END_OBJECT) {
+            state = State.TOP;
+            return nextTop();
+        }
+        attributeKey = parser.getCurrentName();
+        t = parser.nextToken();
+        if (t == JsonToken.VALUE_NULL) {
+            return nextAttribute();
+        }
+        Set<String> keys = AttributeFilter.keys(reader.getConfig());
+        if (keys != null && !keys.contains(attributeKey)) {
+            parser.skipChildren();
+            return nextAttribute();
+        }
+        return array ? startArrayAttribute() : startAttribute();
+    }
+
+    /* At the start of an attribute in the array format, ["type", value]. */
+    private Event startArrayAttribute() throws IOException {
+        if (!parser.hasToken(JsonToken.START_ARRAY)) {
+            throw JsonMappingException.from(parser, "Expected an array for attribute " + attributeKey);
+        }
+        String type = parser.nextTextValue();
+        parser.nextToken();
+        if (KnownAttribute.LIST.key().equals(type)) {
+            // [itemType, [items], {extended properties}]
+            startList(types.classForKey(parser.nextTextValue()));
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw JsonMappingException.from(parser, "Expected an array of items for attribute " + attributeKey);
+            }
+            state = State.ITEMS;
+            return Event.LIST_START;
+        }
+        attribute = reader.forType(types.classForKey(type)).readValue(parser);
+        parser.nextToken(); // the end of the pair
+        return Event.ATTRIBUTE;
+    }
+
+    /* At the start of an attribute in the plain format, {"type": ..., ...}. */
+    private Event startAttribute() throws IOException {
+        if (!parser.hasToken(JsonToken.START_OBJECT)) {
+            throw JsonMappingException.from(parser, "Expected an object for attribute " + attributeKey);
+        }
+        JsonToken t = parser.nextToken();
+        if (t == JsonToken.FIELD_NAME && "type".equals(parser.getCurrentName())) {
+            String type = parser.nextTextValue();
+            if (KnownAttribute.LIST.key().equals(type)) {
+                startList(null);
+                return nextListField();
+            }
+            attribute = reader.forType(types.classForKey(type)).readValue(restOfObject(null));
+            return Event.ATTRIBUTE;
+        }
+        // the type comes later, so this attribute can only be read whole.
+        String[] type = new String[1];
+        JsonParser rest = restOfObject(type);
+        if (type[0] == null) {
+            throw JsonMappingException.from(parser, "No type provided for attribute " + attributeKey);
+        }
+        if (KnownAttribute.LIST.key().equals(type[0])) {
+            ListAttribute<?> list = reader.forType(ListAttribute.class).readValue(rest);
+            startList(list.getItemClass());
+            pendingItems = new ArrayList<BaseAttribute>(list).iterator();
+            extendedProperties.putAll(list.getExtendedProperties());
+            wholeList = true;
+            state = State.ITEMS;
+            return Event.LIST_START;
+        }
+        attribute = reader.forType(types.classForKey(type[0])).readValue(rest);
+        return Event.ATTRIBUTE;
+    }
+
+    /*
+     * Copies the fields from the current token to the end of the current object into a buffer,
+     * leaving out the type, which goes into type[0] if asked for.
+     */
+    private JsonParser restOfObject(String[] type) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.writeStartObject();
+        for (JsonToken t = parser.currentToken(); t != JsonToken.END_OBJECT; t = parser.nextToken()) {
+            if (t == JsonToken.FIELD_NAME && type != null && "type".equals(parser.getCurrentName())) {
+                type[0] = parser.nextTextValue();
+            } else if (t == JsonToken.FIELD_NAME) {
+                buffer.copyCurrentStructure(parser);
+            }
+        }
+        buffer.writeEndObject();
+        JsonParser rest = buffer.asParser(parser);
+        rest.nextToken();
+        return rest;
+    }
+
+    private void startList(Class<? extends BaseAttribute> listItemClass) {
+        itemClass = listItemClass;
+        itemReader = listItemClass == null ? null : reader.forType(listItemClass);
+        extendedProperties = new LinkedHashMap<>();
+        pendingItems = null;
+        wholeList = false;
+        skipping = false;
+    }
+
+    /* Looks at the fields of a list in the plain format, outside its items. */
+    private Event nextListField() throws IOException {
+        if (array) {
+            // {extended properties}, then the ends of the list and of the pair.
+            parser.nextToken();
+            extendedProperties.putAll(reader.forType(PROPERTIES_TYPE).<Map<String, Object>>readValue(parser));
+            parser.nextToken();
+            parser.nextToken();
+            state = State.ATTRIBUTES;
+            return Event.LIST_END;
+        }
+        List<JsonNode> rawItems = null;
+        for (JsonToken t = parser.nextToken(); t != JsonToken.END_OBJECT; t = parser.nextToken()) {
+            String name = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("itemType".equals(name)) {
+                if (itemClass == null) {
+                    itemClass = types.classForKey(parser.getText());
+                    itemReader = reader.forType(itemClass);
+                    if (rawItems != null) {
+                        pendingItems = bindItems(rawItems);
+                        state = State.ITEMS;
+                    } else {
+                        state = State.LIST_FIELDS;
+                    }
+                    return Event.LIST_START;
+                }
+            } else if ("items".equals(name)) {
+                if (valueToken != JsonToken.START_ARRAY) {
+                    throw JsonMappingException.from(parser, "Expected an array of items for attribute " + attributeKey);
+                }
+                if (skipping) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (itemClass != null) {
+                    state = State.ITEMS;
+                    return nextItem();
+                }
+                // keep the items as they are until we know what they are.
+                rawItems = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    rawItems.add(reader.readTree(parser));
+                }
+            } else if (valueToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                extendedProperties.put(name, parser.getEmbeddedObject());
+            } else {
+                extendedProperties.put(name, reader.forType(Object.class).readValue(parser));
+            }
+        }
+        if (itemClass == null) {
+            throw JsonMappingException.from(parser, "No itemType provided in a list");
+        }
+        state = State.ATTRIBUTES;
+        return Event.LIST_END;
+    }
+
+    private Iterator<BaseAttribute> bindItems(List<JsonNode> rawItems) throws IOException {
+        List<BaseAttribute> items = new ArrayList<>(rawItems.size());
+        for (JsonNode rawItem : rawItems) {
+            items.add(itemReader.readValue(rawItem));
+        }
+        return items.iterator();
+    }
+
+    private Event nextItem() throws IOException {
+        if (pendingItems != null) {
+            if (pendingItems.hasNext()) {
+                item = pendingItems.next();
+                return Event.ITEM;
+            }
+            pendingItems = null;
+            if (wholeList) {
+                state = State.ATTRIBUTES;
+                return Event.LIST_END;
+            }
+            state = State.LIST_FIELDS;
+            return nextListField();
+        }
+        JsonToken t = parser.nextToken();
+        if (t == JsonToken.END_ARRAY) {
+            state = State.LIST_FIELDS;
+            return nextListField();
+        }
+        item = t == JsonToken.VALUE_NULL ? null : itemReader.readValue(parser);
+        return Event.ITEM;
+    }
+
+    /**
+     * @return the version of the data model in the input, once it has been read;
+     * the plain format has it first, the array format last.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the data, after {@link Event#DATA}.
+     */
+    public CharSequence getData() {
+        return data;
+    }
+
+    /**
+     * @return the document metadata, after {@link Event#DOCUMENT_METADATA}.
+     */
+    public Map<String, List<String>> getDocumentMetadata() {
+        return documentMetadata;
+    }
+
+    /**
+     * @return the key of the current attribute, such as {@code token}, from {@link Event#ATTRIBUTE}
+     * or {@link Event#LIST_START} on.
+     */
+    public String getAttributeKey() {
+        return attributeKey;
+    }
+
+    /**
+     * @return the attribute, after {@link Event#ATTRIBUTE}.
+     */
+    public BaseAttribute getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * @return the class of the items of the current list, from {@link Event#LIST_START} on.
+     */
+    public Class<? extends BaseAttribute> getItemClass() {
+        return itemClass;
+    }
+
+    /**
+     * @return the item, after {@link Event#ITEM}.
+     */
+    public BaseAttribute getItem() {
+        return item;
+    }
+
+    /**
+     * @return the extended properties of the current list, after {@link Event#LIST_END}.
+     */
+    public Map<String, Object> getExtendedProperties() {
+        return extendedProperties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.Attribute;
+import com.basistech.rosette.dm.OffsetIndex;
+import com.basistech.rosette.dm.OffsetUnit;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the offsets of every {@link Attribute} in a second unit, next to the UTF-16 offsets
+ * that the model uses, so that consumers in other languages need not rescan the text.
+ * For example, with {@link OffsetUnit#UTF8} a token is written with {@code utf8StartOffset} and
+ * {@code utf8EndOffset} after its {@code startOffset} and {@code endOffset}; with
+ * {@link OffsetUnit#CODE_POINT} the names start with {@code codePoint}.
+ * <br>
+ * The offsets come from {@link AnnotatedText#getOffsetIndex()}, so they are written only for
+ * attributes serialized as part of an {@code AnnotatedText}, and only by the plain (not array)
+ * module. Offsets outside the text are not converted. The extra fields are ignored when read back.
+ */
+public final class AlternateOffsets {
+
+    private AlternateOffsets() {
+        //
+    }
+
+    /**
+     * Returns a writer that adds offsets in a unit.
+     * @param writer the writer.
+     * @param unit the unit; {@link OffsetUnit#UTF16} adds nothing.
+     * @return the new writer.
+     */
+    public static ObjectWriter withUnit(ObjectWriter writer, OffsetUnit unit) {
+        return writer.withAttribute(OffsetUnit.class, unit);
+    }
+
+    /**
+     * Makes a mapper add offsets in a unit whenever it writes.
+     * @param mapper the mapper.
+     * @param unit the unit; {@link OffsetUnit#UTF16} adds nothing.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper withUnit(ObjectMapper mapper, OffsetUnit unit) {
+        mapper.setConfig(mapper.getSerializationConfig().withAttribute(OffsetUnit.class, unit));
+        return mapper;
+    }
+
+    /**
+     * Returns the name of the field that holds a converted offset.
+     * @param unit the unit.
+     * @param start {@code true} for the start offset, {@code false} for the end offset.
+     * @return the field name.
+     */
+    public static String fieldName(OffsetUnit unit, boolean start) {
+        String prefix = unit == OffsetUnit.UTF8 ? "utf8" : "codePoint";
+        return prefix + (start ? "StartOffset" : "EndOffset");
+    }
+
+    /* Writes the converted offsets of an attribute, if a unit is configured; for writers that bypass the bean serializer. */
+    static void writeOffsets(int startOffset, int endOffset, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeOffset(startOffset, true, gen, provider);
+        writeOffset(endOffset, false, gen, provider);
+    }
+
+    private static void writeOffset(int offset, boolean start, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        OffsetUnit unit = (OffsetUnit) provider.getAttribute(OffsetUnit.class);
+        OffsetIndex index = (OffsetIndex) provider.getAttribute(OffsetIndex.class);
+        if (unit == null || unit == OffsetUnit.UTF16 || index == null || offset < 0 || offset > index.length(OffsetUnit.UTF16)) {
+            return;
+        }
+        gen.writeNumberField(fieldName(unit, start), index.convert(offset, OffsetUnit.UTF16, unit));
+    }
+
+    /**
+     * Adds the converted offset writers to attributes, and makes the offset index of the text
+     * being written available to them.
+     */
+    static class Modifier extends BeanSerializerModifier {
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+            if (!Attribute.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                return beanProperties;
+            }
+            BeanPropertyWriter start = null;
+            int endIndex = -1;
+            for (int x = 0; x < beanProperties.size(); x++) {
+                if ("startOffset".equals(beanProperties.get(x).getName())) {
+                    start = beanProperties.get(x);
+                } else if ("endOffset".equals(beanProperties.get(x).getName())) {
+                    endIndex = x;
+                }
+            }
+            if (start != null && endIndex >= 0) {
+                beanProperties.add(endIndex + 1, new OffsetWriter(start, true));
+                beanProperties.add(endIndex + 2, new OffsetWriter(beanProperties.get(endIndex), false));
+            }
+            return beanProperties;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+            if (beanDesc.getBeanClass() == AnnotatedText.class) {
+                return new TextSerializer((JsonSerializer<Object>) serializer);
+            }
+            return serializer;
+        }
+    }
+
+    /* Writes one offset of an attribute in the configured unit, after reading it through the UTF-16 offset's accessor. */
+    static class OffsetWriter extends BeanPropertyWriter {
+        private static final long serialVersionUID = 250L;
+        private final boolean start;
+
+        OffsetWriter(BeanPropertyWriter base, boolean start) {
+            super(base, PropertyName.construct(base.getName() + "Converted"));
+            this.start = start;
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (prov.getAttribute(OffsetUnit.class) != null) {
+                writeOffset((Integer) get(bean), start, gen, prov);
+            }
+        }
+    }
+
+    /* Serializes a text with its offset index available to the attributes inside it. */
+    static class TextSerializer extends JsonSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+        private final JsonSerializer<Object> delegate;
+
+        TextSerializer(JsonSerializer<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer) {
+                ((ResolvableSerializer) delegate).resolve(provider);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer) {
+                JsonSerializer<?> contextual = ((ContextualSerializer) delegate).createContextual(prov, property);
+                if (contextual != delegate) {
+                    return new TextSerializer((JsonSerializer<Object>) contextual);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Object previous = enter(value, provider);
+            try {
+                delegate.serialize(value, gen, provider);
+            } finally {
+                provider.setAttribute(OffsetIndex.class, previous);
+            }
+        }
+
+        @Override
+        public void serializeWithType(Object value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+            Object previous = enter(value, provider);
+            try {
+                delegate.serializeWithType(value, gen, provider, typeSer);
+            } finally {
+                provider.setAttribute(OffsetIndex.class, previous);
+            }
+        }
+
+        private static Object enter(Object value, SerializerProvider provider) {
+            Object previous = provider.getAttribute(OffsetIndex.class);
+            OffsetUnit unit = (OffsetUnit) provider.getAttribute(OffsetUnit.class);
+            if (unit != null && unit != OffsetUnit.UTF16) {
+                provider.setAttribute(OffsetIndex.class, ((AnnotatedText) value).getOffsetIndex());
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Object value) {
+            return delegate.isEmpty(provider, value);
+        }
+
+        @Override
+        public Class<Object> handledType() {
+            return delegate.handledType();
+        }
+    }
+}
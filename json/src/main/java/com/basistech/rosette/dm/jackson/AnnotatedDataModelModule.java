@@ -62,9 +62,19 @@ import com.fasterxml.jackson.databind.module.SimpleSerializers;
  * annotated data model.
  */
 public class  AnnotatedDataModelModule extends EnumModule {
+    private final ModuleOptions options;
 
     public AnnotatedDataModelModule() {
+        this(ModuleOptions.defaults());
+    }
+
+    /**
+     * Constructs a module with options, such as a string interner or an analysis cache.
+     * @param options the options.
+     */
+    public AnnotatedDataModelModule(ModuleOptions options) {
         super();
+        this.options = options;
     }
 
     @SuppressWarnings("deprecation")
@@ -116,16 +126,34 @@ public class  AnnotatedDataModelModule extends EnumModule {
         // All doubles are serialized by DoubleSerializer
         serializers.addSerializer(new DoubleSerializer());
         context.addSerializers(serializers);
+        context.addBeanDeserializerModifier(new ExtendedPropertiesDeserializerModifier());
+        context.addBeanSerializerModifier(new AlternateOffsets.Modifier());
+        AttributeFilter.configure(context);
+        options.configure(context);
     }
 
     /**
      * Register the Annotated Data Model Jackson module on an {@link ObjectMapper}.
+     * The mapper may use any Jackson backend; for binary formats such as Smile or CBOR,
+     * pass {@code new ObjectMapper(new SmileFactory())} or {@code new ObjectMapper(new CBORFactory())}.
+     * Smile output is smaller still with {@code SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES}
+     * enabled, which writes repeated strings, such as parts of speech, as back-references.
      * @param mapper the mapper.
      * @return the same mapper, for convenience.
      */
     public static ObjectMapper setupObjectMapper(ObjectMapper mapper) {
+        return setupObjectMapper(mapper, ModuleOptions.defaults());
+    }
+
+    /**
+     * Register the Annotated Data Model Jackson module on an {@link ObjectMapper}, with options.
+     * @param mapper the mapper.
+     * @param options the options, such as a string interner or an analysis cache.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper setupObjectMapper(ObjectMapper mapper, ModuleOptions options) {
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        final AnnotatedDataModelModule module = new AnnotatedDataModelModule();
+        final AnnotatedDataModelModule module = new AnnotatedDataModelModule(options);
         module.addSerializer(Double.class, new DoubleSerializer());
         mapper.registerModule(module);
 
@@ -22,18 +22,24 @@ import com.basistech.rosette.dm.Concept;
 import com.basistech.rosette.dm.Dependency;
 import com.basistech.rosette.dm.Embeddings;
 import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.IntervalIndex;
 import com.basistech.rosette.dm.Event;
 import com.basistech.rosette.dm.Keyphrase;
 import com.basistech.rosette.dm.LanguageDetection;
 import com.basistech.rosette.dm.LayoutRegion;
 import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.MapAttribute;
+import com.basistech.rosette.dm.OffsetIndex;
 import com.basistech.rosette.dm.RelationshipMention;
 import com.basistech.rosette.dm.ScriptRegion;
 import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.SimilarTerm;
 import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.TokenIndex;
 import com.basistech.rosette.dm.TranslatedData;
 import com.basistech.rosette.dm.TranslatedTokens;
 import com.basistech.rosette.dm.TransliterationResults;
+import com.basistech.util.LanguageCode;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -43,7 +49,6 @@ import com.fasterxml.jackson.databind.annotation.JsonAppend;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
-import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.util.List;
 import java.util.Map;
@@ -58,7 +63,7 @@ import java.util.Map;
 public abstract class AnnotatedTextMixin {
 
     @JsonCreator
-    AnnotatedTextMixin(@JsonProperty("data") CharSequence data,
+    AnnotatedTextMixin(@JsonProperty("data") @JsonDeserialize(using = DataDeserializer.class) CharSequence data,
                        @JsonProperty("attributes") Map<String, BaseAttribute> attributes,
                        @JsonProperty("documentMetadata") Map<String, List<String>> documentMetadata,
                        /* work around https://github.com/FasterXML/jackson-databind/issues/1118,
@@ -74,7 +79,7 @@ public abstract class AnnotatedTextMixin {
     public abstract Map<String, BaseAttribute> getAttributes();
 
     /* prevent Jackson from serializing a complex object here. */
-    @JsonSerialize(using = ToStringSerializer.class)
+    @JsonSerialize(using = DataSerializer.class)
     public abstract CharSequence getData();
 
     @JsonIgnore
@@ -144,4 +149,16 @@ public abstract class AnnotatedTextMixin {
 
     @JsonIgnore
     public abstract ListAttribute<Event> getEvents();
+
+    @JsonIgnore
+    public abstract MapAttribute<LanguageCode, ListAttribute<SimilarTerm>> getSimilarTerms();
+
+    @JsonIgnore
+    public abstract IntervalIndex getIntervalIndex();
+
+    @JsonIgnore
+    public abstract TokenIndex getTokenIndex();
+
+    @JsonIgnore
+    public abstract OffsetIndex getOffsetIndex();
 }
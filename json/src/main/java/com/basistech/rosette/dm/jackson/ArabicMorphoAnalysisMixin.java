@@ -18,6 +18,7 @@ package com.basistech.rosette.dm.jackson;
 import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -27,21 +28,21 @@ import java.util.Map;
  */
 public abstract class ArabicMorphoAnalysisMixin {
     @JsonCreator
-    ArabicMorphoAnalysisMixin(@JsonProperty("partOfSpeech") String partOfSpeech,
-                              @JsonProperty("lemma") String lemma,
+    ArabicMorphoAnalysisMixin(@JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("partOfSpeech") String partOfSpeech,
+                              @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("lemma") String lemma,
                               @JsonProperty("components") List<Token> components,
                               @JsonProperty("raw") String raw,
                               @JsonProperty("prefixLength") int prefixLength,
                               @JsonProperty("stemLength") int stemLength,
-                              @JsonProperty("root") String root,
+                              @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("root") String root,
                               @JsonProperty("definiteArticle") boolean definiteArticle,
                               @JsonProperty("strippablePrefix") boolean strippablePrefix,
-                              @JsonProperty("prefixes") List<String> prefixes,
-                              @JsonProperty("stems") List<String> stems,
-                              @JsonProperty("suffixes") List<String> suffixes,
-                              @JsonProperty("prefixTags") List<String> prefixTags,
-                              @JsonProperty("stemTags") List<String> stemTags,
-                              @JsonProperty("suffixTags") List<String> suffixTags,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("prefixes") List<String> prefixes,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("stems") List<String> stems,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("suffixes") List<String> suffixes,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("prefixTags") List<String> prefixTags,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("stemTags") List<String> stemTags,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("suffixTags") List<String> suffixTags,
                               @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
     }
 }
@@ -0,0 +1,201 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.BaseAttribute;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.deser.std.MapDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.type.MapType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads only some of the attributes of an {@code AnnotatedText}. A reader set up here skips
+ * every other attribute without binding it, so that a consumer that needs, say, only
+ * {@code token} and {@code entities} does not pay to decode large attributes such as
+ * {@code embeddings}, {@code dependency} or {@code translatedTokens}. The keys are those of
+ * {@link KnownAttribute#key()}, or any other attribute key. It works for both the plain and the
+ * array module, and for {@link AdmStreamReader}.
+ */
+public final class AttributeFilter {
+
+    private AttributeFilter() {
+        //
+    }
+
+    /**
+     * Returns a reader that reads only some attributes.
+     * @param reader the reader.
+     * @param keys the keys of the attributes to read.
+     * @return the new reader.
+     */
+    public static ObjectReader only(ObjectReader reader, String... keys) {
+        return only(reader, Arrays.asList(keys));
+    }
+
+    /**
+     * Returns a reader that reads only some attributes.
+     * @param reader the reader.
+     * @param keys the keys of the attributes to read.
+     * @return the new reader.
+     */
+    public static ObjectReader only(ObjectReader reader, Collection<String> keys) {
+        return reader.withAttribute(AttributeFilter.class, copy(keys));
+    }
+
+    /**
+     * Makes a mapper read only some attributes whenever it reads.
+     * @param mapper the mapper.
+     * @param keys the keys of the attributes to read.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper only(ObjectMapper mapper, String... keys) {
+        return only(mapper, Arrays.asList(keys));
+    }
+
+    /**
+     * Makes a mapper read only some attributes whenever it reads.
+     * @param mapper the mapper.
+     * @param keys the keys of the attributes to read.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper only(ObjectMapper mapper, Collection<String> keys) {
+        mapper.setConfig(mapper.getDeserializationConfig().withAttribute(AttributeFilter.class, copy(keys)));
+        return mapper;
+    }
+
+    /**
+     * Lets the mapper that is setting up a module read only some attributes.
+     * @param context the module setup context.
+     */
+    public static void configure(Module.SetupContext context) {
+        context.addBeanDeserializerModifier(new Modifier());
+    }
+
+    private static Set<String> copy(Collection<String> keys) {
+        return Collections.unmodifiableSet(new HashSet<>(keys));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Set<String> keys(DeserializationContext ctxt) {
+        return (Set<String>) ctxt.getAttribute(AttributeFilter.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Set<String> keys(DeserializationConfig config) {
+        return (Set<String>) config.getAttributes().getAttribute(AttributeFilter.class);
+    }
+
+    /**
+     * Wraps the deserializers of attribute maps. Only the wrapper of the {@code attributes}
+     * property of {@code AnnotatedText} filters; any other attribute map is read whole.
+     */
+    static class Modifier extends BeanDeserializerModifier {
+        @Override
+        public JsonDeserializer<?> modifyMapDeserializer(DeserializationConfig config, MapType type, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+            if (deserializer instanceof MapDeserializer
+                    && type.getKeyType().hasRawClass(String.class)
+                    && type.getContentType().hasRawClass(BaseAttribute.class)) {
+                return new FilteringDeserializer(deserializer, type.getContentType().getTypeHandler(), null);
+            }
+            return deserializer;
+        }
+    }
+
+    /*
+     * Reads the map itself when there is a filter, binding the values it keeps just as the
+     * map deserializer would, and leaves the rest to the map deserializer. Contextualization
+     * drops the wrapper unless the map is the attributes of AnnotatedText.
+     */
+    static class FilteringDeserializer extends DelegatingDeserializer {
+        private static final long serialVersionUID = 250L;
+
+        private final TypeDeserializer valueTypeDeserializer;
+        private final BeanProperty property;
+
+        FilteringDeserializer(JsonDeserializer<?> delegate, TypeDeserializer valueTypeDeserializer, BeanProperty property) {
+            super(delegate);
+            this.valueTypeDeserializer = valueTypeDeserializer;
+            this.property = property;
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new FilteringDeserializer(newDelegatee, valueTypeDeserializer, property);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            JsonDeserializer<?> delegatee = ctxt.handleSecondaryContextualization(_delegatee, property, ctxt.constructType(_delegatee.handledType()));
+            if (property == null || property.getMember() == null || property.getMember().getDeclaringClass() != AnnotatedText.class) {
+                return delegatee;
+            }
+            return new FilteringDeserializer(delegatee, valueTypeDeserializer, property);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Set<String> keys = keys(ctxt);
+            if (keys == null || !(_delegatee instanceof MapDeserializer)) {
+                return super.deserialize(p, ctxt);
+            }
+            JsonToken t = p.currentToken();
+            if (t == JsonToken.START_OBJECT) {
+                t = p.nextToken();
+            } else if (t != JsonToken.FIELD_NAME && t != JsonToken.END_OBJECT) {
+                return super.deserialize(p, ctxt);
+            }
+            JsonDeserializer<Object> valueDeserializer = ((MapDeserializer) _delegatee).getContentDeserializer();
+            TypeDeserializer typeDeserializer = valueTypeDeserializer == null ? null : valueTypeDeserializer.forProperty(property);
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            for (; t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+                String key = p.getCurrentName();
+                t = p.nextToken();
+                if (!keys.contains(key)) {
+                    p.skipChildren();
+                } else if (t == JsonToken.VALUE_NULL) {
+                    attributes.put(key, valueDeserializer.getNullValue(ctxt));
+                } else if (typeDeserializer == null) {
+                    attributes.put(key, valueDeserializer.deserialize(p, ctxt));
+                } else {
+                    attributes.put(key, valueDeserializer.deserializeWithType(p, ctxt, typeDeserializer));
+                }
+            }
+            return attributes;
+        }
+    }
+}
@@ -16,13 +16,16 @@
 package com.basistech.rosette.dm.jackson;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Map;
 
 /**
  * Mixin class to allow Jackson to use a constructor for 'Attribute'.
+ * The offsets written by {@link AlternateOffsets} are ignored when reading.
  */
+@JsonIgnoreProperties(value = {"utf8StartOffset", "utf8EndOffset", "codePointStartOffset", "codePointEndOffset"}, allowGetters = true)
 public class AttributeMixin {
     @JsonCreator
     public AttributeMixin(@JsonProperty("startOffset") int startOffset,
@@ -0,0 +1,121 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.UnknownAttribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A registry of attribute types used in json: it maps the type keys written for
+ * polymorphic attributes and for the items of lists and maps to attribute classes, and back.
+ * The {@linkplain #builtIn() built-in registry} holds the {@link KnownAttribute} values.
+ * Applications that extend the model with their own attribute classes may build a registry that
+ * also has them, and pass it to a module through {@link ModuleOptions.Builder#attributeTypes(AttributeTypes)},
+ * so that the mappers that use the module read them back as themselves instead of as
+ * {@link UnknownAttribute}. Other mappers are not affected.
+ * <pre>
+ * AttributeTypes types = new AttributeTypes.Builder().register("color", Color.class).build();
+ * ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(),
+ *     new ModuleOptions.Builder().attributeTypes(types).build());
+ * </pre>
+ * Registries are immutable; lookups by class and by key go through hash maps.
+ */
+public final class AttributeTypes {
+    private static final AttributeTypes BUILT_IN = new Builder().build();
+
+    private final Map<String, Class<? extends BaseAttribute>> classesByKey;
+    private final Map<Class<?>, String> keysByClass;
+
+    private AttributeTypes(Builder builder) {
+        this.classesByKey = new HashMap<>(builder.classesByKey);
+        this.keysByClass = new HashMap<>(builder.keysByClass);
+    }
+
+    /**
+     * @return the registry of the {@link KnownAttribute} types.
+     */
+    public static AttributeTypes builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Returns the attribute class for a type key.
+     *
+     * @param key the type key
+     * @return the class, or {@link UnknownAttribute} if the key is not registered
+     */
+    public Class<? extends BaseAttribute> classForKey(String key) {
+        Class<? extends BaseAttribute> attributeClass = key == null ? null : classesByKey.get(key);
+        return attributeClass == null ? UnknownAttribute.class : attributeClass;
+    }
+
+    /**
+     * Returns the type key for an attribute class. Only the exact class is considered,
+     * not its superclasses.
+     *
+     * @param attributeClass the attribute class
+     * @return the key, or the key of {@link KnownAttribute#UNKNOWN} if the class is not registered
+     */
+    public String keyForClass(Class<?> attributeClass) {
+        String key = keysByClass.get(attributeClass);
+        return key == null ? KnownAttribute.UNKNOWN.key() : key;
+    }
+
+    /**
+     * Builder for {@link AttributeTypes}; it starts out with the {@link KnownAttribute} types.
+     */
+    public static class Builder {
+        private final Map<String, Class<? extends BaseAttribute>> classesByKey = new HashMap<>();
+        private final Map<Class<?>, String> keysByClass = new HashMap<>();
+
+        public Builder() {
+            for (KnownAttribute attribute : KnownAttribute.values()) {
+                classesByKey.put(attribute.key(), attribute.attributeClass());
+                // several keys share CategorizerResult; the first one listed is written.
+                keysByClass.putIfAbsent(attribute.attributeClass(), attribute.key());
+            }
+        }
+
+        /**
+         * Registers an application attribute type. If the class is already registered under
+         * another key, it keeps writing that key, and is also read from the new one.
+         *
+         * @param key the type key used in json
+         * @param attributeClass the attribute class
+         * @return this
+         * @throws IllegalArgumentException if the key is already registered for another class
+         */
+        public Builder register(String key, Class<? extends BaseAttribute> attributeClass) {
+            Class<? extends BaseAttribute> existing = classesByKey.putIfAbsent(key, attributeClass);
+            if (existing != null && existing != attributeClass) {
+                throw new IllegalArgumentException("Attribute type " + key + " is already registered for " + existing.getName());
+            }
+            keysByClass.putIfAbsent(attributeClass, key);
+            return this;
+        }
+
+        /**
+         * @return the registry.
+         */
+        public AttributeTypes build() {
+            return new AttributeTypes(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.CompactCharSequence;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads the character data of an {@link com.basistech.rosette.dm.AnnotatedText}.
+ * By default the data is a string. When compact data is enabled, with {@link #compact(ObjectMapper)}
+ * or {@link #compact(ObjectReader)}, the data is built as a {@link CompactCharSequence} straight from
+ * the parser's text buffer, without an intermediate string.
+ */
+public class DataDeserializer extends JsonDeserializer<CharSequence> {
+
+    @Override
+    public CharSequence deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (jp.hasToken(JsonToken.VALUE_STRING) && Boolean.TRUE.equals(ctxt.getAttribute(CompactCharSequence.class))) {
+            return CompactCharSequence.of(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+        }
+        return StringDeserializer.instance.deserialize(jp, ctxt);
+    }
+
+    /**
+     * Makes a mapper read the data of texts as {@link CompactCharSequence}s.
+     * @param mapper the mapper.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper compact(ObjectMapper mapper) {
+        mapper.setConfig(mapper.getDeserializationConfig().withAttribute(CompactCharSequence.class, Boolean.TRUE));
+        return mapper;
+    }
+
+    /**
+     * Returns a reader that reads the data of texts as {@link CompactCharSequence}s.
+     * @param reader the reader.
+     * @return the new reader.
+     */
+    public static ObjectReader compact(ObjectReader reader) {
+        return reader.withAttribute(CompactCharSequence.class, Boolean.TRUE);
+    }
+}
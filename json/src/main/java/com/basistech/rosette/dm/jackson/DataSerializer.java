@@ -0,0 +1,47 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.MappedCharSequence;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the character data of an {@link com.basistech.rosette.dm.AnnotatedText} as a string.
+ * A {@link MappedCharSequence} is streamed to json generators in blocks, so that writing
+ * a very large document does not copy its text to the heap.
+ */
+public class DataSerializer extends StdSerializer<CharSequence> {
+    private static final long serialVersionUID = 250L;
+
+    public DataSerializer() {
+        super(CharSequence.class);
+    }
+
+    @Override
+    public void serialize(CharSequence value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value instanceof MappedCharSequence && gen instanceof JsonGeneratorImpl) {
+            gen.writeString(((MappedCharSequence) value).reader(), value.length());
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+}
@@ -24,6 +24,19 @@ import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
  * Jackson custom type info resolver for the data model.
  */
 public class DmTypeIdResolver extends TypeIdResolverBase {
+    private final AttributeTypes types;
+
+    public DmTypeIdResolver() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public DmTypeIdResolver(AttributeTypes types) {
+        this.types = types;
+    }
 
     @Override
     public void init(JavaType javaType) {
@@ -37,17 +50,13 @@ public class DmTypeIdResolver extends TypeIdResolverBase {
 
     @Override
     public String idFromValueAndType(Object o, Class<?> aClass) {
-        KnownAttribute attribute = KnownAttribute.getAttributeForClass(o.getClass());
-        return attribute.key();
+        return types.keyForClass(o.getClass());
     }
 
     @Override
     public JavaType typeFromId(DatabindContext context, String id) {
-        KnownAttribute attribute = KnownAttribute.getAttributeForKey(id);
-        if (attribute == null) {
-            attribute = KnownAttribute.UNKNOWN; // extension mechanism, build a BaseAttribute.
-        }
-        return context.constructType(attribute.attributeClass());
+        // unregistered keys are the extension mechanism; they build an UnknownAttribute.
+        return context.constructType(types.classForKey(id));
     }
 
     @Override
@@ -43,6 +43,8 @@ public class DoubleSerializer extends StdSerializer<Double> {
 
     /**
      * Method to serialize Double values in {@link com.basistech.rosette.dm.AnnotatedText} globally.
+     * Textual output is truncated to 8 digits below the decimal point. Binary formats, such as Smile
+     * and CBOR, take the same space for any double, so they get the exact value.
      *
      * @param value       Value to serialize; can <b>not</b> be null.
      * @param gen         Generator used to output resulting Json content
@@ -50,7 +52,33 @@ public class DoubleSerializer extends StdSerializer<Double> {
      */
     @Override
     public void serialize(Double value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (gen.canWriteBinaryNatively() || value.isNaN() || value.isInfinite()) {
+            gen.writeNumber(value);
+            return;
+        }
+        if (hasFewFractionDigits(value)) {
+            // formatting would give back the same digits.
+            gen.writeNumber(value);
+            return;
+        }
         // truncate to 8 digits below decimal for all Double fields.
-        gen.writeNumber(Double.parseDouble(numberFormat.format(value)));
+        String truncated;
+        synchronized (numberFormat) {
+            truncated = numberFormat.format(value);
+        }
+        gen.writeNumber(Double.parseDouble(truncated));
+    }
+
+    /*
+     * Whether the value is the double nearest to a decimal with at most 8 digits below the point.
+     * Below 1e7 a double is much closer than 0.5e-8 to that decimal, so formatting gives it back.
+     */
+    private static boolean hasFewFractionDigits(double value) {
+        if (Math.abs(value) >= 1e7) {
+            return false;
+        }
+        double scaled = Math.rint(value * 1e8);
+        return scaled / 1e8 == value;
     }
+
 }
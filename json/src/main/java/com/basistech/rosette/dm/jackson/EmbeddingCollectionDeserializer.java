@@ -0,0 +1,169 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.EmbeddingCollection;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads an {@link EmbeddingCollection} without building an intermediate map of boxed keys;
+ * each vector is parsed into a reusable buffer.
+ * Also reads the compact reduced-precision forms written by {@link EmbeddingCollectionSerializer},
+ * as an object or as an array.
+ */
+public class EmbeddingCollectionDeserializer extends JsonDeserializer<EmbeddingCollection> {
+    @Override
+    public EmbeddingCollection deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        EmbeddingCollection.Builder builder = new EmbeddingCollection.Builder();
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.START_ARRAY) {
+            return readCompactArray(jp, ctxt);
+        }
+        if (token == JsonToken.START_OBJECT) {
+            token = jp.nextToken();
+        }
+        EmbeddingCollection.Precision precision = null;
+        int[] indices = null;
+        int dimension = -1;
+        int[] lengths = null;
+        float[] scales = null;
+        byte[] values = null;
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String name = jp.getCurrentName();
+            token = jp.nextToken();
+            switch (name) {
+            case "embeddings":
+                if (token == JsonToken.START_OBJECT) {
+                    readVectors(jp, ctxt, builder);
+                } else if (token != JsonToken.VALUE_NULL) {
+                    return (EmbeddingCollection) ctxt.handleUnexpectedToken(EmbeddingCollection.class, jp);
+                }
+                break;
+            case "precision":
+                precision = readPrecision(jp, ctxt);
+                break;
+            case "indices":
+                indices = jp.readValueAs(int[].class);
+                break;
+            case "dimension":
+                dimension = jp.getIntValue();
+                break;
+            case "lengths":
+                lengths = jp.readValueAs(int[].class);
+                break;
+            case "scales":
+                scales = jp.readValueAs(float[].class);
+                break;
+            case "values":
+                values = jp.getBinaryValue();
+                break;
+            default:
+                ctxt.handleUnknownProperty(jp, this, EmbeddingCollection.class, name);
+                break;
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (EmbeddingCollection) ctxt.handleUnexpectedToken(EmbeddingCollection.class, jp);
+        }
+        if (precision != null) {
+            return decode(ctxt, precision, indices, dimension, lengths, scales, values);
+        }
+        return builder.build();
+    }
+
+    private EmbeddingCollection readCompactArray(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        jp.nextToken();
+        EmbeddingCollection.Precision precision = readPrecision(jp, ctxt);
+        jp.nextToken();
+        int[] indices = jp.readValueAs(int[].class);
+        int dimension = -1;
+        int[] lengths = null;
+        if (jp.nextToken() == JsonToken.START_ARRAY) {
+            lengths = jp.readValueAs(int[].class);
+        } else {
+            dimension = jp.getIntValue();
+        }
+        jp.nextToken();
+        float[] scales = jp.readValueAs(float[].class);
+        jp.nextToken();
+        byte[] values = jp.getBinaryValue();
+        if (jp.nextToken() != JsonToken.END_ARRAY) {
+            return (EmbeddingCollection) ctxt.handleUnexpectedToken(EmbeddingCollection.class, jp);
+        }
+        return decode(ctxt, precision, indices, dimension, lengths, scales, values);
+    }
+
+    private static EmbeddingCollection.Precision readPrecision(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        try {
+            return EmbeddingCollection.Precision.valueOf(jp.getText());
+        } catch (IllegalArgumentException e) {
+            throw ctxt.weirdStringException(jp.getText(), EmbeddingCollection.Precision.class, "not a valid precision");
+        }
+    }
+
+    private static EmbeddingCollection decode(DeserializationContext ctxt, EmbeddingCollection.Precision precision, int[] indices,
+                                              int dimension, int[] lengths, float[] scales, byte[] values) throws IOException {
+        if (indices == null || values == null || (lengths == null && dimension < 0)) {
+            throw JsonMappingException.from(ctxt.getParser(), "Reduced-precision embeddings require indices, values and a dimension or lengths");
+        }
+        if (lengths == null) {
+            lengths = new int[indices.length];
+            Arrays.fill(lengths, dimension);
+        }
+        try {
+            return EmbeddingCollection.decode(precision, indices, lengths, scales, values);
+        } catch (IllegalArgumentException e) {
+            throw JsonMappingException.from(ctxt.getParser(), e.getMessage());
+        }
+    }
+
+    private void readVectors(JsonParser jp, DeserializationContext ctxt, EmbeddingCollection.Builder builder) throws IOException {
+        float[] buffer = new float[64];
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            int index;
+            try {
+                index = Integer.parseInt(jp.getCurrentName());
+            } catch (NumberFormatException e) {
+                throw ctxt.weirdKeyException(Integer.class, jp.getCurrentName(), "not a valid item index");
+            }
+            if (jp.nextToken() != JsonToken.START_ARRAY) {
+                ctxt.handleUnexpectedToken(float[].class, jp);
+            }
+            int length = 0;
+            JsonToken token;
+            while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    // non-finite values, such as "NaN"
+                    buffer[length++] = Float.parseFloat(jp.getText());
+                } else {
+                    buffer[length++] = jp.getFloatValue();
+                }
+            }
+            builder.put(index, Arrays.copyOf(buffer, length));
+        }
+    }
+}
@@ -16,14 +16,14 @@
 
 package com.basistech.rosette.dm.jackson;
 
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonProperty;
-
-import java.util.Map;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+/**
+ * {@link com.basistech.rosette.dm.EmbeddingCollection}.
+ * The collection is written from, and read into, its dense storage.
+ */
+@JsonSerialize(using = EmbeddingCollectionSerializer.class)
+@JsonDeserialize(using = EmbeddingCollectionDeserializer.class)
 public abstract class EmbeddingCollectionMixin {
-    @JsonCreator
-    public EmbeddingCollectionMixin(@JsonProperty("embeddings") Map<Integer, float[]> embeddings) {
-        //
-    }
 }
@@ -0,0 +1,153 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.EmbeddingCollection;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link EmbeddingCollection} straight from its dense storage, in the same
+ * {@code {"embeddings":{"index":[values]}}} form as the map-based serialization.
+ * Collections stored at reduced precision are written in a compact form that carries the
+ * encoded values as binary (base64 in JSON):
+ * {@code {"precision":"FLOAT16","indices":[...],"dimension":d,"values":"..."}}, with
+ * {@code "lengths":[...]} in place of {@code "dimension"} when the vectors differ in length,
+ * and {@code "scales":[...]} for {@link EmbeddingCollection.Precision#INT8}.
+ */
+public class EmbeddingCollectionSerializer extends JsonSerializer<EmbeddingCollection> {
+    private final boolean arrayShape;
+
+    public EmbeddingCollectionSerializer() {
+        this(false);
+    }
+
+    /**
+     * @param arrayShape whether to write reduced-precision collections as
+     *                   {@code [precision, indices, dimension-or-lengths, scales, values]}.
+     */
+    protected EmbeddingCollectionSerializer(boolean arrayShape) {
+        this.arrayShape = arrayShape;
+    }
+
+    @Override
+    public void serialize(EmbeddingCollection value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        if (value.precision() != EmbeddingCollection.Precision.FLOAT32) {
+            if (arrayShape) {
+                writeCompactArray(value, jgen);
+            } else {
+                writeCompactObject(value, jgen);
+            }
+            return;
+        }
+        jgen.writeStartObject();
+        int[] indices = value.indices();
+        if (indices.length == 0) {
+            JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(EmbeddingCollection.class).getValueInclusion();
+            if (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS) {
+                jgen.writeNullField("embeddings");
+            }
+        } else {
+            jgen.writeObjectFieldStart("embeddings");
+            int dimension = value.dimension();
+            float[] buffer = dimension >= 0 ? new float[dimension] : null;
+            for (int index : indices) {
+                jgen.writeFieldName(Integer.toString(index));
+                float[] vector = buffer;
+                int length;
+                if (vector != null) {
+                    length = value.copyVector(index, vector, 0);
+                } else {
+                    vector = value.vector(index);
+                    length = vector.length;
+                }
+                jgen.writeStartArray();
+                for (int x = 0; x < length; x++) {
+                    jgen.writeNumber(vector[x]);
+                }
+                jgen.writeEndArray();
+            }
+            jgen.writeEndObject();
+        }
+        jgen.writeEndObject();
+    }
+
+    private static void writeCompactObject(EmbeddingCollection value, JsonGenerator jgen) throws IOException {
+        jgen.writeStartObject();
+        jgen.writeStringField("precision", value.precision().name());
+        int[] indices = value.indices();
+        jgen.writeFieldName("indices");
+        jgen.writeArray(indices, 0, indices.length);
+        int dimension = value.dimension();
+        if (dimension >= 0) {
+            jgen.writeNumberField("dimension", dimension);
+        } else {
+            int[] lengths = lengths(value, indices);
+            jgen.writeFieldName("lengths");
+            jgen.writeArray(lengths, 0, lengths.length);
+        }
+        float[] scales = value.scales();
+        if (scales != null) {
+            jgen.writeFieldName("scales");
+            writeFloats(scales, jgen);
+        }
+        jgen.writeBinaryField("values", value.encodedValues());
+        jgen.writeEndObject();
+    }
+
+    private static void writeCompactArray(EmbeddingCollection value, JsonGenerator jgen) throws IOException {
+        jgen.writeStartArray();
+        jgen.writeString(value.precision().name());
+        int[] indices = value.indices();
+        jgen.writeArray(indices, 0, indices.length);
+        int dimension = value.dimension();
+        if (dimension >= 0) {
+            jgen.writeNumber(dimension);
+        } else {
+            int[] lengths = lengths(value, indices);
+            jgen.writeArray(lengths, 0, lengths.length);
+        }
+        float[] scales = value.scales();
+        if (scales != null) {
+            writeFloats(scales, jgen);
+        } else {
+            jgen.writeNull();
+        }
+        jgen.writeBinary(value.encodedValues());
+        jgen.writeEndArray();
+    }
+
+    private static int[] lengths(EmbeddingCollection value, int[] indices) {
+        int[] lengths = new int[indices.length];
+        for (int x = 0; x < indices.length; x++) {
+            lengths[x] = value.vector(indices[x]).length;
+        }
+        return lengths;
+    }
+
+    private static void writeFloats(float[] values, JsonGenerator jgen) throws IOException {
+        jgen.writeStartArray();
+        for (float v : values) {
+            jgen.writeNumber(v);
+        }
+        jgen.writeEndArray();
+    }
+}
@@ -17,6 +17,7 @@ package com.basistech.rosette.dm.jackson;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.Map;
 
@@ -27,13 +28,13 @@ public abstract class EntityMentionMixin {
     @JsonCreator
     EntityMentionMixin(@JsonProperty("startOffset") int startOffset,
                        @JsonProperty("endOffset") int endOffset,
-                       @JsonProperty("entityType") String entityType,
+                       @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("entityType") String entityType,
                        @JsonProperty("coreferenceChainId") Integer coreferenceChainId,
                        @JsonProperty("confidence") Double confidence,
                        @JsonProperty("linkingConfidence") Double linkingConfidence,
                        @JsonProperty("flags") Integer flags,
-                       @JsonProperty("source") String source,
-                       @JsonProperty("subsource") String subsource,
+                       @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("source") String source,
+                       @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("subsource") String subsource,
                        @JsonProperty("normalized") String normalized,
                        @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
         //
@@ -19,6 +19,7 @@ import com.basistech.rosette.dm.CategorizerResult;
 import com.basistech.rosette.dm.Mention;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -30,7 +31,7 @@ public abstract class EntityMixin {
     @JsonCreator
     EntityMixin(@JsonProperty("mentions") List<Mention> mentions,
                 @JsonProperty("headMentionIndex") Integer headMentionIndex,
-                @JsonProperty("type") String type,
+                @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("type") String type,
                 @JsonProperty("entityId") String entityId,
                 @JsonProperty("confidence") Double confidence,
                 @JsonProperty("sentiment") List<CategorizerResult> sentiment,
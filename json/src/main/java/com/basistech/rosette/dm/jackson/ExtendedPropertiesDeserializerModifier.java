@@ -0,0 +1,82 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.BaseAttribute;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Lets bean-deserialized attributes collect their extended properties in a mutable map
+ * and freezes that map once, when the attribute is complete, instead of copying an
+ * immutable map for every property.
+ * See {@link BaseAttribute#freezeExtendedProperties()}.
+ */
+class ExtendedPropertiesDeserializerModifier extends BeanDeserializerModifier {
+    @Override
+    public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+        if (deserializer instanceof BeanDeserializerBase && BaseAttribute.class.isAssignableFrom(beanDesc.getBeanClass())) {
+            return new FreezingDeserializer(deserializer);
+        }
+        return deserializer;
+    }
+
+    static class FreezingDeserializer extends DelegatingDeserializer {
+        private static final long serialVersionUID = 250L;
+
+        FreezingDeserializer(JsonDeserializer<?> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new FreezingDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return freeze(super.deserialize(p, ctxt));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object deserialize(JsonParser p, DeserializationContext ctxt, Object intoValue) throws IOException {
+            return freeze(((JsonDeserializer<Object>) _delegatee).deserialize(p, ctxt, intoValue));
+        }
+
+        @Override
+        public Object deserializeWithType(JsonParser p, DeserializationContext ctxt, TypeDeserializer typeDeserializer) throws IOException {
+            return freeze(super.deserializeWithType(p, ctxt, typeDeserializer));
+        }
+
+        private static Object freeze(Object value) {
+            if (value instanceof BaseAttribute) {
+                ((BaseAttribute) value).freezeExtendedProperties();
+            }
+            return value;
+        }
+    }
+}
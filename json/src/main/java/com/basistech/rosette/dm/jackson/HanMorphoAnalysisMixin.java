@@ -18,6 +18,7 @@ package com.basistech.rosette.dm.jackson;
 import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -27,11 +28,11 @@ import java.util.Map;
  */
 public abstract class HanMorphoAnalysisMixin {
     @JsonCreator
-    HanMorphoAnalysisMixin(@JsonProperty("partOfSpeech") String partOfSpeech,
-                           @JsonProperty("lemma") String lemma,
+    HanMorphoAnalysisMixin(@JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("partOfSpeech") String partOfSpeech,
+                           @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("lemma") String lemma,
                            @JsonProperty("components") List<Token> components,
                            @JsonProperty("raw") String raw,
-                           @JsonProperty("readings") List<String> readings,
+                           @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("readings") List<String> readings,
                            @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
         //
     }
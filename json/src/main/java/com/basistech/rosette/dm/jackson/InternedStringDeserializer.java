@@ -0,0 +1,53 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.StringInterner;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a string and interns it with the {@link StringInterner} of the module's
+ * {@link ModuleOptions}, if any.
+ * The mixins use this for the fields whose values repeat across a batch, such as parts of speech,
+ * lemmas, entity types and mention sources.
+ */
+public class InternedStringDeserializer extends JsonDeserializer<String> {
+    private final StringInterner interner;
+
+    public InternedStringDeserializer() {
+        this(null);
+    }
+
+    /**
+     * Constructs a deserializer that interns with an interner.
+     * @param interner the interner, or {@code null} for none.
+     */
+    public InternedStringDeserializer(StringInterner interner) {
+        this.interner = interner;
+    }
+
+    @Override
+    public String deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        String value = StringDeserializer.instance.deserialize(jp, ctxt);
+        return interner == null ? value : interner.intern(value);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.ColumnarTokens;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.LanguageDetection;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.Token;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the items of the most common list attributes (tokens, sentences, entities and
+ * language detections) straight to the generator, rather than through a bean serializer
+ * for each item. The output is byte for byte the same as the default serialization
+ * with NON_NULL inclusion; other item types, subclasses, and any configuration that
+ * would change the default output are left to databind.
+ * Nested values that are rare or have their own serializers, such as analyses, sentiment
+ * and extended properties, are still written by databind.
+ */
+final class ItemWriters {
+    private final JsonGenerator jgen;
+    private final SerializerProvider provider;
+    private final JsonSerializer<Object> doubleSerializer;
+
+    private ItemWriters(JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        this.jgen = jgen;
+        this.provider = provider;
+        this.doubleSerializer = provider.findValueSerializer(Double.class);
+    }
+
+    /**
+     * Writes the items as an array, if they are of a type that is written directly.
+     * @return whether the items were written.
+     */
+    static boolean writeItems(List<?> items, Class<?> itemClass, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        if (!(items instanceof ColumnarTokens || itemClass == Token.class || itemClass == Sentence.class
+                || itemClass == Entity.class || itemClass == LanguageDetection.class)
+                || !defaultOutput(itemClass, provider)) {
+            return false;
+        }
+        ItemWriters writers = new ItemWriters(jgen, provider);
+        if (items instanceof ColumnarTokens) {
+            writers.writeColumnarTokens((ColumnarTokens) items);
+            return true;
+        }
+        jgen.writeStartArray();
+        for (Object item : items) {
+            writers.writeItem(item);
+        }
+        jgen.writeEndArray();
+        return true;
+    }
+
+    private static boolean defaultOutput(Class<?> itemClass, SerializerProvider provider) {
+        return provider.getConfig().getDefaultPropertyInclusion(itemClass).getValueInclusion() == JsonInclude.Include.NON_NULL
+                && !provider.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                && !provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                && provider.getActiveView() == null;
+    }
+
+    private void writeItem(Object item) throws IOException {
+        // exact classes only; a subclass may have properties of its own.
+        Class<?> itemClass = item == null ? null : item.getClass();
+        if (itemClass == Token.class) {
+            writeToken((Token) item);
+        } else if (itemClass == Sentence.class) {
+            writeSentence((Sentence) item);
+        } else if (itemClass == Entity.class) {
+            writeEntity((Entity) item);
+        } else if (itemClass == LanguageDetection.class) {
+            writeLanguageDetection((LanguageDetection) item);
+        } else {
+            provider.defaultSerializeValue(item, jgen);
+        }
+    }
+
+    private void writeToken(Token token) throws IOException {
+        jgen.writeStartObject();
+        writeOffsets(token.getStartOffset(), token.getEndOffset());
+        writeString("text", token.getText());
+        writeStrings("normalized", token.getNormalized());
+        writeString("source", token.getSource());
+        writeAnalyses(token.getAnalyses());
+        writeExtendedProperties(token);
+        jgen.writeEndObject();
+    }
+
+    /*
+     * Writes the tokens straight from the columns, without creating Token objects.
+     */
+    private void writeColumnarTokens(ColumnarTokens tokens) throws IOException {
+        jgen.writeStartArray();
+        for (int index = 0; index < tokens.size(); index++) {
+            jgen.writeStartObject();
+            writeOffsets(tokens.startOffset(index), tokens.endOffset(index));
+            writeString("text", tokens.text(index));
+            writeStrings("normalized", tokens.normalized(index));
+            writeString("source", tokens.source(index));
+            writeAnalyses(tokens.analyses(index));
+            writeExtendedProperties(tokens.extendedProperties(index));
+            jgen.writeEndObject();
+        }
+        jgen.writeEndArray();
+    }
+
+    private void writeSentence(Sentence sentence) throws IOException {
+        jgen.writeStartObject();
+        writeOffsets(sentence.getStartOffset(), sentence.getEndOffset());
+        writeExtendedProperties(sentence);
+        jgen.writeEndObject();
+    }
+
+    private void writeEntity(Entity entity) throws IOException {
+        jgen.writeStartObject();
+        List<Mention> mentions = entity.getMentions();
+        if (mentions != null) {
+            jgen.writeArrayFieldStart("mentions");
+            for (Mention mention : mentions) {
+                if (mention != null && mention.getClass() == Mention.class) {
+                    writeMention(mention);
+                } else {
+                    provider.defaultSerializeValue(mention, jgen);
+                }
+            }
+            jgen.writeEndArray();
+        }
+        if (entity.getHeadMentionIndex() != null) {
+            jgen.writeNumberField("headMentionIndex", entity.getHeadMentionIndex());
+        }
+        writeString("type", entity.getType());
+        writeString("entityId", entity.getEntityId());
+        writeDouble("confidence", entity.getConfidence());
+        if (entity.getSentiment() != null) {
+            provider.defaultSerializeField("sentiment", entity.getSentiment(), jgen);
+        }
+        writeDouble("salience", entity.getSalience());
+        writeExtendedProperties(entity);
+        jgen.writeEndObject();
+    }
+
+    private void writeMention(Mention mention) throws IOException {
+        jgen.writeStartObject();
+        writeOffsets(mention.getStartOffset(), mention.getEndOffset());
+        writeDouble("confidence", mention.getConfidence());
+        writeDouble("linkingConfidence", mention.getLinkingConfidence());
+        writeString("source", mention.getSource());
+        writeString("subsource", mention.getSubsource());
+        writeString("normalized", mention.getNormalized());
+        writeExtendedProperties(mention);
+        jgen.writeEndObject();
+    }
+
+    private void writeLanguageDetection(LanguageDetection detection) throws IOException {
+        jgen.writeStartObject();
+        writeOffsets(detection.getStartOffset(), detection.getEndOffset());
+        List<LanguageDetection.DetectionResult> results = detection.getDetectionResults();
+        if (results != null) {
+            jgen.writeArrayFieldStart("detectionResults");
+            for (LanguageDetection.DetectionResult result : results) {
+                if (result != null && result.getClass() == LanguageDetection.DetectionResult.class) {
+                    writeDetectionResult(result);
+                } else {
+                    provider.defaultSerializeValue(result, jgen);
+                }
+            }
+            jgen.writeEndArray();
+        }
+        writeExtendedProperties(detection);
+        jgen.writeEndObject();
+    }
+
+    private void writeDetectionResult(LanguageDetection.DetectionResult result) throws IOException {
+        jgen.writeStartObject();
+        if (result.getLanguage() != null) {
+            // as LanguageCodeSerializationConverter does.
+            jgen.writeStringField("language", result.getLanguage().ISO639_3());
+        }
+        writeString("encoding", result.getEncoding());
+        if (result.getScript() != null) {
+            provider.defaultSerializeField("script", result.getScript(), jgen);
+        }
+        writeDouble("confidence", result.getConfidence());
+        writeExtendedProperties(result);
+        jgen.writeEndObject();
+    }
+
+    private void writeOffsets(int startOffset, int endOffset) throws IOException {
+        jgen.writeNumberField("startOffset", startOffset);
+        jgen.writeNumberField("endOffset", endOffset);
+        AlternateOffsets.writeOffsets(startOffset, endOffset, jgen, provider);
+    }
+
+    private void writeString(String name, String value) throws IOException {
+        if (value != null) {
+            jgen.writeStringField(name, value);
+        }
+    }
+
+    private void writeStrings(String name, List<String> values) throws IOException {
+        if (values != null) {
+            jgen.writeArrayFieldStart(name);
+            for (String value : values) {
+                jgen.writeString(value);
+            }
+            jgen.writeEndArray();
+        }
+    }
+
+    private void writeDouble(String name, Double value) throws IOException {
+        if (value != null) {
+            jgen.writeFieldName(name);
+            doubleSerializer.serialize(value, jgen, provider);
+        }
+    }
+
+    private void writeAnalyses(List<MorphoAnalysis> analyses) throws IOException {
+        if (analyses != null) {
+            provider.defaultSerializeField("analyses", analyses, jgen);
+        }
+    }
+
+    private void writeExtendedProperties(BaseAttribute attribute) throws IOException {
+        writeExtendedProperties(attribute.getExtendedProperties());
+    }
+
+    private void writeExtendedProperties(Map<String, Object> extendedProperties) throws IOException {
+        if (extendedProperties != null) {
+            for (Map.Entry<String, Object> entry : extendedProperties.entrySet()) {
+                provider.defaultSerializeField(entry.getKey(), entry.getValue(), jgen);
+            }
+        }
+    }
+}
@@ -39,11 +39,15 @@ import com.basistech.rosette.dm.TranslatedTokens;
 import com.basistech.rosette.dm.TransliterationResults;
 import com.basistech.rosette.dm.UnknownAttribute;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * The attributes currently defined in the data model.
  * Applications may extend the model with additional attributes;
  * this provides keys for {@link com.basistech.rosette.dm.AnnotatedText} and
  * {@link com.basistech.rosette.dm.RelationshipMention} for the known attributes.
+ * Applications register the json keys of their own attributes with {@link AttributeTypes}.
  */
 public enum KnownAttribute {
     BASE_NOUN_PHRASE("baseNounPhrases", BaseNounPhrase.class),
@@ -75,6 +79,16 @@ public enum KnownAttribute {
     TRANSLITERATION("transliteration", TransliterationResults.class),
     UNKNOWN("unknown", UnknownAttribute.class);
 
+    private static final Map<String, KnownAttribute> BY_KEY = new HashMap<>();
+    private static final Map<Class<?>, KnownAttribute> BY_CLASS = new HashMap<>();
+
+    static {
+        for (KnownAttribute item : values()) {
+            BY_KEY.put(item.key(), item);
+            BY_CLASS.putIfAbsent(item.attributeClass(), item);
+        }
+    }
+
     private final String jsonTag;
     private final Class<? extends BaseAttribute> attributeClass;
 
@@ -96,20 +110,10 @@ public enum KnownAttribute {
     }
 
     public static KnownAttribute getAttributeForKey(String key) {
-        for (KnownAttribute item : values()) {
-            if (item.key().equals(key)) {
-                return item;
-            }
-        }
-        return null;
+        return BY_KEY.get(key);
     }
 
     public static KnownAttribute getAttributeForClass(Class<?> attributeClass) {
-        for (KnownAttribute item : values()) {
-            if (item.attributeClass().equals(attributeClass)) {
-                return item;
-            }
-        }
-        return null;
+        return BY_CLASS.get(attributeClass);
     }
 }
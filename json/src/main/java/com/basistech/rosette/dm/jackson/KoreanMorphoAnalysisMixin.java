@@ -18,6 +18,7 @@ package com.basistech.rosette.dm.jackson;
 import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -27,12 +28,12 @@ import java.util.Map;
  */
 public abstract class KoreanMorphoAnalysisMixin {
     @JsonCreator
-    KoreanMorphoAnalysisMixin(@JsonProperty("partOfSpeech") String partOfSpeech,
-                              @JsonProperty("lemma") String lemma,
+    KoreanMorphoAnalysisMixin(@JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("partOfSpeech") String partOfSpeech,
+                              @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("lemma") String lemma,
                               @JsonProperty("components") List<Token> components,
                               @JsonProperty("raw") String raw,
-                              @JsonProperty("morphemes") List<String> morphemes,
-                              @JsonProperty("morphemeTags") List<String> morphemeTags,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("morphemes") List<String> morphemes,
+                              @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("morphemeTags") List<String> morphemeTags,
                               @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
         //
     }
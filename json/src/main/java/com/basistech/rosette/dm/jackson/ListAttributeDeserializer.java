@@ -20,22 +20,40 @@ import com.basistech.rosette.dm.BaseAttribute;
 import com.basistech.rosette.dm.ListAttribute;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.core.util.JsonParserSequence;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.util.TokenBuffer;
-import com.google.common.collect.Lists;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Jackson deserializer for ListAttributes that avoids writing out
  * the same type information repeatedly.
+ * The items are read straight into their class when {@code itemType} comes before them,
+ * as it always does in what this module writes; otherwise they are kept as trees until
+ * {@code itemType} turns up, unless {@link TypeFieldsFirst} requires it first.
  */
 public class ListAttributeDeserializer extends JsonDeserializer<ListAttribute> {
+    private final AttributeTypes types;
+
+    public ListAttributeDeserializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public ListAttributeDeserializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ListAttribute deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
@@ -50,85 +68,90 @@ public class ListAttributeDeserializer extends JsonDeserializer<ListAttribute> {
             }
             /* We are at the field name, ready for the loop. */
         }
-        TokenBuffer tb = null;
+        boolean typeFirst = TypeFieldsFirst.required(ctxt);
+        Class<? extends BaseAttribute> itemClass = null;
+        ListAttribute.Builder<BaseAttribute> builder = null;
+        List<BaseAttribute> earlyItems = null;
+        List<JsonNode> rawItems = null;
+        Map<String, Object> extendedProperties = new LinkedHashMap<>();
         for (JsonToken t = jp.getCurrentToken(); t == JsonToken.FIELD_NAME; t = jp.nextToken()) {
             String name = jp.getCurrentName();
+            JsonToken valueToken = jp.nextToken();
             if ("itemType".equals(name)) { // gotcha!
-                return deserialize(jp, ctxt, tb);
-            }
-            if (tb == null) {
-                tb = new TokenBuffer(null, false);
-            }
-            tb.copyCurrentStructure(jp);
-        }
-        throw JsonMappingException.from(ctxt.getParser(), "No itemType provided in a list");
-    }
-
-    // called with field_name for the itemType field as the current position, perhaps with a buffer to merge in after that.
-    @SuppressWarnings("unchecked")
-    private ListAttribute deserialize(JsonParser jp, DeserializationContext ctxt, TokenBuffer tb) throws IOException {
-        jp.nextToken();
-        String keyName = jp.getText();
-
-        if (tb != null) { // need to put back skipped properties?
-            jp = putBackSkippedProperties(jp, tb);
-        }
-        // Must point to the next value; tb had no current, jp pointed to VALUE_STRING:
-
-        KnownAttribute attribute = KnownAttribute.getAttributeForKey(keyName);
-        if (attribute == null) {
-            attribute = KnownAttribute.UNKNOWN;
-        }
-        Class<? extends BaseAttribute> itemClass = attribute.attributeClass();
-
-        ListAttribute.Builder<BaseAttribute> builder = new ListAttribute.Builder<>(attribute.attributeClass());
-        List<BaseAttribute> items = Lists.newArrayList();
-
-        JsonToken nextToken;
-        while ((nextToken = jp.nextToken()) != JsonToken.END_OBJECT) {
-            if (nextToken != JsonToken.FIELD_NAME) {
-                throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.END_OBJECT, "Expected field name.");
-            } else {
-                String name = jp.getCurrentName();
-                if ("items".equals(name)) {
-                    // the actual list items.
-                    nextToken = jp.nextToken();
-                    if (nextToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
-                        Object o = jp.getEmbeddedObject();
-                        if (o instanceof List) { // could it be an array, also?!?
-                            // when using JsonTree, sometimes Jackson just sticks the entire Java object in here.
-                            items.addAll((List) o);
-                        } else {
-                            throw JsonMappingException.from(
-                                    ctxt.getParser(),
-                                    "List contains VALUE_EMBEDDED_OBJECT for items, but it wasn't a list.");
-                        }
-                    } else if (nextToken != JsonToken.START_ARRAY) { // what about nothing?
-                        throw ctxt.wrongTokenException(
-                                jp, (JavaType) null, JsonToken.START_ARRAY, "Expected array of items");
+                itemClass = types.classForKey(jp.getText());
+                builder = new ListAttribute.Builder<>(itemClass);
+                if (earlyItems != null) {
+                    builder.setItems(earlyItems);
+                    earlyItems = null;
+                }
+                if (rawItems != null) {
+                    bindItems(rawItems, itemClass, builder, ctxt);
+                    rawItems = null;
+                }
+            } else if (builder == null && typeFirst) {
+                throw JsonMappingException.from(jp, "Expected itemType before " + name + " in a list");
+            } else if ("items".equals(name)) {
+                if (valueToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                    if (builder == null) {
+                        earlyItems = embeddedItems(jp);
                     } else {
-                        // the START_ARRAY case, which is _normal_. Read the elements.
-                        while (jp.nextToken() != JsonToken.END_ARRAY) {
-                            items.add(jp.readValueAs(itemClass));
-                        }
+                        builder.setItems(embeddedItems(jp));
+                    }
+                } else if (valueToken != JsonToken.START_ARRAY) { // what about nothing?
+                    throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.START_ARRAY, "Expected array of items");
+                } else if (builder != null) {
+                    // the _normal_ case. Read the elements.
+                    while (jp.nextToken() != JsonToken.END_ARRAY) {
+                        builder.add(readItem(jp, ctxt, itemClass));
                     }
                 } else {
-                    nextToken = jp.nextToken();
-                    Object value;
-                    if (nextToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
-                        value = jp.getEmbeddedObject();
-                    } else {
-                        value = jp.readValueAs(Object.class);
+                    // keep the elements as they are until we know what they are.
+                    rawItems = new ArrayList<>();
+                    while (jp.nextToken() != JsonToken.END_ARRAY) {
+                        rawItems.add(ctxt.readTree(jp));
                     }
-                    builder.extendedProperty(name, value);
                 }
+            } else {
+                Object value;
+                if (valueToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                    value = jp.getEmbeddedObject();
+                } else {
+                    value = jp.readValueAs(Object.class);
+                }
+                extendedProperties.put(name, value);
             }
         }
-        builder.setItems(items);
+        if (builder == null) {
+            throw JsonMappingException.from(ctxt.getParser(), "No itemType provided in a list");
+        }
+        for (Map.Entry<String, Object> entry : extendedProperties.entrySet()) {
+            builder.extendedProperty(entry.getKey(), entry.getValue());
+        }
         return builder.build();
     }
 
-    private JsonParserSequence putBackSkippedProperties(final JsonParser jp, final TokenBuffer tb) {
-        return JsonParserSequence.createFlattened(false, tb.asParser(jp), jp);
+    @SuppressWarnings("unchecked")
+    private static List<BaseAttribute> embeddedItems(JsonParser jp) throws IOException {
+        Object o = jp.getEmbeddedObject();
+        if (o instanceof List) { // could it be an array, also?!?
+            // when using JsonTree, sometimes Jackson just sticks the entire Java object in here.
+            return (List<BaseAttribute>) o;
+        }
+        throw JsonMappingException.from(jp, "List contains VALUE_EMBEDDED_OBJECT for items, but it wasn't a list.");
+    }
+
+    private static BaseAttribute readItem(JsonParser jp, DeserializationContext ctxt, Class<? extends BaseAttribute> itemClass) throws IOException {
+        if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(jp, itemClass);
+    }
+
+    private static void bindItems(List<JsonNode> rawItems, Class<? extends BaseAttribute> itemClass,
+                                  ListAttribute.Builder<BaseAttribute> builder, DeserializationContext ctxt) throws IOException {
+        builder.expectedSize(rawItems.size());
+        for (JsonNode rawItem : rawItems) {
+            builder.add(rawItem.isNull() ? null : ctxt.readTreeAsValue(rawItem, itemClass));
+        }
     }
 }
@@ -27,18 +27,41 @@ import java.util.Map;
 /**
  * Jackson serializer that that handles polymorphism in lists of homogeneous type without
  * writing out the type every time.
+ * The {@code itemType} is always written before the items, so that readers can read the
+ * items straight into their class; see {@link TypeFieldsFirst}.
  */
 public class ListAttributeSerializer extends JsonSerializer<ListAttribute> {
+    private final AttributeTypes types;
+
+    public ListAttributeSerializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public ListAttributeSerializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     public void serialize(ListAttribute value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
         jgen.writeStartObject();
 
-        jgen.writeStringField("itemType", KnownAttribute.getAttributeForClass(value.getItemClass()).key());
-        jgen.writeObjectField("items", value.getItems());
+        jgen.writeStringField("itemType", types.keyForClass(value.getItemClass()));
+        writeItems(value, jgen, provider);
         writeExtendedProperties(value, jgen);
         jgen.writeEndObject();
     }
 
+    private void writeItems(ListAttribute value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeFieldName("items");
+        if (!ItemWriters.writeItems(value.getItems(), value.getItemClass(), jgen, provider)) {
+            provider.defaultSerializeValue(value.getItems(), jgen);
+        }
+    }
+
     private void writeExtendedProperties(ListAttribute value, JsonGenerator jgen) throws IOException {
         Map<String, Object> extendedProperties = value.getExtendedProperties();
         if (extendedProperties != null && !extendedProperties.isEmpty()) {
@@ -52,10 +75,8 @@ public class ListAttributeSerializer extends JsonSerializer<ListAttribute> {
     public void serializeWithType(ListAttribute value, JsonGenerator jgen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
         typeSer.writeTypePrefixForObject(value, jgen);
 
-        KnownAttribute attributeForClass = KnownAttribute.getAttributeForClass(value.getItemClass());
-        assert attributeForClass != null;
-        jgen.writeStringField("itemType", attributeForClass.key());
-        jgen.writeObjectField("items", value.getItems());
+        jgen.writeStringField("itemType", types.keyForClass(value.getItemClass()));
+        writeItems(value, jgen, provider);
         writeExtendedProperties(value, jgen);
         typeSer.writeTypeSuffixForObject(value, jgen);
     }
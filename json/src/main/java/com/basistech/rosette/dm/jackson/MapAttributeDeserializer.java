@@ -19,26 +19,40 @@ import com.basistech.rosette.dm.BaseAttribute;
 import com.basistech.rosette.dm.MapAttribute;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.core.util.JsonParserSequence;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Maps;
-import com.google.common.reflect.TypeParameter;
-import com.google.common.reflect.TypeToken;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Jackson deserializer for MapAttributes that avoids writing out
  * the same type information repeatedly.
+ * The items are read straight into their classes when {@code keyType} and {@code valueType}
+ * come before them, as they always do in what this module writes; otherwise they are kept
+ * as a tree until both turn up, unless {@link TypeFieldsFirst} requires them first.
  */
 public class MapAttributeDeserializer extends JsonDeserializer<MapAttribute> {
+    private final AttributeTypes types;
+
+    public MapAttributeDeserializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public MapAttributeDeserializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public MapAttribute deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
@@ -53,118 +67,79 @@ public class MapAttributeDeserializer extends JsonDeserializer<MapAttribute> {
             }
             /* We are at the field name, ready for the loop. */
         }
-        TokenBuffer tb = null;
+        boolean typeFirst = TypeFieldsFirst.required(ctxt);
         String keyName = null;
         String valueName = null;
+        Map<Object, BaseAttribute> items = null;
+        JsonNode rawItems = null;
+        Map<String, Object> extendedProperties = new LinkedHashMap<>();
         for (JsonToken t = jp.getCurrentToken(); t == JsonToken.FIELD_NAME; t = jp.nextToken()) {
             String name = jp.getCurrentName();
+            JsonToken valueToken = jp.nextToken();
             if ("keyType".equals(name)) { // gotcha!
-                keyName = getName(jp);
-            }
-            if ("valueType".equals(name)) {
-                valueName = getName(jp);
-            }
-            if (keyName != null && valueName != null) {
-                // both have been found
-                return deserialize(jp, ctxt, tb, keyName, valueName);
-            }
-            if (tb == null) {
-                tb = new TokenBuffer(null, false);
-            }
-            if (!("keyType".equals(name) || "valueType".equals(name))) {
-                tb.copyCurrentStructure(jp);
+                keyName = jp.getText();
+            } else if ("valueType".equals(name)) {
+                valueName = jp.getText();
+            } else if ((keyName == null || valueName == null) && typeFirst) {
+                throw JsonMappingException.from(jp, "Expected keyType and valueType before " + name + " in a map");
+            } else if ("items".equals(name)) {
+                if (valueToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                    items = embeddedItems(jp);
+                } else if (valueToken != JsonToken.START_OBJECT) { // what about nothing?
+                    throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.START_OBJECT, "Expected object of items");
+                } else if (keyName != null && valueName != null) {
+                    // the _normal_ case. Read the elements.
+                    items = ctxt.readValue(jp, mapType(ctxt, keyName, valueName));
+                } else {
+                    // keep the elements as they are until we know what they are.
+                    rawItems = ctxt.readTree(jp);
+                }
+            } else {
+                Object value;
+                if (valueToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                    value = jp.getEmbeddedObject();
+                } else {
+                    value = jp.readValueAs(Object.class);
+                }
+                extendedProperties.put(name, value);
             }
         }
         if (keyName == null) {
             throw JsonMappingException.from(ctxt.getParser(), "No keyType provided in a map");
         }
-        throw JsonMappingException.from(ctxt.getParser(), "No valueType provided in a map");
-    }
-
-    private String getName(JsonParser jp) throws IOException {
-        jp.nextToken();
-        return jp.getText();
-    }
-
-    private <K, V> TypeReference<Map<K, V>> buildTypeReference(Class<K> keyClass, Class<V> valueClass) {
-        // TypeToken lets us dynamically compute the parameters for this class.
-        TypeToken<Map<K, V>> tok = new TypeToken<Map<K, V>>() { }
-            .where(new TypeParameter<K>() { }, keyClass)
-            .where(new TypeParameter<V>() { }, valueClass);
-        return new TypeReference<Map<K, V>>() {
-            @Override
-            public Type getType() {
-                return tok.getType();
-            }
-        };
-    }
-
-    // called with field_name for the itemType field as the current position, perhaps with a buffer to merge in after that.
-    @SuppressWarnings("unchecked")
-    private MapAttribute deserialize(JsonParser jp, DeserializationContext ctxt, TokenBuffer tb, String keyName, String valueName) throws IOException {
+        if (valueName == null) {
+            throw JsonMappingException.from(ctxt.getParser(), "No valueType provided in a map");
+        }
+        if (rawItems != null) {
+            items = ctxt.readTreeAsValue(rawItems, mapType(ctxt, keyName, valueName));
+        }
 
-        if (tb != null) { // need to put back skipped properties?
-            jp = putBackSkippedProperties(jp, tb);
+        MapAttribute.Builder<Object, BaseAttribute> builder = new MapAttribute.Builder<>(keyClass(keyName), types.classForKey(valueName));
+        builder.setItems(items == null ? Maps.newHashMap() : items);
+        for (Map.Entry<String, Object> entry : extendedProperties.entrySet()) {
+            builder.extendedProperty(entry.getKey(), entry.getValue());
         }
-        // Must point to the next value; tb had no current, jp pointed to VALUE_STRING:
+        return builder.build();
+    }
 
+    private static Class<?> keyClass(String keyName) {
         KnownKey key = KnownKey.getKnownForKey(keyName);
-        KnownAttribute attribute = KnownAttribute.getAttributeForKey(valueName);
         if (key == null) {
             key = KnownKey.UNKNOWN;
         }
-        if (attribute == null) {
-            attribute = KnownAttribute.UNKNOWN;
-        }
-        Class<?> keyClass = key.keyClass();
-        Class<? extends BaseAttribute> valueClass = attribute.attributeClass();
-
-        MapAttribute.Builder<Object, BaseAttribute> builder = new MapAttribute.Builder<>(keyClass, valueClass);
-        Map<Object, BaseAttribute> items = Maps.newHashMap();
+        return key.keyClass();
+    }
 
-        JsonToken nextToken;
-        while ((nextToken = jp.nextToken()) != JsonToken.END_OBJECT) {
-            if (nextToken != JsonToken.FIELD_NAME) {
-                throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.END_OBJECT, "Expected field name.");
-            } else {
-                String name = jp.getCurrentName();
-                if ("items".equals(name)) {
-                    // the actual list items.
-                    nextToken = jp.nextToken();
-                    if (nextToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
-                        Object o = jp.getEmbeddedObject();
-                        if (o instanceof Map) {
-                            items.putAll((Map) o);
-                        } else {
-                            throw JsonMappingException.from(
-                                    ctxt.getParser(),
-                                    "Map contains VALUE_EMBEDDED_OBJECT for items, but it wasn't a map.");
-                        }
-                    } else if (nextToken != JsonToken.START_OBJECT) { // what about nothing?
-                        throw ctxt.wrongTokenException(
-                                jp, (JavaType) null, JsonToken.START_OBJECT, "Expected object of items");
-                    } else {
-                        // the START_OBJECT case, which is _normal_. Read the elements.
-                        // Dynamically build the type reference and parse.
-                        items.putAll(jp.readValueAs(buildTypeReference(keyClass, valueClass)));
-                    }
-                } else {
-                    nextToken = jp.nextToken();
-                    Object value;
-                    if (nextToken == JsonToken.VALUE_EMBEDDED_OBJECT) {
-                        value = jp.getEmbeddedObject();
-                    } else {
-                        value = jp.readValueAs(Object.class);
-                    }
-                    builder.extendedProperty(name, value);
-                }
-            }
-        }
-        builder.setItems(items);
-        return builder.build();
+    private JavaType mapType(DeserializationContext ctxt, String keyName, String valueName) {
+        return ctxt.getTypeFactory().constructMapType(HashMap.class, keyClass(keyName), types.classForKey(valueName));
     }
 
-    private JsonParserSequence putBackSkippedProperties(final JsonParser jp, final TokenBuffer tb) {
-        return JsonParserSequence.createFlattened(false, tb.asParser(jp), jp);
+    @SuppressWarnings("unchecked")
+    private static Map<Object, BaseAttribute> embeddedItems(JsonParser jp) throws IOException {
+        Object o = jp.getEmbeddedObject();
+        if (o instanceof Map) {
+            return (Map<Object, BaseAttribute>) o;
+        }
+        throw JsonMappingException.from(jp, "Map contains VALUE_EMBEDDED_OBJECT for items, but it wasn't a map.");
     }
 }
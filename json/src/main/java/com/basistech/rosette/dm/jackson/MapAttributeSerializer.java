@@ -27,15 +27,31 @@ import java.util.Map;
 /**
  * Jackson serializer that that handles polymorphism in maps of homogeneous type without
  * writing out the type every time.
+ * The {@code keyType} and {@code valueType} are always written before the items, so that readers
+ * can read the items straight into their classes; see {@link TypeFieldsFirst}.
  */
 public class MapAttributeSerializer extends JsonSerializer<MapAttribute> {
+    private final AttributeTypes types;
+
+    public MapAttributeSerializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public MapAttributeSerializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     public void serialize(MapAttribute value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
         gen.writeStartObject();
 
         gen.writeStringField("keyType", KnownKey.getKeyForClass(value.getKeyClass()).key());
-        gen.writeStringField("valueType", KnownAttribute.getAttributeForClass(value.getValueClass()).key());
-        gen.writeObjectField("items", value.getItems());
+        gen.writeStringField("valueType", types.keyForClass(value.getValueClass()));
+        serializers.defaultSerializeField("items", value.getItems(), gen);
         writeExtendedProperties(value, gen);
         gen.writeEndObject();
     }
@@ -54,12 +70,10 @@ public class MapAttributeSerializer extends JsonSerializer<MapAttribute> {
         typeSer.writeTypePrefixForObject(value, jgen);
 
         KnownKey keyForKeyClass = KnownKey.getKeyForClass(value.getKeyClass());
-        KnownAttribute attributeForValueClass = KnownAttribute.getAttributeForClass(value.getValueClass());
         assert keyForKeyClass != null;
-        assert attributeForValueClass != null;
         jgen.writeStringField("keyType", keyForKeyClass.key());
-        jgen.writeStringField("valueType", attributeForValueClass.key());
-        jgen.writeObjectField("items", value.getItems());
+        jgen.writeStringField("valueType", types.keyForClass(value.getValueClass()));
+        provider.defaultSerializeField("items", value.getItems(), jgen);
         writeExtendedProperties(value, jgen);
         typeSer.writeTypeSuffixForObject(value, jgen);
     }
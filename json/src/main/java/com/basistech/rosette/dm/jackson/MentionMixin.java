@@ -17,6 +17,7 @@ package com.basistech.rosette.dm.jackson;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.Map;
 
@@ -29,8 +30,8 @@ public abstract class MentionMixin {
                  @JsonProperty("endOffset") int endOffset,
                  @JsonProperty("confidence") Double confidence,
                  @JsonProperty("linkingConfidence") Double linkingConfidence,
-                 @JsonProperty("source") String source,
-                 @JsonProperty("subsource") String subsource,
+                 @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("source") String source,
+                 @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("subsource") String subsource,
                  @JsonProperty("normalized") String normalized,
                  @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
         //
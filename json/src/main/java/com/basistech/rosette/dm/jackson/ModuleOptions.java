@@ -0,0 +1,142 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.MorphoAnalysisCache;
+import com.basistech.rosette.dm.StringInterner;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+
+/**
+ * Options for {@link AnnotatedDataModelModule} and
+ * {@link com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule}.
+ * <pre>
+ * ModuleOptions options = new ModuleOptions.Builder().stringInterner(StringInterner.bounded(4096)).build();
+ * ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(), options);
+ * </pre>
+ * The options apply only to the mapper that the module is registered with; they go to the
+ * serializers, deserializers and type id resolvers that the module's mixins name, not
+ * into the mapper's configuration.
+ */
+public final class ModuleOptions {
+    private static final ModuleOptions DEFAULTS = new Builder().build();
+
+    private final StringInterner stringInterner;
+    private final MorphoAnalysisCache morphoAnalysisCache;
+    private final AttributeTypes attributeTypes;
+
+    private ModuleOptions(Builder builder) {
+        this.stringInterner = builder.stringInterner;
+        this.morphoAnalysisCache = builder.morphoAnalysisCache;
+        this.attributeTypes = builder.attributeTypes;
+    }
+
+    /**
+     * @return the options with nothing set.
+     */
+    public static ModuleOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return the interner for repetitive strings, or {@code null} for none.
+     */
+    public StringInterner getStringInterner() {
+        return stringInterner;
+    }
+
+    /**
+     * @return the cache for sharing equal morphological analyses, or {@code null} for none.
+     */
+    public MorphoAnalysisCache getMorphoAnalysisCache() {
+        return morphoAnalysisCache;
+    }
+
+    /**
+     * @return the registry of attribute types.
+     */
+    public AttributeTypes getAttributeTypes() {
+        return attributeTypes;
+    }
+
+    /**
+     * Hands these options to the serializers and deserializers of the module that is being set up.
+     * @param context the module setup context.
+     */
+    public void configure(Module.SetupContext context) {
+        if (stringInterner != null || morphoAnalysisCache != null || attributeTypes != AttributeTypes.builtIn()) {
+            context.insertAnnotationIntrospector(new OptionsIntrospector(this));
+        }
+    }
+
+    /* Returns the options of the module set up on a mapper, for code that Jackson does not instantiate. */
+    static ModuleOptions of(MapperConfig<?> config) {
+        for (AnnotationIntrospector introspector : config.getAnnotationIntrospector().allIntrospectors()) {
+            if (introspector instanceof OptionsIntrospector) {
+                return ((OptionsIntrospector) introspector).getOptions();
+            }
+        }
+        return DEFAULTS;
+    }
+
+    /**
+     * Builder for {@link ModuleOptions}.
+     */
+    public static class Builder {
+        private StringInterner stringInterner;
+        private MorphoAnalysisCache morphoAnalysisCache;
+        private AttributeTypes attributeTypes = AttributeTypes.builtIn();
+
+        /**
+         * Interns repetitive strings, such as parts of speech, lemmas, entity types and mention
+         * sources, as they are read.
+         * @param stringInterner the interner, or {@code null} for none.
+         * @return this.
+         */
+        public Builder stringInterner(StringInterner stringInterner) {
+            this.stringInterner = stringInterner;
+            return this;
+        }
+
+        /**
+         * Shares equal morphological analyses as they are read.
+         * @param morphoAnalysisCache the analysis cache, or {@code null} for none.
+         * @return this.
+         */
+        public Builder morphoAnalysisCache(MorphoAnalysisCache morphoAnalysisCache) {
+            this.morphoAnalysisCache = morphoAnalysisCache;
+            return this;
+        }
+
+        /**
+         * Reads and writes application attribute types as themselves.
+         * @param attributeTypes the registry; by default, {@link AttributeTypes#builtIn()}.
+         * @return this.
+         */
+        public Builder attributeTypes(AttributeTypes attributeTypes) {
+            this.attributeTypes = attributeTypes;
+            return this;
+        }
+
+        /**
+         * @return the options.
+         */
+        public ModuleOptions build() {
+            return new ModuleOptions(this);
+        }
+    }
+}
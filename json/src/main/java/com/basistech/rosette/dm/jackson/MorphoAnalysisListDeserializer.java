@@ -20,6 +20,8 @@ import com.basistech.rosette.dm.ArabicMorphoAnalysis;
 import com.basistech.rosette.dm.HanMorphoAnalysis;
 import com.basistech.rosette.dm.KoreanMorphoAnalysis;
 import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.MorphoAnalysisCache;
+import com.basistech.rosette.dm.StringInterner;
 import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
@@ -64,15 +66,31 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
     private final JsonDeserializer<Object> arMaDeserializer;
     private final JsonDeserializer<Object> korMaDeserializer;
 
+    private final StringInterner interner;
+    private final MorphoAnalysisCache cache;
+
     public MorphoAnalysisListDeserializer() {
+        this(null, null);
+    }
+
+    /**
+     * Constructs a deserializer that interns the strings it copies and shares equal analyses.
+     * @param interner the interner, or {@code null} for none.
+     * @param cache the analysis cache, or {@code null} for none.
+     */
+    public MorphoAnalysisListDeserializer(StringInterner interner, MorphoAnalysisCache cache) {
         cached = false;
         maDeserializer = null;
         hanMaDeserializer = null;
         arMaDeserializer = null;
         korMaDeserializer = null;
+        this.interner = interner;
+        this.cache = cache;
     }
 
-    private MorphoAnalysisListDeserializer(DeserializationContext ctxt) throws JsonMappingException {
+    private MorphoAnalysisListDeserializer(DeserializationContext ctxt, StringInterner interner, MorphoAnalysisCache cache) throws JsonMappingException {
+        this.interner = interner;
+        this.cache = cache;
         JavaType type = ctxt.constructType(MorphoAnalysis.class);
         maDeserializer = ctxt.findRootValueDeserializer(type);
         type = ctxt.constructType(HanMorphoAnalysis.class);
@@ -93,11 +111,6 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
         return false;
     }
 
-    @SuppressWarnings("unchecked")
-    private JsonDeserializer<Object> castDeserializer(Object attributeValue) {
-        return (JsonDeserializer<Object>)attributeValue;
-    }
-
     @Override
     public List<MorphoAnalysis> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
 
@@ -112,12 +125,12 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
             throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.START_ARRAY, "Expected array of items");
         }
 
-        JsonDeserializer<Object> currentDeserializer =
-                castDeserializer(ctxt.getAttribute(MorphoAnalysisListDeserializer.class));
-        if (currentDeserializer == null) {
-            currentDeserializer = maDeserializer;
-            ctxt.setAttribute(MorphoAnalysisListDeserializer.class, maDeserializer);
-        }
+        /*
+         * Every list starts from the plain deserializer. A context may read many tokens, and the
+         * subclass found in one of them says nothing about the analyses of the next.
+         */
+        JsonDeserializer<Object> currentDeserializer = maDeserializer;
+        ctxt.setAttribute(MorphoAnalysisListDeserializer.class, maDeserializer);
 
         List<MorphoAnalysis> result = Lists.newArrayList();
         while (jp.nextToken() != JsonToken.END_ARRAY) {
@@ -129,6 +142,7 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
 
                 if (analysis.getExtendedProperties().containsKey("morphemes")) {
                     KoreanMorphoAnalysis.Builder builder = new KoreanMorphoAnalysis.Builder();
+                    builder.interner(interner);
                     copyBasic(analysis, builder);
 
                     List<String> morphemes = cast(analysis.getExtendedProperties().get("morphemes"));
@@ -149,6 +163,7 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
                 } else if (analysis.getExtendedProperties().containsKey("readings")) {
                     // convert to Han.
                     HanMorphoAnalysis.Builder builder = new HanMorphoAnalysis.Builder();
+                    builder.interner(interner);
                     copyBasic(analysis, builder);
 
                     for (String reading : cast(analysis.getExtendedProperties().get("readings"))) {
@@ -165,6 +180,7 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
                     ctxt.setAttribute(MorphoAnalysisListDeserializer.class, hanMaDeserializer);
                 } else if (anyArabicFields(analysis.getExtendedProperties().keySet())) {
                     ArabicMorphoAnalysis.Builder builder = new ArabicMorphoAnalysis.Builder();
+                    builder.interner(interner);
                     copyBasic(analysis, builder);
 
                     Integer prefixLength = (Integer)analysis.getExtendedProperties().get("prefixLength");
@@ -219,6 +235,9 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
                     ctxt.setAttribute(MorphoAnalysisListDeserializer.class, arMaDeserializer);
                 }
             }
+            if (cache != null) {
+                analysis = cache.canonicalize(analysis);
+            }
             result.add(analysis);
         }
         return ImmutableList.copyOf(result);
@@ -260,6 +279,6 @@ public final class MorphoAnalysisListDeserializer extends JsonDeserializer<List<
         }
 
         // construct a replacement object with the cached deserializers in place.
-        return new MorphoAnalysisListDeserializer(ctxt);
+        return new MorphoAnalysisListDeserializer(ctxt, interner, cache);
     }
 }
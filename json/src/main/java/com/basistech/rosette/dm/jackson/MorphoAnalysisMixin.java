@@ -19,6 +19,7 @@ import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 import java.util.Map;
@@ -29,8 +30,8 @@ import java.util.Map;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public abstract class MorphoAnalysisMixin {
     @JsonCreator
-    MorphoAnalysisMixin(@JsonProperty("partOfSpeech") String partOfSpeech,
-                        @JsonProperty("lemma") String lemma,
+    MorphoAnalysisMixin(@JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("partOfSpeech") String partOfSpeech,
+                        @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("lemma") String lemma,
                         @JsonProperty("components") List<Token> components,
                         @JsonProperty("raw") String raw,
                         @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
@@ -0,0 +1,130 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.basistech.rosette.dm.jackson.array.ListAttributeArrayDeserializer;
+import com.basistech.rosette.dm.jackson.array.ListAttributeArraySerializer;
+import com.basistech.rosette.dm.jackson.array.MorphoAnalysisListArrayDeserializer;
+import com.basistech.rosette.dm.jackson.array.TempAttributeMapSerializer;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+
+/**
+ * Stands in for the serializers, deserializers and type id resolvers that the mixins name with
+ * {@link JsonSerialize}, {@link JsonDeserialize} and {@link JsonTypeIdResolver}, handing Jackson
+ * instances that carry the {@link ModuleOptions} of the module instead of letting it create them
+ * with their no-argument constructors. Anything else is left to the introspectors behind it.
+ */
+class OptionsIntrospector extends NopAnnotationIntrospector {
+    private static final long serialVersionUID = 250L;
+
+    private final ModuleOptions options;
+    private final InternedStringDeserializer internedStringDeserializer;
+
+    OptionsIntrospector(ModuleOptions options) {
+        this.options = options;
+        this.internedStringDeserializer = new InternedStringDeserializer(options.getStringInterner());
+    }
+
+    ModuleOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public Object findSerializer(Annotated a) {
+        JsonSerialize annotation = _findAnnotation(a, JsonSerialize.class);
+        return annotation == null ? null : serializer(annotation.using());
+    }
+
+    @Override
+    public Object findDeserializer(Annotated a) {
+        JsonDeserialize annotation = _findAnnotation(a, JsonDeserialize.class);
+        return annotation == null ? null : deserializer(annotation.using());
+    }
+
+    @Override
+    public Object findContentDeserializer(Annotated a) {
+        JsonDeserialize annotation = _findAnnotation(a, JsonDeserialize.class);
+        return annotation == null ? null : deserializer(annotation.contentUsing());
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findTypeResolver(MapperConfig<?> config, AnnotatedClass ac, JavaType baseType) {
+        return typeResolver(ac);
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findPropertyTypeResolver(MapperConfig<?> config, AnnotatedMember am, JavaType baseType) {
+        // as in JacksonAnnotationIntrospector, type information on a container is for its contents.
+        return baseType.isContainerType() || baseType.isReferenceType() ? null : typeResolver(am);
+    }
+
+    @Override
+    public TypeResolverBuilder<?> findPropertyContentTypeResolver(MapperConfig<?> config, AnnotatedMember am, JavaType containerType) {
+        return typeResolver(am);
+    }
+
+    private Object serializer(Class<?> using) {
+        AttributeTypes types = options.getAttributeTypes();
+        if (using == ListAttributeSerializer.class) {
+            return new ListAttributeSerializer(types);
+        } else if (using == MapAttributeSerializer.class) {
+            return new MapAttributeSerializer(types);
+        } else if (using == ListAttributeArraySerializer.class) {
+            return new ListAttributeArraySerializer(types);
+        } else if (using == TempAttributeMapSerializer.class) {
+            return new TempAttributeMapSerializer(types);
+        }
+        return null;
+    }
+
+    private Object deserializer(Class<?> using) {
+        AttributeTypes types = options.getAttributeTypes();
+        if (using == InternedStringDeserializer.class) {
+            return internedStringDeserializer;
+        } else if (using == MorphoAnalysisListDeserializer.class) {
+            return new MorphoAnalysisListDeserializer(options.getStringInterner(), options.getMorphoAnalysisCache());
+        } else if (using == MorphoAnalysisListArrayDeserializer.class) {
+            return new MorphoAnalysisListArrayDeserializer(options.getMorphoAnalysisCache());
+        } else if (using == ListAttributeDeserializer.class) {
+            return new ListAttributeDeserializer(types);
+        } else if (using == MapAttributeDeserializer.class) {
+            return new MapAttributeDeserializer(types);
+        } else if (using == ListAttributeArrayDeserializer.class) {
+            return new ListAttributeArrayDeserializer(types);
+        }
+        return null;
+    }
+
+    private TypeResolverBuilder<?> typeResolver(Annotated a) {
+        JsonTypeIdResolver resolver = _findAnnotation(a, JsonTypeIdResolver.class);
+        JsonTypeInfo info = _findAnnotation(a, JsonTypeInfo.class);
+        if (resolver == null || resolver.value() != DmTypeIdResolver.class || info == null) {
+            return null;
+        }
+        return new StdTypeResolverBuilder().init(JsonTypeInfo.Value.from(info), new DmTypeIdResolver(options.getAttributeTypes()));
+    }
+}
@@ -18,6 +18,7 @@ package com.basistech.rosette.dm.jackson;
 import com.basistech.rosette.dm.RelationshipComponent;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.Map;
 import java.util.Set;
@@ -37,9 +38,9 @@ public abstract class RelationshipMentionMixin {
                              @JsonProperty("adjuncts") Set<RelationshipComponent> adjuncts,
                              @JsonProperty("locatives") Set<RelationshipComponent> locatives,
                              @JsonProperty("temporals") Set<RelationshipComponent> temporals,
-                             @JsonProperty("source") String source,
+                             @JsonDeserialize(using = InternedStringDeserializer.class) @JsonProperty("source") String source,
                              @JsonProperty("confidence") Double confidence,
-                             @JsonProperty("modality") Set<String> modality,
+                             @JsonDeserialize(contentUsing = InternedStringDeserializer.class) @JsonProperty("modality") Set<String> modality,
                              @JsonProperty("salience") Double salience,
                              @JsonProperty("extendedProperties") Map<String, Object> extendedProperties) {
 
@@ -0,0 +1,58 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Makes list and map attributes insist on their type fields coming first.
+ * This module always writes {@code itemType} first in a list attribute, and {@code keyType} and
+ * {@code valueType} first in a map attribute. By default, the reader also accepts them later on,
+ * holding on to items that come before them as trees until their type is known. A reader set up
+ * here fails on a type field that comes late instead, so that data from a producer that writes
+ * them out of order is caught rather than quietly costing memory.
+ */
+public final class TypeFieldsFirst {
+
+    private TypeFieldsFirst() {
+        //
+    }
+
+    /**
+     * Returns a reader that requires type fields to come first.
+     * @param reader the reader.
+     * @return the new reader.
+     */
+    public static ObjectReader require(ObjectReader reader) {
+        return reader.withAttribute(TypeFieldsFirst.class, Boolean.TRUE);
+    }
+
+    /**
+     * Makes a mapper require type fields to come first whenever it reads.
+     * @param mapper the mapper.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper require(ObjectMapper mapper) {
+        mapper.setConfig(mapper.getDeserializationConfig().withAttribute(TypeFieldsFirst.class, Boolean.TRUE));
+        return mapper;
+    }
+
+    static boolean required(DeserializationContext ctxt) {
+        return Boolean.TRUE.equals(ctxt.getAttribute(TypeFieldsFirst.class));
+    }
+}
@@ -37,13 +37,22 @@ public class VersionCheckDeserializer extends JsonDeserializer<String> {
                     p, (JavaType) null, JsonToken.VALUE_STRING, "The value of 'version' must be a string");
         }
         String version = p.readValueAs(String.class);
+        String problem = checkVersion(version);
+        if (problem != null) {
+            throw ctxt.weirdStringException(version, String.class, problem);
+        }
+        return version;
+    }
+
+    /* Returns what is wrong with a version, or null if it can be read. */
+    static String checkVersion(String version) {
         String[] bits = version.split("\\.");
         if (bits.length < 3) { // allow for a fourth digit for some reason some day.
-            throw ctxt.weirdStringException(version, String.class, "Versions must be of the form x.y.z");
+            return "Versions must be of the form x.y.z";
         }
         if (!"1".equals(bits[0])) {
-            throw ctxt.weirdStringException(version, String.class, String.format("Incompatible ADM version %s", version));
+            return String.format("Incompatible ADM version %s", version);
         }
-        return version;
+        return null;
     }
 }
@@ -48,12 +48,12 @@ import com.basistech.rosette.dm.TranslatedTokens;
 import com.basistech.rosette.dm.Transliteration;
 import com.basistech.rosette.dm.TransliterationResults;
 import com.basistech.rosette.dm.jackson.ArabicMorphoAnalysisMixin;
+import com.basistech.rosette.dm.jackson.AttributeFilter;
 import com.basistech.rosette.dm.jackson.AttributeMixin;
 import com.basistech.rosette.dm.jackson.BaseNounPhraseMixin;
 import com.basistech.rosette.dm.jackson.CategorizerResultMixin;
 import com.basistech.rosette.dm.jackson.ConceptMixin;
 import com.basistech.rosette.dm.jackson.DependencyMixin;
-import com.basistech.rosette.dm.jackson.EmbeddingCollectionMixin;
 import com.basistech.rosette.dm.jackson.EmbeddingsMixin;
 import com.basistech.rosette.dm.jackson.EntityMentionMixin;
 import com.basistech.rosette.dm.jackson.EntityMixin;
@@ -63,6 +63,7 @@ import com.basistech.rosette.dm.jackson.KeyphraseMixin;
 import com.basistech.rosette.dm.jackson.KoreanMorphoAnalysisMixin;
 import com.basistech.rosette.dm.jackson.LayoutRegionMixin;
 import com.basistech.rosette.dm.jackson.MentionMixin;
+import com.basistech.rosette.dm.jackson.ModuleOptions;
 import com.basistech.rosette.dm.jackson.MorphoAnalysisMixin;
 import com.basistech.rosette.dm.jackson.NameMixin;
 import com.basistech.rosette.dm.jackson.RawDataMixin;
@@ -88,9 +89,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 @SuppressWarnings("deprecation")
 public class AnnotatedDataModelArrayModule extends EnumModule {
+    private final ModuleOptions options;
 
     public AnnotatedDataModelArrayModule() {
+        this(ModuleOptions.defaults());
+    }
+
+    /**
+     * Constructs a module with options, such as a string interner or an analysis cache.
+     * @param options the options.
+     */
+    public AnnotatedDataModelArrayModule(ModuleOptions options) {
         super();
+        this.options = options;
     }
 
     public void setupModule(SetupContext context) {
@@ -103,7 +114,7 @@ public class AnnotatedDataModelArrayModule extends EnumModule {
         context.setMixInAnnotations(CategorizerResult.class, CategorizerResultMixin.class);
         context.setMixInAnnotations(Concept.class, ConceptMixin.class);
         context.setMixInAnnotations(Dependency.class, DependencyMixin.class);
-        context.setMixInAnnotations(EmbeddingCollection.class, EmbeddingCollectionMixin.class);
+        context.setMixInAnnotations(EmbeddingCollection.class, EmbeddingCollectionArrayMixin.class);
         context.setMixInAnnotations(Embeddings.class, EmbeddingsMixin.class);
         context.setMixInAnnotations(Entity.class, EntityMixin.class);
         context.setMixInAnnotations(com.basistech.rosette.dm.EntityMention.class, EntityMentionMixin.class);
@@ -129,15 +140,28 @@ public class AnnotatedDataModelArrayModule extends EnumModule {
         context.setMixInAnnotations(TranslatedTokens.class, TranslatedTokensMixin.class);
         context.setMixInAnnotations(Transliteration.class, TransliterationMixin.class);
         context.setMixInAnnotations(TransliterationResults.class, TransliterationResultsMixin.class);
+        AttributeFilter.configure(context);
+        options.configure(context);
     }
 
     /**
      * Register the Annotated Data Model Jackson module on an {@link ObjectMapper}.
+     * The mapper may use any Jackson backend, including binary formats such as Smile or CBOR.
      * @param mapper the mapper.
      * @return the same mapper, for convenience.
      */
     public static ObjectMapper setupObjectMapper(ObjectMapper mapper) {
-        final AnnotatedDataModelArrayModule module = new AnnotatedDataModelArrayModule();
+        return setupObjectMapper(mapper, ModuleOptions.defaults());
+    }
+
+    /**
+     * Register the Annotated Data Model Jackson module on an {@link ObjectMapper}, with options.
+     * @param mapper the mapper.
+     * @param options the options, such as a string interner or an analysis cache.
+     * @return the same mapper, for convenience.
+     */
+    public static ObjectMapper setupObjectMapper(ObjectMapper mapper, ModuleOptions options) {
+        final AnnotatedDataModelArrayModule module = new AnnotatedDataModelArrayModule(options);
         mapper.registerModule(module);
         return mapper;
     }
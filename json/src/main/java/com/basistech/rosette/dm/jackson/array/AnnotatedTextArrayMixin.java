@@ -20,21 +20,32 @@ import com.basistech.rosette.dm.BaseAttribute;
 import com.basistech.rosette.dm.BaseNounPhrase;
 import com.basistech.rosette.dm.CategorizerResult;
 import com.basistech.rosette.dm.Dependency;
+import com.basistech.rosette.dm.Embeddings;
 import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.Event;
+import com.basistech.rosette.dm.IntervalIndex;
 import com.basistech.rosette.dm.Keyphrase;
 import com.basistech.rosette.dm.LanguageDetection;
 import com.basistech.rosette.dm.LayoutRegion;
 import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.MapAttribute;
+import com.basistech.rosette.dm.OffsetIndex;
 import com.basistech.rosette.dm.RelationshipMention;
 import com.basistech.rosette.dm.ScriptRegion;
 import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.SimilarTerm;
 import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.TokenIndex;
 import com.basistech.rosette.dm.Concept;
 import com.basistech.rosette.dm.TranslatedData;
 import com.basistech.rosette.dm.TranslatedTokens;
+import com.basistech.rosette.dm.TransliterationResults;
+import com.basistech.rosette.dm.jackson.DataDeserializer;
+import com.basistech.rosette.dm.jackson.DataSerializer;
 import com.basistech.rosette.dm.jackson.DmTypeIdResolver;
 import com.basistech.rosette.dm.jackson.VersionCheckDeserializer;
 import com.basistech.rosette.dm.jackson.VersionProperty;
+import com.basistech.util.LanguageCode;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -44,7 +55,6 @@ import com.fasterxml.jackson.databind.annotation.JsonAppend;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
-import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.util.List;
 import java.util.Map;
@@ -58,7 +68,7 @@ import java.util.Map;
 public abstract class AnnotatedTextArrayMixin {
 
     @JsonCreator
-    AnnotatedTextArrayMixin(@JsonProperty("data") CharSequence data,
+    AnnotatedTextArrayMixin(@JsonProperty("data") @JsonDeserialize(using = DataDeserializer.class) CharSequence data,
                             @JsonProperty("attributes") Map<String, BaseAttribute> attributes,
                             @JsonProperty("documentMetadata") Map<String, List<String>> documentMetadata,
                             @JsonDeserialize(using = VersionCheckDeserializer.class)
@@ -73,7 +83,7 @@ public abstract class AnnotatedTextArrayMixin {
     public abstract Map<String, BaseAttribute> getAttributes();
 
     /* prevent Jackson from serializing a complex object here. */
-    @JsonSerialize(using = ToStringSerializer.class)
+    @JsonSerialize(using = DataSerializer.class)
     public abstract CharSequence getData();
 
     @JsonIgnore
@@ -134,4 +144,25 @@ public abstract class AnnotatedTextArrayMixin {
 
     @JsonIgnore
     public abstract ListAttribute<Keyphrase> getKeyphrases();
+
+    @JsonIgnore
+    public abstract Embeddings getEmbeddings();
+
+    @JsonIgnore
+    public abstract TransliterationResults getTransliteration();
+
+    @JsonIgnore
+    public abstract ListAttribute<Event> getEvents();
+
+    @JsonIgnore
+    public abstract MapAttribute<LanguageCode, ListAttribute<SimilarTerm>> getSimilarTerms();
+
+    @JsonIgnore
+    public abstract IntervalIndex getIntervalIndex();
+
+    @JsonIgnore
+    public abstract TokenIndex getTokenIndex();
+
+    @JsonIgnore
+    public abstract OffsetIndex getOffsetIndex();
 }
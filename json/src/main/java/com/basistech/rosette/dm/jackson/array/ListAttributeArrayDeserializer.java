@@ -17,7 +17,7 @@ package com.basistech.rosette.dm.jackson.array;
 
 import com.basistech.rosette.dm.BaseAttribute;
 import com.basistech.rosette.dm.ListAttribute;
-import com.basistech.rosette.dm.jackson.KnownAttribute;
+import com.basistech.rosette.dm.jackson.AttributeTypes;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -25,10 +25,8 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.google.common.collect.Lists;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -36,6 +34,20 @@ import java.util.Map;
  * the same type information repeatedly.
  */
 public class ListAttributeArrayDeserializer extends JsonDeserializer<ListAttribute> {
+    private final AttributeTypes types;
+
+    public ListAttributeArrayDeserializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public ListAttributeArrayDeserializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ListAttribute deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
@@ -51,14 +63,9 @@ public class ListAttributeArrayDeserializer extends JsonDeserializer<ListAttribu
         }
         String itemTypeKeyName = jp.getText();
 
-        KnownAttribute attribute = KnownAttribute.getAttributeForKey(itemTypeKeyName);
-        if (attribute == null) {
-            attribute = KnownAttribute.UNKNOWN;
-        }
-        Class<? extends BaseAttribute> itemClass = attribute.attributeClass();
+        Class<? extends BaseAttribute> itemClass = types.classForKey(itemTypeKeyName);
 
-        ListAttribute.Builder<BaseAttribute> builder = new ListAttribute.Builder<>(attribute.attributeClass());
-        List<BaseAttribute> items = Lists.newArrayList();
+        ListAttribute.Builder<BaseAttribute> builder = new ListAttribute.Builder<>(itemClass);
 
         if (jp.nextToken() != JsonToken.START_ARRAY) {
             throw ctxt.wrongTokenException(jp, (JavaType) null, JsonToken.START_ARRAY, "No array of values for list.");
@@ -67,9 +74,8 @@ public class ListAttributeArrayDeserializer extends JsonDeserializer<ListAttribu
         // we just read the elements as we see them,
         while (jp.nextToken() != JsonToken.END_ARRAY) {
             // the START_ARRAY case, which is _normal_. Read the elements.
-            items.add(jp.readValueAs(itemClass));
+            builder.add(jp.readValueAs(itemClass));
         }
-        builder.setItems(items);
         // we are still in the top-level array ...
         if (jp.nextToken() != JsonToken.START_OBJECT) {
             throw ctxt.wrongTokenException(
@@ -16,14 +16,17 @@
 
 package com.basistech.rosette.dm.jackson.array;
 
+import com.basistech.rosette.dm.ColumnarTokens;
 import com.basistech.rosette.dm.ListAttribute;
-import com.basistech.rosette.dm.jackson.KnownAttribute;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.jackson.AttributeTypes;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,16 +34,35 @@ import java.util.Map;
  * writing out the type every time.
  */
 public class ListAttributeArraySerializer extends JsonSerializer<ListAttribute> {
+    private static final MorphoAnalysisListArraySerializer ANALYSES_SERIALIZER = new MorphoAnalysisListArraySerializer();
+    private final AttributeTypes types;
+
+    public ListAttributeArraySerializer() {
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public ListAttributeArraySerializer(AttributeTypes types) {
+        this.types = types;
+    }
+
     @Override
     public void serialize(ListAttribute value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
         jgen.writeStartArray();
-        jgen.writeString(KnownAttribute.getAttributeForClass(value.getItemClass()).key());
+        jgen.writeString(types.keyForClass(value.getItemClass()));
         writeItems(value, jgen, provider);
         writeExtendedProperties(value, jgen);
         jgen.writeEndArray();
     }
 
     private void writeItems(ListAttribute value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        if (value.getItems() instanceof ColumnarTokens) {
+            writeColumnarTokens((ColumnarTokens) value.getItems(), jgen, provider);
+            return;
+        }
         jgen.writeStartArray();
 
         for (Object attr : value) {
@@ -50,6 +72,44 @@ public class ListAttributeArraySerializer extends JsonSerializer<ListAttribute>
         jgen.writeEndArray();
     }
 
+    /*
+     * Writes the tokens straight from the columns, without creating Token objects.
+     * The layout matches TokenArrayMixin: alphabetical properties, nulls included.
+     */
+    private void writeColumnarTokens(ColumnarTokens tokens, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartArray();
+        for (int index = 0; index < tokens.size(); index++) {
+            jgen.writeStartArray();
+            List<MorphoAnalysis> analyses = tokens.analyses(index);
+            if (analyses == null) {
+                jgen.writeNull();
+            } else {
+                ANALYSES_SERIALIZER.serialize(analyses, jgen, provider);
+            }
+            jgen.writeNumber(tokens.endOffset(index));
+            jgen.writeStartObject();
+            for (Map.Entry<String, Object> entry : tokens.extendedProperties(index).entrySet()) {
+                provider.defaultSerializeField(entry.getKey(), entry.getValue(), jgen);
+            }
+            jgen.writeEndObject();
+            List<String> normalized = tokens.normalized(index);
+            if (normalized == null) {
+                jgen.writeNull();
+            } else {
+                jgen.writeStartArray();
+                for (String form : normalized) {
+                    jgen.writeString(form);
+                }
+                jgen.writeEndArray();
+            }
+            jgen.writeString(tokens.source(index));
+            jgen.writeNumber(tokens.startOffset(index));
+            jgen.writeString(tokens.text(index));
+            jgen.writeEndArray();
+        }
+        jgen.writeEndArray();
+    }
+
     private void writeExtendedProperties(ListAttribute value, JsonGenerator jgen) throws IOException {
         Map<String, Object> extendedProperties = value.getExtendedProperties();
         jgen.writeStartObject();
@@ -62,7 +122,7 @@ public class ListAttributeArraySerializer extends JsonSerializer<ListAttribute>
     @Override
     public void serializeWithType(ListAttribute value, JsonGenerator jgen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
         typeSer.writeTypePrefixForArray(value, jgen);
-        jgen.writeString(KnownAttribute.getAttributeForClass(value.getItemClass()).key());
+        jgen.writeString(types.keyForClass(value.getItemClass()));
         writeItems(value, jgen, provider);
         writeExtendedProperties(value, jgen);
         typeSer.writeTypeSuffixForArray(value, jgen);
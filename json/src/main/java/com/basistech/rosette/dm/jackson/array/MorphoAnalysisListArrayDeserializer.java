@@ -17,6 +17,7 @@
 package com.basistech.rosette.dm.jackson.array;
 
 import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.MorphoAnalysisCache;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -32,6 +33,19 @@ import java.util.List;
  * read [n, {}, m, {}, ... ] for n, m ordinals from MorphoAnalysisTypes.
  */
 public final class MorphoAnalysisListArrayDeserializer extends JsonDeserializer<List<MorphoAnalysis>> {
+    private final MorphoAnalysisCache cache;
+
+    public MorphoAnalysisListArrayDeserializer() {
+        this(null);
+    }
+
+    /**
+     * Constructs a deserializer that shares equal analyses.
+     * @param cache the analysis cache, or {@code null} for none.
+     */
+    public MorphoAnalysisListArrayDeserializer(MorphoAnalysisCache cache) {
+        this.cache = cache;
+    }
 
     @Override
     public List<MorphoAnalysis> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
@@ -45,7 +59,8 @@ public final class MorphoAnalysisListArrayDeserializer extends JsonDeserializer<
                 type = MorphoAnalysisTypes.byOrdinal(jp.getIntValue());
                 jp.nextToken();
             }
-            results.add(jp.readValueAs(type.getMorphoAnalysisClass()));
+            MorphoAnalysis analysis = jp.readValueAs(type.getMorphoAnalysisClass());
+            results.add(cache == null ? analysis : cache.canonicalize(analysis));
         }
         return ImmutableList.copyOf(results);
     }
@@ -17,6 +17,7 @@
 package com.basistech.rosette.dm.jackson.array;
 
 import com.basistech.rosette.dm.Attribute;
+import com.basistech.rosette.dm.jackson.AttributeTypes;
 import com.basistech.rosette.dm.jackson.DmTypeIdResolver;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -33,7 +34,15 @@ public class TempAttributeMapSerializer extends JsonSerializer<Map<String, Attri
     private final DmTypeIdResolver resolver;
 
     public TempAttributeMapSerializer() {
-        resolver = new DmTypeIdResolver();
+        this(AttributeTypes.builtIn());
+    }
+
+    /**
+     * Constructs one that looks attribute types up in a registry.
+     * @param types the registry.
+     */
+    public TempAttributeMapSerializer(AttributeTypes types) {
+        resolver = new DmTypeIdResolver(types);
     }
 
     @Override
@@ -0,0 +1,123 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AdmCorpusReader;
+import com.basistech.rosette.dm.jackson.AdmCorpusWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Newline-delimited corpora, written and read in parallel.
+ */
+public class AdmCorpusTest extends AdmAssert {
+
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    private static AnnotatedText text(int number) {
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        StringBuilder data = new StringBuilder();
+        for (int x = 0; x <= number % 7; x++) {
+            tokens.add(new Token.Builder(data.length(), data.length() + 4, "w" + number + "x" + x).build());
+            data.append("word\n");
+        }
+        return new AnnotatedText.Builder().data(data.toString()).tokens(tokens.build()).documentMetadata("number", Integer.toString(number)).build();
+    }
+
+    private byte[] corpus(int count) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // indentation is turned off by the writer.
+        try (AdmCorpusWriter writer = new AdmCorpusWriter(objectMapper().writer(SerializationFeature.INDENT_OUTPUT), out, executor, 3)) {
+            for (int number = 0; number < count; number++) {
+                writer.write(text(number));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        byte[] corpus = corpus(200);
+        String[] lines = new String(corpus, StandardCharsets.UTF_8).split("\n");
+        assertEquals(200, lines.length);
+        assertEquals(objectMapper().writeValueAsString(text(17)), lines[17]);
+
+        try (AdmCorpusReader reader = new AdmCorpusReader(objectMapper(), new ByteArrayInputStream(corpus), executor, 5)) {
+            int number = 0;
+            while (reader.hasNext()) {
+                AnnotatedText text = reader.next();
+                assertEquals(text(number).getData(), text.getData());
+                assertEquals(text(number).getTokens().size(), text.getTokens().size());
+                assertEquals(Integer.toString(number), text.getDocumentMetadata().get("number").get(0));
+                number++;
+            }
+            assertEquals(200, number);
+        }
+    }
+
+    @Test
+    public void stream() throws Exception {
+        String corpus = "\n" + new String(corpus(10), StandardCharsets.UTF_8).replace("\n", "\r\n\n  \n");
+        try (Stream<AnnotatedText> texts = new AdmCorpusReader(objectMapper(),
+                new ByteArrayInputStream(corpus.getBytes(StandardCharsets.UTF_8)), executor, 2).stream()) {
+            List<String> numbers = texts.map(text -> text.getDocumentMetadata().get("number").get(0)).collect(Collectors.toList());
+            assertEquals(10, numbers.size());
+            for (int number = 0; number < 10; number++) {
+                assertEquals(Integer.toString(number), numbers.get(number));
+            }
+        }
+    }
+
+    @Test
+    public void badLine() throws Exception {
+        String corpus = new String(corpus(2), StandardCharsets.UTF_8) + "{\"data\": 3, \"attributes\": [\n";
+        try (AdmCorpusReader reader = new AdmCorpusReader(objectMapper(), new ByteArrayInputStream(corpus.getBytes(StandardCharsets.UTF_8)), executor, 4)) {
+            reader.next();
+            reader.next();
+            try {
+                reader.next();
+                fail("bad line read");
+            } catch (UncheckedIOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("line 3"));
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.LanguageDetection;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AdmStreamReader;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.basistech.util.LanguageCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Reading texts a piece at a time.
+ */
+public class AdmStreamReaderTest extends AdmAssert {
+
+    private static AnnotatedText text() {
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 4, "John").build());
+        tokens.add(new Token.Builder(5, 11, "smiled").addNormalized("smile").build());
+        tokens.extendedProperty("tokenizer", "simple");
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 11).build());
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(new Entity.Builder().mention(new Mention.Builder(0, 4).build()).type("PERSON").build());
+        LanguageDetection detection = new LanguageDetection.Builder(0, 11,
+                Arrays.asList(new LanguageDetection.DetectionResult.Builder(LanguageCode.ENGLISH).build())).build();
+        return new AnnotatedText.Builder().data("John smiled").tokens(tokens.build()).sentences(sentences.build())
+                .entities(entities.build()).wholeDocumentLanguageDetection(detection).documentMetadata("k", "v").build();
+    }
+
+    /* The events for a text, in the order of its attributes, with the pieces in plain json. */
+    private String expectedLog(AnnotatedText text) throws Exception {
+        StringBuilder log = new StringBuilder("DATA " + text.getData() + "\n");
+        for (Map.Entry<String, BaseAttribute> entry : text.getAttributes().entrySet()) {
+            if (entry.getValue() instanceof ListAttribute) {
+                ListAttribute<?> list = (ListAttribute<?>) entry.getValue();
+                log.append("LIST_START ").append(entry.getKey()).append(' ').append(list.getItemClass().getSimpleName()).append('\n');
+                for (Object item : list) {
+                    log.append("ITEM ").append(objectMapper().writeValueAsString(item)).append('\n');
+                }
+                log.append("LIST_END ").append(list.getExtendedProperties()).append('\n');
+            } else {
+                log.append("ATTRIBUTE ").append(entry.getKey()).append(' ').append(objectMapper().writeValueAsString(entry.getValue())).append('\n');
+            }
+        }
+        return log.append("DOCUMENT_METADATA ").append(text.getDocumentMetadata()).append('\n').toString();
+    }
+
+    private String log(AdmStreamReader reader, boolean skipTokens) throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (AdmStreamReader.Event event = reader.next(); event != null; event = reader.next()) {
+            log.append(event).append(' ');
+            switch (event) {
+            case DATA:
+                log.append(reader.getData());
+                break;
+            case DOCUMENT_METADATA:
+                log.append(reader.getDocumentMetadata());
+                break;
+            case ATTRIBUTE:
+                log.append(reader.getAttributeKey()).append(' ').append(objectMapper().writeValueAsString(reader.getAttribute()));
+                break;
+            case LIST_START:
+                log.append(reader.getAttributeKey()).append(' ').append(reader.getItemClass().getSimpleName());
+                if (skipTokens && reader.getItemClass() == Token.class) {
+                    reader.skipItems();
+                }
+                break;
+            case ITEM:
+                log.append(objectMapper().writeValueAsString(reader.getItem()));
+                break;
+            default:
+                log.append(reader.getExtendedProperties());
+                break;
+            }
+            log.append('\n');
+        }
+        assertEquals("1.1.0", reader.getVersion());
+        return log.toString();
+    }
+
+    @Test
+    public void plain() throws Exception {
+        AnnotatedText text = text();
+        String json = objectMapper().writeValueAsString(text);
+        try (AdmStreamReader reader = new AdmStreamReader(objectMapper(), objectMapper().getFactory().createParser(json))) {
+            assertEquals(expectedLog(text), log(reader, false));
+        }
+    }
+
+    @Test
+    public void array() throws Exception {
+        AnnotatedText text = text();
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper());
+        String json = mapper.writeValueAsString(text);
+        try (AdmStreamReader reader = new AdmStreamReader(mapper, mapper.getFactory().createParser(json))) {
+            assertEquals(expectedLog(text), log(reader, false));
+        }
+    }
+
+    @Test
+    public void skipItems() throws Exception {
+        AnnotatedText text = text();
+        String expected = expectedLog(text).replaceAll("ITEM \\{\"startOffset\":\\d+,\"endOffset\":\\d+,\"text\".*\n", "");
+        for (ObjectMapper mapper : Arrays.asList(objectMapper(), AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper()))) {
+            String json = mapper.writeValueAsString(text);
+            try (AdmStreamReader reader = new AdmStreamReader(mapper, mapper.getFactory().createParser(json))) {
+                assertEquals(expected, log(reader, true));
+            }
+        }
+    }
+
+    @Test
+    public void lateTypes() throws Exception {
+        String json = "{\"version\":\"1.1.0\",\"data\":\"John smiled\",\"attributes\":{"
+                + "\"token\":{\"type\":\"list\",\"tokenizer\":\"simple\",\"items\":[{\"startOffset\":0,\"endOffset\":4,\"text\":\"John\"}],\"itemType\":\"token\"},"
+                + "\"sentence\":{\"items\":[{\"startOffset\":0,\"endOffset\":11}],\"type\":\"list\",\"itemType\":\"sentence\",\"ext\":1},"
+                + "\"languageDetection\":{\"startOffset\":0,\"endOffset\":11,\"type\":\"languageDetection\",\"detectionResults\":[{\"language\":\"eng\"}]}"
+                + "},\"documentMetadata\":{}}";
+        try (AdmStreamReader reader = new AdmStreamReader(objectMapper(), objectMapper().getFactory().createParser(json))) {
+            assertEquals("DATA John smiled\n"
+                    + "LIST_START token Token\n"
+                    + "ITEM {\"startOffset\":0,\"endOffset\":4,\"text\":\"John\"}\n"
+                    + "LIST_END {tokenizer=simple}\n"
+                    + "LIST_START sentence Sentence\n"
+                    + "ITEM {\"startOffset\":0,\"endOffset\":11}\n"
+                    + "LIST_END {ext=1}\n"
+                    + "ATTRIBUTE languageDetection {\"startOffset\":0,\"endOffset\":11,\"detectionResults\":[{\"language\":\"eng\"}]}\n"
+                    + "DOCUMENT_METADATA {}\n", log(reader, false));
+        }
+    }
+}
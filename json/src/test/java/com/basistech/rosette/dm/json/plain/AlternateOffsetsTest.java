@@ -0,0 +1,94 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.ColumnarTokens;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.OffsetUnit;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AlternateOffsets;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+/**
+ * Attribute offsets written in a second unit.
+ */
+public class AlternateOffsetsTest extends AdmAssert {
+    // 'caf\u00e9' is 5 utf-8 bytes; the emoji is 2 chars, 1 code point and 4 bytes.
+    private static final String TEXT = "caf\u00e9 \uD83D\uDE00 ok";
+
+    private static ListAttribute<Token> tokens() {
+        ListAttribute.Builder<Token> builder = new ListAttribute.Builder<>(Token.class);
+        builder.add(new Token.Builder(0, 4, "caf\u00e9").build());
+        builder.add(new Token.Builder(5, 7, "\uD83D\uDE00").build());
+        builder.add(new Token.Builder(8, 10, "ok").build());
+        return builder.build();
+    }
+
+    private static ListAttribute<Token> columnarTokens() {
+        return new ColumnarTokens.Builder()
+            .add(0, 4, "caf\u00e9")
+            .add(5, 7, "\uD83D\uDE00")
+            .add(8, 10, "ok")
+            .build();
+    }
+
+    @Test
+    public void utf8Offsets() throws Exception {
+        for (ListAttribute<Token> tokens : new ListAttribute[] {tokens(), columnarTokens()}) {
+            AnnotatedText text = new AnnotatedText.Builder().data(TEXT).tokens(tokens).build();
+            String json = AlternateOffsets.withUnit(objectMapper().writer(), OffsetUnit.UTF8).writeValueAsString(text);
+            JsonNode items = objectMapper().readTree(json).get("attributes").get("token").get("items");
+            int[][] expected = {{0, 5}, {6, 10}, {11, 13}};
+            for (int x = 0; x < expected.length; x++) {
+                assertEquals(expected[x][0], items.get(x).get("utf8StartOffset").asInt());
+                assertEquals(expected[x][1], items.get(x).get("utf8EndOffset").asInt());
+                assertFalse(items.get(x).has("codePointStartOffset"));
+            }
+
+            AnnotatedText read = objectMapper().readValue(json, AnnotatedText.class);
+            for (int x = 0; x < expected.length; x++) {
+                assertEquals(tokens.get(x).getStartOffset(), read.getTokens().get(x).getStartOffset());
+                assertEquals(tokens.get(x).getEndOffset(), read.getTokens().get(x).getEndOffset());
+                assertTrue(read.getTokens().get(x).getExtendedProperties().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void codePointOffsets() throws Exception {
+        AnnotatedText text = new AnnotatedText.Builder().data(TEXT).tokens(tokens()).build();
+        ObjectMapper mapper = AlternateOffsets.withUnit(objectMapper(), OffsetUnit.CODE_POINT);
+        JsonNode token = mapper.readTree(mapper.writeValueAsString(text)).get("attributes").get("token").get("items").get(2);
+        assertEquals(7, token.get("codePointStartOffset").asInt());
+        assertEquals(9, token.get("codePointEndOffset").asInt());
+    }
+
+    @Test
+    public void offByDefault() throws Exception {
+        AnnotatedText text = new AnnotatedText.Builder().data(TEXT).tokens(tokens()).build();
+        JsonNode token = objectMapper().readTree(objectMapper().writeValueAsString(text)).get("attributes").get("token").get("items").get(0);
+        assertFalse(token.has("utf8StartOffset"));
+        assertFalse(token.has("codePointStartOffset"));
+        // attributes written outside a text have no index to convert with.
+        JsonNode alone = objectMapper().readTree(AlternateOffsets.withUnit(objectMapper().writer(), OffsetUnit.UTF8).writeValueAsString(tokens().get(0)));
+        assertFalse(alone.has("utf8StartOffset"));
+        assertTrue(alone.has("startOffset"));
+    }
+}
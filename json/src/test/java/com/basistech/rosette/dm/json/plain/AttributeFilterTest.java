@@ -0,0 +1,125 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.LanguageDetection;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AdmStreamReader;
+import com.basistech.rosette.dm.jackson.AttributeFilter;
+import com.basistech.rosette.dm.jackson.DmTypeIdResolver;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.basistech.util.LanguageCode;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reading only some attributes.
+ */
+public class AttributeFilterTest extends AdmAssert {
+
+    private static ListAttribute<Token> tokens() {
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 4, "John").build());
+        tokens.add(new Token.Builder(5, 11, "smiled").addNormalized("smile").build());
+        return tokens.build();
+    }
+
+    private static ListAttribute<Entity> entities() {
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(new Entity.Builder().mention(new Mention.Builder(0, 4).build()).type("PERSON").build());
+        return entities.build();
+    }
+
+    private static AnnotatedText text() {
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 11).build());
+        LanguageDetection detection = new LanguageDetection.Builder(0, 11,
+                Arrays.asList(new LanguageDetection.DetectionResult.Builder(LanguageCode.ENGLISH).build())).build();
+        return new AnnotatedText.Builder().data("John smiled").tokens(tokens()).sentences(sentences.build())
+                .entities(entities()).wholeDocumentLanguageDetection(detection).documentMetadata("k", "v").build();
+    }
+
+    private static AnnotatedText filtered() {
+        return new AnnotatedText.Builder().data("John smiled").tokens(tokens()).entities(entities())
+                .documentMetadata("k", "v").build();
+    }
+
+    @Test
+    public void plain() throws Exception {
+        String json = objectMapper().writeValueAsString(text());
+        AnnotatedText read = AttributeFilter.only(objectMapper().readerFor(AnnotatedText.class), "token", "entities").readValue(json);
+        assertEquals(objectMapper().writeValueAsString(filtered()), objectMapper().writeValueAsString(read));
+        assertNull(read.getSentences());
+        // without the filter, everything comes back.
+        assertEquals(json, objectMapper().writeValueAsString(objectMapper().readValue(json, AnnotatedText.class)));
+    }
+
+    /* an attribute map outside AnnotatedText. */
+    public static class Holder {
+        @JsonTypeInfo(use = JsonTypeInfo.Id.CUSTOM, include = JsonTypeInfo.As.PROPERTY, property = "type")
+        @JsonTypeIdResolver(DmTypeIdResolver.class)
+        public Map<String, BaseAttribute> attributes;
+    }
+
+    @Test
+    public void otherAttributeMapsUnfiltered() throws Exception {
+        Holder holder = new Holder();
+        holder.attributes = new LinkedHashMap<>();
+        holder.attributes.put("token", tokens());
+        holder.attributes.put("entities", entities());
+        String json = objectMapper().writeValueAsString(holder);
+        Holder read = AttributeFilter.only(objectMapper().readerFor(Holder.class), "token").readValue(json);
+        assertEquals(Arrays.asList("token", "entities"), new ArrayList<>(read.attributes.keySet()));
+        assertEquals(json, objectMapper().writeValueAsString(read));
+    }
+
+    @Test
+    public void array() throws Exception {
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper());
+        String json = mapper.writeValueAsString(text());
+        AttributeFilter.only(mapper, Arrays.asList("token", "entities"));
+        assertEquals(mapper.writeValueAsString(filtered()), mapper.writeValueAsString(mapper.readValue(json, AnnotatedText.class)));
+    }
+
+    @Test
+    public void streamReader() throws Exception {
+        String json = objectMapper().writeValueAsString(text());
+        List<String> keys = new ArrayList<>();
+        try (AdmStreamReader reader = new AdmStreamReader(AttributeFilter.only(objectMapper().reader(), "entities"),
+                objectMapper().getFactory().createParser(json))) {
+            for (AdmStreamReader.Event event = reader.next(); event != null; event = reader.next()) {
+                if (event == AdmStreamReader.Event.LIST_START || event == AdmStreamReader.Event.ATTRIBUTE) {
+                    keys.add(reader.getAttributeKey());
+                }
+            }
+        }
+        assertEquals(Arrays.asList("entities"), keys);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.BaseAttribute;
+import com.basistech.rosette.dm.CategorizerResult;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.UnknownAttribute;
+import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.AttributeTypes;
+import com.basistech.rosette.dm.jackson.ModuleOptions;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+/**
+ * Application attribute types registered with {@link AttributeTypes} round-trip as themselves
+ * through the mappers whose module has the registry.
+ */
+public class AttributeTypesTest extends AdmAssert {
+
+    public static class Color extends BaseAttribute {
+        private static final long serialVersionUID = 250L;
+        private final String name;
+
+        @JsonCreator
+        public Color(@JsonProperty("name") String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Shade extends BaseAttribute {
+        private static final long serialVersionUID = 250L;
+    }
+
+    private static AnnotatedText text() {
+        AnnotatedText.Builder builder = new AnnotatedText.Builder().data("red and blue");
+        ListAttribute.Builder<Color> colors = new ListAttribute.Builder<>(Color.class);
+        colors.add(new Color("red"));
+        colors.add(new Color("blue"));
+        builder.attributes().put("colors", colors.build());
+        builder.attributes().put("favorite", new Color("green"));
+        return builder.build();
+    }
+
+    @Test
+    public void knownTypes() {
+        AttributeTypes types = AttributeTypes.builtIn();
+        assertEquals(Token.class, types.classForKey("token"));
+        assertEquals("token", types.keyForClass(Token.class));
+        // the first of the keys that share a class.
+        assertEquals("categorizerResults", types.keyForClass(CategorizerResult.class));
+        assertEquals(CategorizerResult.class, types.classForKey("topicResults"));
+    }
+
+    @Test
+    public void unregisteredTypes() {
+        AttributeTypes types = new AttributeTypes.Builder().register("color", Color.class).build();
+        assertEquals(UnknownAttribute.class, types.classForKey("shade"));
+        assertEquals("unknown", types.keyForClass(Shade.class));
+        // the built-in registry is not changed by building another.
+        assertEquals(UnknownAttribute.class, AttributeTypes.builtIn().classForKey("color"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void conflictingKey() {
+        new AttributeTypes.Builder().register("token", Color.class);
+    }
+
+    @Test
+    public void registeredRoundTrip() throws Exception {
+        AttributeTypes types = new AttributeTypes.Builder().register("color", Color.class).build();
+        assertEquals("color", types.keyForClass(Color.class));
+        assertEquals(Color.class, types.classForKey("color"));
+
+        ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().attributeTypes(types).build());
+        String json = mapper.writeValueAsString(text());
+        assertTrue(json.contains("\"itemType\":\"color\""));
+        AnnotatedText read = mapper.readValue(json, AnnotatedText.class);
+
+        @SuppressWarnings("unchecked")
+        ListAttribute<Color> readColors = (ListAttribute<Color>) read.getAttributes().get("colors");
+        assertEquals(Color.class, readColors.getItemClass());
+        assertEquals("blue", readColors.get(1).getName());
+        assertEquals("green", ((Color) read.getAttributes().get("favorite")).getName());
+    }
+
+    @Test
+    public void arrayRoundTrip() throws Exception {
+        AttributeTypes types = new AttributeTypes.Builder().register("color", Color.class).build();
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().attributeTypes(types).build());
+        AnnotatedText read = mapper.readValue(mapper.writeValueAsString(text()), AnnotatedText.class);
+        assertEquals(Color.class, ((ListAttribute<?>) read.getAttributes().get("colors")).getItemClass());
+        assertEquals("green", ((Color) read.getAttributes().get("favorite")).getName());
+    }
+
+    @Test
+    public void otherMappersUnaffected() throws Exception {
+        AttributeTypes types = new AttributeTypes.Builder().register("color", Color.class).build();
+        AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(), new ModuleOptions.Builder().attributeTypes(types).build());
+        String json = objectMapper().writeValueAsString(text());
+        assertFalse(json.contains("\"color\""));
+        assertTrue(json.contains("\"itemType\":\"unknown\""));
+    }
+}
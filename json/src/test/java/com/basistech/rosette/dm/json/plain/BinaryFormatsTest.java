@@ -0,0 +1,129 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.EmbeddingCollection;
+import com.basistech.rosette.dm.Embeddings;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.junit.Test;
+
+/**
+ * Round trips through the binary Jackson backends, with both the plain and the array module.
+ */
+public class BinaryFormatsTest extends AdmAssert {
+    private static final String TEXT = "The quick brown fox jumps over the lazy dog. The dog sleeps.";
+    private static final String[] TAGS = {"DET", "ADJ", "ADJ", "NOUN", "VERB", "ADP", "DET", "ADJ", "NOUN", "PUNCT", "DET", "NOUN", "VERB", "PUNCT"};
+
+    private static AnnotatedText document() {
+        AnnotatedText.Builder builder = new AnnotatedText.Builder().data(TEXT);
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        int start = 0;
+        int tag = 0;
+        while (start < TEXT.length()) {
+            int end = start;
+            while (end < TEXT.length() && Character.isLetter(TEXT.charAt(end))) {
+                end++;
+            }
+            if (end == start) {
+                end++;
+            }
+            if (TEXT.charAt(start) != ' ') {
+                String word = TEXT.substring(start, end);
+                Token.Builder token = new Token.Builder(start, end, word);
+                token.addAnalysis(new MorphoAnalysis.Builder().partOfSpeech(TAGS[tag++]).lemma(word.toLowerCase()).build());
+                tokens.add(token.build());
+            }
+            start = end;
+        }
+        builder.tokens(tokens.build());
+
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 44).build());
+        Sentence.Builder second = new Sentence.Builder(45, TEXT.length());
+        second.extendedProperty("sentence-ex", 3);
+        sentences.add(second.build());
+        builder.sentences(sentences.build());
+
+        Entity.Builder entity = new Entity.Builder();
+        entity.type("ANIMAL");
+        entity.headMentionIndex(0);
+        // more digits than the textual output keeps.
+        entity.confidence(0.123456789123);
+        entity.mention(new Mention.Builder(16, 19).confidence(1.0 / 3).build());
+        entity.mention(new Mention.Builder(40, 43).build());
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(entity.build());
+        builder.entities(entities.build());
+
+        EmbeddingCollection.Builder vectors = new EmbeddingCollection.Builder();
+        vectors.put(0, new float[] {0.25f, -1.5f, 3.0f});
+        vectors.put(3, new float[] {1.0f, Float.NaN, -0.125f});
+        EmbeddingCollection collection = vectors.build();
+        Embeddings.Builder embeddings = new Embeddings.Builder();
+        embeddings.put(Embeddings.Name.TEXT, collection);
+        embeddings.put(Embeddings.Name.TOKENS, collection.withPrecision(EmbeddingCollection.Precision.FLOAT16));
+        builder.embeddings(embeddings.build());
+        return builder.build();
+    }
+
+    private static void roundTrip(JsonFactory factory) throws Exception {
+        AnnotatedText text = document();
+        for (ObjectMapper mapper : new ObjectMapper[] {AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(factory)),
+            AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper(factory))}) {
+            AnnotatedText read = mapper.readValue(mapper.writeValueAsBytes(text), AnnotatedText.class);
+            assertEquals(TEXT, read.getData().toString());
+            assertEquals(text.getTokens(), read.getTokens());
+            assertEquals(text.getSentences(), read.getSentences());
+            // binary formats keep the full double.
+            assertEquals(text.getEntities(), read.getEntities());
+            assertEquals(text.getEmbeddings(), read.getEmbeddings());
+        }
+    }
+
+    @Test
+    public void smile() throws Exception {
+        roundTrip(new SmileFactory());
+        roundTrip(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+    }
+
+    @Test
+    public void cbor() throws Exception {
+        roundTrip(new CBORFactory());
+    }
+
+    @Test
+    public void sharedStringsAreSmaller() throws Exception {
+        AnnotatedText text = document();
+        byte[] json = objectMapper().writeValueAsBytes(text);
+        byte[] smile = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(
+            SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())).writeValueAsBytes(text);
+        assertTrue(smile.length + " vs " + json.length, smile.length < json.length);
+    }
+}
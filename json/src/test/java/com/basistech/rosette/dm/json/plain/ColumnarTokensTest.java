@@ -0,0 +1,68 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.ColumnarTokens;
+import com.basistech.rosette.dm.HanMorphoAnalysis;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+/**
+ * The columnar fast path in the list serializers must write exactly what the
+ * default token serialization writes.
+ */
+public class ColumnarTokensTest extends AdmAssert {
+
+    private static ListAttribute<Token> tokens() {
+        ListAttribute.Builder<Token> builder = new ListAttribute.Builder<>(Token.class);
+        Token.Builder tokenBuilder = new Token.Builder(0, 4, "This").source("src").addNormalized("this");
+        tokenBuilder.addAnalysis(new MorphoAnalysis.Builder().lemma("this").partOfSpeech("DET").build());
+        tokenBuilder.addAnalysis(new HanMorphoAnalysis.Builder().lemma("x").addReading("r").build());
+        tokenBuilder.extendedProperty("ex", 1);
+        builder.add(tokenBuilder.build());
+        builder.add(new Token.Builder(5, 7, "is").build());
+        builder.extendedProperty("le", "v");
+        return builder.build();
+    }
+
+    private static AnnotatedText text(ListAttribute<Token> tokens) {
+        return new AnnotatedText.Builder().data("This is").tokens(tokens).build();
+    }
+
+    @Test
+    public void plainOutputIdentical() throws Exception {
+        ListAttribute<Token> tokens = tokens();
+        String expected = objectMapper().writeValueAsString(text(tokens));
+        String actual = objectMapper().writeValueAsString(text(ColumnarTokens.copyOf(tokens)));
+        assertEquals(expected, actual);
+        assertEquals(tokens, objectMapper().readValue(actual, AnnotatedText.class).getTokens());
+    }
+
+    @Test
+    public void arrayOutputIdentical() throws Exception {
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper());
+        ListAttribute<Token> tokens = tokens();
+        String expected = mapper.writeValueAsString(text(tokens));
+        String actual = mapper.writeValueAsString(text(ColumnarTokens.copyOf(tokens)));
+        assertEquals(expected, actual);
+        assertEquals(tokens, mapper.readValue(actual, AnnotatedText.class).getTokens());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.CompactCharSequence;
+import com.basistech.rosette.dm.jackson.DataDeserializer;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+/**
+ * Texts read with compact data enabled hold a {@link CompactCharSequence}.
+ */
+public class CompactDataTest extends AdmAssert {
+    private static final String TEXT = "It\u2019s \u201Cquoted\u201D \u2014 and the caf\u00e9 charges 3\u20AC for it. "
+        + "The rest of this document is plain ASCII text, as most of our documents are, "
+        + "with only the occasional typographic character.";
+
+    @Test
+    public void compactData() throws Exception {
+        AnnotatedText text = new AnnotatedText.Builder().data(TEXT).build();
+        for (ObjectMapper mapper : new ObjectMapper[] {objectMapper(), AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper())}) {
+            byte[] json = mapper.writeValueAsBytes(text);
+            AnnotatedText plain = mapper.readValue(json, AnnotatedText.class);
+            assertEquals(TEXT, plain.getData());
+
+            AnnotatedText compact = DataDeserializer.compact(mapper.readerFor(AnnotatedText.class)).readValue(json);
+            assertTrue(compact.getData() instanceof CompactCharSequence);
+            assertEquals(TEXT, compact.getData().toString());
+            // compact data writes the same json.
+            assertArrayEquals(json, mapper.writeValueAsBytes(compact));
+
+            DataDeserializer.compact(mapper);
+            assertTrue(mapper.readValue(json, AnnotatedText.class).getData() instanceof CompactCharSequence);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.EmbeddingCollection;
+import com.basistech.rosette.dm.Embeddings;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+/**
+ * Reduced-precision embeddings use a compact encoding and read back exactly.
+ */
+public class EmbeddingPrecisionTest extends AdmAssert {
+
+    private static EmbeddingCollection collection(EmbeddingCollection.Precision precision) {
+        return new EmbeddingCollection.Builder()
+                .put(0, new float[] {0.25f, -1.5f, 3f})
+                .put(4, new float[] {1e-3f, 2f, -0.75f})
+                .precision(precision)
+                .build();
+    }
+
+    private static void assertSameVectors(EmbeddingCollection expected, EmbeddingCollection actual) {
+        assertEquals(expected.precision(), actual.precision());
+        assertArrayEquals(expected.indices(), actual.indices());
+        for (int index : expected.indices()) {
+            assertArrayEquals(expected.vector(index), actual.vector(index), 0f);
+        }
+    }
+
+    @Test
+    public void float32Unchanged() throws Exception {
+        JsonNode tree = objectMapper().valueToTree(collection(EmbeddingCollection.Precision.FLOAT32));
+        assertTrue(tree.has("embeddings"));
+        assertFalse(tree.has("precision"));
+    }
+
+    @Test
+    public void compactPlain() throws Exception {
+        for (EmbeddingCollection.Precision precision : new EmbeddingCollection.Precision[] {
+            EmbeddingCollection.Precision.FLOAT16, EmbeddingCollection.Precision.INT8}) {
+            EmbeddingCollection collection = collection(precision);
+            String json = objectMapper().writeValueAsString(collection);
+            JsonNode tree = objectMapper().readTree(json);
+            assertEquals(precision.name(), tree.get("precision").asText());
+            assertEquals(3, tree.get("dimension").asInt());
+            assertEquals(precision == EmbeddingCollection.Precision.INT8, tree.has("scales"));
+            assertSameVectors(collection, objectMapper().readValue(json, EmbeddingCollection.class));
+        }
+    }
+
+    @Test
+    public void compactArray() throws Exception {
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper());
+        for (EmbeddingCollection.Precision precision : new EmbeddingCollection.Precision[] {
+            EmbeddingCollection.Precision.FLOAT16, EmbeddingCollection.Precision.INT8}) {
+            EmbeddingCollection collection = collection(precision);
+            String json = mapper.writeValueAsString(collection);
+            assertTrue(json.startsWith("[\"" + precision.name() + "\""));
+            assertSameVectors(collection, mapper.readValue(json, EmbeddingCollection.class));
+        }
+    }
+
+    @Test
+    public void raggedLengths() throws Exception {
+        EmbeddingCollection collection = new EmbeddingCollection.Builder()
+                .put(1, new float[] {1, 2})
+                .put(2, new float[] {3})
+                .precision(EmbeddingCollection.Precision.FLOAT16)
+                .build();
+        String json = objectMapper().writeValueAsString(collection);
+        assertTrue(objectMapper().readTree(json).has("lengths"));
+        assertSameVectors(collection, objectMapper().readValue(json, EmbeddingCollection.class));
+    }
+
+    @Test
+    public void inAnnotatedText() throws Exception {
+        EmbeddingCollection collection = collection(EmbeddingCollection.Precision.INT8);
+        Embeddings embeddings = new Embeddings.Builder()
+                .put(Embeddings.Name.TOKENS, collection)
+                .build();
+        AnnotatedText text = new AnnotatedText.Builder().data("text").embeddings(embeddings).build();
+        String json = objectMapper().writeValueAsString(text);
+        AnnotatedText readBack = objectMapper().readValue(json, AnnotatedText.class);
+        assertSameVectors(collection, readBack.getEmbeddings().get(Embeddings.Name.TOKENS));
+    }
+}
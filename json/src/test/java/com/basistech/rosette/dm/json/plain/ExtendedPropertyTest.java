@@ -120,4 +120,23 @@ public class ExtendedPropertyTest extends AdmAssert {
         ArabicMorphoAnalysis ma2 = (ArabicMorphoAnalysis)deserialized.getAnalyses().get(1);
         assertEquals("apples", ma2.getExtendedProperties().get("some"));
     }
+
+    @Test
+    public void manyExtendedProperties() throws Exception {
+        Token.Builder builder = new Token.Builder(0, 5, "abcdefg");
+        for (int x = 0; x < 2000; x++) {
+            builder.extendedProperty("key" + x, "value" + x);
+        }
+        Token token = builder.build();
+        ObjectMapper mapper = objectMapper();
+        String json = mapper.writeValueAsString(token);
+        Token token2 = mapper.readerFor(Token.class).readValue(json);
+        assertEquals(token.getExtendedProperties(), token2.getExtendedProperties());
+        try {
+            token2.getExtendedProperties().put("key0", "other");
+            fail("extended properties should be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
 }
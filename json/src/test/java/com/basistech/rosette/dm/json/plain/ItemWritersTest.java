@@ -0,0 +1,121 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.CategorizerResult;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.LanguageDetection;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.Sentence;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.util.ISO15924;
+import com.basistech.util.LanguageCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * The list serializer writes the common item types directly; the output must be exactly
+ * what the bean serializers write for each item.
+ */
+public class ItemWritersTest extends AdmAssert {
+
+    private static AnnotatedText text() {
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        Token.Builder tokenBuilder = new Token.Builder(0, 4, "John").source("src").addNormalized("john");
+        tokenBuilder.addAnalysis(new MorphoAnalysis.Builder().lemma("John").partOfSpeech("PROP").build());
+        tokenBuilder.extendedProperty("zz", 1);
+        tokenBuilder.extendedProperty("aa", Arrays.asList("x", "y"));
+        tokens.add(tokenBuilder.build());
+        tokens.add(new Token.Builder(5, 10, "smiled").build());
+
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        Sentence.Builder sentenceBuilder = new Sentence.Builder(0, 10);
+        sentenceBuilder.extendedProperty("score", 0.125);
+        sentences.add(sentenceBuilder.build());
+
+        Mention.Builder mentionBuilder = new Mention.Builder(0, 4).confidence(0.987654321987).linkingConfidence(0.5)
+                .source("statistical").subsource("sub").normalized("John");
+        mentionBuilder.extendedProperty("m", "v");
+        Entity.Builder entityBuilder = new Entity.Builder().mention(mentionBuilder.build()).headMentionIndex(0)
+                .type("PERSON").entityId("Q1").confidence(0.25)
+                .sentiment(new CategorizerResult.Builder("pos", 0.75).confidence(0.5).build()).salience(Double.NaN);
+        entityBuilder.extendedProperty("e", true);
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(entityBuilder.build());
+        entities.add(new Entity.Builder().mention(new Mention.Builder(5, 10).build()).build());
+
+        LanguageDetection.DetectionResult.Builder resultBuilder = new LanguageDetection.DetectionResult.Builder(LanguageCode.ENGLISH)
+                .encoding("UTF-8").script(ISO15924.Latn).confidence(0.375);
+        resultBuilder.extendedProperty("r", 2);
+        LanguageDetection detection = new LanguageDetection.Builder(0, 10, Arrays.asList(resultBuilder.build(),
+                new LanguageDetection.DetectionResult.Builder(LanguageCode.UNKNOWN).build())).build();
+        ListAttribute.Builder<LanguageDetection> regions = new ListAttribute.Builder<>(LanguageDetection.class);
+        regions.add(detection);
+
+        return new AnnotatedText.Builder().data("John smiled").tokens(tokens.build()).sentences(sentences.build())
+                .entities(entities.build()).languageDetectionRegions(regions.build()).build();
+    }
+
+    /* The items as written one by one by the bean serializers. */
+    private static String beanItems(ObjectMapper mapper, ListAttribute<?> list) throws Exception {
+        StringBuilder json = new StringBuilder("\"items\":[");
+        for (int index = 0; index < list.size(); index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append(mapper.writeValueAsString(list.get(index)));
+        }
+        return json.append(']').toString();
+    }
+
+    private static void assertSameItems(ObjectMapper mapper) throws Exception {
+        AnnotatedText text = text();
+        String json = mapper.writeValueAsString(text);
+        for (ListAttribute<?> list : Arrays.<ListAttribute<?>>asList(text.getTokens(), text.getSentences(),
+                text.getEntities(), text.getLanguageDetectionRegions())) {
+            String expected = beanItems(mapper, list);
+            assertTrue(expected + " in " + json, json.contains(expected));
+        }
+    }
+
+    @Test
+    public void sameAsBeanSerializers() throws Exception {
+        assertSameItems(objectMapper());
+    }
+
+    @Test
+    public void sortedMapEntries() throws Exception {
+        ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper());
+        mapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        assertSameItems(mapper);
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        AnnotatedText text = text();
+        AnnotatedText read = objectMapper().readValue(objectMapper().writeValueAsString(text), AnnotatedText.class);
+        assertEquals(text.getTokens(), read.getTokens());
+        assertEquals(text.getSentences(), read.getSentences());
+        assertEquals(text.getLanguageDetectionRegions(), read.getLanguageDetectionRegions());
+    }
+}
@@ -20,8 +20,11 @@ import com.basistech.rosette.dm.AnnotatedText;
 import com.basistech.rosette.dm.ListAttribute;
 import com.basistech.rosette.dm.Token;
 import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.TypeFieldsFirst;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
@@ -97,4 +100,29 @@ public class ListAttributeDeserializerTest extends AdmAssert {
         assertEquals("ext-val2", tokens.getExtendedProperties().get("ext2"));
 
     }
+
+    @Test
+    public void itemsBeforeItemType() throws Exception {
+        ListAttribute<Token> tokens = mapper.readValue("{\"items\":[{\"startOffset\":0,\"endOffset\":3,\"text\":\"The\"},null],"
+                + "\"ext1\":1,\"itemType\":\"token\"}", new TypeReference<ListAttribute<Token>>() { });
+        assertEquals(2, tokens.size());
+        assertEquals("The", tokens.get(0).getText());
+        assertNull(tokens.get(1));
+        assertEquals(1, tokens.getExtendedProperties().get("ext1"));
+    }
+
+    @Test
+    public void typeFirstRequired() throws Exception {
+        ObjectReader reader = TypeFieldsFirst.require(mapper.readerFor(AnnotatedText.class));
+        AnnotatedText text = reader.readValue(new File("test-data/ordered-list-in-annotated-text.json"));
+        assertEquals(3, text.getTokens().size());
+        // what we write always reads back.
+        assertEquals(3, reader.<AnnotatedText>readValue(mapper.writeValueAsString(text)).getTokens().size());
+        try {
+            reader.readValue(new File("test-data/disordered-list-in-annotated-text.json"));
+            fail("late itemType accepted");
+        } catch (JsonMappingException e) {
+            assertTrue(e.getMessage().contains("itemType"));
+        }
+    }
 }
@@ -22,8 +22,10 @@ import com.basistech.rosette.dm.MapAttribute;
 import com.basistech.rosette.dm.SimilarTerm;
 import com.basistech.rosette.dm.Token;
 import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.TypeFieldsFirst;
 import com.basistech.util.LanguageCode;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,4 +73,14 @@ public class MapAttributeDeserializerTest extends AdmAssert {
         assertEquals("element", similarTerms.get(LanguageCode.ENGLISH).get(0).getTerm());
         assertEquals(0.8, similarTerms.get(LanguageCode.ENGLISH).get(0).getSimilarity(), 0.0001);
     }
+
+    @Test
+    public void typeFirstRequired() throws Exception {
+        try {
+            TypeFieldsFirst.require(mapper.readerFor(AnnotatedText.class)).readValue(new File("test-data/disordered-map-in-annotated-text.json"));
+            fail("late keyType accepted");
+        } catch (JsonMappingException e) {
+            assertTrue(e.getMessage().contains("keyType"));
+        }
+    }
 }
@@ -0,0 +1,56 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.MappedCharSequence;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Texts over a {@link MappedCharSequence} write the same json as texts over a string.
+ */
+public class MappedDataTest extends AdmAssert {
+
+    @Test
+    public void sameOutput() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int x = 0; x < 3000; x++) {
+            builder.append("line ").append(x).append(" \"quoted\" caf\u00e9 \uD83D\uDE00\n");
+        }
+        String text = builder.toString();
+        Path path = Files.createTempFile("text", ".txt");
+        try {
+            Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+            AnnotatedText mapped = new AnnotatedText.Builder().data(path, StandardCharsets.UTF_8).build();
+            AnnotatedText plain = new AnnotatedText.Builder().data(text).build();
+            for (ObjectMapper mapper : new ObjectMapper[] {objectMapper(), AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper())}) {
+                assertEquals(mapper.writeValueAsString(plain), mapper.writeValueAsString(mapped));
+                assertArrayEquals(mapper.writeValueAsBytes(plain), mapper.writeValueAsBytes(mapped));
+                AnnotatedText read = mapper.readValue(mapper.writeValueAsBytes(mapped), AnnotatedText.class);
+                assertEquals(text, read.getData().toString());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.HanMorphoAnalysis;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.MorphoAnalysisCache;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.ModuleOptions;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Equal analyses share one instance when the module is given an analysis cache.
+ */
+public class MorphoAnalysisSharingTest extends AdmAssert {
+
+    private static Token token(int start, String text) {
+        HanMorphoAnalysis.Builder han = new HanMorphoAnalysis.Builder();
+        han.partOfSpeech("NOUN");
+        han.addReading("mao1");
+        return new Token.Builder(start, start + text.length(), text)
+                .addAnalysis(new MorphoAnalysis.Builder().partOfSpeech("NOUN").lemma("cat").build())
+                .addAnalysis(han.build())
+                .build();
+    }
+
+    private static AnnotatedText text() {
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(token(0, "cat"));
+        tokens.add(token(4, "cat"));
+        return new AnnotatedText.Builder().data("cat cat").tokens(tokens.build()).build();
+    }
+
+    private static void assertShared(AnnotatedText text) {
+        List<Token> tokens = text.getTokens();
+        for (int x = 0; x < 2; x++) {
+            assertSame(tokens.get(0).getAnalyses().get(x), tokens.get(1).getAnalyses().get(x));
+        }
+        assertTrue(tokens.get(0).getAnalyses().get(1) instanceof HanMorphoAnalysis);
+    }
+
+    @Test
+    public void plain() throws Exception {
+        String json = objectMapper().writeValueAsString(text());
+        ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().morphoAnalysisCache(MorphoAnalysisCache.bounded(1024)).build());
+        assertShared(mapper.readValue(json, AnnotatedText.class));
+    }
+
+    @Test
+    public void array() throws Exception {
+        String json = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper()).writeValueAsString(text());
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().morphoAnalysisCache(MorphoAnalysisCache.bounded(1024)).build());
+        assertShared(mapper.readValue(json, AnnotatedText.class));
+    }
+}
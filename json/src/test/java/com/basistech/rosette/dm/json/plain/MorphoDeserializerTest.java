@@ -16,6 +16,10 @@
 package com.basistech.rosette.dm.json.plain;
 
 import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.HanMorphoAnalysis;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.Token;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import org.junit.Test;
@@ -34,4 +38,28 @@ public class MorphoDeserializerTest extends AdmAssert {
         // threw
         reader.readValue(new File("test-data/comn-130-adm.json"));
     }
+
+    @Test
+    public void subclassDoesNotLeakIntoLaterTokens() throws Exception {
+        HanMorphoAnalysis.Builder han = new HanMorphoAnalysis.Builder();
+        han.partOfSpeech("NOUN");
+        han.addReading("mao1");
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 1, "a")
+                .addAnalysis(new MorphoAnalysis.Builder().partOfSpeech("NOUN").build())
+                .addAnalysis(han.build())
+                .build());
+        tokens.add(new Token.Builder(2, 3, "b")
+                .addAnalysis(new MorphoAnalysis.Builder().partOfSpeech("VERB").lemma("b").build())
+                .build());
+        AnnotatedText text = new AnnotatedText.Builder().data("a b").tokens(tokens.build()).build();
+
+        ObjectMapper mapper = objectMapper();
+        String json = mapper.writeValueAsString(text);
+        AnnotatedText read = mapper.readValue(json, AnnotatedText.class);
+        assertEquals(MorphoAnalysis.class, read.getTokens().get(0).getAnalyses().get(0).getClass());
+        assertEquals(HanMorphoAnalysis.class, read.getTokens().get(0).getAnalyses().get(1).getClass());
+        assertEquals(MorphoAnalysis.class, read.getTokens().get(1).getAnalyses().get(0).getClass());
+        assertEquals(json, mapper.writeValueAsString(read));
+    }
 }
@@ -0,0 +1,98 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm.json.plain;
+
+import com.basistech.rosette.dm.AnnotatedText;
+import com.basistech.rosette.dm.Entity;
+import com.basistech.rosette.dm.HanMorphoAnalysis;
+import com.basistech.rosette.dm.ListAttribute;
+import com.basistech.rosette.dm.Mention;
+import com.basistech.rosette.dm.MorphoAnalysis;
+import com.basistech.rosette.dm.StringInterner;
+import com.basistech.rosette.dm.Token;
+import com.basistech.rosette.dm.jackson.AnnotatedDataModelModule;
+import com.basistech.rosette.dm.jackson.ModuleOptions;
+import com.basistech.rosette.dm.jackson.array.AnnotatedDataModelArrayModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Repetitive strings share one instance when the module is given an interner.
+ */
+public class StringInternerJsonTest extends AdmAssert {
+
+    private static AnnotatedText text() {
+        AnnotatedText.Builder builder = new AnnotatedText.Builder().data("cats and dogs");
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 4, "cats")
+                .addAnalysis(new MorphoAnalysis.Builder().partOfSpeech("NOUN").lemma("cat").build())
+                .addAnalysis(new HanMorphoAnalysis.Builder().partOfSpeech("NOUN").addReading("pinyin").build())
+                .build());
+        tokens.add(new Token.Builder(9, 13, "dogs")
+                .addAnalysis(new MorphoAnalysis.Builder().partOfSpeech("NOUN").lemma("dog").build())
+                .addAnalysis(new HanMorphoAnalysis.Builder().partOfSpeech("NOUN").addReading("pinyin").build())
+                .build());
+        builder.tokens(tokens.build());
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(new Entity.Builder().type("ANIMAL")
+                .mention(new Mention.Builder(0, 4).source("statistical").build()).build());
+        entities.add(new Entity.Builder().type("ANIMAL")
+                .mention(new Mention.Builder(9, 13).source("statistical").build()).build());
+        builder.entities(entities.build());
+        return builder.build();
+    }
+
+    private static void assertShared(AnnotatedText text) {
+        List<Token> tokens = text.getTokens();
+        assertEquals("NOUN", tokens.get(0).getAnalyses().get(0).getPartOfSpeech());
+        assertSame(tokens.get(0).getAnalyses().get(0).getPartOfSpeech(), tokens.get(1).getAnalyses().get(0).getPartOfSpeech());
+        assertSame(tokens.get(0).getAnalyses().get(0).getPartOfSpeech(), tokens.get(1).getAnalyses().get(1).getPartOfSpeech());
+        HanMorphoAnalysis han0 = (HanMorphoAnalysis) tokens.get(0).getAnalyses().get(1);
+        HanMorphoAnalysis han1 = (HanMorphoAnalysis) tokens.get(1).getAnalyses().get(1);
+        assertSame(han0.getReadings().get(0), han1.getReadings().get(0));
+        List<Entity> entities = text.getEntities();
+        assertSame(entities.get(0).getType(), entities.get(1).getType());
+        assertSame(entities.get(0).getMentions().get(0).getSource(), entities.get(1).getMentions().get(0).getSource());
+    }
+
+    @Test
+    public void plain() throws Exception {
+        String json = objectMapper().writeValueAsString(text());
+        ObjectMapper mapper = AnnotatedDataModelModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().stringInterner(StringInterner.bounded(1024)).build());
+        assertShared(mapper.readValue(json, AnnotatedText.class));
+    }
+
+    @Test
+    public void array() throws Exception {
+        ObjectMapper writer = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper());
+        String json = writer.writeValueAsString(text());
+        ObjectMapper mapper = AnnotatedDataModelArrayModule.setupObjectMapper(new ObjectMapper(),
+                new ModuleOptions.Builder().stringInterner(StringInterner.bounded(1024)).build());
+        assertShared(mapper.readValue(json, AnnotatedText.class));
+    }
+
+    @Test
+    public void notInternedByDefault() throws Exception {
+        String json = objectMapper().writeValueAsString(text());
+        List<Entity> entities = objectMapper().readValue(json, AnnotatedText.class).getEntities();
+        assertEquals(entities.get(0).getType(), entities.get(1).getType());
+        assertNotSame(entities.get(0).getType(), entities.get(1).getType());
+    }
+}
@@ -23,13 +23,24 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import lombok.EqualsAndHashCode;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * The root of the data model. An {@code AnnotatedText} is blob of text and its attributes.
@@ -56,14 +67,33 @@ public class AnnotatedText implements Serializable {
     private final CharSequence data;
     /* The attributes for this text, indexed by type.
      * Only one attribute of a type is permitted, thus the concept
-     * of a ListAttribute.
+     * of a ListAttribute. This is a PersistentHashMap, so that texts derived
+     * by a Builder share their unchanged attributes with this one.
      */
     private final Map<String, BaseAttribute> attributes;
     private final Map<String, List<String>> documentMetadata;
-    private transient boolean compatMentionsProcessed;
-    private transient ListAttribute<EntityMention> compatMentions;
-    private transient boolean compatResolvedEntitiesProcessed;
-    private transient ListAttribute<ResolvedEntity> compatResolvedEntities;
+    /* The compatibility views, built on first use; set once, by compare-and-set, so that every reader sees the same list. */
+    private transient volatile Computed<ListAttribute<EntityMention>> compatMentions;
+    private transient volatile Computed<ListAttribute<ResolvedEntity>> compatResolvedEntities;
+    private transient volatile IntervalIndex intervalIndex;
+    private transient volatile TokenIndex tokenIndex;
+    private transient volatile OffsetIndex offsetIndex;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AnnotatedText, Computed> COMPAT_MENTIONS
+        = AtomicReferenceFieldUpdater.newUpdater(AnnotatedText.class, Computed.class, "compatMentions");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AnnotatedText, Computed> COMPAT_RESOLVED_ENTITIES
+        = AtomicReferenceFieldUpdater.newUpdater(AnnotatedText.class, Computed.class, "compatResolvedEntities");
+
+    /* A computed value, which may be null; the final field makes it safe to publish through a race. */
+    private static final class Computed<T> {
+        final T value;
+
+        Computed(T value) {
+            this.value = value;
+        }
+    }
 
     AnnotatedText(CharSequence data,
                   Map<String, BaseAttribute> attributes,
@@ -90,10 +120,16 @@ public class AnnotatedText implements Serializable {
      */
     @SuppressWarnings("unchecked")
     private Map<String, BaseAttribute> absorbAttributes(Map<String, BaseAttribute> attributes) {
-        ImmutableMap.Builder<String, BaseAttribute> builder = new ImmutableMap.Builder<>();
         if (attributes == null) {
-            return ImmutableMap.of();
+            return PersistentHashMap.empty();
+        }
+        if (attributes instanceof PersistentHashMap
+            && !attributes.containsKey(AttributeKey.RESOLVED_ENTITY.key())
+            && !attributes.containsKey(AttributeKey.ENTITY_MENTION.key())) {
+            // From a Builder, with nothing to convert; persistent maps hold no nulls.
+            return attributes;
         }
+        ImmutableMap.Builder<String, BaseAttribute> builder = new ImmutableMap.Builder<>();
 
         ListAttribute<Entity> sourceEntityList = (ListAttribute<Entity>) attributes.get(AttributeKey.ENTITY.key());
 
@@ -119,10 +155,9 @@ public class AnnotatedText implements Serializable {
         if (oldResolved != null && oldResolved.size() == 0) {
             // In this one special class we need to end up with an empty list.
             // The code otherwise ends up with null.
-            compatResolvedEntities = new ListAttribute.Builder<ResolvedEntity>(ResolvedEntity.class).build();
-            compatResolvedEntitiesProcessed = true;
+            compatResolvedEntities = new Computed<>(new ListAttribute.Builder<ResolvedEntity>(ResolvedEntity.class).build());
         }
-        return builder.build();
+        return PersistentHashMap.copyOf(builder.build());
     }
 
     private static <T> boolean anythingInThere(List<T> list) {
@@ -231,35 +266,41 @@ public class AnnotatedText implements Serializable {
     @SuppressWarnings("unchecked")
     @Deprecated
     public ListAttribute<EntityMention> getEntityMentions() {
+        Computed<ListAttribute<EntityMention>> computed = compatMentions;
+        if (computed == null) {
+            computed = new Computed<>(buildCompatMentions());
+            if (!COMPAT_MENTIONS.compareAndSet(this, null, computed)) {
+                computed = compatMentions;
+            }
+        }
+        return computed.value;
+    }
 
-        if (!compatMentionsProcessed) {
-            compatMentionsProcessed = true;
-            List<EntityMention> entityMentionList = Lists.newArrayList();
-            ListAttribute<Entity> entities = getEntities();
+    private ListAttribute<EntityMention> buildCompatMentions() {
+        List<EntityMention> entityMentionList = Lists.newArrayList();
+        ListAttribute<Entity> entities = getEntities();
 
-            if (entities != null) {
-                downconvertEntities(entityMentionList, entities);
-            } else {
-                return null; // null entities = null compat.
-            }
+        if (entities != null) {
+            downconvertEntities(entityMentionList, entities);
+        } else {
+            return null; // null entities = null compat.
+        }
 
-            ListAttribute.Builder<EntityMention> cmListBuilder = new ListAttribute.Builder<>(EntityMention.class);
+        ListAttribute.Builder<EntityMention> cmListBuilder = new ListAttribute.Builder<>(EntityMention.class);
 
-            for (EntityMention entityMention : entityMentionList) {
-                cmListBuilder.add(entityMention);
-            }
+        for (EntityMention entityMention : entityMentionList) {
+            cmListBuilder.add(entityMention);
+        }
 
-            if (entities.getExtendedProperties() != null) {
-                for (Map.Entry<String, Object> me : entities.getExtendedProperties().entrySet()) {
-                    String key = me.getKey();
-                    if (key.startsWith("mention.")) {
-                        cmListBuilder.extendedProperty(key.substring(8), me.getValue());
-                    }
+        if (entities.getExtendedProperties() != null) {
+            for (Map.Entry<String, Object> me : entities.getExtendedProperties().entrySet()) {
+                String key = me.getKey();
+                if (key.startsWith("mention.")) {
+                    cmListBuilder.extendedProperty(key.substring(8), me.getValue());
                 }
             }
-            compatMentions = cmListBuilder.build();
         }
-        return compatMentions;
+        return cmListBuilder.build();
     }
 
     // Class uses to flatten mentions on their way to EntityMentions.
@@ -420,63 +461,71 @@ public class AnnotatedText implements Serializable {
     @SuppressWarnings("unchecked")
     @Deprecated
     public ListAttribute<ResolvedEntity> getResolvedEntities() {
-        if (!compatResolvedEntitiesProcessed) {
-            compatResolvedEntitiesProcessed = true;
-            ListAttribute.Builder<ResolvedEntity> reListBuilder = new ListAttribute.Builder<>(ResolvedEntity.class);
-            ListAttribute<Entity> entities = getEntities();
-            if (entities == null) {
-                return null;
-            }
-
-            if (entities.getExtendedProperties() != null) {
-                for (Map.Entry<String, Object> me : entities.getExtendedProperties().entrySet()) {
-                    String key = me.getKey();
-                    if (!key.startsWith("mention.")) {
-                        reListBuilder.extendedProperty(key, me.getValue());
-                    }
-                }
+        Computed<ListAttribute<ResolvedEntity>> computed = compatResolvedEntities;
+        if (computed == null) {
+            computed = new Computed<>(buildCompatResolvedEntities());
+            if (!COMPAT_RESOLVED_ENTITIES.compareAndSet(this, null, computed)) {
+                computed = compatResolvedEntities;
             }
+        }
+        return computed.value;
+    }
 
-            for (Entity entity : entities) {
-                if (entity.getHeadMentionIndex() == null) {
-                    // ignore entities without head mentions.
-                    continue;
-                }
-                int headStart = 0;
-                int headEnd = 0;
-                if (entity.getHeadMentionIndex() != null) {
-                    Mention head = entity.getMentions().get(entity.getHeadMentionIndex());
-                    headStart = head.getStartOffset();
-                    headEnd = head.getEndOffset();
-                }
+    private ListAttribute<ResolvedEntity> buildCompatResolvedEntities() {
+        ListAttribute.Builder<ResolvedEntity> reListBuilder = new ListAttribute.Builder<>(ResolvedEntity.class);
+        ListAttribute<Entity> entities = getEntities();
+        if (entities == null) {
+            return null;
+        }
 
-                ResolvedEntity.Builder reBuilder = new ResolvedEntity.Builder(headStart, headEnd, entity.getEntityId());
-                if (entity.getConfidence() != null) {
-                    reBuilder.confidence(entity.getConfidence());
-                }
-                if (entity.getSentiment() != null && !entity.getSentiment().isEmpty()) {
-                    reBuilder.sentiment(entity.getSentiment().get(0));
+        if (entities.getExtendedProperties() != null) {
+            for (Map.Entry<String, Object> me : entities.getExtendedProperties().entrySet()) {
+                String key = me.getKey();
+                if (!key.startsWith("mention.")) {
+                    reListBuilder.extendedProperty(key, me.getValue());
                 }
+            }
+        }
 
-                if (entity.getExtendedProperties() != null) {
-                    for (Map.Entry<String, Object> me : entity.getExtendedProperties().entrySet()) {
-                        if (me.getKey().equals("oldCoreferenceChainId")) {
-                            reBuilder.coreferenceChainId((Integer)me.getValue());
-                        } else {
-                            reBuilder.extendedProperty(me.getKey(), me.getValue());
-                        }
-                    }
-                }
+        for (Entity entity : entities) {
+            if (entity.getHeadMentionIndex() == null) {
+                // ignore entities without head mentions.
+                continue;
+            }
+            int headStart = 0;
+            int headEnd = 0;
+            if (entity.getHeadMentionIndex() != null) {
+                Mention head = entity.getMentions().get(entity.getHeadMentionIndex());
+                headStart = head.getStartOffset();
+                headEnd = head.getEndOffset();
+            }
 
-                reListBuilder.add(reBuilder.build());
+            ResolvedEntity.Builder reBuilder = new ResolvedEntity.Builder(headStart, headEnd, entity.getEntityId());
+            if (entity.getConfidence() != null) {
+                reBuilder.confidence(entity.getConfidence());
             }
-            compatResolvedEntities = reListBuilder.build();
-            if (compatResolvedEntities.size() == 0) { // If no resolved entities survived, don't make it look as if someone specified them.
-                /* But note special case in absorbAttributes when someone used the old API to create an empty list. */
-                compatResolvedEntities = null;
+            if (entity.getSentiment() != null && !entity.getSentiment().isEmpty()) {
+                reBuilder.sentiment(entity.getSentiment().get(0));
+            }
+
+            if (entity.getExtendedProperties() != null) {
+                for (Map.Entry<String, Object> me : entity.getExtendedProperties().entrySet()) {
+                    if (me.getKey().equals("oldCoreferenceChainId")) {
+                        reBuilder.coreferenceChainId((Integer)me.getValue());
+                    } else {
+                        reBuilder.extendedProperty(me.getKey(), me.getValue());
+                    }
+                }
             }
+
+            reListBuilder.add(reBuilder.build());
+        }
+        ListAttribute<ResolvedEntity> resolved = reListBuilder.build();
+        if (resolved.size() == 0) { // If no resolved entities survived, don't make it look as if someone specified them.
+            /* But note special case in absorbAttributes when someone used the old API to create an empty list. */
+            return null;
         }
-        return compatResolvedEntities;
+        return resolved;
     }
 
     /**
@@ -586,6 +635,122 @@ public class AnnotatedText implements Serializable {
         return (TransliterationResults) attributes.get(AttributeKey.TRANSLITERATION.key());
     }
 
+    /**
+     * Returns an index of all the {@link Attribute}s of this text, for overlap, containment
+     * and stabbing queries by character offset. The index is built on the first call and
+     * cached; it is immutable and may be shared across threads.
+     *
+     * @return the interval index
+     * @see IntervalIndex
+     */
+    public IntervalIndex getIntervalIndex() {
+        IntervalIndex index = intervalIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = intervalIndex;
+                if (index == null) {
+                    index = IntervalIndex.of(this);
+                    intervalIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns lookups between character offsets, tokens and sentences: the token at an offset,
+     * the sentence of a token, and the token range of a sentence. The lookup is built on the
+     * first call and cached; it is immutable and may be shared across threads.
+     *
+     * @return the token index
+     * @see TokenIndex
+     */
+    public TokenIndex getTokenIndex() {
+        TokenIndex index = tokenIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = tokenIndex;
+                if (index == null) {
+                    index = TokenIndex.of(this);
+                    tokenIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns conversions of offsets into the data between UTF-16 code units, the unit used
+     * throughout the model, code points and UTF-8 bytes. The conversions are built on the
+     * first call and cached; they are immutable and may be shared across threads.
+     *
+     * @return the offset index
+     * @see OffsetIndex
+     */
+    public OffsetIndex getOffsetIndex() {
+        OffsetIndex index = offsetIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = offsetIndex;
+                if (index == null) {
+                    index = OffsetIndex.of(this);
+                    offsetIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Builds the cached views of this text in the calling thread: the compatibility lists from
+     * {@link #getEntityMentions()} and {@link #getResolvedEntities()}, and the
+     * {@link #getIntervalIndex() interval}, {@link #getTokenIndex() token} and
+     * {@link #getOffsetIndex() offset} indexes.
+     * The views are otherwise built on first use; all of them may be read from many threads.
+     *
+     * @return this text, for convenience
+     */
+    public AnnotatedText precomputeViews() {
+        for (Runnable view : views()) {
+            view.run();
+        }
+        return this;
+    }
+
+    /**
+     * Builds the cached views of this text, as {@link #precomputeViews()}, in parallel,
+     * and waits for them. Use this to prepare a text before sharing it across threads.
+     *
+     * @param executor the executor to run on; it is not shut down.
+     * @return this text, for convenience
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public AnnotatedText precomputeViews(ExecutorService executor) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable view : views()) {
+            futures.add(executor.submit(view));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return this;
+    }
+
+    private List<Runnable> views() {
+        return ImmutableList.of(this::getEntityMentions, this::getResolvedEntities, this::getIntervalIndex, this::getTokenIndex,
+            this::getOffsetIndex);
+    }
+
     /**
      * toString is a convenience for accessing the textual data, if any, in this annotated text.
      * @return the data for this AnnotatedText as a String.
@@ -608,8 +773,10 @@ public class AnnotatedText implements Serializable {
         private CharSequence data;
         // Keys are strings to allow for extension.  Predefined keys are from
         // AttributeKey.key().
-        private final Map<String, BaseAttribute> attributes = Maps.newHashMap();
-        private final Map<String, List<String>> documentMetadata = Maps.newHashMap();
+        private final AttributeMap attributes = new AttributeMap();
+        private Map<String, List<String>> documentMetadata = Maps.newHashMap();
+        // true while documentMetadata is the immutable map of the starting point.
+        private boolean documentMetadataShared;
 
         /**
          * Constructs a builder.  The initial data is the empty string.
@@ -625,8 +792,10 @@ public class AnnotatedText implements Serializable {
          */
         public Builder(AnnotatedText startingPoint) {
             this.data = startingPoint.data;
-            this.attributes.putAll(startingPoint.attributes);
-            this.documentMetadata.putAll(startingPoint.documentMetadata);
+            // Both maps are shared with the starting point until they change.
+            this.attributes.current = PersistentHashMap.copyOf(startingPoint.attributes);
+            this.documentMetadata = startingPoint.documentMetadata;
+            this.documentMetadataShared = true;
         }
 
         /**
@@ -640,6 +809,20 @@ public class AnnotatedText implements Serializable {
             return this;
         }
 
+        /**
+         * Uses the text of a file as the character data. The file is read through a memory mapping,
+         * so that the text is not held on the heap; see {@link MappedCharSequence}.
+         *
+         * @param path the file
+         * @param charset the encoding of the file, UTF-8 or one of the UTF-16 forms
+         * @return this
+         * @throws IOException if the file cannot be mapped
+         */
+        public Builder data(Path path, Charset charset) throws IOException {
+            this.data = MappedCharSequence.open(path, charset);
+            return this;
+        }
+
         /**
          * Returns the current character data.
          *
@@ -945,7 +1128,7 @@ public class AnnotatedText implements Serializable {
          * @return this
          */
         public Builder documentMetadata(String key, List<String> value) {
-            documentMetadata.put(key, ImmutableList.copyOf(value));
+            documentMetadata().put(key, ImmutableList.copyOf(value));
             return this;
         }
 
@@ -957,7 +1140,7 @@ public class AnnotatedText implements Serializable {
          */
         public Builder documentMetadata(Map<String, List<String>> mapOfValues) {
             for (Map.Entry<String, List<String>> me : mapOfValues.entrySet()) {
-                documentMetadata.put(me.getKey(), ImmutableList.copyOf(me.getValue()));
+                documentMetadata().put(me.getKey(), ImmutableList.copyOf(me.getValue()));
             }
             return this;
         }
@@ -971,7 +1154,7 @@ public class AnnotatedText implements Serializable {
          * @return this
          */
         public Builder documentMetadata(String key, String value) {
-            documentMetadata.put(key, Lists.newArrayList(value));
+            documentMetadata().put(key, Lists.newArrayList(value));
             return this;
         }
 
@@ -981,6 +1164,10 @@ public class AnnotatedText implements Serializable {
          * @return the current document metadata
          */
         public Map<String, List<String>> documentMetadata() {
+            if (documentMetadataShared) {
+                documentMetadata = Maps.newHashMap(documentMetadata);
+                documentMetadataShared = false;
+            }
             return documentMetadata;
         }
 
@@ -990,7 +1177,88 @@ public class AnnotatedText implements Serializable {
          * @return the new object
          */
         public AnnotatedText build() {
-            return new AnnotatedText(data, attributes, documentMetadata, null);
+            return new AnnotatedText(data, attributes.current, documentMetadata, null);
+        }
+
+        /*
+         * The map returned by attributes(). Changes replace the persistent map rather than modify it,
+         * so texts built earlier, and the starting point, are unaffected.
+         */
+        private static final class AttributeMap extends AbstractMap<String, BaseAttribute> {
+            private PersistentHashMap<String, BaseAttribute> current = PersistentHashMap.empty();
+
+            @Override
+            public BaseAttribute get(Object key) {
+                return current.get(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return current.containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return current.size();
+            }
+
+            /* A null value removes the key; the constructor would discard it anyway. */
+            @Override
+            public BaseAttribute put(String key, BaseAttribute value) {
+                BaseAttribute old = current.get(key);
+                current = value == null ? current.without(key) : current.with(key, value);
+                return old;
+            }
+
+            @Override
+            public BaseAttribute remove(Object key) {
+                BaseAttribute old = current.get(key);
+                current = current.without(key);
+                return old;
+            }
+
+            @Override
+            public void clear() {
+                current = PersistentHashMap.empty();
+            }
+
+            @Override
+            public Set<Map.Entry<String, BaseAttribute>> entrySet() {
+                return new AbstractSet<Map.Entry<String, BaseAttribute>>() {
+                    @Override
+                    public Iterator<Map.Entry<String, BaseAttribute>> iterator() {
+                        final Iterator<Map.Entry<String, BaseAttribute>> snapshot = current.entrySet().iterator();
+                        return new Iterator<Map.Entry<String, BaseAttribute>>() {
+                            private Map.Entry<String, BaseAttribute> last;
+
+                            @Override
+                            public boolean hasNext() {
+                                return snapshot.hasNext();
+                            }
+
+                            @Override
+                            public Map.Entry<String, BaseAttribute> next() {
+                                last = snapshot.next();
+                                return last;
+                            }
+
+                            @Override
+                            public void remove() {
+                                if (last == null) {
+                                    throw new IllegalStateException();
+                                }
+                                AttributeMap.this.remove(last.getKey());
+                                last = null;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return current.size();
+                    }
+                };
+            }
         }
     }
 }
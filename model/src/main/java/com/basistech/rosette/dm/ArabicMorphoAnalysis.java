@@ -16,7 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -275,12 +274,12 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          */
         public Builder() {
             super();
-            prefixes = Lists.newArrayList();
-            stems = Lists.newArrayList();
-            suffixes = Lists.newArrayList();
-            prefixTags = Lists.newArrayList();
-            stemTags = Lists.newArrayList();
-            suffixTags = Lists.newArrayList();
+            prefixes = new BuilderList<>();
+            stems = new BuilderList<>();
+            suffixes = new BuilderList<>();
+            prefixTags = new BuilderList<>();
+            stemTags = new BuilderList<>();
+            suffixTags = new BuilderList<>();
             root = null;
         }
 
@@ -297,18 +296,12 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
             definiteArticle = toCopy.definiteArticle;
             strippablePrefix = toCopy.strippablePrefix;
 
-            prefixes = Lists.newArrayList();
-            stems = Lists.newArrayList();
-            suffixes = Lists.newArrayList();
-            prefixTags = Lists.newArrayList();
-            stemTags = Lists.newArrayList();
-            suffixTags = Lists.newArrayList();
-            addAllToList(prefixes, toCopy.prefixes);
-            addAllToList(stems, toCopy.stems);
-            addAllToList(suffixes, toCopy.suffixes);
-            addAllToList(prefixTags, toCopy.prefixTags);
-            addAllToList(stemTags, toCopy.stemTags);
-            addAllToList(suffixTags, toCopy.suffixTags);
+            prefixes = BuilderList.copyOf(toCopy.prefixes);
+            stems = BuilderList.copyOf(toCopy.stems);
+            suffixes = BuilderList.copyOf(toCopy.suffixes);
+            prefixTags = BuilderList.copyOf(toCopy.prefixTags);
+            stemTags = BuilderList.copyOf(toCopy.stemTags);
+            suffixTags = BuilderList.copyOf(toCopy.suffixTags);
         }
 
         /**
@@ -332,7 +325,7 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return this
          */
         public Builder root(String root) {
-            this.root = root;
+            this.root = intern(root);
             return this;
         }
 
@@ -366,8 +359,8 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return this
          */
         public Builder addPrefix(String prefix, String prefixTag) {
-            prefixes.add(prefix);
-            prefixTags.add(prefixTag);
+            prefixes.add(intern(prefix));
+            prefixTags.add(intern(prefixTag));
             return this;
         }
 
@@ -391,8 +384,8 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return this
          */
         public Builder addStem(String stem, String stemTag) {
-            stems.add(stem);
-            stemTags.add(stemTag);
+            stems.add(intern(stem));
+            stemTags.add(intern(stemTag));
             return this;
         }
 
@@ -416,8 +409,8 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return this
          */
         public Builder addSuffix(String suffix, String suffixTag) {
-            suffixes.add(suffix);
-            suffixTags.add(suffixTag);
+            suffixes.add(intern(suffix));
+            suffixTags.add(intern(suffixTag));
             return this;
         }
 
@@ -439,7 +432,7 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return the new analysis object
          */
         public ArabicMorphoAnalysis build() {
-            return new ArabicMorphoAnalysis(partOfSpeech, lemma, components,
+            return canonicalize(new ArabicMorphoAnalysis(partOfSpeech, lemma, components,
                     raw, prefixLength, stemLength, root, definiteArticle,
                     strippablePrefix, prefixes,
                     stems,
@@ -449,7 +442,7 @@ public class ArabicMorphoAnalysis extends MorphoAnalysis implements Serializable
                     suffixTags,
                     tagSet,
                     secondaryPartOfSpeech,
-                    buildExtendedProperties());
+                    buildExtendedProperties()));
         }
     }
 }
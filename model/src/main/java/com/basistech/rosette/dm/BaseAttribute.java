@@ -16,13 +16,13 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +41,8 @@ public abstract class BaseAttribute implements Serializable {
     private static final long serialVersionUID = 250L;
 
     protected Map<String, Object> extendedProperties;
+    /* set only while Jackson is adding extended properties. */
+    private transient Map<String, Object> pendingExtendedProperties;
 
     protected BaseAttribute() {
         this.extendedProperties = ImmutableMap.of();
@@ -76,11 +78,24 @@ public abstract class BaseAttribute implements Serializable {
      */
     protected void setExtendedProperty(String name, Object value) {
         /* This is only called in deserialization. So we do something
-        * to work around the read-only collection. */
-        if (extendedProperties.size() > 0) {
-            extendedProperties = ImmutableMap.<String, Object>builder().putAll(extendedProperties).put(name, value).build();
-        } else {
-            extendedProperties = ImmutableMap.of(name, value);
+        * to work around the read-only collection: properties collect in a mutable map,
+        * behind a read-only view, until freezeExtendedProperties copies them once. */
+        if (pendingExtendedProperties == null) {
+            pendingExtendedProperties = new LinkedHashMap<>(extendedProperties);
+            extendedProperties = Collections.unmodifiableMap(pendingExtendedProperties);
+        }
+        pendingExtendedProperties.put(name, value);
+    }
+
+    /**
+     * Internal use API used in Jackson deserialization.
+     * Ends a series of calls to {@link #setExtendedProperty(String, Object)} by replacing
+     * the properties collected so far with an immutable map.
+     */
+    public void freezeExtendedProperties() {
+        if (pendingExtendedProperties != null) {
+            extendedProperties = ImmutableMap.copyOf(pendingExtendedProperties);
+            pendingExtendedProperties = null;
         }
     }
 
@@ -107,7 +122,8 @@ public abstract class BaseAttribute implements Serializable {
         if (listToBuild == null || listToBuild.size() == 0) {
             return null;
         } else {
-            return ImmutableList.copyOf(listToBuild);
+            // a builder's own list is handed over rather than copied.
+            return BuilderList.immutableCopyOf(listToBuild);
         }
     }
 
@@ -142,6 +158,7 @@ public abstract class BaseAttribute implements Serializable {
     public abstract static class Builder<T extends BaseAttribute, B extends Builder<T, B>> {
         private ImmutableMap.Builder<String, Object> extendedPropertiesBuilder;
         private ImmutableMap<String, Object> extendedPropertiesToCopy;
+        private StringInterner interner;
 
         /**
          * Constructs a builder with no data.
@@ -165,6 +182,28 @@ public abstract class BaseAttribute implements Serializable {
 
         protected abstract B getThis();
 
+        /**
+         * Specifies an interner for the repetitive strings of this builder, such as parts of speech
+         * and entity types. Strings are interned as they are set; by default they are not.
+         *
+         * @param interner the interner, or {@code null} for none
+         * @return this
+         */
+        public B interner(StringInterner interner) {
+            this.interner = interner;
+            return getThis();
+        }
+
+        /**
+         * Interns a string with the interner of this builder, if there is one.
+         *
+         * @param value the string
+         * @return the canonical string, or the argument if there is no interner
+         */
+        protected String intern(String value) {
+            return interner == null || value == null ? value : interner.intern(value);
+        }
+
         /**
          * Cook up a map to pass to the constructor.
          * If we have an unmodified map to 'copy', we just use it. Otherwise, we build from the builder.
@@ -243,7 +282,7 @@ public abstract class BaseAttribute implements Serializable {
 
         protected static <T> List<T> nullOrList(List<T> newListValue) {
             if (newListValue == null) {
-                return Lists.newArrayList();
+                return new BuilderList<>();
             } else {
                 return newListValue;
             }
@@ -0,0 +1,45 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+/**
+ * A fixed-size, two-way set-associative table of analyses; see {@link BoundedTable}.
+ * The table publishes its entries safely, which matters here: analyses have non-final
+ * fields, such as their extended properties.
+ */
+final class BoundedMorphoAnalysisCache extends BoundedTable<MorphoAnalysis> implements MorphoAnalysisCache {
+
+    BoundedMorphoAnalysisCache(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends MorphoAnalysis> T canonicalize(T analysis) {
+        // components are whole tokens, which are neither cheap to compare nor likely to repeat.
+        if (analysis == null || analysis.getComponents() != null) {
+            return analysis;
+        }
+        return (T) lookup(analysis, analysis.hashCode());
+    }
+
+    // the class check makes the unchecked cast above safe.
+    @Override
+    boolean matches(MorphoAnalysis cached, MorphoAnalysis analysis, int hash) {
+        return cached.getClass() == analysis.getClass() && cached.equals(analysis);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+/**
+ * A fixed-size, two-way set-associative table of strings; see {@link BoundedTable}.
+ */
+final class BoundedStringInterner extends BoundedTable<String> implements StringInterner {
+
+    BoundedStringInterner(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public String intern(String value) {
+        return value == null ? null : lookup(value, value.hashCode());
+    }
+
+    @Override
+    boolean matches(String cached, String value, int hash) {
+        return cached.hashCode() == hash && cached.equals(value);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size, two-way set-associative table, shared by {@link BoundedStringInterner} and
+ * {@link BoundedMorphoAnalysisCache}. Lookups and inserts take no locks. The slots are read and
+ * written with volatile semantics, so an entry that one thread stores is seen whole by another,
+ * even if the entry has non-final fields; the worst a race can do is lose an entry, which only
+ * costs a duplicate.
+ * @param <T> the type of the entries.
+ */
+abstract class BoundedTable<T> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<T> table;
+    private final int mask;
+
+    BoundedTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        int size = 2;
+        while (size < capacity && size < MAX_CAPACITY) {
+            size <<= 1;
+        }
+        table = new AtomicReferenceArray<>(size);
+        // the even slot of a bucket; the bucket is that slot and the next.
+        mask = (size - 1) & ~1;
+    }
+
+    /**
+     * Returns an entry equal to a value, adding the value if there is none.
+     * @param value the value, not {@code null}.
+     * @param hash the hash code of the value.
+     * @return the entry.
+     */
+    final T lookup(T value, int hash) {
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        T first = table.get(slot);
+        if (first != null && matches(first, value, hash)) {
+            return first;
+        }
+        T second = table.get(slot + 1);
+        if (second != null && matches(second, value, hash)) {
+            return second;
+        }
+        // most recent first; the older entry of a full bucket is evicted.
+        table.set(slot + 1, first);
+        table.set(slot, value);
+        return value;
+    }
+
+    /**
+     * @param cached an entry of the table, not {@code null}.
+     * @param value the value being looked up.
+     * @param hash the hash code of the value.
+     * @return whether the entry can stand in for the value.
+     */
+    abstract boolean matches(T cached, T value, int hash);
+}
@@ -0,0 +1,263 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The list that builders accumulate into. {@link #freeze()} hands the backing array to an
+ * immutable list instead of copying it, unless the array has unused capacity; the next change
+ * to the builder list copies the array, so lists already built never change.
+ * Presizing the list to the number of items makes the whole build path copy-free.
+ * <br>
+ * {@link #copyOf(List)} shares the array of a list built this way, which makes
+ * the copy constructors of the builders cheap until they are modified.
+ *
+ * @param <E> the element type
+ */
+final class BuilderList<E> extends AbstractList<E> implements RandomAccess {
+    private static final Object[] EMPTY = {};
+
+    private Object[] elements;
+    private int size;
+    /* true while elements belongs to a frozen list. */
+    private boolean shared;
+
+    BuilderList() {
+        elements = EMPTY;
+    }
+
+    /**
+     * Constructs a list presized for a number of elements.
+     *
+     * @param expectedSize the expected number of elements
+     */
+    BuilderList(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        elements = expectedSize == 0 ? EMPTY : new Object[expectedSize];
+    }
+
+    /**
+     * Returns a builder list with the elements of a list, sharing its array when it
+     * was built by a builder list.
+     *
+     * @param list the list, or {@code null} for an empty one
+     * @param <E> the element type
+     * @return the new builder list
+     */
+    static <E> BuilderList<E> copyOf(List<? extends E> list) {
+        if (list == null) {
+            return new BuilderList<>();
+        }
+        if (list instanceof Frozen) {
+            BuilderList<E> result = new BuilderList<>();
+            result.elements = ((Frozen<?>) list).elements;
+            result.size = result.elements.length;
+            result.shared = true;
+            return result;
+        }
+        BuilderList<E> result = new BuilderList<>(list.size());
+        result.addAll(list);
+        return result;
+    }
+
+    /**
+     * Returns an immutable copy of a list, or the list itself when it is already an immutable list
+     * from a builder list or Guava. Builder lists are frozen rather than copied.
+     * Like {@link ImmutableList#copyOf(Collection)}, it rejects null elements.
+     *
+     * @param list the list
+     * @param <E> the element type
+     * @return the immutable list
+     * @throws NullPointerException if an element is null
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> immutableCopyOf(List<E> list) {
+        if (list instanceof BuilderList) {
+            BuilderList<E> builderList = (BuilderList<E>) list;
+            checkNoNulls(builderList.elements, builderList.size);
+            return builderList.freeze();
+        }
+        if (list instanceof Frozen) {
+            Object[] frozen = ((Frozen<E>) list).elements;
+            checkNoNulls(frozen, frozen.length);
+            return list;
+        }
+        return ImmutableList.copyOf(list);
+    }
+
+    private static void checkNoNulls(Object[] elements, int size) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == null) {
+                throw new NullPointerException("at index " + i);
+            }
+        }
+    }
+
+    /**
+     * Returns an immutable list of the current elements. The list shares the backing array
+     * when it is full; either way, the array is not written again.
+     * Unlike {@link #immutableCopyOf(List)}, it accepts null elements.
+     *
+     * @return the immutable list
+     */
+    List<E> freeze() {
+        if (size == 0) {
+            return ImmutableList.of();
+        }
+        if (size != elements.length) {
+            elements = Arrays.copyOf(elements, size);
+        }
+        shared = true;
+        return new Frozen<>(elements);
+    }
+
+    /**
+     * Makes room for a number of elements without further allocation.
+     *
+     * @param minCapacity the number of elements
+     */
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int grown = elements.length + (elements.length >> 1);
+            elements = Arrays.copyOf(elements, Math.max(minCapacity, grown));
+            shared = false;
+        } else if (shared) {
+            elements = elements.clone();
+            shared = false;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        ensureCapacity(size);
+        E old = (E) elements[index];
+        elements[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(E element) {
+        ensureCapacity(size + 1);
+        elements[size++] = element;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] added = c.toArray();
+        ensureCapacity(size + added.length);
+        System.arraycopy(added, 0, elements, size, added.length);
+        size += added.length;
+        modCount++;
+        return added.length != 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        Objects.checkIndex(index, size);
+        ensureCapacity(size);
+        E old = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (shared) {
+            elements = EMPTY;
+            shared = false;
+        } else {
+            Arrays.fill(elements, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /*
+     * The immutable list produced by freeze(). Java serialization writes a Guava ImmutableList,
+     * which is just as immutable.
+     */
+    private static final class Frozen<E> extends AbstractList<E> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 250L;
+        private final transient Object[] elements;
+
+        Frozen(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return elements.clone();
+        }
+
+        @Serial
+        private Object writeReplace() {
+            return ImmutableList.copyOf(this);
+        }
+    }
+}
@@ -0,0 +1,684 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Column-oriented storage for the items of a {@code ListAttribute<Token>}.
+ * Instead of one {@link Token} object per token, this stores the token offsets as a packed
+ * {@code int[]} of start/end pairs (the same layout accepted by
+ * {@link Sentence.Builder#Builder(int[], int, int)}), the text, normalized forms and sources
+ * as indices into a shared string pool, and the analyses in a flat side array.
+ * {@link Token} objects are created only when an item is read with {@link #get(int)}
+ * or by iteration; each call returns a new view.
+ * <br>
+ * Instances are immutable. Use {@link Builder} to construct a {@code ListAttribute<Token>}
+ * backed by this class; {@link ListAttribute#getItems()} returns the {@code ColumnarTokens}.
+ * The per-token accessors, such as {@link #startOffset(int)} and {@link #text(int)},
+ * read the columns without creating {@code Token} objects.
+ * <br>
+ * Java serialization writes a packed form: the string pool once, offsets as variable-length
+ * deltas and string references as variable-length indices. Token lists that are not
+ * columnar are written in this form as well (see {@link ListAttribute}).
+ */
+public final class ColumnarTokens extends AbstractList<Token> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 250L;
+    private static final int NONE = -1;
+
+    private final int size;
+    /* start/end pairs; offsets[2 * i] is the start of token i, offsets[2 * i + 1] its end. */
+    private final int[] offsets;
+    private final String[] strings;
+    private final int[] text;
+    private final int[] source;
+    /* normalized forms of token i are normalized[normalizedStart[i] .. normalizedStart[i + 1]). */
+    private final int[] normalizedStart;
+    private final int[] normalized;
+    /* analyses of token i are analyses[analysesStart[i] .. analysesStart[i + 1]). */
+    private final int[] analysesStart;
+    private final ImmutableList<MorphoAnalysis> analyses;
+    /* sorted indices of the tokens that have extended properties, parallel to properties. */
+    private final int[] propertyTokens;
+    private final Object[] properties;
+
+    private ColumnarTokens(Builder builder) {
+        size = builder.size;
+        offsets = Arrays.copyOf(builder.offsets, 2 * size);
+        strings = builder.strings.toArray(new String[0]);
+        text = Arrays.copyOf(builder.text, size);
+        source = Arrays.copyOf(builder.source, size);
+        normalizedStart = Arrays.copyOf(builder.normalizedStart, size + 1);
+        normalized = Arrays.copyOf(builder.normalized, builder.normalizedCount);
+        analysesStart = Arrays.copyOf(builder.analysesStart, size + 1);
+        analyses = builder.analyses.build();
+        propertyTokens = Arrays.copyOf(builder.propertyTokens, builder.propertyCount);
+        properties = Arrays.copyOf(builder.properties, builder.propertyCount);
+    }
+
+    private ColumnarTokens(int size, int[] offsets, String[] strings, int[] text, int[] source,
+                           int[] normalizedStart, int[] normalized, int[] analysesStart,
+                           ImmutableList<MorphoAnalysis> analyses, int[] propertyTokens, Object[] properties) {
+        this.size = size;
+        this.offsets = offsets;
+        this.strings = strings;
+        this.text = text;
+        this.source = source;
+        this.normalizedStart = normalizedStart;
+        this.normalized = normalized;
+        this.analysesStart = analysesStart;
+        this.analyses = analyses;
+        this.propertyTokens = propertyTokens;
+        this.properties = properties;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of a token. A new {@link Token} is created on each call.
+     *
+     * @param index the token index
+     * @return the token
+     */
+    @Override
+    public Token get(int index) {
+        checkIndex(index);
+        return new Token(offsets[2 * index], offsets[2 * index + 1], text(index), normalized(index),
+                source(index), analyses(index), extendedProperties(index));
+    }
+
+    /**
+     * Returns the start offset of a token.
+     *
+     * @param index the token index
+     * @return the start character offset
+     */
+    public int startOffset(int index) {
+        checkIndex(index);
+        return offsets[2 * index];
+    }
+
+    /**
+     * Returns the end offset of a token.
+     *
+     * @param index the token index
+     * @return the end character offset
+     */
+    public int endOffset(int index) {
+        checkIndex(index);
+        return offsets[2 * index + 1];
+    }
+
+    /**
+     * Returns the text of a token.
+     *
+     * @param index the token index
+     * @return the text
+     * @see Token#getText()
+     */
+    public String text(int index) {
+        checkIndex(index);
+        return string(text[index]);
+    }
+
+    /**
+     * Returns the source of a token.
+     *
+     * @param index the token index
+     * @return the source, or {@code null}
+     * @see Token#getSource()
+     */
+    public String source(int index) {
+        checkIndex(index);
+        return string(source[index]);
+    }
+
+    /**
+     * Returns the normalized forms of a token.
+     *
+     * @param index the token index
+     * @return the normalized forms, or {@code null} if there are none
+     * @see Token#getNormalized()
+     */
+    public List<String> normalized(int index) {
+        checkIndex(index);
+        int start = normalizedStart[index];
+        int end = normalizedStart[index + 1];
+        if (start == end) {
+            return null;
+        }
+        ImmutableList.Builder<String> builder = ImmutableList.builderWithExpectedSize(end - start);
+        for (int x = start; x < end; x++) {
+            builder.add(strings[normalized[x]]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the analyses of a token.
+     *
+     * @param index the token index
+     * @return the analyses, or {@code null} if there are none
+     * @see Token#getAnalyses()
+     */
+    public List<MorphoAnalysis> analyses(int index) {
+        checkIndex(index);
+        int start = analysesStart[index];
+        int end = analysesStart[index + 1];
+        if (start == end) {
+            return null;
+        }
+        return analyses.subList(start, end);
+    }
+
+    /**
+     * Returns the extended properties of a token.
+     *
+     * @param index the token index
+     * @return the extended properties; empty if there are none
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> extendedProperties(int index) {
+        checkIndex(index);
+        int slot = Arrays.binarySearch(propertyTokens, index);
+        if (slot < 0) {
+            return ImmutableMap.of();
+        }
+        return (Map<String, Object>) properties[slot];
+    }
+
+    /**
+     * Returns the token offsets in the 'traditional Rosette' layout: an array
+     * in which the even-numbered items are token start offsets and the odd-numbered
+     * items are token end offsets.
+     *
+     * @return a copy of the packed offsets
+     */
+    public int[] tokenOffsets() {
+        return offsets.clone();
+    }
+
+    private String string(int id) {
+        return id == NONE ? null : strings[id];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Creates a token list with columnar storage that holds the same tokens and
+     * extended properties as an existing list.
+     *
+     * @param tokens the tokens to copy
+     * @return the new list
+     */
+    public static ListAttribute<Token> copyOf(ListAttribute<Token> tokens) {
+        if (tokens.getItems() instanceof ColumnarTokens) {
+            return tokens;
+        }
+        Builder builder = new Builder(tokens.size());
+        for (Token token : tokens) {
+            builder.add(token);
+        }
+        builder.extendedProperties(tokens.getExtendedProperties());
+        return builder.build();
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    /*
+     * The packed serialized form. Streams written before this form existed hold the plain
+     * fields of ColumnarTokens, and still read through default serialization.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 250L;
+        private static final int PLAIN_ANALYSIS = 0;
+        private static final int OTHER_ANALYSIS = 1;
+        /* a reference to the n'th distinct analysis is written as SHARED_ANALYSIS + n. */
+        private static final int SHARED_ANALYSIS = 2;
+        private transient ColumnarTokens tokens;
+
+        SerializedForm(ColumnarTokens tokens) {
+            this.tokens = tokens;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            ColumnarTokens t = tokens;
+            // plain analyses are written as references into the string pool, which grows to hold their strings.
+            List<String> pool = new ArrayList<>(Arrays.asList(t.strings));
+            Map<String, Integer> poolIds = new HashMap<>();
+            for (int x = t.strings.length - 1; x >= 0; x--) {
+                poolIds.put(t.strings[x], x);
+            }
+            for (MorphoAnalysis analysis : t.analyses) {
+                if (isPlain(analysis)) {
+                    for (String value : analysisStrings(analysis)) {
+                        if (value != null && !poolIds.containsKey(value)) {
+                            poolIds.put(value, pool.size());
+                            pool.add(value);
+                        }
+                    }
+                }
+            }
+            writeVarint(out, t.size);
+            out.writeObject(pool.toArray(new String[0]));
+            int previousEnd = 0;
+            for (int x = 0; x < t.size; x++) {
+                int start = t.offsets[2 * x];
+                int end = t.offsets[2 * x + 1];
+                writeSigned(out, start - previousEnd);
+                writeSigned(out, end - start);
+                previousEnd = end;
+            }
+            for (int x = 0; x < t.size; x++) {
+                writeVarint(out, t.text[x] + 1);
+                writeVarint(out, t.source[x] + 1);
+                writeVarint(out, t.normalizedStart[x + 1] - t.normalizedStart[x]);
+                writeVarint(out, t.analysesStart[x + 1] - t.analysesStart[x]);
+            }
+            for (int id : t.normalized) {
+                writeVarint(out, id + 1);
+            }
+            Map<MorphoAnalysis, Integer> written = new IdentityHashMap<>();
+            for (MorphoAnalysis analysis : t.analyses) {
+                Integer earlier = written.get(analysis);
+                if (earlier != null) {
+                    writeVarint(out, SHARED_ANALYSIS + earlier);
+                    continue;
+                }
+                written.put(analysis, written.size());
+                if (isPlain(analysis)) {
+                    writeVarint(out, PLAIN_ANALYSIS);
+                    for (String value : analysisStrings(analysis)) {
+                        writeVarint(out, value == null ? 0 : poolIds.get(value) + 1);
+                    }
+                } else {
+                    writeVarint(out, OTHER_ANALYSIS);
+                    out.writeObject(analysis);
+                }
+            }
+            writeVarint(out, t.propertyTokens.length);
+            int previousToken = 0;
+            for (int token : t.propertyTokens) {
+                writeVarint(out, token - previousToken);
+                previousToken = token;
+            }
+            out.writeObject(t.properties);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            int size = readVarint(in);
+            String[] strings = (String[]) in.readObject();
+            int[] offsets = new int[2 * size];
+            int previousEnd = 0;
+            for (int x = 0; x < size; x++) {
+                offsets[2 * x] = previousEnd + readSigned(in);
+                offsets[2 * x + 1] = offsets[2 * x] + readSigned(in);
+                previousEnd = offsets[2 * x + 1];
+            }
+            int[] text = new int[size];
+            int[] source = new int[size];
+            int[] normalizedStart = new int[size + 1];
+            int[] analysesStart = new int[size + 1];
+            for (int x = 0; x < size; x++) {
+                text[x] = readString(in, strings.length);
+                source[x] = readString(in, strings.length);
+                normalizedStart[x + 1] = normalizedStart[x] + readVarint(in);
+                analysesStart[x + 1] = analysesStart[x] + readVarint(in);
+            }
+            int[] normalized = new int[normalizedStart[size]];
+            for (int x = 0; x < normalized.length; x++) {
+                normalized[x] = readString(in, strings.length);
+            }
+            MorphoAnalysis[] analyses = new MorphoAnalysis[analysesStart[size]];
+            List<MorphoAnalysis> distinct = new ArrayList<>();
+            for (int x = 0; x < analyses.length; x++) {
+                int kind = readVarint(in);
+                if (kind == PLAIN_ANALYSIS) {
+                    String[] values = new String[5];
+                    for (int v = 0; v < values.length; v++) {
+                        int id = readString(in, strings.length);
+                        values[v] = id == NONE ? null : strings[id];
+                    }
+                    analyses[x] = new MorphoAnalysis(values[0], values[1], null, values[2], tagSet(values[4]), values[3], null);
+                    distinct.add(analyses[x]);
+                } else if (kind == OTHER_ANALYSIS) {
+                    analyses[x] = (MorphoAnalysis) in.readObject();
+                    distinct.add(analyses[x]);
+                } else if (kind - SHARED_ANALYSIS < distinct.size()) {
+                    analyses[x] = distinct.get(kind - SHARED_ANALYSIS);
+                } else {
+                    throw new InvalidObjectException("Analysis reference " + (kind - SHARED_ANALYSIS) + " out of range");
+                }
+            }
+            int[] propertyTokens = new int[readVarint(in)];
+            int previousToken = 0;
+            for (int x = 0; x < propertyTokens.length; x++) {
+                propertyTokens[x] = previousToken + readVarint(in);
+                previousToken = propertyTokens[x];
+            }
+            Object[] properties = (Object[]) in.readObject();
+            if (properties.length != propertyTokens.length) {
+                throw new InvalidObjectException("Expected " + propertyTokens.length + " property maps, found " + properties.length);
+            }
+            tokens = new ColumnarTokens(size, offsets, strings, text, source, normalizedStart, normalized,
+                    analysesStart, ImmutableList.copyOf(analyses), propertyTokens, properties);
+        }
+
+        private Object readResolve() {
+            return tokens;
+        }
+
+        /* An analysis of the base class with no components or extended properties, written as its strings. */
+        private static boolean isPlain(MorphoAnalysis analysis) {
+            return analysis.getClass() == MorphoAnalysis.class && analysis.getComponents() == null
+                    && analysis.getExtendedProperties().isEmpty();
+        }
+
+        private static String[] analysisStrings(MorphoAnalysis analysis) {
+            TagSet tagSet = analysis.getTagSet();
+            return new String[] {analysis.getPartOfSpeech(), analysis.getLemma(), analysis.getRaw(),
+                analysis.getSecondaryPartOfSpeech(), tagSet == null ? null : tagSet.name()};
+        }
+
+        private static TagSet tagSet(String name) throws InvalidObjectException {
+            if (name == null) {
+                return null;
+            }
+            try {
+                return TagSet.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidObjectException("Unknown tag set " + name);
+            }
+        }
+
+        /* Reads a string reference written as id + 1, where 0 is null. */
+        private static int readString(ObjectInput in, int poolSize) throws IOException {
+            int id = readVarint(in) - 1;
+            if (id >= poolSize) {
+                throw new InvalidObjectException("String index " + id + " out of range for pool of " + poolSize);
+            }
+            return id;
+        }
+
+        private static void writeSigned(ObjectOutput out, int value) throws IOException {
+            writeVarint(out, (value << 1) ^ (value >> 31));
+        }
+
+        private static int readSigned(ObjectInput in) throws IOException {
+            int value = readVarint(in);
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private static void writeVarint(ObjectOutput out, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        private static int readVarint(ObjectInput in) throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new InvalidObjectException("Malformed variable-length integer");
+        }
+    }
+
+    /**
+     * Builder for a {@code ListAttribute<Token>} with columnar storage.
+     * Tokens are appended with {@link #add(int, int, String)}; the per-token
+     * methods, such as {@link #addNormalized(String)} and {@link #addAnalysis(MorphoAnalysis)},
+     * apply to the most recently added token. The inherited extended property methods apply
+     * to the list itself.
+     */
+    public static class Builder extends BaseAttribute.Builder<ListAttribute<Token>, ColumnarTokens.Builder> {
+        private int size;
+        private int[] offsets;
+        private final List<String> strings;
+        private final Map<String, Integer> stringIds;
+        private int[] text;
+        private int[] source;
+        private int[] normalizedStart;
+        private int[] normalized;
+        private int normalizedCount;
+        private int[] analysesStart;
+        private final ImmutableList.Builder<MorphoAnalysis> analyses;
+        private int analysesCount;
+        private int[] propertyTokens;
+        private Object[] properties;
+        private int propertyCount;
+        private ImmutableMap.Builder<String, Object> currentProperties;
+
+        /**
+         * Constructs an empty builder.
+         */
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * Constructs an empty builder sized for an expected number of tokens.
+         *
+         * @param expectedTokens the expected number of tokens
+         */
+        public Builder(int expectedTokens) {
+            int capacity = Math.max(expectedTokens, 1);
+            offsets = new int[2 * capacity];
+            strings = new ArrayList<>();
+            stringIds = new HashMap<>();
+            text = new int[capacity];
+            source = new int[capacity];
+            normalizedStart = new int[capacity + 1];
+            normalized = new int[capacity];
+            analysesStart = new int[capacity + 1];
+            analyses = ImmutableList.builder();
+            propertyTokens = new int[4];
+            properties = new Object[4];
+        }
+
+        /**
+         * Appends a token. Subsequent per-token calls apply to this token.
+         *
+         * @param startOffset the start offset in characters
+         * @param endOffset the end offset in characters
+         * @param tokenText the text of the token
+         * @return this
+         */
+        public Builder add(int startOffset, int endOffset, String tokenText) {
+            finishProperties();
+            if (size == text.length) {
+                int capacity = text.length + (text.length >> 1) + 1;
+                offsets = Arrays.copyOf(offsets, 2 * capacity);
+                text = Arrays.copyOf(text, capacity);
+                source = Arrays.copyOf(source, capacity);
+                normalizedStart = Arrays.copyOf(normalizedStart, capacity + 1);
+                analysesStart = Arrays.copyOf(analysesStart, capacity + 1);
+            }
+            offsets[2 * size] = startOffset;
+            offsets[2 * size + 1] = endOffset;
+            text[size] = stringId(tokenText);
+            source[size] = NONE;
+            size++;
+            normalizedStart[size] = normalizedCount;
+            analysesStart[size] = analysesCount;
+            return this;
+        }
+
+        /**
+         * Appends a copy of an existing token.
+         *
+         * @param token the token
+         * @return this
+         */
+        public Builder add(Token token) {
+            add(token.getStartOffset(), token.getEndOffset(), token.getText());
+            source(token.getSource());
+            if (token.getNormalized() != null) {
+                for (String form : token.getNormalized()) {
+                    addNormalized(form);
+                }
+            }
+            if (token.getAnalyses() != null) {
+                for (MorphoAnalysis analysis : token.getAnalyses()) {
+                    addAnalysis(analysis);
+                }
+            }
+            for (Map.Entry<String, Object> me : token.getExtendedProperties().entrySet()) {
+                tokenExtendedProperty(me.getKey(), me.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * Adds a normalized form to the current token.
+         *
+         * @param form the normalized form
+         * @return this
+         */
+        public Builder addNormalized(String form) {
+            checkCurrent();
+            if (normalizedCount == normalized.length) {
+                normalized = Arrays.copyOf(normalized, normalized.length + (normalized.length >> 1) + 1);
+            }
+            normalized[normalizedCount++] = stringId(form);
+            normalizedStart[size] = normalizedCount;
+            return this;
+        }
+
+        /**
+         * Specifies the source of the current token.
+         *
+         * @param tokenSource the source
+         * @return this
+         */
+        public Builder source(String tokenSource) {
+            checkCurrent();
+            source[size - 1] = stringId(tokenSource);
+            return this;
+        }
+
+        /**
+         * Adds an analysis to the current token.
+         *
+         * @param analysis the analysis
+         * @return this
+         */
+        public Builder addAnalysis(MorphoAnalysis analysis) {
+            checkCurrent();
+            analyses.add(analysis);
+            analysesCount++;
+            analysesStart[size] = analysesCount;
+            return this;
+        }
+
+        /**
+         * Adds an extended property to the current token.
+         *
+         * @param key the key
+         * @param value the value
+         * @return this
+         */
+        public Builder tokenExtendedProperty(String key, Object value) {
+            checkCurrent();
+            if (currentProperties == null) {
+                currentProperties = ImmutableMap.builder();
+            }
+            currentProperties.put(key, value);
+            return this;
+        }
+
+        /**
+         * Constructs an immutable list from the current state of the builder.
+         *
+         * @return the new list
+         */
+        public ListAttribute<Token> build() {
+            finishProperties();
+            return new ListAttribute<>(Token.class, new ColumnarTokens(this), buildExtendedProperties());
+        }
+
+        @Override
+        protected Builder getThis() {
+            return this;
+        }
+
+        private void checkCurrent() {
+            if (size == 0) {
+                throw new IllegalStateException("No current token; call add() first.");
+            }
+        }
+
+        private int stringId(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size();
+                strings.add(value);
+                stringIds.put(value, id);
+            }
+            return id;
+        }
+
+        private void finishProperties() {
+            if (currentProperties == null) {
+                return;
+            }
+            if (propertyCount == propertyTokens.length) {
+                propertyTokens = Arrays.copyOf(propertyTokens, 2 * propertyTokens.length);
+                properties = Arrays.copyOf(properties, 2 * properties.length);
+            }
+            propertyTokens[propertyCount] = size - 1;
+            properties[propertyCount++] = currentProperties.build();
+            currentProperties = null;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A compact, immutable {@link CharSequence} for document text that is mostly, but not entirely,
+ * Latin-1. Java strings store Latin-1 text in one byte per character, but a single character outside
+ * Latin-1 (a typographic quote, a dash, a euro sign) doubles the size of the whole string. This
+ * class stores every character in one byte and keeps the few others in a small hash table keyed
+ * by index, so that {@link #charAt(int)} stays constant-time.
+ * <br>
+ * Use {@link #of(CharSequence)} to obtain the text for {@link AnnotatedText.Builder#data(CharSequence)};
+ * it returns a plain string when that is as small, that is, when the text is all Latin-1 or has
+ * too many other characters for the table to pay off.
+ * {@link #subSequence(int, int)} and {@link #toString()} return strings. Two compact sequences
+ * are equal if they hold the same characters; the hash code is that of the equivalent string.
+ */
+public final class CompactCharSequence implements CharSequence, Serializable {
+    private static final long serialVersionUID = 250L;
+    /* the bytes of one table slot: an index and a character. */
+    private static final int SLOT_BYTES = 6;
+
+    private final byte[] bytes;
+    /* The byte that stands for an escaped character; no character in the text has this value. */
+    private final byte marker;
+    /* Open addressing: indices of the escaped characters, or -1 for an empty slot, and the characters. */
+    private final int[] escapeIndices;
+    private final char[] escapeChars;
+    private transient int hash;
+
+    private CompactCharSequence(byte[] bytes, byte marker, int[] escapeIndices, char[] escapeChars) {
+        this.bytes = bytes;
+        this.marker = marker;
+        this.escapeIndices = escapeIndices;
+        this.escapeChars = escapeChars;
+    }
+
+    /**
+     * Returns a compact form of some text.
+     * @param text the text.
+     * @return a {@code CompactCharSequence}, or a string when that is no larger.
+     */
+    public static CharSequence of(CharSequence text) {
+        if (text instanceof CompactCharSequence) {
+            return text;
+        }
+        String string = text.toString();
+        return of(string.toCharArray(), 0, string.length());
+    }
+
+    /**
+     * Returns a compact form of a range of characters, such as the text buffer of a parser.
+     * The array is not retained.
+     * @param chars the characters.
+     * @param offset the start of the range.
+     * @param length the length of the range.
+     * @return a {@code CompactCharSequence}, or a string when that is no larger.
+     */
+    public static CharSequence of(char[] chars, int offset, int length) {
+        long[] used = new long[4];
+        int escapes = 0;
+        for (int x = offset; x < offset + length; x++) {
+            char c = chars[x];
+            if (c > 0xFF) {
+                escapes++;
+            } else {
+                used[c >>> 6] |= 1L << c;
+            }
+        }
+        int marker = unused(used);
+        if (escapes == 0 || marker < 0) {
+            return new String(chars, offset, length);
+        }
+        int capacity = Integer.highestOneBit(escapes) << 2;
+        // one byte per character plus the table, against two bytes per character in a string.
+        if (length + (long) SLOT_BYTES * capacity >= 2L * length) {
+            return new String(chars, offset, length);
+        }
+        int[] escapeIndices = new int[capacity];
+        Arrays.fill(escapeIndices, -1);
+        char[] escapeChars = new char[capacity];
+        byte[] bytes = new byte[length];
+        for (int x = 0; x < length; x++) {
+            char c = chars[offset + x];
+            if (c > 0xFF) {
+                bytes[x] = (byte) marker;
+                int slot = slot(x, capacity);
+                while (escapeIndices[slot] != -1) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                escapeIndices[slot] = x;
+                escapeChars[slot] = c;
+            } else {
+                bytes[x] = (byte) c;
+            }
+        }
+        return new CompactCharSequence(bytes, (byte) marker, escapeIndices, escapeChars);
+    }
+
+    /* Picks a byte value that no character uses, preferring the C1 controls, which text rarely contains. */
+    private static int unused(long[] used) {
+        for (int value = 0x80; value < 0x100; value++) {
+            if ((used[value >>> 6] & (1L << value)) == 0) {
+                return value;
+            }
+        }
+        for (int value = 0; value < 0x80; value++) {
+            if ((used[value >>> 6] & (1L << value)) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    private static int slot(int index, int capacity) {
+        int h = index * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+
+    @Override
+    public int length() {
+        return bytes.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        byte b = bytes[index];
+        if (b != marker) {
+            return (char) (b & 0xFF);
+        }
+        int slot = slot(index, escapeIndices.length);
+        while (escapeIndices[slot] != index) {
+            slot = (slot + 1) & (escapeIndices.length - 1);
+        }
+        return escapeChars[slot];
+    }
+
+    /**
+     * Returns a range of this text as a string.
+     * @param start the start index, inclusive.
+     * @param end the end index, exclusive.
+     * @return the string.
+     */
+    @Override
+    public String subSequence(int start, int end) {
+        if (start < 0 || end > bytes.length || start > end) {
+            throw new IndexOutOfBoundsException("Range: [" + start + ", " + end + "), Length: " + bytes.length);
+        }
+        char[] chars = new char[end - start];
+        for (int x = start; x < end; x++) {
+            chars[x - start] = charAt(x);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, bytes.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactCharSequence)) {
+            return false;
+        }
+        CompactCharSequence that = (CompactCharSequence) o;
+        if (bytes.length != that.bytes.length || hashCode() != that.hashCode()) {
+            return false;
+        }
+        for (int x = 0; x < bytes.length; x++) {
+            if (charAt(x) != that.charAt(x)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int x = 0; x < bytes.length; x++) {
+                h = 31 * h + charAt(x);
+            }
+            hash = h;
+        }
+        return h;
+    }
+}
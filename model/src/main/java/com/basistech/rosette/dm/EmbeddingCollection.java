@@ -16,11 +16,17 @@
 
 package com.basistech.rosette.dm;
 
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * A vector of embeddings for some vector of items in an {@link AnnotatedText}.
@@ -28,21 +34,362 @@ import java.util.Objects;
  * such as tokens or entities. The collection of embeddings is represented as a map
  * from indices to the value vector. In the case of the embedding for the entire text,
  * the index value is 0.
+ * <br>
+ * The vectors are stored densely: one {@code float[]} slab holds all the values,
+ * with a sorted row index of item indices. Use {@link #vector(int)}, {@link #copyVector(int, float[], int)}
+ * and {@link #dimension()} to read them; {@link #getEmbeddings()} builds the map form on demand.
+ * Collections read from an {@link EmbeddingFile} keep their values off the heap, in a memory-mapped file.
+ * <br>
+ * Values may be stored at reduced {@link Precision}, half-precision floats or bytes with a scale
+ * per vector, and are converted back to float on access. See {@link Builder#precision(Precision)}
+ * and {@link #withPrecision(Precision)}.
  */
 public class EmbeddingCollection implements Serializable {
     private static final long serialVersionUID = 250L;
-    private final Map<Integer, float[]> embeddings;
+    /*
+     * The serialized form is the map of the original class for full-precision storage.
+     * Reduced-precision storage writes the item indices, vector lengths and encoded values instead.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("embeddings", Map.class),
+        new ObjectStreamField("precision", String.class),
+        new ObjectStreamField("indices", int[].class),
+        new ObjectStreamField("lengths", int[].class),
+        new ObjectStreamField("scales", float[].class),
+        new ObjectStreamField("encodedValues", byte[].class)
+    };
+
+    /**
+     * The storage precision of the values.
+     */
+    public enum Precision {
+        /**
+         * 32-bit floats.
+         */
+        FLOAT32,
+
+        /**
+         * IEEE 754 half-precision floats, rounded to nearest even.
+         */
+        FLOAT16,
+
+        /**
+         * Signed bytes with one scale per vector: the largest magnitude of the vector divided by 127.
+         * Non-finite values cannot be stored.
+         */
+        INT8
+    }
+
+    /* sorted item indices; row r holds the vector for indices[r]. */
+    private int[] indices;
+    /* row r occupies positions rowStart[r] to rowStart[r + 1] (exclusive) of values. */
+    private int[] rowStart;
+    private VectorStore values;
+    private transient volatile Map<Integer, float[]> embeddings;
+    private transient volatile float[] norms;
 
     protected EmbeddingCollection(Map<Integer, float[]> embeddings) {
-        this.embeddings = BaseAttribute.mapOrNull(embeddings);
+        setVectors(embeddings);
+    }
+
+    EmbeddingCollection(int[] indices, int[] rowStart, VectorStore values) {
+        this.indices = indices;
+        this.rowStart = rowStart;
+        this.values = values;
+    }
+
+    private void setVectors(Map<Integer, float[]> vectors) {
+        int size = vectors == null ? 0 : vectors.size();
+        indices = new int[size];
+        rowStart = new int[size + 1];
+        if (size == 0) {
+            values = new VectorStore.Heap(new float[0]);
+            return;
+        }
+        int row = 0;
+        int total = 0;
+        for (Map.Entry<Integer, float[]> me : vectors.entrySet()) {
+            indices[row++] = me.getKey();
+            total += me.getValue().length;
+        }
+        Arrays.sort(indices);
+        float[] slab = new float[total];
+        int offset = 0;
+        for (row = 0; row < size; row++) {
+            float[] vector = vectors.get(indices[row]);
+            System.arraycopy(vector, 0, slab, offset, vector.length);
+            offset += vector.length;
+            rowStart[row + 1] = offset;
+        }
+        values = new VectorStore.Heap(slab);
     }
 
     /**
-     * Return the embeddings.
-     * @return a map from item indices to values.
+     * Return the embeddings. The map is built from the dense storage on the first call.
+     * @return a map from item indices to values, or {@code null} if there are no embeddings.
      */
     public Map<Integer, float[]> getEmbeddings() {
-        return embeddings;
+        if (indices.length == 0) {
+            return null;
+        }
+        Map<Integer, float[]> map = embeddings;
+        if (map == null) {
+            ImmutableMap.Builder<Integer, float[]> builder = ImmutableMap.builder();
+            for (int row = 0; row < indices.length; row++) {
+                builder.put(indices[row], row(row));
+            }
+            map = builder.build();
+            embeddings = map;
+        }
+        return map;
+    }
+
+    /**
+     * Returns the number of vectors.
+     * @return the number of vectors.
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Returns the length shared by all of the vectors.
+     * @return the dimension, 0 if there are no vectors, or -1 if the vectors differ in length.
+     */
+    public int dimension() {
+        if (indices.length == 0) {
+            return 0;
+        }
+        int dimension = rowStart[1];
+        return isUniform(dimension) ? dimension : -1;
+    }
+
+    private boolean isUniform(int dimension) {
+        for (int row = 1; row < indices.length; row++) {
+            if (rowStart[row + 1] - rowStart[row] != dimension) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the item indices that have vectors, in ascending order.
+     * @return the item indices.
+     */
+    public int[] indices() {
+        return indices.clone();
+    }
+
+    /**
+     * Returns whether there is a vector for an item.
+     * @param index the item index.
+     * @return whether there is a vector.
+     */
+    public boolean contains(int index) {
+        return Arrays.binarySearch(indices, index) >= 0;
+    }
+
+    /**
+     * Returns a copy of the vector for an item.
+     * @param index the item index.
+     * @return the values, or {@code null} if there is no vector for the item.
+     */
+    public float[] vector(int index) {
+        int row = Arrays.binarySearch(indices, index);
+        if (row < 0) {
+            return null;
+        }
+        return row(row);
+    }
+
+    private float[] row(int row) {
+        float[] vector = new float[rowStart[row + 1] - rowStart[row]];
+        values.copy(rowStart[row], vector, 0, vector.length);
+        return vector;
+    }
+
+    /**
+     * Copies the vector for an item into an array.
+     * @param index the item index.
+     * @param target the array to receive the values.
+     * @param offset the position in {@code target} of the first value.
+     * @return the length of the vector, or -1 if there is no vector for the item.
+     */
+    public int copyVector(int index, float[] target, int offset) {
+        int row = Arrays.binarySearch(indices, index);
+        if (row < 0) {
+            return -1;
+        }
+        int length = rowStart[row + 1] - rowStart[row];
+        values.copy(rowStart[row], target, offset, length);
+        return length;
+    }
+
+    /**
+     * Returns one value of the vector for an item.
+     * @param index the item index.
+     * @param component the position in the vector.
+     * @return the value.
+     * @throws IndexOutOfBoundsException if there is no vector for the item, or no such component.
+     */
+    public float value(int index, int component) {
+        int row = Arrays.binarySearch(indices, index);
+        if (row < 0 || component < 0 || component >= rowStart[row + 1] - rowStart[row]) {
+            throw new IndexOutOfBoundsException("No value for item " + index + " component " + component);
+        }
+        return values.get(rowStart[row] + component);
+    }
+
+    /**
+     * Returns the precision at which the values are stored.
+     * @return the precision.
+     */
+    public Precision precision() {
+        return values.precision();
+    }
+
+    /**
+     * Returns a collection with the same vectors stored at another precision.
+     * @param precision the precision.
+     * @return this collection if it already has the precision, else a converted copy.
+     * @throws IllegalArgumentException for {@link Precision#INT8} if there are non-finite values.
+     */
+    public EmbeddingCollection withPrecision(Precision precision) {
+        if (precision == precision()) {
+            return this;
+        }
+        return new EmbeddingCollection(indices, rowStart, VectorStore.quantize(precision, values, rowStart));
+    }
+
+    /**
+     * Returns the stored values, in row order, in little-endian form: 4 bytes per value for
+     * {@link Precision#FLOAT32}, 2 for {@link Precision#FLOAT16} and 1 for {@link Precision#INT8}.
+     * Together with {@link #indices()}, the vector lengths and {@link #scales()}, this is the input
+     * of {@link #decode(Precision, int[], int[], float[], byte[])}.
+     * @return the encoded values.
+     */
+    public byte[] encodedValues() {
+        return values.encode();
+    }
+
+    /**
+     * Returns the per-vector scales of {@link Precision#INT8} storage, in the order of {@link #indices()}.
+     * @return the scales, or {@code null} for other precisions.
+     */
+    public float[] scales() {
+        return values.scales();
+    }
+
+    /**
+     * Rebuilds a collection from its encoded values.
+     * @param precision the precision of the values.
+     * @param indices the item indices, in ascending order.
+     * @param lengths the length of each vector.
+     * @param scales the per-vector scales, for {@link Precision#INT8}; otherwise ignored.
+     * @param encodedValues the values, as returned by {@link #encodedValues()}.
+     * @return the collection.
+     * @throws IllegalArgumentException if the arguments are inconsistent.
+     */
+    public static EmbeddingCollection decode(Precision precision, int[] indices, int[] lengths, float[] scales, byte[] encodedValues) {
+        if (indices.length != lengths.length) {
+            throw new IllegalArgumentException("Expected one length per vector");
+        }
+        int[] rowStart = new int[indices.length + 1];
+        for (int row = 0; row < indices.length; row++) {
+            if (row > 0 && indices[row] <= indices[row - 1]) {
+                throw new IllegalArgumentException("Item indices must be ascending and distinct");
+            }
+            rowStart[row + 1] = Math.addExact(rowStart[row], lengths[row]);
+        }
+        return new EmbeddingCollection(indices.clone(), rowStart, VectorStore.decode(precision, encodedValues, scales, rowStart));
+    }
+
+    int[] itemIndices() {
+        return indices;
+    }
+
+    int[] rowStarts() {
+        return rowStart;
+    }
+
+    VectorStore store() {
+        return values;
+    }
+
+    /**
+     * @return the Euclidean norm of each row, computed on first use.
+     */
+    float[] norms() {
+        float[] result = norms;
+        if (result == null) {
+            result = new float[indices.length];
+            float[] array = values.array();
+            float[] scratch = array == null ? new float[maxLength()] : null;
+            for (int row = 0; row < indices.length; row++) {
+                int length = rowStart[row + 1] - rowStart[row];
+                if (array != null) {
+                    result[row] = (float) Math.sqrt(SimilarityKernel.dot(array, rowStart[row], array, rowStart[row], length));
+                } else {
+                    values.copy(rowStart[row], scratch, 0, length);
+                    result[row] = (float) Math.sqrt(SimilarityKernel.dot(scratch, 0, scratch, 0, length));
+                }
+            }
+            // benign race: every thread computes the same values.
+            norms = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the length of the longest vector.
+     */
+    int maxLength() {
+        int max = 0;
+        for (int row = 0; row < indices.length; row++) {
+            max = Math.max(max, rowStart[row + 1] - rowStart[row]);
+        }
+        return max;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        if (precision() == Precision.FLOAT32) {
+            fields.put("embeddings", getEmbeddings());
+        } else {
+            int[] lengths = new int[indices.length];
+            for (int row = 0; row < indices.length; row++) {
+                lengths[row] = rowStart[row + 1] - rowStart[row];
+            }
+            fields.put("precision", precision().name());
+            fields.put("indices", indices);
+            fields.put("lengths", lengths);
+            fields.put("scales", scales());
+            fields.put("encodedValues", encodedValues());
+        }
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        String precision = (String) fields.get("precision", null);
+        if (precision == null) {
+            setVectors((Map<Integer, float[]>) fields.get("embeddings", null));
+            return;
+        }
+        EmbeddingCollection decoded;
+        try {
+            decoded = decode(Precision.valueOf(precision), (int[]) fields.get("indices", null), (int[]) fields.get("lengths", null),
+                    (float[]) fields.get("scales", null), (byte[]) fields.get("encodedValues", null));
+        } catch (RuntimeException e) {
+            InvalidObjectException invalid = new InvalidObjectException("Inconsistent reduced-precision embeddings");
+            invalid.initCause(e);
+            throw invalid;
+        }
+        indices = decoded.indices;
+        rowStart = decoded.rowStart;
+        values = decoded.values;
     }
 
     // Because of the float[] fields, we need to write our own implementation of equals() here
@@ -55,30 +402,36 @@ public class EmbeddingCollection implements Serializable {
             return false;
         }
         EmbeddingCollection that = (EmbeddingCollection) o;
-        if (!embeddings.keySet().equals(that.embeddings.keySet())) {
+        // equals used for round-trip testing, floating point == is ok.
+        if (precision() != that.precision() || !Arrays.equals(indices, that.indices) || !Arrays.equals(rowStart, that.rowStart)) {
             return false;
         }
-        for (Map.Entry<Integer, float[]> me : embeddings.entrySet()) {
-            // equals used for round-trip testing, floating point == is ok.
-            if (!Arrays.equals(me.getValue(), that.embeddings.get(me.getKey()))) {
+        // compare as Arrays.equals(float[], float[]) does, whatever the storage.
+        for (int x = 0; x < values.length(); x++) {
+            if (Float.floatToIntBits(values.get(x)) != Float.floatToIntBits(that.values.get(x))) {
                 return false;
             }
-
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(embeddings);
+        int result = precision().hashCode();
+        result = 31 * result + Arrays.hashCode(indices);
+        result = 31 * result + Arrays.hashCode(rowStart);
+        for (int x = 0; x < values.length(); x++) {
+            result = 31 * result + Float.floatToIntBits(values.get(x));
+        }
+        return result;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("EmbeddingCollection{" + "embeddings={");
-        for (Map.Entry<Integer, float[]> me : embeddings.entrySet()) {
-            sb.append(String.format("%d : %s,", me.getKey(), Arrays.toString(me.getValue())));
+        for (int row = 0; row < indices.length; row++) {
+            sb.append(String.format("%d : %s,", indices[row], Arrays.toString(row(row))));
         }
         sb.append("}");
         return sb.toString();
@@ -89,6 +442,7 @@ public class EmbeddingCollection implements Serializable {
      */
     public static class Builder {
         private Map<Integer, float[]> embeddings;
+        private Precision precision = Precision.FLOAT32;
 
         public Builder() {
             embeddings = new HashMap<>();
@@ -96,9 +450,10 @@ public class EmbeddingCollection implements Serializable {
 
         public Builder(EmbeddingCollection toCopy) {
             embeddings = new HashMap<>();
-            for (Map.Entry<Integer, float[]> me : toCopy.getEmbeddings().entrySet()) {
-                embeddings.put(me.getKey(), me.getValue().clone());
+            for (int row = 0; row < toCopy.indices.length; row++) {
+                embeddings.put(toCopy.indices[row], toCopy.row(row));
             }
+            precision = toCopy.precision();
         }
 
         /**
@@ -121,11 +476,22 @@ public class EmbeddingCollection implements Serializable {
         }
 
         /**
-         * Build the collection.
+         * Specify the storage precision. The default is {@link Precision#FLOAT32}.
+         * @param precision the precision.
+         * @return this
+         */
+        public Builder precision(Precision precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Build the collection. The values are copied into the dense storage,
+         * converted to the specified precision.
          * @return the collection.
          */
         public EmbeddingCollection build() {
-            return new EmbeddingCollection(embeddings);
+            return new EmbeddingCollection(embeddings).withPrecision(precision);
         }
 
 
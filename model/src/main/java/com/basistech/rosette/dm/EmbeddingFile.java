@@ -0,0 +1,269 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file of {@link EmbeddingCollection}s whose values are read through a memory mapping,
+ * without copying them to the heap. A batch of documents can spill their collections to one file
+ * with a {@link Writer} and then share the single mapped region.
+ * <br>
+ * {@link #open(Path)} reads only the directory of the file. The file is mapped when the first
+ * collection is requested; each call to {@link #get(int)} then returns a collection whose
+ * item indices are on the heap and whose values are a view of the mapping.
+ * The mapping stays valid after {@link #close()} for as long as the collections are reachable.
+ * Files are limited to 2GB, the limit of a single mapping.
+ * <br>
+ * The layout is little-endian: a header, one record per collection, and a trailing directory of
+ * record positions. A record holds the vector count and value count, the sorted item indices,
+ * the row start positions and then the values.
+ */
+public final class EmbeddingFile implements Closeable {
+    private static final int MAGIC = 0x41444d45; // ADME
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int TRAILER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final long[] records;
+    private volatile ByteBuffer mapping;
+
+    private EmbeddingFile(FileChannel channel, long[] records) {
+        this.channel = channel;
+        this.records = records;
+    }
+
+    /**
+     * Opens a file written by {@link Writer}. Only the header and the directory are read.
+     * @param path the file.
+     * @return the file.
+     * @throws IOException if the file cannot be read or is not an embedding file.
+     */
+    public static EmbeddingFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Embedding file too large to map: " + path);
+            }
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Not an embedding file: " + path);
+            }
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an embedding file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported embedding file version " + version + ": " + path);
+            }
+            ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long directory = trailer.getLong();
+            int count = trailer.getInt();
+            if (trailer.getInt() != MAGIC || directory < HEADER_SIZE || directory + 8L * count != size - TRAILER_SIZE) {
+                throw new IOException("Embedding file is truncated or damaged: " + path);
+            }
+            long[] records = new long[count];
+            read(channel, directory, 8 * count).asLongBuffer().get(records);
+            return new EmbeddingFile(channel, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of embedding file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Creates a writer for a new file. An existing file is replaced.
+     * @param path the file.
+     * @return the writer.
+     * @throws IOException if the file cannot be created.
+     */
+    public static Writer writer(Path path) throws IOException {
+        return new Writer(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * @return the number of collections in the file.
+     */
+    public int size() {
+        return records.length;
+    }
+
+    /**
+     * Returns a collection whose values are read from the mapped file.
+     * The file is mapped on the first call.
+     * @param ordinal the position of the collection in the file, as returned by {@link Writer#write(EmbeddingCollection)}.
+     * @return the collection.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public EmbeddingCollection get(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= records.length) {
+            throw new IndexOutOfBoundsException("Collection: " + ordinal + ", Size: " + records.length);
+        }
+        ByteBuffer record = mapping().duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        record.position((int) records[ordinal]);
+        int count = record.getInt();
+        int valueCount = record.getInt();
+        int[] indices = new int[count];
+        int[] rowStart = new int[count + 1];
+        IntBuffer ints = record.asIntBuffer();
+        ints.get(indices);
+        ints.get(rowStart);
+        record.position(record.position() + 4 * (2 * count + 1));
+        record.limit(record.position() + 4 * valueCount);
+        FloatBuffer values = record.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        return new EmbeddingCollection(indices, rowStart, new VectorStore.Buffer(values));
+    }
+
+    private ByteBuffer mapping() throws IOException {
+        ByteBuffer map = mapping;
+        if (map == null) {
+            synchronized (this) {
+                map = mapping;
+                if (map == null) {
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    map = mapped;
+                    mapping = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Closes the file channel. Collections already returned remain readable.
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes collections to a file, one after the other.
+     * {@link #close()} writes the directory; the file is not readable until then.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private long[] records = new long[16];
+        private int count;
+        private long position;
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        private Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            buffer.putInt(MAGIC).putInt(VERSION);
+            flush();
+        }
+
+        /**
+         * Appends a collection. Values stored at reduced precision are written as floats.
+         * @param collection the collection.
+         * @return the ordinal of the collection in the file.
+         * @throws IOException if the collection cannot be written, or would make the file larger than
+         * {@link #open(Path)} can map; nothing is written then.
+         */
+        public int write(EmbeddingCollection collection) throws IOException {
+            int[] indices = collection.itemIndices();
+            int[] rowStart = collection.rowStarts();
+            VectorStore values = collection.store();
+            long recordSize = 8 + 4L * indices.length + 4L * rowStart.length + 4L * values.length();
+            if (position + recordSize + 8L * (count + 1) + TRAILER_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Embedding file would exceed the 2GB limit of a single mapping");
+            }
+            if (count == records.length) {
+                records = Arrays.copyOf(records, 2 * count);
+            }
+            records[count] = position;
+            ensure(8);
+            buffer.putInt(indices.length).putInt(values.length());
+            for (int index : indices) {
+                ensure(4);
+                buffer.putInt(index);
+            }
+            for (int start : rowStart) {
+                ensure(4);
+                buffer.putInt(start);
+            }
+            for (int x = 0; x < values.length(); x++) {
+                ensure(4);
+                buffer.putFloat(values.get(x));
+            }
+            flush();
+            return count++;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes the directory and closes the file.
+         * @throws IOException if the directory cannot be written.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                long directory = position;
+                for (int x = 0; x < count; x++) {
+                    ensure(8);
+                    buffer.putLong(records[x]);
+                }
+                ensure(TRAILER_SIZE);
+                buffer.putLong(directory).putInt(count).putInt(MAGIC);
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
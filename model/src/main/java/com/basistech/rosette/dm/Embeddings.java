@@ -79,6 +79,7 @@ public class Embeddings extends BaseAttribute implements Serializable {
 
     public static class Builder extends BaseAttribute.Builder<Embeddings, Embeddings.Builder> {
         private Map<Name, EmbeddingCollection> collections;
+        private EmbeddingCollection.Precision precision;
 
         public Builder() {
             super();
@@ -96,11 +97,29 @@ public class Embeddings extends BaseAttribute implements Serializable {
             return this;
         }
 
+        /**
+         * Store all of the collections at a precision; see {@link EmbeddingCollection.Precision}.
+         * By default, each collection keeps its own precision.
+         * @param precision the precision.
+         * @return this.
+         */
+        public Builder precision(EmbeddingCollection.Precision precision) {
+            this.precision = precision;
+            return this;
+        }
+
         /**
          * Construct the embedding object.
          * @return the embeddings.
          */
         public Embeddings build() {
+            if (precision != null) {
+                Map<Name, EmbeddingCollection> converted = new HashMap<>();
+                for (Map.Entry<Name, EmbeddingCollection> me : collections.entrySet()) {
+                    converted.put(me.getKey(), me.getValue().withPrecision(precision));
+                }
+                return new Embeddings(converted, buildExtendedProperties());
+            }
             return new Embeddings(collections, buildExtendedProperties());
         }
 
@@ -16,7 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -159,8 +158,8 @@ public class Entity extends BaseAttribute implements Serializable {
          * Constructs a builder from the required values.
          */
         public Builder() {
-            mentions = Lists.newArrayList();
-            sentiment = Lists.newArrayList();
+            mentions = new BuilderList<>();
+            sentiment = new BuilderList<>();
         }
 
         /**
@@ -170,12 +169,10 @@ public class Entity extends BaseAttribute implements Serializable {
          */
         public Builder(Entity toCopy) {
             super(toCopy);
-            mentions = Lists.newArrayList();
-            addAllToList(mentions, toCopy.mentions);
+            mentions = BuilderList.copyOf(toCopy.mentions);
             this.entityId = toCopy.entityId;
             this.confidence = toCopy.confidence;
-            sentiment = Lists.newArrayList();
-            addAllToList(sentiment, toCopy.sentiment);
+            sentiment = BuilderList.copyOf(toCopy.sentiment);
             this.type = toCopy.type;
             this.headMentionIndex = toCopy.headMentionIndex;
             this.salience = toCopy.salience;
@@ -240,7 +237,7 @@ public class Entity extends BaseAttribute implements Serializable {
          * @return this
          */
         public Builder type(String type) {
-            this.type = type;
+            this.type = intern(type);
             return this;
         }
 
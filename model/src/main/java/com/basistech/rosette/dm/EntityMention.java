@@ -262,7 +262,7 @@ public class EntityMention extends Attribute implements Serializable {
          * @return this
          */
         public Builder source(String source) {
-            this.source = source;
+            this.source = intern(source);
             return this;
         }
 
@@ -273,7 +273,7 @@ public class EntityMention extends Attribute implements Serializable {
          * @return this
          */
         public Builder subsource(String subsource) {
-            this.subsource = subsource;
+            this.subsource = intern(subsource);
             return this;
         }
 
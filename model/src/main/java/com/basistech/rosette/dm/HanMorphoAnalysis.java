@@ -17,7 +17,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -94,7 +93,7 @@ public class HanMorphoAnalysis extends MorphoAnalysis implements Serializable {
          */
         public Builder() {
             super();
-            readings = Lists.newArrayList();
+            readings = new BuilderList<>();
         }
 
         /**
@@ -104,8 +103,7 @@ public class HanMorphoAnalysis extends MorphoAnalysis implements Serializable {
          */
         public Builder(HanMorphoAnalysis toCopy) {
             super(toCopy);
-            readings = Lists.newArrayList();
-            addAllToList(readings, toCopy.getReadings());
+            readings = BuilderList.copyOf(toCopy.getReadings());
         }
 
         /**
@@ -115,7 +113,7 @@ public class HanMorphoAnalysis extends MorphoAnalysis implements Serializable {
          * @return this
          */
         public Builder addReading(String reading) {
-            readings.add(reading);
+            readings.add(intern(reading));
             return this;
         }
 
@@ -135,8 +133,8 @@ public class HanMorphoAnalysis extends MorphoAnalysis implements Serializable {
          * @return the analysis
          */
         public HanMorphoAnalysis build() {
-            return new HanMorphoAnalysis(partOfSpeech, lemma, components, raw, readings, tagSet, secondaryPartOfSpeech,
-                    buildExtendedProperties());
+            return canonicalize(new HanMorphoAnalysis(partOfSpeech, lemma, components, raw, readings, tagSet, secondaryPartOfSpeech,
+                    buildExtendedProperties()));
         }
     }
 }
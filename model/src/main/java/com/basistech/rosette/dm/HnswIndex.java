@@ -0,0 +1,1305 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An approximate nearest-neighbour index over embedding vectors, such as the
+ * {@link Embeddings.Name#TEXT} vectors of a corpus of documents. The index is a hierarchical
+ * navigable small world (HNSW) graph; each vector is stored with a caller-supplied {@code long} key,
+ * typically a document id.
+ * <br>
+ * An index created by {@link Builder} accepts new vectors at any time, from any number of threads,
+ * while it is being searched. Vectors can be added from {@code float[]}s or straight from
+ * {@link EmbeddingCollection}s, and {@link #addAll(long[], List, int, ExecutorService, int)} builds with several threads.
+ * <br>
+ * {@link #save(Path)} writes the index to a file. {@link #open(Path)} maps a saved file and searches
+ * it in place, without reading the vectors or the graph onto the heap; such an index is read-only.
+ * {@link #load(Path)} reads a saved file into a new index that accepts further vectors.
+ * <br>
+ * For {@link Similarity.Measure#COSINE} the vectors are normalized when they are added, and search
+ * scores are cosine similarities. For {@link Similarity.Measure#DOT} scores are dot products.
+ */
+public final class HnswIndex implements Closeable {
+    private static final int MAGIC = 0x484e5357; // HNSW
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int LOCK_STRIPES = 1 << 10;
+    private static final int MAX_LEVEL = 64;
+    /* entry point and top level of an empty graph, packed as by top(). */
+    private static final long EMPTY = -1L;
+
+    private final int dimension;
+    private final Similarity.Measure measure;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Graph graph;
+    /* inserts share the lock; save() takes it exclusively, so that it sees a complete graph. */
+    private final ReadWriteLock saveLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    private HnswIndex(int dimension, Similarity.Measure measure, int m, int efConstruction, int efSearch, Graph graph) {
+        this.dimension = dimension;
+        this.measure = measure;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.graph = graph;
+    }
+
+    /**
+     * A search result: the key of a vector and its score against the query.
+     */
+    public static final class Neighbor {
+        private final long key;
+        private final float score;
+
+        Neighbor(long key, float score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        /**
+         * @return the key the vector was added with.
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * @return the score; higher is more similar.
+         */
+        public float getScore() {
+            return score;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Neighbor that = (Neighbor) o;
+            return key == that.key && Float.compare(score, that.score) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, score);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("key", key).add("score", score).toString();
+        }
+    }
+
+    /**
+     * @return the length of the vectors in the index.
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the measure used to score vectors.
+     */
+    public Similarity.Measure measure() {
+        return measure;
+    }
+
+    /**
+     * @return the number of vectors in the index.
+     */
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Adds a vector.
+     * @param key the key to return from searches.
+     * @param vector the vector; it is copied.
+     * @throws IllegalArgumentException if the vector length is not {@link #dimension()}.
+     * @throws IllegalStateException if the index was opened with {@link #open(Path)}.
+     */
+    public void add(long key, float[] vector) {
+        checkDimension(vector.length);
+        insert(key, vector.clone());
+    }
+
+    /**
+     * Adds one vector of a collection, read from the collection's storage.
+     * @param key the key to return from searches.
+     * @param collection the collection.
+     * @param index the item index of the vector in the collection.
+     * @throws IllegalArgumentException if the collection has no vector for the item, or its length is not {@link #dimension()}.
+     * @throws IllegalStateException if the index was opened with {@link #open(Path)}.
+     */
+    public void add(long key, EmbeddingCollection collection, int index) {
+        float[] vector = collection.vector(index);
+        if (vector == null) {
+            throw new IllegalArgumentException("No vector for item " + index);
+        }
+        checkDimension(vector.length);
+        insert(key, vector);
+    }
+
+    /**
+     * Adds one vector from each of a list of collections, in the calling thread.
+     * For example, to index a corpus, pass the {@link Embeddings.Name#TEXT} collection of each document.
+     * Collections that are {@code null} or have no vector for the item are skipped.
+     * @param keys the key of each collection.
+     * @param collections the collections.
+     * @param index the item index of the vector in each collection.
+     * @throws IllegalArgumentException if the keys and collections differ in number, or a vector length is not {@link #dimension()}.
+     * @throws IllegalStateException if the index was opened with {@link #open(Path)}.
+     */
+    public void addAll(long[] keys, List<EmbeddingCollection> collections, int index) {
+        checkKeys(keys, collections);
+        heap();
+        adder(keys, collections, index, new AtomicInteger()).run();
+    }
+
+    /**
+     * Adds one vector from each of a list of collections, as {@link #addAll(long[], List, int)}, in parallel,
+     * and waits for them.
+     * @param keys the key of each collection.
+     * @param collections the collections.
+     * @param index the item index of the vector in each collection.
+     * @param executor the executor to run on; it is not shut down.
+     * @param tasks the number of tasks to submit; more than the executor's threads gains nothing.
+     * @throws IllegalArgumentException if the keys and collections differ in number, or a vector length is not {@link #dimension()}.
+     * @throws IllegalStateException if the index was opened with {@link #open(Path)}.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public void addAll(long[] keys, List<EmbeddingCollection> collections, int index, ExecutorService executor, int tasks)
+            throws InterruptedException {
+        checkKeys(keys, collections);
+        heap();
+        Runnable adder = adder(keys, collections, index, new AtomicInteger());
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        try {
+            for (int x = 0; x < tasks; x++) {
+                futures.add(executor.submit(adder));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            // on failure, stop the other tasks; they check for interruption between vectors.
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static void checkKeys(long[] keys, List<EmbeddingCollection> collections) {
+        if (keys.length != collections.size()) {
+            throw new IllegalArgumentException("Expected one key per collection");
+        }
+    }
+
+    /*
+     * Adds the vectors whose positions it claims from next until none are left.
+     */
+    private Runnable adder(long[] keys, List<EmbeddingCollection> collections, int index, AtomicInteger next) {
+        return () -> {
+            for (int x = next.getAndIncrement(); x < keys.length; x = next.getAndIncrement()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                EmbeddingCollection collection = collections.get(x);
+                if (collection != null && collection.contains(index)) {
+                    add(keys[x], collection, index);
+                }
+            }
+        };
+    }
+
+    /**
+     * Finds the vectors most similar to a query.
+     * @param query the query vector.
+     * @param k the maximum number of results.
+     * @return up to {@code k} results, best first.
+     * @throws IllegalArgumentException if the query length is not {@link #dimension()}.
+     */
+    public List<Neighbor> search(float[] query, int k) {
+        return search(query, k, efSearch);
+    }
+
+    /**
+     * Finds the vectors most similar to a query, with an explicit search breadth.
+     * A larger breadth gives better recall at a higher cost.
+     * @param query the query vector.
+     * @param k the maximum number of results.
+     * @param ef the number of candidates to keep during the search; at least {@code k} are kept.
+     * @return up to {@code k} results, best first.
+     * @throws IllegalArgumentException if the query length is not {@link #dimension()}.
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        checkDimension(query.length);
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        long top = graph.top();
+        if (top == EMPTY || k == 0) {
+            return ImmutableList.of();
+        }
+        float[] q = query;
+        if (measure == Similarity.Measure.COSINE) {
+            q = query.clone();
+            normalize(q);
+        }
+        int[] links = new int[2 * m];
+        int entry = entry(top);
+        float entryScore = graph.score(q, entry);
+        for (int level = level(top); level > 0; level--) {
+            for (boolean changed = true; changed;) {
+                changed = false;
+                int count = graph.links(entry, level, links);
+                for (int x = 0; x < count; x++) {
+                    float score = graph.score(q, links[x]);
+                    if (score > entryScore) {
+                        entry = links[x];
+                        entryScore = score;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        ScoreHeap found = searchLayer(q, entry, entryScore, Math.max(ef, k), 0, -1);
+        int count = Math.min(k, found.size);
+        Neighbor[] result = new Neighbor[count];
+        for (int x = 0; x < count; x++) {
+            result[x] = new Neighbor(graph.key(found.nodes[x]), found.scores[x]);
+        }
+        return ImmutableList.copyOf(result);
+    }
+
+    private void checkDimension(int length) {
+        if (length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of length " + dimension + ", not " + length);
+        }
+    }
+
+    private HeapGraph heap() {
+        if (!(graph instanceof HeapGraph)) {
+            throw new IllegalStateException("An index opened from a file is read-only; use load() to add vectors");
+        }
+        return (HeapGraph) graph;
+    }
+
+    private static void normalize(float[] vector) {
+        float norm = (float) Math.sqrt(SimilarityKernel.dot(vector, 0, vector, 0, vector.length));
+        if (norm > 0) {
+            for (int x = 0; x < vector.length; x++) {
+                vector[x] /= norm;
+            }
+        }
+    }
+
+    private static long top(int entry, int level) {
+        return ((long) level << 32) | (entry & 0xffffffffL);
+    }
+
+    private static int entry(long top) {
+        return (int) top;
+    }
+
+    private static int level(long top) {
+        return (int) (top >> 32);
+    }
+
+    private void insert(long key, float[] vector) {
+        HeapGraph heap = heap();
+        if (measure == Similarity.Measure.COSINE) {
+            normalize(vector);
+        }
+        Lock lock = saveLock.readLock();
+        lock.lock();
+        try {
+            int level = heap.randomLevel();
+            int node = heap.allocate(key, vector, level);
+            long top = heap.top;
+            if (level > level(top)) {
+                // Only one thread at a time may raise the top of the graph.
+                synchronized (heap.topLock) {
+                    top = heap.top;
+                    connect(heap, node, vector, level, top);
+                    if (level > level(heap.top)) {
+                        heap.top = top(node, level);
+                    }
+                }
+            } else {
+                connect(heap, node, vector, level, top);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void connect(HeapGraph heap, int node, float[] vector, int level, long top) {
+        if (top == EMPTY) {
+            return;
+        }
+        int[] links = new int[2 * m + 1];
+        int entry = entry(top);
+        float entryScore = heap.score(vector, entry);
+        for (int lc = level(top); lc > level; lc--) {
+            for (boolean changed = true; changed;) {
+                changed = false;
+                int count = heap.links(entry, lc, links);
+                for (int x = 0; x < count; x++) {
+                    float score = heap.score(vector, links[x]);
+                    if (score > entryScore) {
+                        entry = links[x];
+                        entryScore = score;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        int[] selected = new int[m];
+        for (int lc = Math.min(level, level(top)); lc >= 0; lc--) {
+            ScoreHeap found = searchLayer(vector, entry, entryScore, efConstruction, lc, node);
+            int count = select(heap, found.nodes, found.scores, found.size, m, node, selected);
+            int max = lc == 0 ? 2 * m : m;
+            heap.mergeLinks(node, lc, selected, count, max);
+            for (int x = 0; x < count; x++) {
+                heap.addLink(selected[x], lc, node, max);
+            }
+            entry = found.nodes[0];
+            entryScore = found.scores[0];
+        }
+    }
+
+    /*
+     * The neighbour selection heuristic of the HNSW paper: take candidates best first, and keep one
+     * only if it is more similar to the base than to every candidate already kept.
+     * The candidates must be sorted best first.
+     */
+    private static int select(HeapGraph heap, int[] nodes, float[] scores, int count, int limit, int self, int[] out) {
+        int kept = 0;
+        for (int x = 0; x < count && kept < limit; x++) {
+            int candidate = nodes[x];
+            if (candidate == self) {
+                continue;
+            }
+            boolean keep = true;
+            for (int y = 0; y < kept; y++) {
+                if (heap.score(candidate, out[y]) > scores[x]) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                out[kept++] = candidate;
+            }
+        }
+        return kept;
+    }
+
+    /*
+     * Best-first search of one level of the graph; returns up to ef nodes, sorted best first.
+     * The excluded node, if not -1, is never visited: a node being inserted may already be
+     * reachable through links that other threads have added to it.
+     */
+    private ScoreHeap searchLayer(float[] query, int entry, float entryScore, int ef, int level, int excluded) {
+        Visited seen = visited.get();
+        seen.reset(graph.size());
+        if (excluded >= 0) {
+            seen.add(excluded);
+        }
+        seen.add(entry);
+        ScoreHeap candidates = new ScoreHeap(ef, true);
+        ScoreHeap results = new ScoreHeap(ef + 1, false);
+        candidates.push(entry, entryScore);
+        results.push(entry, entryScore);
+        int[] links = new int[2 * m];
+        while (candidates.size > 0) {
+            if (results.size >= ef && candidates.scores[0] < results.scores[0]) {
+                break;
+            }
+            int current = candidates.nodes[0];
+            candidates.pop();
+            int count = graph.links(current, level, links);
+            for (int x = 0; x < count; x++) {
+                int neighbor = links[x];
+                if (!seen.add(neighbor)) {
+                    continue;
+                }
+                float score = graph.score(query, neighbor);
+                if (results.size < ef || score > results.scores[0]) {
+                    candidates.push(neighbor, score);
+                    results.push(neighbor, score);
+                    if (results.size > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        results.sortDescending();
+        return results;
+    }
+
+    /**
+     * Writes the index to a file, which can be read back with {@link #open(Path)} or {@link #load(Path)}.
+     * Additions wait until the file is written. An existing file is replaced.
+     * @param path the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        Lock lock = saveLock.writeLock();
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            int size = graph.size();
+            long top = graph.top();
+            long upperLength = 0;
+            for (int node = 0; node < size; node++) {
+                upperLength += (long) graph.level(node) * (m + 1);
+            }
+            out.ensure(HEADER_SIZE);
+            out.buffer.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(measure.ordinal())
+                    .putInt(m).putInt(efConstruction).putInt(efSearch).putInt(size)
+                    .putInt(entry(top)).putInt(level(top)).putLong(upperLength);
+            for (int node = 0; node < size; node++) {
+                out.ensure(8);
+                out.buffer.putLong(graph.key(node));
+            }
+            out.pad();
+            for (int node = 0; node < size; node++) {
+                out.ensure(1);
+                out.buffer.put((byte) graph.level(node));
+            }
+            out.pad();
+            int[] links = new int[2 * m];
+            for (int node = 0; node < size; node++) {
+                out.putLinks(links, graph.links(node, 0, links), 2 * m);
+            }
+            out.pad();
+            long upperStart = 0;
+            for (int node = 0; node < size; node++) {
+                out.ensure(8);
+                out.buffer.putLong(upperStart);
+                upperStart += (long) graph.level(node) * (m + 1);
+            }
+            out.pad();
+            for (int node = 0; node < size; node++) {
+                for (int level = 1; level <= graph.level(node); level++) {
+                    out.putLinks(links, graph.links(node, level, links), m);
+                }
+            }
+            out.pad();
+            float[] vector = new float[dimension];
+            for (int node = 0; node < size; node++) {
+                graph.copyVector(node, vector);
+                for (float value : vector) {
+                    out.ensure(4);
+                    out.buffer.putFloat(value);
+                }
+            }
+            out.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a file written by {@link #save(Path)} and searches it through a memory mapping.
+     * The returned index is read-only. The mapping stays valid after {@link #close()} for as long
+     * as the index is reachable.
+     * @param path the file.
+     * @return the index.
+     * @throws IOException if the file cannot be read or is not an index file.
+     */
+    public static HnswIndex open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not an HNSW index file: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Unexpected end of HNSW index file: " + path);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an HNSW index file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported HNSW index file version " + version + ": " + path);
+            }
+            int dimension = header.getInt();
+            Similarity.Measure measure = Similarity.Measure.values()[header.getInt()];
+            int m = header.getInt();
+            int efConstruction = header.getInt();
+            int efSearch = header.getInt();
+            int size = header.getInt();
+            int entry = header.getInt();
+            int maxLevel = header.getInt();
+            long upperLength = header.getLong();
+            MappedGraph graph = new MappedGraph(channel, dimension, m, size, top(entry, maxLevel), upperLength);
+            return new HnswIndex(dimension, measure, m, efConstruction, efSearch, graph);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a file written by {@link #save(Path)} into a new index on the heap, which accepts further vectors.
+     * The file does not record the {@link Builder#seed(long) seed}; the levels of further vectors
+     * are drawn with the default seed.
+     * @param path the file.
+     * @return the index.
+     * @throws IOException if the file cannot be read or is not an index file.
+     */
+    public static HnswIndex load(Path path) throws IOException {
+        try (HnswIndex mapped = open(path)) {
+            Graph source = mapped.graph;
+            HeapGraph heap = new HeapGraph(mapped.dimension, mapped.m, Builder.DEFAULT_SEED);
+            int[] links = new int[2 * mapped.m];
+            float[] vector = new float[mapped.dimension];
+            for (int node = 0; node < source.size(); node++) {
+                source.copyVector(node, vector);
+                heap.allocate(source.key(node), vector, source.level(node));
+                for (int level = 0; level <= source.level(node); level++) {
+                    heap.setLinks(node, level, links, source.links(node, level, links));
+                }
+            }
+            heap.top = source.top();
+            return new HnswIndex(mapped.dimension, mapped.measure, mapped.m, mapped.efConstruction, mapped.efSearch, heap);
+        }
+    }
+
+    /**
+     * Closes the file of an index opened with {@link #open(Path)}; otherwise does nothing.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        graph.close();
+    }
+
+    /**
+     * Creates an empty index.
+     */
+    public static class Builder {
+        static final long DEFAULT_SEED = 42;
+
+        private final int dimension;
+        private Similarity.Measure measure = Similarity.Measure.COSINE;
+        private int m = 16;
+        private int efConstruction = 200;
+        private int efSearch = 64;
+        private long seed = DEFAULT_SEED;
+
+        /**
+         * Constructs a builder for an index of vectors of one length.
+         * @param dimension the length of the vectors.
+         */
+        public Builder(int dimension) {
+            if (dimension <= 0) {
+                throw new IllegalArgumentException("The dimension must be positive");
+            }
+            this.dimension = dimension;
+        }
+
+        /**
+         * Specifies the measure used to score vectors. The default is {@link Similarity.Measure#COSINE}.
+         * @param measure the measure.
+         * @return this.
+         */
+        public Builder measure(Similarity.Measure measure) {
+            this.measure = Objects.requireNonNull(measure);
+            return this;
+        }
+
+        /**
+         * Specifies the number of links per vector on the upper levels of the graph; the bottom level
+         * has twice as many. More links give better recall and use more memory. The default is 16.
+         * @param m the number of links.
+         * @return this.
+         */
+        public Builder m(int m) {
+            if (m < 2) {
+                throw new IllegalArgumentException("m must be at least 2");
+            }
+            this.m = m;
+            return this;
+        }
+
+        /**
+         * Specifies the number of candidates considered when a vector is linked into the graph.
+         * The default is 200.
+         * @param efConstruction the number of candidates.
+         * @return this.
+         */
+        public Builder efConstruction(int efConstruction) {
+            this.efConstruction = Math.max(1, efConstruction);
+            return this;
+        }
+
+        /**
+         * Specifies the default number of candidates kept by {@link #search(float[], int)}. The default is 64.
+         * @param efSearch the number of candidates.
+         * @return this.
+         */
+        public Builder efSearch(int efSearch) {
+            this.efSearch = Math.max(1, efSearch);
+            return this;
+        }
+
+        /**
+         * Specifies the seed for the random choice of graph levels. It is not saved with the index;
+         * see {@link HnswIndex#load(Path)}.
+         * @param seed the seed.
+         * @return this.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @return a new, empty index.
+         */
+        public HnswIndex build() {
+            return new HnswIndex(dimension, measure, m, efConstruction, efSearch, new HeapGraph(dimension, m, seed));
+        }
+    }
+
+    /**
+     * The storage of the graph: keys, levels, links and vectors, addressed by node number.
+     */
+    private abstract static class Graph {
+        final int dimension;
+        final int m;
+
+        Graph(int dimension, int m) {
+            this.dimension = dimension;
+            this.m = m;
+        }
+
+        abstract int size();
+
+        /* the entry point and top level, packed by HnswIndex.top(int, int) */
+        abstract long top();
+
+        abstract long key(int node);
+
+        abstract int level(int node);
+
+        /* copies the links of a node on a level into target, and returns their number */
+        abstract int links(int node, int level, int[] target);
+
+        abstract float score(float[] query, int node);
+
+        abstract void copyVector(int node, float[] target);
+
+        void close() throws IOException {
+            // nothing to release
+        }
+    }
+
+    /**
+     * Per-node data for a run of PAGE_SIZE nodes.
+     */
+    private static final class Page {
+        final long[] keys = new long[PAGE_SIZE];
+        final byte[] levels = new byte[PAGE_SIZE];
+        final float[] vectors;
+        /* per node: the link count, then up to 2m links. */
+        final int[] links0;
+        /* per node with levels above 0: for each such level, the link count then up to m links. */
+        final int[][] upper = new int[PAGE_SIZE][];
+
+        Page(int dimension, int m) {
+            vectors = new float[PAGE_SIZE * dimension];
+            links0 = new int[PAGE_SIZE * (2 * m + 1)];
+        }
+    }
+
+    /**
+     * A graph on the heap that grows a page at a time and accepts concurrent inserts.
+     * The links of a node are read and written under one of a set of striped locks; a thread never
+     * holds more than one of them. A node's vector is written before the node is linked, so any thread
+     * that finds the node through a link also sees its vector.
+     */
+    private static final class HeapGraph extends Graph {
+        private final Object[] locks = new Object[LOCK_STRIPES];
+        private final AtomicInteger count = new AtomicInteger();
+        private final Random random;
+        private final double levelFactor;
+        private volatile Page[] pages = new Page[0];
+        volatile long top = EMPTY;
+        final Object topLock = new Object();
+
+        HeapGraph(int dimension, int m, long seed) {
+            super(dimension, m);
+            for (int x = 0; x < locks.length; x++) {
+                locks[x] = new Object();
+            }
+            random = new Random(seed);
+            levelFactor = 1 / Math.log(m);
+        }
+
+        @Override
+        int size() {
+            return count.get();
+        }
+
+        @Override
+        long top() {
+            return top;
+        }
+
+        int randomLevel() {
+            return Math.min(MAX_LEVEL, (int) (-Math.log(1 - random.nextDouble()) * levelFactor));
+        }
+
+        int allocate(long key, float[] vector, int level) {
+            int node = count.getAndIncrement();
+            Page page = ensurePage(node >>> PAGE_SHIFT);
+            int slot = node & (PAGE_SIZE - 1);
+            System.arraycopy(vector, 0, page.vectors, slot * dimension, dimension);
+            page.keys[slot] = key;
+            page.levels[slot] = (byte) level;
+            if (level > 0) {
+                page.upper[slot] = new int[level * (m + 1)];
+            }
+            return node;
+        }
+
+        private Page ensurePage(int index) {
+            Page[] current = pages;
+            if (index < current.length && current[index] != null) {
+                return current[index];
+            }
+            synchronized (this) {
+                current = pages;
+                if (index >= current.length || current[index] == null) {
+                    Page[] next = Arrays.copyOf(current, Math.max(index + 1, current.length));
+                    for (int x = 0; x <= index; x++) {
+                        if (next[x] == null) {
+                            next[x] = new Page(dimension, m);
+                        }
+                    }
+                    pages = next;
+                    current = next;
+                }
+                return current[index];
+            }
+        }
+
+        private Page page(int node) {
+            return pages[node >>> PAGE_SHIFT];
+        }
+
+        private Object lock(int node) {
+            return locks[node & (LOCK_STRIPES - 1)];
+        }
+
+        @Override
+        long key(int node) {
+            return page(node).keys[node & (PAGE_SIZE - 1)];
+        }
+
+        @Override
+        int level(int node) {
+            return page(node).levels[node & (PAGE_SIZE - 1)];
+        }
+
+        @Override
+        int links(int node, int level, int[] target) {
+            synchronized (lock(node)) {
+                return linksLocked(node, level, target);
+            }
+        }
+
+        private int linksLocked(int node, int level, int[] target) {
+            Page page = page(node);
+            int slot = node & (PAGE_SIZE - 1);
+            int[] array;
+            int base;
+            if (level == 0) {
+                array = page.links0;
+                base = slot * (2 * m + 1);
+            } else {
+                array = page.upper[slot];
+                base = (level - 1) * (m + 1);
+            }
+            int n = array[base];
+            System.arraycopy(array, base + 1, target, 0, n);
+            return n;
+        }
+
+        void setLinks(int node, int level, int[] links, int n) {
+            synchronized (lock(node)) {
+                setLinksLocked(node, level, links, n);
+            }
+        }
+
+        private void setLinksLocked(int node, int level, int[] links, int n) {
+            Page page = page(node);
+            int slot = node & (PAGE_SIZE - 1);
+            int[] array;
+            int base;
+            if (level == 0) {
+                array = page.links0;
+                base = slot * (2 * m + 1);
+            } else {
+                array = page.upper[slot];
+                base = (level - 1) * (m + 1);
+            }
+            array[base] = n;
+            System.arraycopy(links, 0, array, base + 1, n);
+        }
+
+        /*
+         * Sets the links of a new node. Other threads may already have linked to the node from
+         * below; their links are merged in rather than overwritten.
+         */
+        void mergeLinks(int node, int level, int[] selected, int n, int max) {
+            synchronized (lock(node)) {
+                int[] merged = new int[max + n];
+                int count = linksLocked(node, level, merged);
+                if (count == 0) {
+                    setLinksLocked(node, level, selected, n);
+                    return;
+                }
+                for (int x = 0; x < n; x++) {
+                    if (indexOf(merged, count, selected[x]) < 0) {
+                        merged[count++] = selected[x];
+                    }
+                }
+                count = prune(node, merged, count, max);
+                setLinksLocked(node, level, merged, count);
+            }
+        }
+
+        /*
+         * Adds a link from a node to a new neighbour, pruning the links with the selection heuristic
+         * when the node already has the maximum number.
+         */
+        void addLink(int node, int level, int neighbor, int max) {
+            synchronized (lock(node)) {
+                int[] links = new int[max + 1];
+                int count = linksLocked(node, level, links);
+                if (indexOf(links, count, neighbor) >= 0) {
+                    return;
+                }
+                links[count++] = neighbor;
+                if (count > max) {
+                    count = prune(node, links, count, max);
+                }
+                setLinksLocked(node, level, links, count);
+            }
+        }
+
+        private int prune(int node, int[] links, int count, int max) {
+            if (count <= max) {
+                return count;
+            }
+            float[] scores = new float[count];
+            for (int x = 0; x < count; x++) {
+                scores[x] = score(node, links[x]);
+            }
+            sortDescending(links, scores, count);
+            int[] kept = new int[max];
+            int n = select(this, links, scores, count, max, node, kept);
+            System.arraycopy(kept, 0, links, 0, n);
+            return n;
+        }
+
+        private static int indexOf(int[] array, int count, int value) {
+            for (int x = 0; x < count; x++) {
+                if (array[x] == value) {
+                    return x;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        float score(float[] query, int node) {
+            return SimilarityKernel.dot(query, 0, page(node).vectors, (node & (PAGE_SIZE - 1)) * dimension, dimension);
+        }
+
+        float score(int a, int b) {
+            return SimilarityKernel.dot(page(a).vectors, (a & (PAGE_SIZE - 1)) * dimension,
+                    page(b).vectors, (b & (PAGE_SIZE - 1)) * dimension, dimension);
+        }
+
+        @Override
+        void copyVector(int node, float[] target) {
+            System.arraycopy(page(node).vectors, (node & (PAGE_SIZE - 1)) * dimension, target, 0, dimension);
+        }
+    }
+
+    /**
+     * A read-only graph in a mapped file. Each section of the file is mapped in chunks of whole
+     * records, so that the file may exceed the 2GB limit of a single mapping.
+     */
+    private static final class MappedGraph extends Graph {
+        private static final int CHUNK_SIZE = 1 << 30;
+
+        private final FileChannel channel;
+        private final int size;
+        private final long top;
+        private final Section keys;
+        private final Section levels;
+        private final Section links0;
+        private final Section upperStart;
+        private final Section upper;
+        private final Section vectors;
+        private final ThreadLocal<float[]> scratch;
+
+        MappedGraph(FileChannel channel, int dimension, int m, int size, long top, long upperLength) throws IOException {
+            super(dimension, m);
+            this.channel = channel;
+            this.size = size;
+            this.top = top;
+            long position = HEADER_SIZE;
+            keys = new Section(channel, position, size, 8);
+            position = align(keys.end);
+            levels = new Section(channel, position, size, 1);
+            position = align(levels.end);
+            links0 = new Section(channel, position, size, 4 * (2 * m + 1));
+            position = align(links0.end);
+            upperStart = new Section(channel, position, size, 8);
+            position = align(upperStart.end);
+            upper = new Section(channel, position, upperLength, 4);
+            position = align(upper.end);
+            vectors = new Section(channel, position, size, 4 * dimension);
+            if (vectors.end != channel.size()) {
+                throw new IOException("HNSW index file is truncated or damaged");
+            }
+            scratch = ThreadLocal.withInitial(() -> new float[dimension]);
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        long top() {
+            return top;
+        }
+
+        @Override
+        long key(int node) {
+            return keys.chunk(node).getLong(keys.position(node));
+        }
+
+        @Override
+        int level(int node) {
+            return levels.chunk(node).get(levels.position(node));
+        }
+
+        @Override
+        int links(int node, int level, int[] target) {
+            if (level == 0) {
+                IntBuffer ints = links0.ints(node);
+                int base = links0.position(node) / 4;
+                int n = ints.get(base);
+                ints.get(base + 1, target, 0, n);
+                return n;
+            }
+            long base = upperStart.chunk(node).getLong(upperStart.position(node)) + (long) (level - 1) * (m + 1);
+            int n = upper.chunk(base).getInt(upper.position(base));
+            for (int x = 0; x < n; x++) {
+                long record = base + 1 + x;
+                target[x] = upper.chunk(record).getInt(upper.position(record));
+            }
+            return n;
+        }
+
+        @Override
+        float score(float[] query, int node) {
+            float[] vector = scratch.get();
+            copyVector(node, vector);
+            return SimilarityKernel.dot(query, 0, vector, 0, dimension);
+        }
+
+        @Override
+        void copyVector(int node, float[] target) {
+            vectors.floats(node).get(vectors.position(node) / 4, target, 0, dimension);
+        }
+
+        @Override
+        void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Fixed-size records mapped in chunks of whole records.
+         */
+        private static final class Section {
+            final long end;
+            private final int recordBytes;
+            private final int recordsPerChunk;
+            private final ByteBuffer[] chunks;
+            private final IntBuffer[] ints;
+            private final FloatBuffer[] floats;
+
+            Section(FileChannel channel, long offset, long records, int recordBytes) throws IOException {
+                this.recordBytes = recordBytes;
+                end = offset + records * recordBytes;
+                if (end > channel.size()) {
+                    throw new IOException("HNSW index file is truncated or damaged");
+                }
+                recordsPerChunk = Math.max(1, CHUNK_SIZE / recordBytes);
+                int count = (int) ((records + recordsPerChunk - 1) / recordsPerChunk);
+                chunks = new ByteBuffer[count];
+                ints = new IntBuffer[count];
+                floats = new FloatBuffer[count];
+                for (int x = 0; x < count; x++) {
+                    long first = (long) x * recordsPerChunk;
+                    long length = Math.min(recordsPerChunk, records - first) * recordBytes;
+                    chunks[x] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * recordBytes, length)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    ints[x] = chunks[x].asIntBuffer();
+                    floats[x] = chunks[x].asFloatBuffer();
+                }
+            }
+
+            ByteBuffer chunk(long record) {
+                return chunks[(int) (record / recordsPerChunk)];
+            }
+
+            IntBuffer ints(long record) {
+                return ints[(int) (record / recordsPerChunk)];
+            }
+
+            FloatBuffer floats(long record) {
+                return floats[(int) (record / recordsPerChunk)];
+            }
+
+            /* the byte position of a record within its chunk */
+            int position(long record) {
+                return (int) (record % recordsPerChunk) * recordBytes;
+            }
+        }
+    }
+
+    /**
+     * A binary heap of (node, score) pairs, best at the root if {@code max}, else worst.
+     */
+    private static final class ScoreHeap {
+        private final boolean max;
+        int[] nodes;
+        float[] scores;
+        int size;
+
+        ScoreHeap(int capacity, boolean max) {
+            this.max = max;
+            nodes = new int[Math.max(1, capacity)];
+            scores = new float[nodes.length];
+        }
+
+        private boolean above(int a, int b) {
+            return max ? scores[a] > scores[b] : scores[a] < scores[b];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+                scores = Arrays.copyOf(scores, 2 * size);
+            }
+            nodes[size] = node;
+            scores[size] = score;
+            for (int child = size++; child > 0;) {
+                int parent = (child - 1) >>> 1;
+                if (!above(child, parent)) {
+                    break;
+                }
+                swap(child, parent);
+                child = parent;
+            }
+        }
+
+        void pop() {
+            size--;
+            nodes[0] = nodes[size];
+            scores[0] = scores[size];
+            for (int parent = 0;;) {
+                int child = 2 * parent + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(child + 1, child)) {
+                    child++;
+                }
+                if (!above(child, parent)) {
+                    break;
+                }
+                swap(child, parent);
+                parent = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int node = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = node;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        void sortDescending() {
+            HnswIndex.sortDescending(nodes, scores, size);
+        }
+    }
+
+    private static void sortDescending(int[] nodes, float[] scores, int count) {
+        for (int x = 1; x < count; x++) {
+            int node = nodes[x];
+            float score = scores[x];
+            int y = x - 1;
+            for (; y >= 0 && scores[y] < score; y--) {
+                nodes[y + 1] = nodes[y];
+                scores[y + 1] = scores[y];
+            }
+            nodes[y + 1] = node;
+            scores[y + 1] = score;
+        }
+    }
+
+    /**
+     * Marks of the nodes visited by one search, cleared in constant time by advancing a generation.
+     */
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int generation;
+
+        void reset(int size) {
+            if (marks.length < size) {
+                marks = new int[Math.max(size, 2 * marks.length)];
+                generation = 0;
+            }
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean add(int node) {
+            if (node >= marks.length) {
+                marks = Arrays.copyOf(marks, Math.max(node + 1, 2 * marks.length));
+            }
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+
+    /**
+     * A buffered, little-endian writer for {@link #save(Path)}.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void putLinks(int[] links, int count, int capacity) throws IOException {
+            ensure(4 * (capacity + 1));
+            buffer.putInt(count);
+            for (int x = 0; x < capacity; x++) {
+                buffer.putInt(x < count ? links[x] : 0);
+            }
+        }
+
+        /* pads to a multiple of 8 bytes */
+        void pad() throws IOException {
+            ensure(8);
+            while ((position + buffer.position()) % 8 != 0) {
+                buffer.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable index over every {@link Attribute} of an {@link AnnotatedText}, answering
+ * span queries in logarithmic time plus the size of the result.
+ * The index covers top-level attributes, the items of list and map attributes, the mentions
+ * of entities and events, the roles and negation cues of event mentions, the extents of
+ * keyphrases and the extents of relationship components.
+ * <br>
+ * Obtain an index from {@link AnnotatedText#getIntervalIndex()}, which builds it on first use
+ * and caches it. Instances are immutable and may be shared across threads.
+ * <br>
+ * Offsets are half-open, as everywhere else in the model. Results are ordered by start offset,
+ * then end offset; attributes with identical offsets keep the order in which they appear in the text.
+ */
+public final class IntervalIndex {
+    private final Attribute[] attributes;
+    private final int[] starts;
+    private final int[] ends;
+    /* Implicit segment tree over the sorted intervals; node n holds the largest end offset in its range. */
+    private final int[] maxEnd;
+    private final int leaves;
+
+    IntervalIndex(Collection<? extends Attribute> unsorted) {
+        attributes = unsorted.toArray(new Attribute[0]);
+        Arrays.sort(attributes, (a, b) -> {
+            int cmp = Integer.compare(a.getStartOffset(), b.getStartOffset());
+            return cmp != 0 ? cmp : Integer.compare(a.getEndOffset(), b.getEndOffset());
+        });
+        int size = attributes.length;
+        starts = new int[size];
+        ends = new int[size];
+        for (int x = 0; x < size; x++) {
+            starts[x] = attributes[x].getStartOffset();
+            ends[x] = attributes[x].getEndOffset();
+        }
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        leaves = capacity;
+        maxEnd = new int[2 * capacity];
+        Arrays.fill(maxEnd, Integer.MIN_VALUE);
+        System.arraycopy(ends, 0, maxEnd, capacity, size);
+        for (int node = capacity - 1; node > 0; node--) {
+            maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Builds an index over the attributes of a text.
+     *
+     * @param text the text
+     * @return the index
+     */
+    static IntervalIndex of(AnnotatedText text) {
+        List<Attribute> collected = new ArrayList<>();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BaseAttribute attribute : text.getAttributes().values()) {
+            collect(attribute, collected, visited);
+        }
+        return new IntervalIndex(collected);
+    }
+
+    private static void collect(Object value, List<Attribute> collected, Set<Object> visited) {
+        if (value == null || !visited.add(value)) {
+            return;
+        }
+        if (value instanceof Attribute) {
+            collected.add((Attribute) value);
+        }
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                collect(item, collected, visited);
+            }
+        } else if (value instanceof MapAttribute) {
+            for (Object item : ((MapAttribute<?, ?>) value).values()) {
+                collect(item, collected, visited);
+            }
+        } else if (value instanceof Entity) {
+            collectAll(((Entity) value).getMentions(), collected, visited);
+        } else if (value instanceof Event) {
+            collectAll(((Event) value).getMentions(), collected, visited);
+        } else if (value instanceof EventMention) {
+            collectAll(((EventMention) value).getRoles(), collected, visited);
+            collectAll(((EventMention) value).getNegationCues(), collected, visited);
+        } else if (value instanceof Keyphrase) {
+            collectAll(((Keyphrase) value).getExtents(), collected, visited);
+        } else if (value instanceof RelationshipMention) {
+            RelationshipMention mention = (RelationshipMention) value;
+            collectComponent(mention.getPredicate(), collected, visited);
+            collectComponent(mention.getArg1(), collected, visited);
+            collectComponent(mention.getArg2(), collected, visited);
+            collectComponent(mention.getArg3(), collected, visited);
+            collectComponents(mention.getAdjuncts(), collected, visited);
+            collectComponents(mention.getLocatives(), collected, visited);
+            collectComponents(mention.getTemporals(), collected, visited);
+        }
+    }
+
+    private static void collectAll(Collection<?> values, List<Attribute> collected, Set<Object> visited) {
+        if (values != null) {
+            for (Object item : values) {
+                collect(item, collected, visited);
+            }
+        }
+    }
+
+    private static void collectComponents(Collection<RelationshipComponent> components, List<Attribute> collected, Set<Object> visited) {
+        if (components != null) {
+            for (RelationshipComponent component : components) {
+                collectComponent(component, collected, visited);
+            }
+        }
+    }
+
+    private static void collectComponent(RelationshipComponent component, List<Attribute> collected, Set<Object> visited) {
+        if (component != null) {
+            collectAll(component.getExtents(), collected, visited);
+        }
+    }
+
+    /**
+     * Returns the number of attributes in the index.
+     *
+     * @return the number of attributes
+     */
+    public int size() {
+        return attributes.length;
+    }
+
+    /**
+     * Returns the attributes that share at least one character with a span,
+     * that is, those with {@code attrStart < end} and {@code attrEnd > start}.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @return the overlapping attributes
+     */
+    public List<Attribute> overlapping(int start, int end) {
+        return overlapping(start, end, Attribute.class);
+    }
+
+    /**
+     * Returns the attributes of a type that share at least one character with a span.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @param type the type of attribute to return
+     * @param <T> the type of attribute to return
+     * @return the overlapping attributes
+     */
+    public <T extends Attribute> List<T> overlapping(int start, int end, Class<T> type) {
+        // attrStart < end, attrEnd >= start + 1
+        return search(lowerBound(end), start + 1, type);
+    }
+
+    /**
+     * Returns the attributes that cover a character offset, that is, those with
+     * {@code attrStart <= offset < attrEnd}.
+     *
+     * @param offset the character offset
+     * @return the attributes containing the offset
+     */
+    public List<Attribute> stabbing(int offset) {
+        return stabbing(offset, Attribute.class);
+    }
+
+    /**
+     * Returns the attributes of a type that cover a character offset.
+     *
+     * @param offset the character offset
+     * @param type the type of attribute to return
+     * @param <T> the type of attribute to return
+     * @return the attributes containing the offset
+     */
+    public <T extends Attribute> List<T> stabbing(int offset, Class<T> type) {
+        return search(upperBound(offset), offset + 1, type);
+    }
+
+    /**
+     * Returns the attributes that enclose a span, that is, those with
+     * {@code attrStart <= start} and {@code attrEnd >= end}.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @return the enclosing attributes
+     */
+    public List<Attribute> containing(int start, int end) {
+        return containing(start, end, Attribute.class);
+    }
+
+    /**
+     * Returns the attributes of a type that enclose a span.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @param type the type of attribute to return
+     * @param <T> the type of attribute to return
+     * @return the enclosing attributes
+     */
+    public <T extends Attribute> List<T> containing(int start, int end, Class<T> type) {
+        return search(upperBound(start), end, type);
+    }
+
+    /**
+     * Returns the attributes that lie within a span, that is, those with
+     * {@code attrStart >= start} and {@code attrEnd <= end}.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @return the enclosed attributes
+     */
+    public List<Attribute> containedIn(int start, int end) {
+        return containedIn(start, end, Attribute.class);
+    }
+
+    /**
+     * Returns the attributes of a type that lie within a span.
+     *
+     * @param start the start offset of the span
+     * @param end the end offset of the span
+     * @param type the type of attribute to return
+     * @param <T> the type of attribute to return
+     * @return the enclosed attributes
+     */
+    public <T extends Attribute> List<T> containedIn(int start, int end, Class<T> type) {
+        ImmutableList.Builder<T> result = ImmutableList.builder();
+        int limit = upperBound(end);
+        for (int x = lowerBound(start); x < limit; x++) {
+            if (ends[x] <= end && type.isInstance(attributes[x])) {
+                result.add(type.cast(attributes[x]));
+            }
+        }
+        return result.build();
+    }
+
+    /*
+     * Collects, in order, the intervals among the first 'limit' (by start) whose end is at least minEnd.
+     */
+    private <T extends Attribute> List<T> search(int limit, int minEnd, Class<T> type) {
+        if (limit == 0) {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<T> result = ImmutableList.builder();
+        search(1, 0, leaves, limit, minEnd, type, result);
+        return result.build();
+    }
+
+    private <T extends Attribute> void search(int node, int lo, int hi, int limit, int minEnd, Class<T> type, ImmutableList.Builder<T> result) {
+        if (lo >= limit || maxEnd[node] < minEnd) {
+            return;
+        }
+        if (hi - lo == 1) {
+            if (type.isInstance(attributes[lo])) {
+                result.add(type.cast(attributes[lo]));
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        search(2 * node, lo, mid, limit, minEnd, type, result);
+        search(2 * node + 1, mid, hi, limit, minEnd, type, result);
+    }
+
+    /* first index whose start is >= offset */
+    private int lowerBound(int offset) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /* first index whose start is > offset */
+    private int upperBound(int offset) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
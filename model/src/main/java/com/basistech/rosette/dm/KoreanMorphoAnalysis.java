@@ -16,7 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -102,8 +101,8 @@ public class KoreanMorphoAnalysis extends MorphoAnalysis implements Serializable
          */
         public Builder() {
             super();
-            morphemes = Lists.newArrayList();
-            morphemeTags = Lists.newArrayList();
+            morphemes = new BuilderList<>();
+            morphemeTags = new BuilderList<>();
         }
 
         /**
@@ -113,10 +112,8 @@ public class KoreanMorphoAnalysis extends MorphoAnalysis implements Serializable
          */
         public Builder(KoreanMorphoAnalysis toCopy) {
             super(toCopy);
-            morphemes = Lists.newArrayList();
-            morphemeTags = Lists.newArrayList();
-            addAllToList(morphemes, toCopy.getMorphemes());
-            addAllToList(morphemeTags, toCopy.getMorphemeTags());
+            morphemes = BuilderList.copyOf(toCopy.getMorphemes());
+            morphemeTags = BuilderList.copyOf(toCopy.getMorphemeTags());
         }
 
         /**
@@ -126,8 +123,8 @@ public class KoreanMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return this.
          */
         public Builder addMorpheme(String morpheme, String tag) {
-            morphemes.add(morpheme);
-            morphemeTags.add(tag);
+            morphemes.add(intern(morpheme));
+            morphemeTags.add(intern(tag));
             return this;
         }
 
@@ -149,8 +146,8 @@ public class KoreanMorphoAnalysis extends MorphoAnalysis implements Serializable
          * @return the analysis
          */
         public KoreanMorphoAnalysis build() {
-            return new KoreanMorphoAnalysis(partOfSpeech, lemma, components, raw, morphemes, morphemeTags, tagSet, null,
-                    buildExtendedProperties());
+            return canonicalize(new KoreanMorphoAnalysis(partOfSpeech, lemma, components, raw, morphemes, morphemeTags, tagSet, null,
+                    buildExtendedProperties()));
         }
     }
 }
@@ -18,7 +18,6 @@ package com.basistech.rosette.dm;
 import com.basistech.util.ISO15924;
 import com.basistech.util.LanguageCode;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -242,8 +241,7 @@ public class LanguageDetection extends Attribute implements Serializable {
          */
         public Builder(LanguageDetection toCopy) {
             super(toCopy);
-            this.detectionResults = Lists.newArrayList();
-            addAllToList(this.detectionResults, toCopy.detectionResults);
+            this.detectionResults = BuilderList.copyOf(toCopy.detectionResults);
         }
 
         /**
@@ -16,8 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -43,7 +41,7 @@ public class ListAttribute<Item extends BaseAttribute> extends BaseAttribute imp
 
     protected ListAttribute(Class<? extends BaseAttribute> itemClass, List<Item> items) {
         this.itemClass = itemClass;
-        this.items = ImmutableList.copyOf(items);
+        this.items = BuilderList.immutableCopyOf(items);
     }
 
     // no json creator. This has custom serialization/deserialization.
@@ -190,6 +188,23 @@ public class ListAttribute<Item extends BaseAttribute> extends BaseAttribute imp
                 .add("itemClass", itemClass);
     }
 
+    /*
+     * Java serialization writes token lists in the packed form of ColumnarTokens,
+     * which is several times smaller than one serialized Token per item.
+     */
+    @SuppressWarnings("unchecked")
+    private Object writeReplace() {
+        if (itemClass != Token.class || items instanceof ColumnarTokens) {
+            return this;
+        }
+        for (Item item : items) {
+            if (item == null || item.getClass() != Token.class) {
+                return this;
+            }
+        }
+        return ColumnarTokens.copyOf((ListAttribute<Token>) this);
+    }
+
     /**
      * A builder for lists.
      *
@@ -197,7 +212,7 @@ public class ListAttribute<Item extends BaseAttribute> extends BaseAttribute imp
      */
     public static class Builder<Item extends BaseAttribute> extends BaseAttribute.Builder<ListAttribute<Item>, ListAttribute.Builder<Item>> {
         private Class<? extends BaseAttribute> itemClass;
-        private List<Item> items;
+        private BuilderList<Item> items;
 
         /**
          * Constructs an empty builder.
@@ -206,7 +221,30 @@ public class ListAttribute<Item extends BaseAttribute> extends BaseAttribute imp
          */
         public Builder(Class<? extends BaseAttribute> itemClass) {
             this.itemClass = itemClass;
-            items = Lists.newArrayList();
+            items = new BuilderList<>();
+        }
+
+        /**
+         * Constructs an empty builder with room for a number of items.
+         * If exactly that many items are added, {@link #build()} copies nothing.
+         *
+         * @param itemClass the class for the items to be stored in the list
+         * @param expectedSize the expected number of items
+         */
+        public Builder(Class<? extends BaseAttribute> itemClass, int expectedSize) {
+            this.itemClass = itemClass;
+            items = new BuilderList<>(expectedSize);
+        }
+
+        /**
+         * Makes room for a number of items in total.
+         *
+         * @param expectedSize the expected number of items
+         * @return this
+         */
+        public Builder<Item> expectedSize(int expectedSize) {
+            items.ensureCapacity(expectedSize);
+            return this;
         }
 
         /**
@@ -237,7 +275,8 @@ public class ListAttribute<Item extends BaseAttribute> extends BaseAttribute imp
          * @return the new list
          */
         public ListAttribute<Item> build() {
-            return new ListAttribute<>(itemClass, items, buildExtendedProperties());
+            // the list takes over the items; later changes to this builder copy them first.
+            return new ListAttribute<>(itemClass, items.freeze(), buildExtendedProperties());
         }
 
         @Override
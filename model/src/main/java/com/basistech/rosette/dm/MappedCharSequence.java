@@ -0,0 +1,409 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Reader;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only {@link CharSequence} over a UTF-16 or UTF-8 file that is read through a memory
+ * mapping, so that very large documents can be the data of an {@link AnnotatedText} without
+ * holding their text on the heap.
+ * <br>
+ * A UTF-16 file is a direct view of the mapping. A UTF-8 file is scanned once, when it is opened,
+ * to count its characters and to record the byte position of every 64th character in a table;
+ * {@link #charAt(int)} decodes forward from the nearest entry, or from the position of the previous
+ * lookup, so sequential access costs one decoding step per character.
+ * Malformed UTF-8 decodes to U+FFFD, one for each maximal invalid subsequence, as the JDK decoder does.
+ * <br>
+ * {@link #subSequence(int, int)} returns a view of the same mapping; {@link #toString()} copies the
+ * characters to the heap. Instances may be shared across threads. The mapping stays valid for as long
+ * as some sequence over it is reachable. Files are limited to 2GB, the limit of a single mapping.
+ * Java serialization writes the characters as a {@code String}.
+ */
+public final class MappedCharSequence implements CharSequence, Serializable {
+    private static final long serialVersionUID = 250L;
+
+    private final transient Source source;
+    private final int start;
+    private final int length;
+
+    private MappedCharSequence(Source source, int start, int length) {
+        this.source = source;
+        this.start = start;
+        this.length = length;
+    }
+
+    /**
+     * Maps a file of text.
+     * For {@code UTF-16} a leading byte order mark selects the byte order and is skipped;
+     * without one the file is big-endian. {@code UTF-16BE}, {@code UTF-16LE} and {@code UTF-8}
+     * keep a leading byte order mark as a character, as their JDK decoders do.
+     * @param path the file.
+     * @param charset {@code UTF-8}, {@code UTF-16}, {@code UTF-16BE} or {@code UTF-16LE}.
+     * @return the characters of the file.
+     * @throws IOException if the file cannot be read, is too large to map or is not whole UTF-16 units.
+     * @throws IllegalArgumentException for any other charset.
+     */
+    public static MappedCharSequence open(Path path, Charset charset) throws IOException {
+        if (!StandardCharsets.UTF_8.equals(charset)
+            && !StandardCharsets.UTF_16.equals(charset)
+            && !StandardCharsets.UTF_16BE.equals(charset)
+            && !StandardCharsets.UTF_16LE.equals(charset)) {
+            throw new IllegalArgumentException("Unsupported charset for a mapped text: " + charset);
+        }
+        ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Text file too large to map: " + path);
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        Source source;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            source = Utf8Source.scan(mapping, path);
+        } else {
+            if ((mapping.limit() & 1) != 0) {
+                throw new IOException("Text file is not a whole number of UTF-16 units: " + path);
+            }
+            source = Utf16Source.of(mapping, charset);
+        }
+        return new MappedCharSequence(source, 0, source.length());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        return source.charAt(start + index);
+    }
+
+    /**
+     * Returns a view of a range of this sequence, over the same mapping.
+     * @param start the start index, inclusive.
+     * @param end the end index, exclusive.
+     * @return the view.
+     */
+    @Override
+    public MappedCharSequence subSequence(int start, int end) {
+        checkRange(start, end);
+        return new MappedCharSequence(source, this.start + start, end - start);
+    }
+
+    /**
+     * Copies characters into an array, as {@link String#getChars(int, int, char[], int)}.
+     * @param srcBegin the index of the first character to copy.
+     * @param srcEnd the index after the last character to copy.
+     * @param dst the destination array.
+     * @param dstBegin the start offset in the destination array.
+     */
+    public void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+        checkRange(srcBegin, srcEnd);
+        if (dstBegin < 0 || dstBegin > dst.length - (srcEnd - srcBegin)) {
+            throw new IndexOutOfBoundsException("Destination offset: " + dstBegin + ", Length: " + dst.length);
+        }
+        source.getChars(start + srcBegin, start + srcEnd, dst, dstBegin);
+    }
+
+    /**
+     * Returns a reader over the characters, which copies them in blocks without building a string.
+     * @return the reader.
+     */
+    public Reader reader() {
+        return new Reader() {
+            private int position;
+
+            @Override
+            public int read(char[] cbuf, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (position >= length) {
+                    return -1;
+                }
+                int count = Math.min(len, length - position);
+                getChars(position, position + count, cbuf, off);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+                //
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        source.getChars(start, start + length, chars, 0);
+        return new String(chars);
+    }
+
+    private void checkRange(int begin, int end) {
+        if (begin < 0 || end > length || begin > end) {
+            throw new IndexOutOfBoundsException("Range: [" + begin + ", " + end + "), Length: " + length);
+        }
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return toString();
+    }
+
+    private abstract static class Source {
+        abstract int length();
+
+        abstract char charAt(int index);
+
+        abstract void getChars(int begin, int end, char[] dst, int dstBegin);
+    }
+
+    private static final class Utf16Source extends Source {
+        private final CharBuffer chars;
+
+        private Utf16Source(CharBuffer chars) {
+            this.chars = chars;
+        }
+
+        static Utf16Source of(ByteBuffer mapping, Charset charset) {
+            ByteOrder order = StandardCharsets.UTF_16LE.equals(charset) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            if (StandardCharsets.UTF_16.equals(charset) && mapping.limit() >= 2) {
+                int bom = mapping.getChar(0);
+                if (bom == 0xFEFF) {
+                    mapping.position(2);
+                } else if (bom == 0xFFFE) {
+                    mapping.position(2);
+                    order = ByteOrder.LITTLE_ENDIAN;
+                }
+            }
+            return new Utf16Source(mapping.slice().order(order).asCharBuffer());
+        }
+
+        @Override
+        int length() {
+            return chars.limit();
+        }
+
+        @Override
+        char charAt(int index) {
+            return chars.get(index);
+        }
+
+        @Override
+        void getChars(int begin, int end, char[] dst, int dstBegin) {
+            CharBuffer view = chars.duplicate();
+            view.position(begin);
+            view.get(dst, dstBegin, end - begin);
+        }
+    }
+
+    private static final class Utf8Source extends Source {
+        private static final int SHIFT = 6;
+        private static final int STEP = 1 << SHIFT;
+        private static final char REPLACEMENT = '\uFFFD';
+
+        private final ByteBuffer bytes;
+        private final int length;
+        /*
+         * Entry k is the byte position of the code point that holds character k * STEP.
+         * When that character is the low surrogate of a supplementary code point, the entry is
+         * the complement of the position.
+         */
+        private final int[] checkpoints;
+        /*
+         * Where the last lookup ended, packed as: byte position (bits 32-62), character index (bits 1-31)
+         * and whether the character is a low surrogate (bit 0). Any value is a valid starting point,
+         * so concurrent lookups need no more than the volatile write.
+         */
+        private volatile long cursor;
+
+        private Utf8Source(ByteBuffer bytes, int length, int[] checkpoints) {
+            this.bytes = bytes;
+            this.length = length;
+            this.checkpoints = checkpoints;
+        }
+
+        static Utf8Source scan(ByteBuffer bytes, Path path) throws IOException {
+            int limit = bytes.limit();
+            int[] checkpoints = new int[(limit >>> SHIFT) + 1];
+            int count = 0;
+            long chars = 0;
+            int position = 0;
+            while (position < limit) {
+                int decoded = decode(bytes, position, limit);
+                int width = decoded >>> 21;
+                if ((chars & (STEP - 1)) == 0) {
+                    checkpoints[count++] = position;
+                } else if ((decoded & 0x1FFFFF) >= Character.MIN_SUPPLEMENTARY_CODE_POINT && ((chars + 1) & (STEP - 1)) == 0) {
+                    checkpoints[count++] = ~position;
+                }
+                chars += (decoded & 0x1FFFFF) >= Character.MIN_SUPPLEMENTARY_CODE_POINT ? 2 : 1;
+                position += width;
+            }
+            if (chars > Integer.MAX_VALUE) {
+                throw new IOException("Text file has too many characters: " + path);
+            }
+            return new Utf8Source(bytes, (int) chars, Arrays.copyOf(checkpoints, count));
+        }
+
+        /*
+         * Decodes the code point at a position; returns its byte width in bits 21 and up and
+         * the code point, or U+FFFD for a maximal invalid subsequence, in the low 21 bits.
+         */
+        static int decode(ByteBuffer bytes, int position, int limit) {
+            int lead = bytes.get(position) & 0xff;
+            if (lead < 0x80) {
+                return 1 << 21 | lead;
+            }
+            int width;
+            int codePoint;
+            int low = 0x80;
+            int high = 0xBF;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                width = 2;
+                codePoint = lead & 0x1F;
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                width = 3;
+                codePoint = lead & 0x0F;
+                if (lead == 0xE0) {
+                    low = 0xA0; // overlong
+                }
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                width = 4;
+                codePoint = lead & 0x07;
+                if (lead == 0xF0) {
+                    low = 0x90; // overlong
+                } else if (lead == 0xF4) {
+                    high = 0x8F; // above U+10FFFF
+                }
+            } else {
+                return 1 << 21 | REPLACEMENT;
+            }
+            for (int x = 1; x < width; x++) {
+                if (position + x >= limit) {
+                    return x << 21 | REPLACEMENT;
+                }
+                int next = bytes.get(position + x) & 0xff;
+                if (next < low || next > high) {
+                    return x << 21 | REPLACEMENT;
+                }
+                low = 0x80;
+                high = 0xBF;
+                codePoint = codePoint << 6 | (next & 0x3F);
+            }
+            if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                // an encoded surrogate is replaced as a whole, as the JDK decoder does.
+                return width << 21 | REPLACEMENT;
+            }
+            return width << 21 | codePoint;
+        }
+
+        @Override
+        int length() {
+            return length;
+        }
+
+        /* Returns the packed cursor of a character, starting from the last lookup when that is closer. */
+        private long locate(int index) {
+            long from = cursor;
+            int fromIndex = (int) (from >>> 1) & Integer.MAX_VALUE;
+            int position;
+            int chars;
+            boolean lowSurrogate;
+            if (fromIndex <= index && index - fromIndex < STEP) {
+                position = (int) (from >>> 32);
+                chars = fromIndex;
+                lowSurrogate = (from & 1) != 0;
+            } else {
+                int checkpoint = checkpoints[index >>> SHIFT];
+                position = checkpoint < 0 ? ~checkpoint : checkpoint;
+                chars = index & ~(STEP - 1);
+                lowSurrogate = checkpoint < 0;
+            }
+            int limit = bytes.limit();
+            while (chars < index) {
+                int decoded = decode(bytes, position, limit);
+                if ((decoded & 0x1FFFFF) >= Character.MIN_SUPPLEMENTARY_CODE_POINT && !lowSurrogate) {
+                    lowSurrogate = true;
+                } else {
+                    lowSurrogate = false;
+                    position += decoded >>> 21;
+                }
+                chars++;
+            }
+            return (long) position << 32 | (long) chars << 1 | (lowSurrogate ? 1 : 0);
+        }
+
+        @Override
+        char charAt(int index) {
+            long at = locate(index);
+            cursor = at;
+            int codePoint = decode(bytes, (int) (at >>> 32), bytes.limit()) & 0x1FFFFF;
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                return (char) codePoint;
+            }
+            return (at & 1) != 0 ? Character.lowSurrogate(codePoint) : Character.highSurrogate(codePoint);
+        }
+
+        @Override
+        void getChars(int begin, int end, char[] dst, int dstBegin) {
+            if (begin == end) {
+                return;
+            }
+            long at = locate(begin);
+            int position = (int) (at >>> 32);
+            boolean lowSurrogate = (at & 1) != 0;
+            int limit = bytes.limit();
+            int out = dstBegin;
+            int stop = dstBegin + end - begin;
+            while (out < stop) {
+                int decoded = decode(bytes, position, limit);
+                int codePoint = decoded & 0x1FFFFF;
+                if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    dst[out++] = (char) codePoint;
+                    position += decoded >>> 21;
+                } else if (lowSurrogate) {
+                    dst[out++] = Character.lowSurrogate(codePoint);
+                    lowSurrogate = false;
+                    position += decoded >>> 21;
+                } else {
+                    dst[out++] = Character.highSurrogate(codePoint);
+                    lowSurrogate = true;
+                }
+            }
+        }
+    }
+}
@@ -176,7 +176,7 @@ public class Mention extends Attribute implements Serializable {
          * @return this
          */
         public Builder source(String source) {
-            this.source = source;
+            this.source = intern(source);
             return this;
         }
 
@@ -187,7 +187,7 @@ public class Mention extends Attribute implements Serializable {
          * @return this
          */
         public Builder subsource(String subsource) {
-            this.subsource = subsource;
+            this.subsource = intern(subsource);
             return this;
         }
 
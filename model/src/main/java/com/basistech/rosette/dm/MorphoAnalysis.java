@@ -16,7 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -191,13 +190,14 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
         protected String raw;
         protected TagSet tagSet;
         protected String secondaryPartOfSpeech;
+        private MorphoAnalysisCache cache;
 
         /**
          * Constructs a builder with default values.
          */
         public Builder() {
             super();
-            components = Lists.newArrayList();
+            components = new BuilderList<>();
             raw = null;
             lemma = null;
             partOfSpeech = null;
@@ -212,10 +212,9 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
          */
         public Builder(MorphoAnalysis toCopy) {
             super(toCopy);
-            components = Lists.newArrayList();
+            components = BuilderList.copyOf(toCopy.components);
             partOfSpeech = toCopy.partOfSpeech;
             lemma = toCopy.lemma;
-            addAllToList(components, toCopy.components);
             raw = toCopy.raw;
             tagSet = toCopy.tagSet;
             secondaryPartOfSpeech = toCopy.secondaryPartOfSpeech;
@@ -228,7 +227,7 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
          * @return this
          */
         public B partOfSpeech(String partOfSpeech) {
-            this.partOfSpeech = partOfSpeech;
+            this.partOfSpeech = intern(partOfSpeech);
             return getThis();
         }
 
@@ -239,7 +238,7 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
          * @return this
          */
         public B lemma(String lemma) {
-            this.lemma = lemma;
+            this.lemma = intern(lemma);
             return getThis();
         }
 
@@ -272,7 +271,7 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
          * @return this
          */
         public B secondaryPartOfSpeech(String secondaryPartOfSpeech) {
-            this.secondaryPartOfSpeech = secondaryPartOfSpeech;
+            this.secondaryPartOfSpeech = intern(secondaryPartOfSpeech);
             return getThis();
         }
 
@@ -298,13 +297,36 @@ public class MorphoAnalysis extends BaseAttribute implements Serializable {
         }
 
         /**
-         * Builds a new immutable morpho analysis from the current state of the builder.
+         * Specifies a cache of analyses. When one is set, {@link #build()} may return a previously built
+         * analysis equal to the one described by this builder, instead of a new one.
          *
-         * @return the new analysis
+         * @param cache the cache, or {@code null} for none
+         * @return this
+         */
+        public B cache(MorphoAnalysisCache cache) {
+            this.cache = cache;
+            return getThis();
+        }
+
+        /**
+         * Returns the canonical instance of a newly built analysis from the cache of this builder, if there is one.
+         *
+         * @param analysis the analysis
+         * @param <A> the class of the analysis
+         * @return the canonical analysis, or the argument if there is no cache
+         */
+        protected <A extends MorphoAnalysis> A canonicalize(A analysis) {
+            return cache == null ? analysis : cache.canonicalize(analysis);
+        }
+
+        /**
+         * Builds an immutable morpho analysis from the current state of the builder.
+         *
+         * @return the analysis
          */
         public MorphoAnalysis build() {
-            return new MorphoAnalysis(partOfSpeech, lemma, components, raw, tagSet, secondaryPartOfSpeech,
-                    buildExtendedProperties());
+            return canonicalize(new MorphoAnalysis(partOfSpeech, lemma, components, raw, tagSet, secondaryPartOfSpeech,
+                    buildExtendedProperties()));
         }
 
         // because this class is not abstract, we can't have an abstract method.
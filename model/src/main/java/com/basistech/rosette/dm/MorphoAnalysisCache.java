@@ -0,0 +1,48 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+/**
+ * Returns a canonical instance for morphological analyses that repeat across tokens and documents.
+ * Analyses are immutable, so tokens that carry equal analyses may share one instance.
+ * <br>
+ * Builders use a cache when one is set with {@link MorphoAnalysis.Builder#cache(MorphoAnalysisCache)},
+ * and the Jackson modules use one when it is passed to their {@code setupObjectMapper} methods.
+ * Only analyses without compound components are shared.
+ * Implementations must be safe for concurrent use.
+ */
+public interface MorphoAnalysisCache {
+
+    /**
+     * Returns an analysis equal to the argument, preferably one returned before.
+     * @param analysis the analysis, or {@code null}.
+     * @param <T> the class of the analysis.
+     * @return an equal analysis of the same class, or the argument itself if it is {@code null}
+     * or has components.
+     */
+    <T extends MorphoAnalysis> T canonicalize(T analysis);
+
+    /**
+     * Creates a lock-free cache that holds at most a fixed number of analyses.
+     * When the table is full, new analyses evict older ones.
+     * @param capacity the maximum number of analyses to hold; rounded up to a power of two.
+     * @return the cache.
+     */
+    static MorphoAnalysisCache bounded(int capacity) {
+        return new BoundedMorphoAnalysisCache(capacity);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import java.util.Arrays;
+
+/**
+ * Converts offsets into the text of an {@link AnnotatedText} between UTF-16 code units,
+ * code points and UTF-8 bytes.
+ * The index records the code point and UTF-8 offsets of every 64th character; a conversion from
+ * UTF-16 scans forward from the nearest entry, and a conversion to UTF-16 binary-searches the
+ * entries first. Texts that are all ASCII, or that have no supplementary characters, skip the scan.
+ * <br>
+ * Obtain an index from {@link AnnotatedText#getOffsetIndex()}, which builds it on first use
+ * and caches it. Instances are immutable and may be shared across threads.
+ * <br>
+ * UTF-8 offsets are those of {@code text.toString().getBytes(StandardCharsets.UTF_8)}: a
+ * supplementary character takes four bytes, and an unpaired surrogate one byte, the replacement
+ * the JDK encoder writes. An offset that falls inside a character converts to the start of that
+ * character, except that the UTF-16 offset between the two halves of a surrogate pair counts the
+ * pair, as {@link Character#codePointCount(CharSequence, int, int)} does.
+ * The UTF-8 length of the text must fit in an {@code int}.
+ */
+public final class OffsetIndex {
+    private static final int SHIFT = 6;
+    private static final int STEP = 1 << SHIFT;
+
+    private final CharSequence text;
+    private final int length;
+    private final int codePointLength;
+    private final int utf8Length;
+    /* no supplementary characters: code point offsets are UTF-16 offsets. */
+    private final boolean bmp;
+    /* all ASCII: every offset is the same in every unit. */
+    private final boolean ascii;
+    /* entry k holds the offsets of character k * STEP; null when bmp or ascii makes them unnecessary. */
+    private final int[] codePoints;
+    private final int[] utf8;
+
+    OffsetIndex(CharSequence text) {
+        this.text = text == null ? "" : text;
+        length = this.text.length();
+        int[] codePointTable = new int[(length >>> SHIFT) + 1];
+        int[] utf8Table = new int[(length >>> SHIFT) + 1];
+        int codePoint = 0;
+        long bytes = 0;
+        boolean sawSupplementary = false;
+        boolean sawNonAscii = false;
+        for (int x = 0; x < length; x++) {
+            if ((x & (STEP - 1)) == 0) {
+                codePointTable[x >>> SHIFT] = codePoint;
+                utf8Table[x >>> SHIFT] = (int) bytes;
+            }
+            char c = this.text.charAt(x);
+            if (c >= 0x80) {
+                sawNonAscii = true;
+                if (Character.isSurrogate(c) && isPairedLow(x)) {
+                    sawSupplementary = true;
+                    continue;
+                }
+            }
+            codePoint++;
+            bytes += utf8Width(x);
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Text too long for int UTF-8 offsets");
+            }
+        }
+        if ((length & (STEP - 1)) == 0) {
+            codePointTable[length >>> SHIFT] = codePoint;
+            utf8Table[length >>> SHIFT] = (int) bytes;
+        }
+        codePointLength = codePoint;
+        utf8Length = (int) bytes;
+        bmp = !sawSupplementary;
+        ascii = !sawNonAscii;
+        codePoints = ascii || bmp ? null : codePointTable;
+        utf8 = ascii ? null : utf8Table;
+    }
+
+    static OffsetIndex of(AnnotatedText text) {
+        return new OffsetIndex(text.getData());
+    }
+
+    private boolean isPairedLow(int index) {
+        return Character.isLowSurrogate(text.charAt(index)) && index > 0 && Character.isHighSurrogate(text.charAt(index - 1));
+    }
+
+    private boolean isPairedHigh(int index) {
+        return Character.isHighSurrogate(text.charAt(index)) && index + 1 < length && Character.isLowSurrogate(text.charAt(index + 1));
+    }
+
+    /* The UTF-8 width of the character at an index; a pair counts in full at its high surrogate. */
+    private int utf8Width(int index) {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (!Character.isSurrogate(c)) {
+            return 3;
+        } else if (isPairedHigh(index)) {
+            return 4;
+        } else if (isPairedLow(index)) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the length of the text in a unit.
+     *
+     * @param unit the unit
+     * @return the length
+     */
+    public int length(OffsetUnit unit) {
+        switch (unit) {
+        case CODE_POINT:
+            return codePointLength;
+        case UTF8:
+            return utf8Length;
+        default:
+            return length;
+        }
+    }
+
+    /**
+     * Converts an offset from one unit to another.
+     *
+     * @param offset the offset
+     * @param from the unit of the offset
+     * @param to the unit to convert to
+     * @return the converted offset
+     * @throws IndexOutOfBoundsException if the offset is negative or past the end of the text
+     */
+    public int convert(int offset, OffsetUnit from, OffsetUnit to) {
+        if (offset < 0 || offset > length(from)) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length(from));
+        }
+        if (from == to || ascii) {
+            return offset;
+        }
+        int utf16 = from == OffsetUnit.UTF16 ? offset
+            : from == OffsetUnit.CODE_POINT ? fromCodePoint(offset) : fromUtf8(offset);
+        switch (to) {
+        case CODE_POINT:
+            return toCodePoint(utf16);
+        case UTF8:
+            return toUtf8(utf16);
+        default:
+            return utf16;
+        }
+    }
+
+    /**
+     * Converts a UTF-16 offset, as used throughout the model, to a code point offset.
+     *
+     * @param offset the UTF-16 offset
+     * @return the code point offset
+     */
+    public int codePointOffset(int offset) {
+        return convert(offset, OffsetUnit.UTF16, OffsetUnit.CODE_POINT);
+    }
+
+    /**
+     * Converts a UTF-16 offset, as used throughout the model, to a UTF-8 byte offset.
+     *
+     * @param offset the UTF-16 offset
+     * @return the UTF-8 offset
+     */
+    public int utf8Offset(int offset) {
+        return convert(offset, OffsetUnit.UTF16, OffsetUnit.UTF8);
+    }
+
+    private int toCodePoint(int offset) {
+        if (bmp) {
+            return offset;
+        }
+        int x = offset & ~(STEP - 1);
+        int codePoint = codePoints[offset >>> SHIFT];
+        for (; x < offset; x++) {
+            if (!isPairedLow(x)) {
+                codePoint++;
+            }
+        }
+        return codePoint;
+    }
+
+    private int toUtf8(int offset) {
+        int x = offset & ~(STEP - 1);
+        int bytes = utf8[offset >>> SHIFT];
+        for (; x < offset; x++) {
+            bytes += utf8Width(x);
+        }
+        return bytes;
+    }
+
+    private int fromCodePoint(int codePoint) {
+        if (bmp) {
+            return codePoint;
+        }
+        int entry = floorEntry(codePoints, codePoint);
+        int x = entry << SHIFT;
+        int at = codePoints[entry];
+        if (x < length && isPairedLow(x)) {
+            x++; // the entry counted the pair.
+        }
+        while (at < codePoint) {
+            x += isPairedHigh(x) ? 2 : 1;
+            at++;
+        }
+        return x;
+    }
+
+    private int fromUtf8(int offset) {
+        int entry = floorEntry(utf8, offset);
+        int x = entry << SHIFT;
+        int bytes = utf8[entry];
+        if (x < length && isPairedLow(x)) {
+            x++; // the entry counted the pair.
+        }
+        while (x < length) {
+            int width = utf8Width(x);
+            if (bytes + width > offset) {
+                break;
+            }
+            bytes += width;
+            x += width == 4 ? 2 : 1;
+        }
+        return x;
+    }
+
+    /* The last entry whose value is at most the key; entries increase, and entry 0 is 0. */
+    private static int floorEntry(int[] table, int key) {
+        int found = Arrays.binarySearch(table, key);
+        return found < 0 ? -found - 2 : found;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+/**
+ * The units in which an offset into the text of an {@link AnnotatedText} can be expressed.
+ * The model itself always uses {@link #UTF16}; see {@link OffsetIndex} for conversions.
+ */
+public enum OffsetUnit {
+    /** UTF-16 code units, that is, Java {@code char} indices. */
+    UTF16,
+    /** Unicode code points, as in Python strings. */
+    CODE_POINT,
+    /** Bytes of the UTF-8 encoding, as in Rust strings. */
+    UTF8
+}
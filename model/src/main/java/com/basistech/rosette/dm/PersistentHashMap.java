@@ -0,0 +1,490 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash array mapped trie. {@link #with(Object, Object)} and {@link #without(Object)}
+ * return new maps that share every unchanged node with the original, so deriving a map
+ * costs time and space proportional to the depth of the trie rather than to its size.
+ * <br>
+ * This is the attribute map of {@link AnnotatedText}: a derived text shares all of its unchanged
+ * attributes with its parent. Iteration order depends only on the hash codes of the keys.
+ * Null keys and values are not permitted; the {@link Map} mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+    private static final long serialVersionUID = 250L;
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    /* Below this depth every bit of the hash is used; keys there have identical hashes. */
+    private static final int MAX_SHIFT = 30;
+    /* 32 bits at 5 per level, plus the collision level. */
+    private static final int MAX_DEPTH = 8;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final transient Node root;
+    private final transient int size;
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a persistent map with the entries of a map, skipping null values.
+     * If the argument is already a persistent map, it is returned.
+     *
+     * @param map the map
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the persistent map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            return (PersistentHashMap<K, V>) map;
+        }
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry.getValue() != null) {
+                result = result.with(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || key == null) {
+            return null;
+        }
+        Leaf leaf = root.find(key, hash(key), 0);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root != null && key != null && root.find(key, hash(key), 0) != null;
+    }
+
+    /**
+     * Returns a map with an entry added or replaced.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the new map, or this map if it already maps the key to the same value
+     */
+    PersistentHashMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        int hash = hash(key);
+        Leaf existing = root == null ? null : root.find(key, hash, 0);
+        if (existing != null && existing.value == value) {
+            return this;
+        }
+        Leaf leaf = new Leaf(key, value, hash);
+        Node newRoot = root == null ? BitmapNode.of(leaf, 0) : root.with(leaf, 0);
+        return new PersistentHashMap<>(newRoot, existing == null ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map without an entry.
+     *
+     * @param key the key
+     * @return the new map, or this map if it has no entry for the key
+     */
+    PersistentHashMap<K, V> without(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        Object newRoot = root.without(key, hash(key), 0);
+        if (newRoot == null) {
+            return empty();
+        }
+        // a lone leaf can't be a root.
+        return new PersistentHashMap<>(newRoot instanceof Node ? (Node) newRoot : BitmapNode.of((Leaf) newRoot, 0), size - 1);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> result = entrySet;
+        if (result == null) {
+            result = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    @Serial
+    private Object writeReplace() {
+        Object[] keysAndValues = new Object[2 * size];
+        int x = 0;
+        for (Map.Entry<K, V> entry : entrySet()) {
+            keysAndValues[x++] = entry.getKey();
+            keysAndValues[x++] = entry.getValue();
+        }
+        return new SerializedForm(keysAndValues);
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Use the serialized form");
+    }
+
+    /**
+     * The serial form: keys and values, alternating.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 250L;
+        private final Object[] keysAndValues;
+
+        SerializedForm(Object[] keysAndValues) {
+            this.keysAndValues = keysAndValues;
+        }
+
+        @Serial
+        private Object readResolve() {
+            PersistentHashMap<Object, Object> result = empty();
+            for (int x = 0; x < keysAndValues.length; x += 2) {
+                result = result.with(keysAndValues[x], keysAndValues[x + 1]);
+            }
+            return result;
+        }
+    }
+
+    /* A key-value pair. Leaves are shared between maps, so they are immutable. */
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        final Object key;
+        final Object value;
+        final int hash;
+
+        Leaf(Object key, Object value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        boolean matches(Object otherKey, int otherHash) {
+            return hash == otherHash && (key == otherKey || key.equals(otherKey));
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && value.equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private abstract static class Node {
+        /* the slots: leaves or child nodes. */
+        final Object[] slots;
+
+        Node(Object[] slots) {
+            this.slots = slots;
+        }
+
+        abstract Leaf find(Object key, int hash, int shift);
+
+        abstract Node with(Leaf leaf, int shift);
+
+        /* Returns the replacement: a node, a lone leaf for the parent to inline, or null if nothing is left. */
+        abstract Object without(Object key, int hash, int shift);
+    }
+
+    /* An interior node; bit n of the bitmap is set if the slot for hash fragment n is present. */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            super(slots);
+            this.bitmap = bitmap;
+        }
+
+        static Node of(Leaf leaf, int shift) {
+            return new BitmapNode(bit(leaf.hash, shift), new Object[] {leaf});
+        }
+
+        /* a node holding two leaves whose hashes agree in the fragments above shift. */
+        static Node of(Leaf a, Leaf b, int shift) {
+            if (shift > MAX_SHIFT) {
+                return new CollisionNode(new Object[] {a, b});
+            }
+            int bitA = bit(a.hash, shift);
+            int bitB = bit(b.hash, shift);
+            if (bitA == bitB) {
+                return new BitmapNode(bitA, new Object[] {of(a, b, shift + BITS)});
+            }
+            return new BitmapNode(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[] {a, b} : new Object[] {b, a});
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.matches(key, hash) ? leaf : null;
+            }
+            return ((Node) slot).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node with(Leaf leaf, int shift) {
+            int bit = bit(leaf.hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = leaf;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                replacement = existing.matches(leaf.key, leaf.hash) ? leaf : of(existing, leaf, shift + BITS);
+            } else {
+                replacement = ((Node) slot).with(leaf, shift + BITS);
+            }
+            Object[] newSlots = slots.clone();
+            newSlots[index] = replacement;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        Object without(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            Object slot = slots[index];
+            Object replacement = slot instanceof Leaf ? null : ((Node) slot).without(key, hash, shift + BITS);
+            if (replacement == null) {
+                if (slots.length == 1) {
+                    return null;
+                }
+                if (slots.length == 2 && slots[1 - index] instanceof Leaf) {
+                    return slots[1 - index];
+                }
+                Object[] newSlots = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+                return new BitmapNode(bitmap & ~bit, newSlots);
+            }
+            if (slots.length == 1 && replacement instanceof Leaf) {
+                return replacement;
+            }
+            Object[] newSlots = slots.clone();
+            newSlots[index] = replacement;
+            return new BitmapNode(bitmap, newSlots);
+        }
+    }
+
+    /* Leaves whose hashes are identical in every bit. */
+    private static final class CollisionNode extends Node {
+
+        CollisionNode(Object[] slots) {
+            super(slots);
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            for (Object slot : slots) {
+                Leaf leaf = (Leaf) slot;
+                if (leaf.matches(key, hash)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node with(Leaf leaf, int shift) {
+            for (int x = 0; x < slots.length; x++) {
+                if (((Leaf) slots[x]).matches(leaf.key, leaf.hash)) {
+                    Object[] newSlots = slots.clone();
+                    newSlots[x] = leaf;
+                    return new CollisionNode(newSlots);
+                }
+            }
+            Object[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+            newSlots[slots.length] = leaf;
+            return new CollisionNode(newSlots);
+        }
+
+        @Override
+        Object without(Object key, int hash, int shift) {
+            for (int x = 0; x < slots.length; x++) {
+                if (((Leaf) slots[x]).matches(key, hash)) {
+                    if (slots.length == 2) {
+                        return slots[1 - x];
+                    }
+                    Object[] newSlots = new Object[slots.length - 1];
+                    System.arraycopy(slots, 0, newSlots, 0, x);
+                    System.arraycopy(slots, x + 1, newSlots, x, slots.length - x - 1);
+                    return new CollisionNode(newSlots);
+                }
+            }
+            return this;
+        }
+    }
+
+    /* Depth-first walk over the leaves. */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Node[] nodes = new Node[MAX_DEPTH];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Leaf next;
+
+        EntryIterator(Node root) {
+            depth = -1;
+            if (root != null) {
+                depth = 0;
+                nodes[0] = root;
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (positions[depth] == node.slots.length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = node.slots[positions[depth]++];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                    return;
+                }
+                depth++;
+                nodes[depth] = (Node) slot;
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf result = next;
+            advance();
+            return (Map.Entry<K, V>) (Map.Entry<?, ?>) result;
+        }
+    }
+}
@@ -18,7 +18,6 @@ package com.basistech.rosette.dm;
 
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -85,7 +84,7 @@ public class RelationshipComponent extends BaseAttribute implements Serializable
     public static class Builder extends BaseAttribute.Builder<RelationshipComponent, RelationshipComponent.Builder> {
         private String phrase;
         private String identifier;
-        private List<Extent> extents = Lists.newArrayList();
+        private List<Extent> extents = new BuilderList<>();
 
         public Builder() {
             super();
@@ -409,7 +409,7 @@ public class RelationshipMention extends Attribute implements Serializable {
          * @return this
          */
         public Builder source(String source) {
-            this.source = source;
+            this.source = intern(source);
             return this;
         }
 
@@ -432,7 +432,9 @@ public class RelationshipMention extends Attribute implements Serializable {
          */
         public Builder modality(Set<String> modality) {
             this.modality = new HashSet<>();
-            this.modality.addAll(modality);
+            for (String value : modality) {
+                this.modality.add(intern(value));
+            }
             return this;
         }
 
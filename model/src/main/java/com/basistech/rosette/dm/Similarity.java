@@ -0,0 +1,328 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Similarity between embedding vectors: dot products, cosine similarity and top-k search
+ * within an {@link EmbeddingCollection}, such as the token vectors of a document
+ * ({@code embeddings.get(Embeddings.Name.TOKENS)}).
+ * <br>
+ * The computations read the dense storage of the collection directly; vectors are not copied
+ * out of {@link EmbeddingCollection#getEmbeddings()}. Vector norms for cosine similarity are
+ * computed once per collection and cached. Dot products use the JDK Vector API when the
+ * {@code jdk.incubator.vector} module is available, and a scalar loop otherwise.
+ */
+public final class Similarity {
+
+    /**
+     * The measure used to score vectors.
+     */
+    public enum Measure {
+        /**
+         * The dot product.
+         */
+        DOT,
+
+        /**
+         * The cosine of the angle between the vectors; 0 if either vector is all zeros.
+         */
+        COSINE
+    }
+
+    /**
+     * An item of an {@link EmbeddingCollection} with its score.
+     */
+    public static final class Match {
+        private final int index;
+        private final float score;
+
+        Match(int index, float score) {
+            this.index = index;
+            this.score = score;
+        }
+
+        /**
+         * @return the item index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the score.
+         */
+        public float getScore() {
+            return score;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Match that = (Match) o;
+            return index == that.index && Float.compare(score, that.score) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, score);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("index", index).add("score", score).toString();
+        }
+    }
+
+    private Similarity() {
+        //
+    }
+
+    /**
+     * Returns the dot product of two vectors.
+     * @param a the first vector.
+     * @param b the second vector.
+     * @return the dot product.
+     * @throws IllegalArgumentException if the vectors differ in length.
+     */
+    public static float dot(float[] a, float[] b) {
+        checkLengths(a.length, b.length);
+        return SimilarityKernel.dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Returns the cosine similarity of two vectors.
+     * @param a the first vector.
+     * @param b the second vector.
+     * @return the cosine similarity, or 0 if either vector is all zeros.
+     * @throws IllegalArgumentException if the vectors differ in length.
+     */
+    public static float cosine(float[] a, float[] b) {
+        checkLengths(a.length, b.length);
+        return cosine(SimilarityKernel.dot(a, 0, b, 0, a.length), norm(a), norm(b));
+    }
+
+    /**
+     * Returns the similarity of two items of a collection.
+     * @param collection the collection.
+     * @param a the index of the first item.
+     * @param b the index of the second item.
+     * @param measure the measure.
+     * @return the similarity.
+     * @throws IllegalArgumentException if an item has no vector or the vectors differ in length.
+     */
+    public static float similarity(EmbeddingCollection collection, int a, int b, Measure measure) {
+        int rowA = row(collection, a);
+        int rowB = row(collection, b);
+        int[] rowStart = collection.rowStarts();
+        int length = rowStart[rowA + 1] - rowStart[rowA];
+        checkLengths(length, rowStart[rowB + 1] - rowStart[rowB]);
+        float[] array = collection.store().array();
+        float dot;
+        if (array != null) {
+            dot = SimilarityKernel.dot(array, rowStart[rowA], array, rowStart[rowB], length);
+        } else {
+            float[] vectorA = new float[length];
+            float[] vectorB = new float[length];
+            collection.store().copy(rowStart[rowA], vectorA, 0, length);
+            collection.store().copy(rowStart[rowB], vectorB, 0, length);
+            dot = SimilarityKernel.dot(vectorA, 0, vectorB, 0, length);
+        }
+        if (measure == Measure.DOT) {
+            return dot;
+        }
+        float[] norms = collection.norms();
+        return cosine(dot, norms[rowA], norms[rowB]);
+    }
+
+    /**
+     * Finds the items of a collection most similar to a query vector.
+     * Items whose vectors differ in length from the query are skipped.
+     * @param collection the collection to search.
+     * @param query the query vector.
+     * @param k the maximum number of results.
+     * @param measure the measure.
+     * @return up to {@code k} matches, best first; ties are ordered by item index.
+     */
+    public static List<Match> topK(EmbeddingCollection collection, float[] query, int k, Measure measure) {
+        return search(collection, query, k, measure, -1);
+    }
+
+    /**
+     * Finds the items of a collection most similar to one of its items, excluding the item itself.
+     * For example, the tokens of a document most similar to a given token.
+     * @param collection the collection to search.
+     * @param index the index of the item.
+     * @param k the maximum number of results.
+     * @param measure the measure.
+     * @return up to {@code k} matches, best first; ties are ordered by item index.
+     * @throws IllegalArgumentException if the item has no vector.
+     */
+    public static List<Match> mostSimilar(EmbeddingCollection collection, int index, int k, Measure measure) {
+        int row = row(collection, index);
+        int[] rowStart = collection.rowStarts();
+        float[] query = new float[rowStart[row + 1] - rowStart[row]];
+        collection.store().copy(rowStart[row], query, 0, query.length);
+        return search(collection, query, k, measure, row);
+    }
+
+    private static List<Match> search(EmbeddingCollection collection, float[] query, int k, Measure measure, int excludedRow) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        int[] indices = collection.itemIndices();
+        int[] rowStart = collection.rowStarts();
+        VectorStore store = collection.store();
+        float[] array = store.array();
+        float[] scratch = array == null ? new float[query.length] : null;
+        float[] norms = measure == Measure.COSINE ? collection.norms() : null;
+        float queryNorm = norm(query);
+        TopK best = new TopK(Math.min(k, indices.length));
+        for (int row = 0; row < indices.length && k > 0; row++) {
+            if (row == excludedRow || rowStart[row + 1] - rowStart[row] != query.length) {
+                continue;
+            }
+            float dot;
+            if (array != null) {
+                dot = SimilarityKernel.dot(query, 0, array, rowStart[row], query.length);
+            } else {
+                store.copy(rowStart[row], scratch, 0, query.length);
+                dot = SimilarityKernel.dot(query, 0, scratch, 0, query.length);
+            }
+            best.offer(row, norms == null ? dot : cosine(dot, queryNorm, norms[row]));
+        }
+        return best.matches(indices);
+    }
+
+    private static int row(EmbeddingCollection collection, int index) {
+        int row = Arrays.binarySearch(collection.itemIndices(), index);
+        if (row < 0) {
+            throw new IllegalArgumentException("No vector for item " + index);
+        }
+        return row;
+    }
+
+    private static void checkLengths(int a, int b) {
+        if (a != b) {
+            throw new IllegalArgumentException("Vector lengths differ: " + a + " and " + b);
+        }
+    }
+
+    private static float norm(float[] vector) {
+        return (float) Math.sqrt(SimilarityKernel.dot(vector, 0, vector, 0, vector.length));
+    }
+
+    private static float cosine(float dot, float normA, float normB) {
+        if (normA == 0 || normB == 0) {
+            return 0;
+        }
+        return dot / (normA * normB);
+    }
+
+    /**
+     * A bounded min-heap of (score, row) pairs; the root is the worst match kept so far.
+     */
+    private static final class TopK {
+        private final int[] rows;
+        private final float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            rows = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(int row, float score) {
+            if (Float.isNaN(score) || rows.length == 0) {
+                return;
+            }
+            if (size < rows.length) {
+                rows[size] = row;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(rows[0], scores[0], row, score)) {
+                rows[0] = row;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<Match> matches(int[] indices) {
+            Match[] result = new Match[size];
+            for (int x = size - 1; x >= 0; x--) {
+                result[x] = new Match(indices[rows[0]], scores[0]);
+                size--;
+                rows[0] = rows[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return ImmutableList.copyOf(result);
+        }
+
+        /* rows are visited in ascending order, so a higher row loses a tie. */
+        private static boolean worse(int rowA, float scoreA, int rowB, float scoreB) {
+            return scoreA < scoreB || (scoreA == scoreB && rowA > rowB);
+        }
+
+        private void siftUp(int node) {
+            while (node > 0) {
+                int parent = (node - 1) >>> 1;
+                if (!worse(rows[node], scores[node], rows[parent], scores[parent])) {
+                    break;
+                }
+                swap(node, parent);
+                node = parent;
+            }
+        }
+
+        private void siftDown(int node) {
+            while (true) {
+                int child = 2 * node + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(rows[child + 1], scores[child + 1], rows[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(rows[child], scores[child], rows[node], scores[node])) {
+                    break;
+                }
+                swap(node, child);
+                node = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int row = rows[a];
+            rows[a] = rows[b];
+            rows[b] = row;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
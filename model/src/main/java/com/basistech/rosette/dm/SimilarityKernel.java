@@ -0,0 +1,89 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+/**
+ * The arithmetic behind {@link Similarity}. All similarity computations go through
+ * {@link #dot(float[], int, float[], int, int)}.
+ * <br>
+ * By default, dot products use a scalar loop that keeps four independent partial sums, which
+ * breaks the dependency chain of a single accumulator so that several multiply-adds can be in
+ * flight. A build with the {@code vector} profile adds {@code VectorSimilarityKernel}, which uses
+ * the incubating JDK Vector API; it is used when it is on the class path and the application runs
+ * with {@code --add-modules jdk.incubator.vector}. Either way the result may differ from a strictly
+ * sequential sum in the last bits.
+ */
+abstract class SimilarityKernel {
+    private static final SimilarityKernel INSTANCE = load();
+
+    private static SimilarityKernel load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (SimilarityKernel) Class.forName("com.basistech.rosette.dm.VectorSimilarityKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar kernel
+            }
+        }
+        return new Scalar();
+    }
+
+    /**
+     * @param a the first array.
+     * @param aOffset the position of the first value of {@code a}.
+     * @param b the second array.
+     * @param bOffset the position of the first value of {@code b}.
+     * @param length the number of values.
+     * @return the dot product of the two runs of values.
+     */
+    static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return INSTANCE.dotProduct(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * @return whether dot products use the Vector API.
+     */
+    static boolean vectorized() {
+        return !(INSTANCE instanceof Scalar);
+    }
+
+    abstract float dotProduct(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    static float scalarDot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int x = 0;
+        for (int bound = length - 3; x < bound; x += 4) {
+            s0 += a[aOffset + x] * b[bOffset + x];
+            s1 += a[aOffset + x + 1] * b[bOffset + x + 1];
+            s2 += a[aOffset + x + 2] * b[bOffset + x + 2];
+            s3 += a[aOffset + x + 3] * b[bOffset + x + 3];
+        }
+        for (; x < length; x++) {
+            s0 += a[aOffset + x] * b[bOffset + x];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static final class Scalar extends SimilarityKernel {
+        @Override
+        float dotProduct(float[] a, int aOffset, float[] b, int bOffset, int length) {
+            return scalarDot(a, aOffset, b, bOffset, length);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+/**
+ * Returns a canonical instance for strings that repeat many times across a batch of documents,
+ * such as parts of speech, lemmas, entity types and mention sources.
+ * <br>
+ * Builders use an interner when one is set with {@link BaseAttribute.Builder#interner(StringInterner)},
+ * and the Jackson modules use one when it is passed to their {@code setupObjectMapper} methods.
+ * Implementations must be safe for concurrent use.
+ */
+public interface StringInterner {
+
+    /**
+     * Returns a string equal to the argument, preferably one returned before.
+     * @param value the string, or {@code null}.
+     * @return an equal string, or {@code null} if the argument is {@code null}.
+     */
+    String intern(String value);
+
+    /**
+     * Creates a lock-free interner that holds at most a fixed number of strings.
+     * When the table is full, new strings evict older ones, so equal strings are usually,
+     * but not always, the same instance.
+     * @param capacity the maximum number of strings to hold; rounded up to a power of two.
+     * @return the interner.
+     */
+    static StringInterner bounded(int capacity) {
+        return new BoundedStringInterner(capacity);
+    }
+}
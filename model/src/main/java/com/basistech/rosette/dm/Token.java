@@ -16,7 +16,6 @@
 package com.basistech.rosette.dm;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -123,9 +122,9 @@ public class Token extends Attribute implements Serializable {
         public Builder(int startOffset, int endOffset, String text) {
             super(startOffset, endOffset);
             this.text = text;
-            this.analyses = Lists.newArrayList();
+            this.analyses = new BuilderList<>();
             this.source = null;
-            normalized = Lists.newArrayList();
+            normalized = new BuilderList<>();
         }
 
         /**
@@ -136,10 +135,8 @@ public class Token extends Attribute implements Serializable {
         public Builder(Token toCopy) {
             super(toCopy);
             text = toCopy.text;
-            normalized = Lists.newArrayList();
-            analyses = Lists.newArrayList();
-            addAllToList(normalized, toCopy.normalized);
-            addAllToList(analyses, toCopy.getAnalyses());
+            normalized = BuilderList.copyOf(toCopy.normalized);
+            analyses = BuilderList.copyOf(toCopy.getAnalyses());
         }
 
         /**
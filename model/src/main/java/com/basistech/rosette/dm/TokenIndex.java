@@ -0,0 +1,201 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lookups between character offsets, tokens and sentences of an {@link AnnotatedText}.
+ * Tokens are located by binary search over packed token offsets, the same
+ * even/odd start/end layout used by {@link Sentence.Builder#Builder(int[], int, int)}.
+ * The token range of every sentence is computed once, when the index is built.
+ * <br>
+ * Obtain an index from {@link AnnotatedText#getTokenIndex()}, which builds it on first use
+ * and caches it. Instances are immutable and may be shared across threads.
+ * Token and sentence indices are positions in {@link AnnotatedText#getTokens()} and
+ * {@link AnnotatedText#getSentences()}; both lists are expected to be in document order.
+ */
+public final class TokenIndex {
+    private final List<Token> tokens;
+    private final List<Sentence> sentences;
+    /* start/end pairs, as in Sentence.Builder */
+    private final int[] tokenOffsets;
+    private final int[] sentenceStarts;
+    /* sentence x covers tokens sentenceTokens[2 * x] (inclusive) to sentenceTokens[2 * x + 1] (exclusive). */
+    private final int[] sentenceTokens;
+
+    TokenIndex(List<Token> tokens, List<Sentence> sentences) {
+        this.tokens = tokens == null ? Collections.<Token>emptyList() : tokens;
+        this.sentences = sentences == null ? Collections.<Sentence>emptyList() : sentences;
+        tokenOffsets = packOffsets(this.tokens);
+        sentenceStarts = new int[this.sentences.size()];
+        sentenceTokens = new int[2 * this.sentences.size()];
+        for (int x = 0; x < sentenceStarts.length; x++) {
+            Sentence sentence = this.sentences.get(x);
+            sentenceStarts[x] = sentence.getStartOffset();
+            sentenceTokens[2 * x] = firstTokenStartingAtOrAfter(sentence.getStartOffset());
+            sentenceTokens[2 * x + 1] = Math.max(sentenceTokens[2 * x], firstTokenStartingAtOrAfter(sentence.getEndOffset()));
+        }
+    }
+
+    static TokenIndex of(AnnotatedText text) {
+        return new TokenIndex(text.getTokens(), text.getSentences());
+    }
+
+    private static int[] packOffsets(List<Token> tokens) {
+        if (tokens instanceof ListAttribute && ((ListAttribute<Token>) tokens).getItems() instanceof ColumnarTokens) {
+            return ((ColumnarTokens) ((ListAttribute<Token>) tokens).getItems()).tokenOffsets();
+        }
+        int[] offsets = new int[2 * tokens.size()];
+        int x = 0;
+        for (Token token : tokens) {
+            offsets[x++] = token.getStartOffset();
+            offsets[x++] = token.getEndOffset();
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the number of tokens.
+     *
+     * @return the number of tokens
+     */
+    public int tokenCount() {
+        return tokenOffsets.length / 2;
+    }
+
+    /**
+     * Returns the number of sentences.
+     *
+     * @return the number of sentences
+     */
+    public int sentenceCount() {
+        return sentenceStarts.length;
+    }
+
+    /**
+     * Returns the index of the token that covers a character offset.
+     *
+     * @param offset the character offset
+     * @return the token index, or -1 if no token covers the offset
+     */
+    public int tokenAt(int offset) {
+        int index = lastTokenStartingAtOrBefore(offset);
+        if (index >= 0 && offset < tokenOffsets[2 * index + 1]) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the sentence that contains a token.
+     *
+     * @param tokenIndex the token index
+     * @return the sentence index, or -1 if no sentence contains the token
+     */
+    public int sentenceIndexOf(int tokenIndex) {
+        if (tokenIndex < 0 || tokenIndex >= tokenCount()) {
+            throw new IndexOutOfBoundsException("Token index: " + tokenIndex + ", Size: " + tokenCount());
+        }
+        int lo = 0;
+        int hi = sentenceStarts.length;
+        int start = tokenOffsets[2 * tokenIndex];
+        // last sentence whose start is <= the token start.
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sentenceStarts[mid] <= start) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int sentence = lo - 1;
+        if (sentence >= 0 && tokenIndex < sentenceTokens[2 * sentence + 1]) {
+            return sentence;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the sentence that contains a token.
+     *
+     * @param tokenIndex the token index
+     * @return the sentence, or {@code null} if no sentence contains the token
+     */
+    public Sentence sentenceOf(int tokenIndex) {
+        int index = sentenceIndexOf(tokenIndex);
+        return index < 0 ? null : sentences.get(index);
+    }
+
+    /**
+     * Returns the index of the first token of a sentence.
+     *
+     * @param sentenceIndex the sentence index
+     * @return the index of the first token in the sentence
+     */
+    public int firstToken(int sentenceIndex) {
+        checkSentence(sentenceIndex);
+        return sentenceTokens[2 * sentenceIndex];
+    }
+
+    /**
+     * Returns the index after the last token of a sentence. The tokens of the sentence
+     * are the half-open range {@code [firstToken(sentenceIndex), endToken(sentenceIndex))}.
+     * If the sentence has no tokens, this equals {@link #firstToken(int)}.
+     *
+     * @param sentenceIndex the sentence index
+     * @return the index after the last token in the sentence
+     */
+    public int endToken(int sentenceIndex) {
+        checkSentence(sentenceIndex);
+        return sentenceTokens[2 * sentenceIndex + 1];
+    }
+
+    /**
+     * Returns the tokens of a sentence.
+     *
+     * @param sentenceIndex the sentence index
+     * @return a view of the tokens in the sentence
+     */
+    public List<Token> tokensOf(int sentenceIndex) {
+        return tokens.subList(firstToken(sentenceIndex), endToken(sentenceIndex));
+    }
+
+    private void checkSentence(int sentenceIndex) {
+        if (sentenceIndex < 0 || sentenceIndex >= sentenceStarts.length) {
+            throw new IndexOutOfBoundsException("Sentence index: " + sentenceIndex + ", Size: " + sentenceStarts.length);
+        }
+    }
+
+    private int firstTokenStartingAtOrAfter(int offset) {
+        int lo = 0;
+        int hi = tokenCount();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokenOffsets[2 * mid] < offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int lastTokenStartingAtOrBefore(int offset) {
+        return firstTokenStartingAtOrAfter(offset + 1) - 1;
+    }
+}
@@ -17,7 +17,6 @@ package com.basistech.rosette.dm;
 
 import com.basistech.util.TextDomain;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Lists;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -79,7 +78,7 @@ public class TranslatedTokens extends BaseAttribute implements Serializable {
         public Builder(TextDomain domain) {
             super();
             this.domain = domain;
-            this.translations = Lists.newArrayList();
+            this.translations = new BuilderList<>();
         }
 
         /**
@@ -90,8 +89,7 @@ public class TranslatedTokens extends BaseAttribute implements Serializable {
         public Builder(TranslatedTokens toCopy) {
             super(toCopy);
             this.domain = toCopy.domain;
-            translations = Lists.newArrayList();
-            addAllToList(translations, toCopy.getTranslations());
+            translations = BuilderList.copyOf(toCopy.getTranslations());
         }
 
         /**
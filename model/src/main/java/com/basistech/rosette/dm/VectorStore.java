@@ -0,0 +1,389 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Internal storage for the values of an {@link EmbeddingCollection}: a flat sequence of floats,
+ * addressed by position, in which the collection's rows are laid end to end.
+ */
+abstract class VectorStore {
+
+    /**
+     * @return the number of values.
+     */
+    abstract int length();
+
+    /**
+     * @param position the position of a value.
+     * @return the value.
+     */
+    abstract float get(int position);
+
+    /**
+     * Copies a run of values into an array.
+     * @param position the position of the first value.
+     * @param target the array to receive the values.
+     * @param offset the position in {@code target} of the first value.
+     * @param count the number of values.
+     */
+    abstract void copy(int position, float[] target, int offset, int count);
+
+    /**
+     * @return the precision of the stored values.
+     */
+    EmbeddingCollection.Precision precision() {
+        return EmbeddingCollection.Precision.FLOAT32;
+    }
+
+    /**
+     * @return the stored values, little-endian, in the encoding of {@link #precision()}.
+     */
+    byte[] encode() {
+        ByteBuffer bytes = ByteBuffer.allocate(4 * length()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int x = 0; x < length(); x++) {
+            bytes.putFloat(get(x));
+        }
+        return bytes.array();
+    }
+
+    /**
+     * @return the backing array, if the values are floats on the heap, else {@code null}.
+     */
+    float[] array() {
+        return null;
+    }
+
+    /**
+     * @return the per-row scales of an {@link EmbeddingCollection.Precision#INT8} store, else {@code null}.
+     */
+    float[] scales() {
+        return null;
+    }
+
+    /**
+     * Converts float values to another precision.
+     * @param precision the target precision.
+     * @param source the values.
+     * @param rowStart the row start positions, needed for the per-row scales of INT8.
+     * @return the converted store.
+     */
+    static VectorStore quantize(EmbeddingCollection.Precision precision, VectorStore source, int[] rowStart) {
+        if (source.precision() == precision) {
+            return source;
+        }
+        float[] values = new float[source.length()];
+        source.copy(0, values, 0, values.length);
+        switch (precision) {
+        case FLOAT32:
+            return new Heap(values);
+        case FLOAT16:
+            short[] halves = new short[values.length];
+            for (int x = 0; x < values.length; x++) {
+                halves[x] = toHalf(values[x]);
+            }
+            return new Half(halves);
+        case INT8:
+            return Int8.quantize(values, rowStart);
+        default:
+            throw new IllegalArgumentException("Unknown precision " + precision);
+        }
+    }
+
+    /**
+     * Rebuilds a store from the output of {@link #encode()}.
+     * @param precision the precision of the encoded values.
+     * @param encoded the encoded values.
+     * @param scales the per-row scales, for INT8.
+     * @param rowStart the row start positions.
+     * @return the store.
+     */
+    static VectorStore decode(EmbeddingCollection.Precision precision, byte[] encoded, float[] scales, int[] rowStart) {
+        int length = rowStart[rowStart.length - 1];
+        ByteBuffer bytes = ByteBuffer.wrap(encoded).order(ByteOrder.LITTLE_ENDIAN);
+        switch (precision) {
+        case FLOAT32:
+            checkLength(encoded.length, 4L * length);
+            float[] values = new float[length];
+            bytes.asFloatBuffer().get(values);
+            return new Heap(values);
+        case FLOAT16:
+            checkLength(encoded.length, 2L * length);
+            short[] halves = new short[length];
+            bytes.asShortBuffer().get(halves);
+            return new Half(halves);
+        case INT8:
+            checkLength(encoded.length, length);
+            if (scales == null || scales.length != rowStart.length - 1) {
+                throw new IllegalArgumentException("INT8 values need one scale per vector");
+            }
+            return new Int8(encoded.clone(), scales.clone(), rowStart);
+        default:
+            throw new IllegalArgumentException("Unknown precision " + precision);
+        }
+    }
+
+    private static void checkLength(int actual, long expected) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " bytes of values, found " + actual);
+        }
+    }
+
+    /**
+     * Converts a float to IEEE 754 binary16, rounding to nearest even.
+     * @param value the value.
+     * @return the half-precision bits.
+     */
+    static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+        if (magnitude >= 0x7f800000) {
+            // infinity, or NaN with the top mantissa bit set to keep it a NaN.
+            return (short) (sign | 0x7c00 | (magnitude > 0x7f800000 ? 0x200 | ((magnitude >>> 13) & 0x3ff) : 0));
+        }
+        if (magnitude >= 0x47800000) {
+            return (short) (sign | 0x7c00);
+        }
+        if (magnitude >= 0x38800000) {
+            // normal; rebias the exponent and round the 13 dropped mantissa bits. A carry may produce infinity.
+            int rebiased = magnitude - 0x38000000;
+            return (short) (sign | ((rebiased + 0xfff + ((rebiased >>> 13) & 1)) >>> 13));
+        }
+        int shift = 126 - (magnitude >>> 23);
+        if (shift > 24) {
+            return (short) sign;
+        }
+        // subnormal: the value in units of 2^-24.
+        int mantissa = (magnitude & 0x7fffff) | 0x800000;
+        int result = mantissa >>> shift;
+        int remainder = mantissa & ((1 << shift) - 1);
+        int half = 1 << (shift - 1);
+        if (remainder > half || (remainder == half && (result & 1) != 0)) {
+            result++;
+        }
+        return (short) (sign | result);
+    }
+
+    /**
+     * Converts IEEE 754 binary16 to a float; the conversion is exact.
+     * @param half the half-precision bits.
+     * @return the value.
+     */
+    static float fromHalf(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        if (exponent == 0) {
+            float value = mantissa * 0x1p-24f;
+            return sign == 0 ? value : -value;
+        }
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    /**
+     * Values in a {@code float[]} on the heap.
+     */
+    static final class Heap extends VectorStore {
+        private final float[] values;
+
+        Heap(float[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        float get(int position) {
+            return values[position];
+        }
+
+        @Override
+        void copy(int position, float[] target, int offset, int count) {
+            System.arraycopy(values, position, target, offset, count);
+        }
+
+        @Override
+        float[] array() {
+            return values;
+        }
+    }
+
+    /**
+     * Values in a {@link FloatBuffer}, typically a view of a memory-mapped file.
+     * Only absolute reads are used, so the buffer may be shared by threads.
+     */
+    static final class Buffer extends VectorStore {
+        private final FloatBuffer values;
+
+        Buffer(FloatBuffer values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.limit();
+        }
+
+        @Override
+        float get(int position) {
+            return values.get(position);
+        }
+
+        @Override
+        void copy(int position, float[] target, int offset, int count) {
+            FloatBuffer view = values.duplicate();
+            view.position(position);
+            view.get(target, offset, count);
+        }
+    }
+
+    /**
+     * IEEE 754 binary16 values, converted to float on access.
+     */
+    static final class Half extends VectorStore {
+        private final short[] values;
+
+        Half(short[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        float get(int position) {
+            return fromHalf(values[position]);
+        }
+
+        @Override
+        void copy(int position, float[] target, int offset, int count) {
+            for (int x = 0; x < count; x++) {
+                target[offset + x] = fromHalf(values[position + x]);
+            }
+        }
+
+        @Override
+        EmbeddingCollection.Precision precision() {
+            return EmbeddingCollection.Precision.FLOAT16;
+        }
+
+        @Override
+        byte[] encode() {
+            ByteBuffer bytes = ByteBuffer.allocate(2 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.asShortBuffer().put(values);
+            return bytes.array();
+        }
+    }
+
+    /**
+     * Signed bytes with one scale per row; a value is its byte times the scale of its row.
+     * The scale of a row is its largest magnitude divided by 127.
+     */
+    static final class Int8 extends VectorStore {
+        private final byte[] values;
+        private final float[] scales;
+        private final int[] rowStart;
+
+        Int8(byte[] values, float[] scales, int[] rowStart) {
+            this.values = values;
+            this.scales = scales;
+            this.rowStart = rowStart;
+        }
+
+        static Int8 quantize(float[] source, int[] rowStart) {
+            byte[] values = new byte[source.length];
+            float[] scales = new float[rowStart.length - 1];
+            for (int row = 0; row < scales.length; row++) {
+                float max = 0;
+                for (int x = rowStart[row]; x < rowStart[row + 1]; x++) {
+                    if (!Float.isFinite(source[x])) {
+                        throw new IllegalArgumentException("Non-finite values cannot be stored as INT8");
+                    }
+                    max = Math.max(max, Math.abs(source[x]));
+                }
+                float scale = max / 127f;
+                scales[row] = scale;
+                for (int x = rowStart[row]; x < rowStart[row + 1]; x++) {
+                    values[x] = scale == 0 ? 0 : (byte) Math.max(-127, Math.min(127, Math.round(source[x] / scale)));
+                }
+            }
+            return new Int8(values, scales, rowStart);
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        float get(int position) {
+            return values[position] * scales[rowOf(position)];
+        }
+
+        @Override
+        void copy(int position, float[] target, int offset, int count) {
+            int row = -1;
+            int rowEnd = position;
+            for (int x = 0; x < count; x++) {
+                if (position + x >= rowEnd) {
+                    row = rowOf(position + x);
+                    rowEnd = rowStart[row + 1];
+                }
+                target[offset + x] = values[position + x] * scales[row];
+            }
+        }
+
+        /* the row holding a position; empty rows share their start with the next row, so take the last match. */
+        private int rowOf(int position) {
+            int found = Arrays.binarySearch(rowStart, position);
+            if (found < 0) {
+                return -found - 2;
+            }
+            while (found + 1 < rowStart.length && rowStart[found + 1] == position) {
+                found++;
+            }
+            return found;
+        }
+
+        @Override
+        EmbeddingCollection.Precision precision() {
+            return EmbeddingCollection.Precision.INT8;
+        }
+
+        @Override
+        byte[] encode() {
+            return values.clone();
+        }
+
+        @Override
+        float[] scales() {
+            return scales.clone();
+        }
+    }
+}
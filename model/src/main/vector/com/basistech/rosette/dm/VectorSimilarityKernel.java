@@ -0,0 +1,44 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Dot products with the JDK Vector API. This class is loaded by {@link SimilarityKernel}
+ * only when the {@code jdk.incubator.vector} module is present at run time.
+ */
+final class VectorSimilarityKernel extends SimilarityKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    float dotProduct(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int x = 0;
+        for (int bound = SPECIES.loopBound(length); x < bound; x += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + x);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + x);
+            sum = va.mul(vb).add(sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; x < length; x++) {
+            result += a[aOffset + x] * b[bOffset + x];
+        }
+        return result;
+    }
+}
@@ -28,11 +28,16 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @SuppressWarnings("deprecation")
 public class AnnotatedTextTest {
@@ -718,4 +723,75 @@ public class AnnotatedTextTest {
         assertEquals(42, layoutRegions.get(1).getStartOffset());
         assertEquals(70, layoutRegions.get(1).getEndOffset());
     }
+
+    @Test
+    public void derivedTextSharesAttributes() {
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 4).build());
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 4, "text").build());
+        AnnotatedText parent = new AnnotatedText.Builder().data("text")
+                .sentences(sentences.build())
+                .documentMetadata("source", "test")
+                .build();
+        // no changes: nothing is copied.
+        AnnotatedText same = new AnnotatedText.Builder(parent).build();
+        assertSame(parent.getAttributes(), same.getAttributes());
+        assertSame(parent.getDocumentMetadata(), same.getDocumentMetadata());
+
+        AnnotatedText.Builder builder = new AnnotatedText.Builder(parent).tokens(tokens.build());
+        AnnotatedText child = builder.build();
+        assertSame(parent.getSentences(), child.getSentences());
+        assertEquals(1, parent.getAttributes().size());
+        assertEquals(2, child.getAttributes().size());
+
+        // later changes to the builder don't reach texts already built.
+        builder.attributes().remove(AttributeKey.SENTENCE.key());
+        builder.documentMetadata("stage", "2");
+        assertEquals(2, child.getAttributes().size());
+        assertEquals(1, child.getDocumentMetadata().size());
+        assertEquals(1, builder.build().getAttributes().size());
+        assertEquals(2, builder.build().getDocumentMetadata().size());
+        assertEquals(1, parent.getDocumentMetadata().size());
+    }
+
+    private static AnnotatedText entityText() {
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(new Entity.Builder().entityId("Q100").type("LOCATION").headMentionIndex(0)
+                .mention(new Mention.Builder(5, 11).build()).build());
+        entities.add(new Entity.Builder().entityId("Q1297").type("LOCATION").headMentionIndex(0)
+                .mention(new Mention.Builder(16, 23).build()).build());
+        return new AnnotatedText.Builder().data("from Boston and Chicago").entities(entities.build()).build();
+    }
+
+    @Test
+    public void compatViewsSharedAcrossThreads() throws Exception {
+        AnnotatedText text = entityText();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Object>>> futures = new ArrayList<>();
+            for (int x = 0; x < threads; x++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return Lists.<Object>newArrayList(text.getEntityMentions(), text.getResolvedEntities());
+                }));
+            }
+            start.countDown();
+            for (Future<List<Object>> future : futures) {
+                assertSame(text.getEntityMentions(), future.get().get(0));
+                assertSame(text.getResolvedEntities(), future.get().get(1));
+            }
+            assertEquals(2, text.getEntityMentions().size());
+            assertEquals(2, text.getResolvedEntities().size());
+
+            AnnotatedText prepared = entityText().precomputeViews(executor);
+            assertEquals("Q1297", prepared.getResolvedEntities().get(1).getEntityId());
+            assertSame(prepared.getTokenIndex(), prepared.getTokenIndex());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(new AnnotatedText.Builder().data("none").build().precomputeViews().getResolvedEntities());
+    }
 }
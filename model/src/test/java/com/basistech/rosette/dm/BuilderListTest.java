@@ -0,0 +1,142 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class BuilderListTest {
+
+    @Test
+    public void frozenListsNeverChange() {
+        BuilderList<String> list = new BuilderList<>(2);
+        list.add("a");
+        list.add("b");
+        List<String> first = list.freeze();
+        list.set(0, "z");
+        list.add("c");
+        List<String> second = list.freeze();
+        list.remove(0);
+        list.clear();
+        assertEquals(Arrays.asList("a", "b"), first);
+        assertEquals(Arrays.asList("z", "b", "c"), second);
+        assertEquals(0, list.size());
+        try {
+            first.set(0, "y");
+            fail("frozen lists are immutable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void copyOfSharesUntilChanged() {
+        BuilderList<String> list = new BuilderList<>();
+        list.addAll(Arrays.asList("a", "b", "c"));
+        List<String> frozen = list.freeze();
+        BuilderList<String> copy = BuilderList.copyOf(frozen);
+        assertSame(frozen, BuilderList.immutableCopyOf(frozen));
+        assertEquals(frozen, copy.freeze());
+        copy.add(1, "x");
+        assertEquals(Arrays.asList("a", "b", "c"), frozen);
+        assertEquals(Arrays.asList("a", "x", "b", "c"), copy);
+        assertEquals(ImmutableList.of(), new BuilderList<String>().freeze());
+    }
+
+    @Test
+    public void listAttributeBuilderIsolation() {
+        ListAttribute.Builder<Sentence> builder = new ListAttribute.Builder<>(Sentence.class, 1);
+        builder.add(new Sentence.Builder(0, 1).build());
+        ListAttribute<Sentence> first = builder.build();
+        builder.add(new Sentence.Builder(1, 2).build());
+        assertEquals(1, first.size());
+        assertEquals(2, builder.build().size());
+    }
+
+    @Test
+    public void tokenBuilderIsolation() {
+        Token.Builder builder = new Token.Builder(0, 1, "a");
+        builder.addNormalized("A");
+        Token token = builder.build();
+        Token.Builder copy = new Token.Builder(token);
+        copy.addNormalized("b");
+        builder.addNormalized("c");
+        assertEquals(Arrays.asList("A"), token.getNormalized());
+        assertEquals(Arrays.asList("A", "b"), copy.build().getNormalized());
+        assertEquals(Arrays.asList("A", "c"), builder.build().getNormalized());
+        assertNull(new Token.Builder(0, 1, "a").build().getNormalized());
+    }
+
+    @Test
+    public void nullElementsRejected() {
+        BuilderList<String> list = new BuilderList<>(2);
+        list.add("a");
+        list.add(null);
+        try {
+            BuilderList.immutableCopyOf(list);
+            fail("null elements are rejected");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        // list attributes have always accepted null items from their builder.
+        List<String> frozen = list.freeze();
+        assertNull(frozen.get(1));
+        try {
+            BuilderList.immutableCopyOf(frozen);
+            fail("null elements are rejected");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        list.set(1, "b");
+        assertEquals(Arrays.asList("a", "b"), BuilderList.immutableCopyOf(list));
+
+        Token.Builder builder = new Token.Builder(0, 1, "a");
+        builder.addNormalized(null);
+        try {
+            builder.build();
+            fail("null elements are rejected");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void serializable() throws Exception {
+        BuilderList<String> list = new BuilderList<>();
+        list.addAll(Arrays.asList("a", "b"));
+        List<String> frozen = list.freeze();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(frozen);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(frozen, in.readObject());
+        }
+    }
+}
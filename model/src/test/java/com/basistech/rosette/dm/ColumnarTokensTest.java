@@ -0,0 +1,86 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarTokensTest {
+
+    private static ListAttribute<Token> objectTokens() {
+        ListAttribute.Builder<Token> builder = new ListAttribute.Builder<>(Token.class);
+        Token.Builder tokenBuilder = new Token.Builder(0, 4, "This").source("src").addNormalized("this");
+        tokenBuilder.addAnalysis(new MorphoAnalysis.Builder().lemma("this").partOfSpeech("DET").build());
+        tokenBuilder.addAnalysis(new HanMorphoAnalysis.Builder().lemma("x").addReading("r").build());
+        tokenBuilder.extendedProperty("ex", 1);
+        builder.add(tokenBuilder.build());
+        builder.add(new Token.Builder(5, 7, "is").build());
+        builder.add(new Token.Builder(8, 12, "This").addNormalized("this").addNormalized("THIS").build());
+        builder.extendedProperty("le", "v");
+        return builder.build();
+    }
+
+    @Test
+    public void sameAsObjectList() {
+        ListAttribute<Token> tokens = objectTokens();
+        ListAttribute<Token> columnar = ColumnarTokens.copyOf(tokens);
+        assertTrue(columnar.getItems() instanceof ColumnarTokens);
+        assertEquals(tokens, columnar);
+        assertEquals(tokens.hashCode(), columnar.hashCode());
+        for (int x = 0; x < tokens.size(); x++) {
+            assertEquals(tokens.get(x), columnar.get(x));
+        }
+        assertSame(columnar, ColumnarTokens.copyOf(columnar));
+    }
+
+    @Test
+    public void columnAccessors() {
+        ColumnarTokens.Builder builder = new ColumnarTokens.Builder(1);
+        builder.add(0, 3, "One").addNormalized("one").source("dict");
+        builder.add(4, 7, "Two").tokenExtendedProperty("k", "v");
+        builder.add(8, 11, "One");
+        ColumnarTokens tokens = (ColumnarTokens) builder.build().getItems();
+
+        assertEquals(3, tokens.size());
+        assertEquals(4, tokens.startOffset(1));
+        assertEquals(11, tokens.endOffset(2));
+        assertEquals("One", tokens.text(2));
+        assertEquals("dict", tokens.source(0));
+        assertNull(tokens.source(1));
+        assertEquals(ImmutableList.of("one"), tokens.normalized(0));
+        assertNull(tokens.normalized(1));
+        assertNull(tokens.analyses(0));
+        assertEquals("v", tokens.extendedProperties(1).get("k"));
+        assertTrue(tokens.extendedProperties(2).isEmpty());
+        assertArrayEquals(new int[] {0, 3, 4, 7, 8, 11}, tokens.tokenOffsets());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfRange() {
+        new ColumnarTokens.Builder().add(0, 1, "a").build().get(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noCurrentToken() {
+        new ColumnarTokens.Builder().addNormalized("a");
+    }
+}
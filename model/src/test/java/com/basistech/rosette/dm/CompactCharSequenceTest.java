@@ -0,0 +1,114 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactCharSequenceTest {
+
+    private static String text(int length, double escapeRate, long seed) {
+        Random random = new Random(seed);
+        char[] escapes = {'\u2019', '\u201C', '\u2014', '\u20AC', '\uD83D', '\uDE00'};
+        StringBuilder builder = new StringBuilder();
+        for (int x = 0; x < length; x++) {
+            if (random.nextDouble() < escapeRate) {
+                builder.append(escapes[random.nextInt(escapes.length)]);
+            } else {
+                // every Latin-1 character but U+009F, which is left for the marker.
+                char c = (char) random.nextInt(0xFF);
+                builder.append(c == 0x9F ? (char) 0xFF : c);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void sameCharacters() {
+        String text = text(100000, 0.01, 1);
+        CharSequence compact = CompactCharSequence.of(text);
+        assertTrue(compact instanceof CompactCharSequence);
+        assertEquals(text.length(), compact.length());
+        for (int x = 0; x < text.length(); x++) {
+            assertEquals(text.charAt(x), compact.charAt(x));
+        }
+        assertEquals(text, compact.toString());
+        assertEquals(text.substring(500, 1500), compact.subSequence(500, 1500));
+        assertEquals(text.hashCode(), compact.hashCode());
+    }
+
+    @Test
+    public void stringsWhenNoSmaller() {
+        // all Latin-1: a string is already one byte per character.
+        assertTrue(CompactCharSequence.of("caf\u00e9 au lait") instanceof String);
+        // mostly outside Latin-1.
+        assertTrue(CompactCharSequence.of("\u65E5\u672C\u8A9E\u306E\u30C6\u30AD\u30B9\u30C8") instanceof String);
+        assertEquals("", CompactCharSequence.of(""));
+        // every byte value is in use, so there is no marker.
+        StringBuilder all = new StringBuilder("\u2019");
+        for (char c = 0; c < 0x100; c++) {
+            all.append(c).append(c).append(c).append(c);
+        }
+        assertTrue(CompactCharSequence.of(all) instanceof String);
+        assertTrue(CompactCharSequence.of("It\u2019s a pity that these are mostly ASCII words.") instanceof CompactCharSequence);
+    }
+
+    @Test
+    public void tableSizeBoundary() {
+        // one escape takes a table of 4 slots, 24 bytes: compact only when that is less than the length.
+        assertTrue(CompactCharSequence.of(repeat('a', 23) + "\u2019") instanceof String);
+        assertTrue(CompactCharSequence.of(repeat('a', 24) + "\u2019") instanceof CompactCharSequence);
+        // two or three escapes take 8 slots, 48 bytes.
+        assertTrue(CompactCharSequence.of(repeat('a', 45) + "\u2019\u2014\u20AC") instanceof String);
+        assertTrue(CompactCharSequence.of(repeat('a', 46) + "\u2019\u2014\u20AC") instanceof CompactCharSequence);
+        // one in twelve with 8 escapes needs 32 slots, 192 bytes, more than the string's 96 extra bytes.
+        assertTrue(CompactCharSequence.of(repeat('a', 88) + repeat('\u2019', 8)) instanceof String);
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void equality() throws Exception {
+        String text = text(5000, 0.02, 2);
+        CharSequence compact = CompactCharSequence.of(text);
+        char[] padded = ("xx" + text + "yy").toCharArray();
+        assertEquals(compact, CompactCharSequence.of(padded, 2, text.length()));
+        assertNotEquals(compact, CompactCharSequence.of(text(5000, 0.02, 3)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(compact);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(compact, in.readObject());
+        }
+    }
+}
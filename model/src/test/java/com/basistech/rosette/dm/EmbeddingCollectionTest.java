@@ -0,0 +1,186 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EmbeddingCollectionTest {
+
+    @Test
+    public void denseAccessors() {
+        EmbeddingCollection collection = new EmbeddingCollection.Builder()
+                .put(7, new float[] {3, 4, 5})
+                .put(2, new float[] {0, 1, 2})
+                .build();
+        assertEquals(2, collection.size());
+        assertEquals(3, collection.dimension());
+        assertArrayEquals(new int[] {2, 7}, collection.indices());
+        assertTrue(collection.contains(7));
+        assertFalse(collection.contains(3));
+        assertArrayEquals(new float[] {3, 4, 5}, collection.vector(7), 0f);
+        assertNull(collection.vector(3));
+        assertEquals(1f, collection.value(2, 1), 0f);
+
+        float[] target = new float[4];
+        assertEquals(3, collection.copyVector(2, target, 1));
+        assertArrayEquals(new float[] {0, 0, 1, 2}, target, 0f);
+        assertEquals(-1, collection.copyVector(3, target, 0));
+    }
+
+    @Test
+    public void mapView() {
+        float[] values = {1, 2};
+        EmbeddingCollection collection = new EmbeddingCollection.Builder().put(0, values).put(1, new float[] {3}).build();
+        values[0] = 10;
+        Map<Integer, float[]> map = collection.getEmbeddings();
+        assertSame(map, collection.getEmbeddings());
+        assertArrayEquals(new float[] {1, 2}, map.get(0), 0f);
+        assertEquals(-1, collection.dimension());
+        assertNull(new EmbeddingCollection.Builder().build().getEmbeddings());
+        assertEquals(0, new EmbeddingCollection.Builder().build().dimension());
+    }
+
+    @Test
+    public void equalsAndCopy() throws Exception {
+        EmbeddingCollection collection = new EmbeddingCollection.Builder().put(0, new float[] {1, 2}).build();
+        EmbeddingCollection copy = new EmbeddingCollection.Builder(collection).build();
+        assertEquals(collection, copy);
+        assertEquals(collection.hashCode(), copy.hashCode());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(collection);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(collection, in.readObject());
+        }
+    }
+
+    @Test
+    public void halfPrecision() {
+        EmbeddingCollection collection = new EmbeddingCollection.Builder()
+                .put(0, new float[] {1, -2.5f, 65504f, 0.1f})
+                .precision(EmbeddingCollection.Precision.FLOAT16)
+                .build();
+        assertEquals(EmbeddingCollection.Precision.FLOAT16, collection.precision());
+        assertNull(collection.scales());
+        assertEquals(8, collection.encodedValues().length);
+        float[] vector = collection.vector(0);
+        assertEquals(1f, vector[0], 0f);
+        assertEquals(-2.5f, vector[1], 0f);
+        assertEquals(65504f, vector[2], 0f);
+        assertEquals(0.1f, vector[3], 1e-4f);
+    }
+
+    @Test
+    public void int8Precision() {
+        float[] values = {0.5f, -1f, 0.25f, 0f};
+        EmbeddingCollection collection = new EmbeddingCollection.Builder()
+                .put(3, values)
+                .put(5, new float[] {0, 0, 0, 0})
+                .build()
+                .withPrecision(EmbeddingCollection.Precision.INT8);
+        assertEquals(8, collection.encodedValues().length);
+        assertArrayEquals(new float[] {1f / 127, 0f}, collection.scales(), 0f);
+        assertArrayEquals(values, collection.vector(3), 1f / 254);
+        assertArrayEquals(new float[4], collection.vector(5), 0f);
+    }
+
+    @Test
+    public void decodeIsExact() throws Exception {
+        EmbeddingCollection collection = new EmbeddingCollection.Builder()
+                .put(1, new float[] {0.3f, 0.7f})
+                .put(2, new float[] {-4f})
+                .precision(EmbeddingCollection.Precision.INT8)
+                .build();
+        EmbeddingCollection decoded = EmbeddingCollection.decode(collection.precision(), collection.indices(),
+                new int[] {2, 1}, collection.scales(), collection.encodedValues());
+        assertEquals(collection, decoded);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(collection);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            EmbeddingCollection readBack = (EmbeddingCollection) in.readObject();
+            assertEquals(EmbeddingCollection.Precision.INT8, readBack.precision());
+            assertArrayEquals(collection.vector(1), readBack.vector(1), 0f);
+        }
+    }
+
+    @Test
+    public void reducedPrecisionSerializedForm() throws Exception {
+        EmbeddingCollection.Builder builder = new EmbeddingCollection.Builder();
+        for (int item = 0; item < 50; item++) {
+            float[] vector = new float[64];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) Math.sin(item + i);
+            }
+            builder.put(item * 2, vector);
+        }
+        EmbeddingCollection full = builder.build();
+        byte[] fullBytes = serialize(full);
+        for (EmbeddingCollection.Precision precision
+                : new EmbeddingCollection.Precision[] {EmbeddingCollection.Precision.FLOAT16, EmbeddingCollection.Precision.INT8}) {
+            EmbeddingCollection reduced = full.withPrecision(precision);
+            byte[] reducedBytes = serialize(reduced);
+            assertTrue(precision + " is " + reducedBytes.length + " bytes", reducedBytes.length < fullBytes.length / 2);
+            EmbeddingCollection readBack = (EmbeddingCollection) deserialize(reducedBytes);
+            assertEquals(precision, readBack.precision());
+            assertArrayEquals(reduced.indices(), readBack.indices());
+            assertArrayEquals(reduced.encodedValues(), readBack.encodedValues());
+            for (int item : reduced.indices()) {
+                assertArrayEquals(reduced.vector(item), readBack.vector(item), 0f);
+            }
+        }
+    }
+
+    private static byte[] serialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Test
+    public void embeddingsPrecision() {
+        Embeddings embeddings = new Embeddings.Builder()
+                .put(Embeddings.Name.TEXT, new EmbeddingCollection.Builder().put(0, new float[] {1, 2}).build())
+                .precision(EmbeddingCollection.Precision.FLOAT16)
+                .build();
+        assertEquals(EmbeddingCollection.Precision.FLOAT16, embeddings.get(Embeddings.Name.TEXT).precision());
+    }
+}
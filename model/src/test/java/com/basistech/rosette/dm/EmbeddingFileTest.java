@@ -0,0 +1,77 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class EmbeddingFileTest {
+
+    @Test
+    public void roundTrip() throws Exception {
+        EmbeddingCollection text = new EmbeddingCollection.Builder().put(0, new float[] {0.5f, -1, 2}).build();
+        EmbeddingCollection.Builder tokensBuilder = new EmbeddingCollection.Builder();
+        for (int x = 0; x < 5000; x++) {
+            tokensBuilder.put(x * 2, new float[] {x, x + 0.25f, -x, Float.NaN});
+        }
+        EmbeddingCollection tokens = tokensBuilder.build();
+        EmbeddingCollection empty = new EmbeddingCollection.Builder().build();
+        EmbeddingCollection ragged = new EmbeddingCollection.Builder().put(1, new float[] {1}).put(4, new float[] {1, 2}).build();
+
+        Path path = Files.createTempFile("embeddings", ".bin");
+        try {
+            try (EmbeddingFile.Writer writer = EmbeddingFile.writer(path)) {
+                assertEquals(0, writer.write(text));
+                assertEquals(1, writer.write(tokens));
+                assertEquals(2, writer.write(empty));
+                assertEquals(3, writer.write(ragged));
+            }
+            try (EmbeddingFile file = EmbeddingFile.open(path)) {
+                assertEquals(4, file.size());
+                assertEquals(text, file.get(0));
+                EmbeddingCollection mappedTokens = file.get(1);
+                assertEquals(tokens, mappedTokens);
+                assertEquals(tokens.hashCode(), mappedTokens.hashCode());
+                assertEquals(4, mappedTokens.dimension());
+                assertArrayEquals(new float[] {7, 7.25f, -7, Float.NaN}, mappedTokens.vector(14), 0f);
+                assertNull(mappedTokens.vector(15));
+                assertEquals(empty, file.get(2));
+                assertEquals(ragged, file.get(3));
+                assertEquals(-1, file.get(3).dimension());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notAnEmbeddingFile() throws Exception {
+        Path path = Files.createTempFile("embeddings", ".bin");
+        try {
+            Files.write(path, new byte[64]);
+            EmbeddingFile.open(path).close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
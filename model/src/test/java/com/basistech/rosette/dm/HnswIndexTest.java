@@ -0,0 +1,158 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HnswIndexTest {
+    private static final int DIMENSION = 16;
+
+    private static List<EmbeddingCollection> documents(int count, long seed) {
+        Random random = new Random(seed);
+        List<EmbeddingCollection> documents = new ArrayList<>(count);
+        for (int x = 0; x < count; x++) {
+            float[] vector = new float[DIMENSION];
+            for (int y = 0; y < DIMENSION; y++) {
+                vector[y] = (float) random.nextGaussian();
+            }
+            documents.add(new EmbeddingCollection.Builder().put(0, vector).build());
+        }
+        return documents;
+    }
+
+    private static long[] keys(int count) {
+        long[] keys = new long[count];
+        for (int x = 0; x < count; x++) {
+            keys[x] = 1000L + x;
+        }
+        return keys;
+    }
+
+    /* the fraction of the true top 10, by brute force, that the index finds */
+    private static double recall(HnswIndex index, List<EmbeddingCollection> documents, List<EmbeddingCollection> queries) {
+        EmbeddingCollection.Builder all = new EmbeddingCollection.Builder();
+        for (int x = 0; x < documents.size(); x++) {
+            all.put(x, documents.get(x).vector(0));
+        }
+        EmbeddingCollection corpus = all.build();
+        int found = 0;
+        int expected = 0;
+        for (EmbeddingCollection query : queries) {
+            Set<Long> truth = new HashSet<>();
+            for (Similarity.Match match : Similarity.topK(corpus, query.vector(0), 10, index.measure())) {
+                truth.add(1000L + match.getIndex());
+            }
+            for (HnswIndex.Neighbor neighbor : index.search(query.vector(0), 10)) {
+                if (truth.contains(neighbor.getKey())) {
+                    found++;
+                }
+            }
+            expected += truth.size();
+        }
+        return (double) found / expected;
+    }
+
+    @Test
+    public void recall() throws Exception {
+        List<EmbeddingCollection> documents = documents(2000, 1);
+        HnswIndex index = new HnswIndex.Builder(DIMENSION).build();
+        index.addAll(keys(documents.size()), documents, 0);
+        assertEquals(2000, index.size());
+        assertTrue(recall(index, documents, documents(50, 2)) > 0.9);
+    }
+
+    @Test
+    public void exactMatchFirst() {
+        HnswIndex index = new HnswIndex.Builder(3).measure(Similarity.Measure.DOT).build();
+        assertTrue(index.search(new float[] {1, 0, 0}, 5).isEmpty());
+        index.add(7, new float[] {1, 0, 0});
+        index.add(8, new float[] {0, 1, 0});
+        index.add(9, new float[] {0.5f, 0.5f, 0});
+        List<HnswIndex.Neighbor> neighbors = index.search(new float[] {2, 0, 0}, 2);
+        assertEquals(2, neighbors.size());
+        assertEquals(7, neighbors.get(0).getKey());
+        assertEquals(2f, neighbors.get(0).getScore(), 1e-6f);
+        assertEquals(9, neighbors.get(1).getKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongDimension() {
+        new HnswIndex.Builder(3).build().add(1, new float[2]);
+    }
+
+    @Test
+    public void concurrentBuild() throws Exception {
+        List<EmbeddingCollection> documents = documents(3000, 3);
+        HnswIndex index = new HnswIndex.Builder(DIMENSION).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            index.addAll(keys(documents.size()), documents, 0, executor, 4);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(3000, index.size());
+        assertTrue(recall(index, documents, documents(50, 4)) > 0.9);
+    }
+
+    @Test
+    public void saveOpenLoad() throws Exception {
+        List<EmbeddingCollection> documents = documents(1000, 5);
+        HnswIndex index = new HnswIndex.Builder(DIMENSION).build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            index.addAll(keys(documents.size()), documents, 0, executor, 2);
+        } finally {
+            executor.shutdown();
+        }
+        float[] query = documents(1, 6).get(0).vector(0);
+
+        Path path = Files.createTempFile("hnsw", ".bin");
+        try {
+            index.save(path);
+            try (HnswIndex mapped = HnswIndex.open(path)) {
+                assertEquals(index.size(), mapped.size());
+                assertEquals(index.search(query, 10), mapped.search(query, 10));
+                try {
+                    mapped.add(1, query);
+                    throw new AssertionError("expected a read-only index");
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+            }
+            HnswIndex loaded = HnswIndex.load(path);
+            assertEquals(index.search(query, 10), loaded.search(query, 10));
+            loaded.add(1, query);
+            HnswIndex.Neighbor best = loaded.search(query, 1).get(0);
+            assertEquals(1, best.getKey());
+            assertEquals(1f, best.getScore(), 1e-5f);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import com.basistech.util.ISO15924;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalIndexTest {
+
+    private static AnnotatedText text() {
+        //                0123456789012345678901234
+        String rawText = "Jane Doe met John. Bye.";
+        AnnotatedText.Builder builder = new AnnotatedText.Builder().data(rawText);
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 18).build());
+        sentences.add(new Sentence.Builder(19, 23).build());
+        builder.sentences(sentences.build());
+        ListAttribute.Builder<Entity> entities = new ListAttribute.Builder<>(Entity.class);
+        entities.add(new Entity.Builder().mention(new Mention.Builder(0, 8).build()).type("PERSON").build());
+        entities.add(new Entity.Builder().mention(new Mention.Builder(13, 17).build()).type("PERSON").build());
+        builder.entities(entities.build());
+        ListAttribute.Builder<ScriptRegion> scripts = new ListAttribute.Builder<>(ScriptRegion.class);
+        scripts.add(new ScriptRegion.Builder(0, 23, ISO15924.Latn).build());
+        builder.scriptRegions(scripts.build());
+        return builder.build();
+    }
+
+    @Test
+    public void queries() {
+        AnnotatedText text = text();
+        IntervalIndex index = text.getIntervalIndex();
+        assertSame(index, text.getIntervalIndex());
+        assertEquals(5, index.size());
+
+        List<Mention> mentions = index.overlapping(5, 15, Mention.class);
+        assertEquals(2, mentions.size());
+        assertEquals(0, mentions.get(0).getStartOffset());
+        assertEquals(13, mentions.get(1).getStartOffset());
+
+        assertEquals(3, index.stabbing(14).size());
+        assertEquals(1, index.stabbing(18).size());
+        assertEquals(0, index.stabbing(23).size());
+
+        assertEquals(3, index.containing(0, 8).size());
+        assertEquals(1, index.containing(0, 8, Sentence.class).size());
+        assertEquals(3, index.containedIn(0, 18).size());
+        assertTrue(index.overlapping(8, 13).stream().noneMatch(a -> a instanceof Mention));
+    }
+
+    @Test
+    public void matchesLinearScan() {
+        Random random = new Random(42);
+        List<Attribute> attributes = new ArrayList<>();
+        for (int x = 0; x < 500; x++) {
+            int start = random.nextInt(1000);
+            attributes.add(new Sentence.Builder(start, start + random.nextInt(50)).build());
+        }
+        IntervalIndex index = new IntervalIndex(attributes);
+        for (int x = 0; x < 200; x++) {
+            int start = random.nextInt(1050);
+            int end = start + random.nextInt(30);
+            int overlapping = 0;
+            int containing = 0;
+            int containedIn = 0;
+            int stabbing = 0;
+            for (Attribute attribute : attributes) {
+                int as = attribute.getStartOffset();
+                int ae = attribute.getEndOffset();
+                overlapping += as < end && ae > start ? 1 : 0;
+                containing += as <= start && ae >= end ? 1 : 0;
+                containedIn += as >= start && ae <= end ? 1 : 0;
+                stabbing += as <= start && start < ae ? 1 : 0;
+            }
+            assertEquals(overlapping, index.overlapping(start, end).size());
+            assertEquals(containing, index.containing(start, end).size());
+            assertEquals(containedIn, index.containedIn(start, end).size());
+            assertEquals(stabbing, index.stabbing(start).size());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedCharSequenceTest {
+
+    /* A mix of ASCII, two- and three-byte characters and supplementary characters. */
+    private static String text(int codePoints) {
+        Random random = new Random(42);
+        int[] pool = {'a', 'Z', ' ', '\n', 0xe9, 0x416, 0x4e2d, 0x3042, 0x1F600, 0x20000};
+        StringBuilder builder = new StringBuilder();
+        for (int x = 0; x < codePoints; x++) {
+            builder.appendCodePoint(pool[random.nextInt(pool.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static MappedCharSequence map(byte[] bytes, Charset charset) throws IOException {
+        Path path = Files.createTempFile("text", ".txt");
+        try {
+            Files.write(path, bytes);
+            // the mapping outlives the file name.
+            return MappedCharSequence.open(path, charset);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void assertSameText(String expected, MappedCharSequence actual) throws IOException {
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected, actual.toString());
+        for (int x = 0; x < expected.length(); x++) {
+            assertEquals(expected.charAt(x), actual.charAt(x));
+        }
+        Random random = new Random(7);
+        for (int x = 0; x < 2000 && expected.length() > 0; x++) {
+            int index = random.nextInt(expected.length());
+            assertEquals(expected.charAt(index), actual.charAt(index));
+        }
+        for (int x = 0; x < 200 && expected.length() > 0; x++) {
+            int start = random.nextInt(expected.length());
+            int end = start + random.nextInt(expected.length() - start + 1);
+            assertEquals(expected.substring(start, end), actual.subSequence(start, end).toString());
+        }
+        StringBuilder read = new StringBuilder();
+        char[] buffer = new char[1000];
+        try (Reader reader = actual.reader()) {
+            for (int count = reader.read(buffer); count >= 0; count = reader.read(buffer)) {
+                read.append(buffer, 0, count);
+            }
+        }
+        assertEquals(expected, read.toString());
+    }
+
+    @Test
+    public void utf8() throws Exception {
+        String text = text(20000);
+        assertSameText(text, map(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void malformedUtf8() throws Exception {
+        byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xE0, (byte) 0x80, (byte) 0xF0, (byte) 0x9F, (byte) 0x98, 'c',
+            (byte) 0xED, (byte) 0xA0, (byte) 0x80, (byte) 0xFF, (byte) 0xF4, (byte) 0x90, 'd', (byte) 0xE2, (byte) 0x82,
+            (byte) 0xED, (byte) 0xA0, 'e', (byte) 0xED, (byte) 0x9F, (byte) 0xBF, (byte) 0xC0, (byte) 0x80, (byte) 0xED};
+        assertSameText(new String(bytes, StandardCharsets.UTF_8), map(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void utf16() throws Exception {
+        String text = text(5000);
+        assertSameText(text, map(text.getBytes(StandardCharsets.UTF_16BE), StandardCharsets.UTF_16BE));
+        assertSameText(text, map(text.getBytes(StandardCharsets.UTF_16LE), StandardCharsets.UTF_16LE));
+        // a leading byte order mark.
+        assertSameText(text, map(text.getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16));
+        byte[] little = text.getBytes(StandardCharsets.UTF_16LE);
+        byte[] marked = new byte[little.length + 2];
+        marked[0] = (byte) 0xFF;
+        marked[1] = (byte) 0xFE;
+        System.arraycopy(little, 0, marked, 2, little.length);
+        assertSameText(text, map(marked, StandardCharsets.UTF_16));
+    }
+
+    @Test
+    public void empty() throws Exception {
+        assertSameText("", map(new byte[0], StandardCharsets.UTF_8));
+        assertSameText("", map(new byte[0], StandardCharsets.UTF_16));
+    }
+
+    @Test(expected = IOException.class)
+    public void oddUtf16() throws Exception {
+        map(new byte[] {0, 'a', 0}, StandardCharsets.UTF_16BE);
+    }
+
+    @Test
+    public void annotatedText() throws Exception {
+        String text = text(1000);
+        Path path = Files.createTempFile("text", ".txt");
+        try {
+            Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+            AnnotatedText annotated = new AnnotatedText.Builder().data(path, StandardCharsets.UTF_8).build();
+            assertEquals(text, annotated.getData().toString());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(annotated.getData());
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                assertEquals(text, in.readObject());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
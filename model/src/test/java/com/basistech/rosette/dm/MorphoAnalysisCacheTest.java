@@ -0,0 +1,77 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MorphoAnalysisCacheTest {
+
+    private static MorphoAnalysis analysis(MorphoAnalysisCache cache, String partOfSpeech, String lemma) {
+        MorphoAnalysis.Builder builder = new MorphoAnalysis.Builder();
+        builder.cache(cache);
+        builder.partOfSpeech(partOfSpeech);
+        builder.lemma(lemma);
+        return builder.build();
+    }
+
+    @Test
+    public void sharesEqualAnalyses() {
+        MorphoAnalysisCache cache = MorphoAnalysisCache.bounded(64);
+        MorphoAnalysis first = analysis(cache, "NOUN", "cat");
+        assertSame(first, analysis(cache, "NOUN", "cat"));
+        assertNotSame(first, analysis(cache, "NOUN", "dog"));
+        assertNull(cache.canonicalize(null));
+    }
+
+    @Test
+    public void distinguishesClasses() {
+        MorphoAnalysisCache cache = MorphoAnalysisCache.bounded(64);
+        MorphoAnalysis plain = analysis(cache, "NOUN", "cat");
+        HanMorphoAnalysis.Builder builder = new HanMorphoAnalysis.Builder();
+        builder.cache(cache);
+        builder.partOfSpeech("NOUN");
+        builder.lemma("cat");
+        HanMorphoAnalysis han = builder.build();
+        assertNotSame(plain, han);
+        assertEquals(HanMorphoAnalysis.class, han.getClass());
+        builder = new HanMorphoAnalysis.Builder();
+        builder.cache(cache);
+        builder.partOfSpeech("NOUN");
+        builder.lemma("cat");
+        assertSame(han, builder.build());
+    }
+
+    @Test
+    public void componentsNotShared() {
+        MorphoAnalysisCache cache = MorphoAnalysisCache.bounded(64);
+        MorphoAnalysis.Builder builder = new MorphoAnalysis.Builder();
+        builder.addComponent(new Token.Builder(0, 1, "a").build());
+        MorphoAnalysis compound = builder.build();
+        assertSame(compound, cache.canonicalize(compound));
+        assertNotSame(compound, cache.canonicalize(new MorphoAnalysis.Builder(compound).build()));
+    }
+
+    @Test
+    public void noCacheByDefault() {
+        assertNotSame(analysis(null, "NOUN", "cat"), analysis(null, "NOUN", "cat"));
+    }
+}
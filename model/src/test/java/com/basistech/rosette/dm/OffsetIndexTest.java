@@ -0,0 +1,93 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class OffsetIndexTest {
+
+    private static String text(int length, long seed) {
+        Random random = new Random(seed);
+        int[] pool = {'a', ' ', 0xe9, 0x416, 0x4e2d, 0x1F600, 0xD800, 0xDC00};
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            builder.appendCodePoint(pool[random.nextInt(pool.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static int utf8(String text, int offset) {
+        return text.substring(0, offset).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void check(String text) {
+        OffsetIndex index = new AnnotatedText.Builder().data(text).build().getOffsetIndex();
+        assertEquals(text.length(), index.length(OffsetUnit.UTF16));
+        assertEquals(text.codePointCount(0, text.length()), index.length(OffsetUnit.CODE_POINT));
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, index.length(OffsetUnit.UTF8));
+        for (int x = 0; x <= text.length(); x++) {
+            boolean midPair = x > 0 && x < text.length()
+                && Character.isHighSurrogate(text.charAt(x - 1)) && Character.isLowSurrogate(text.charAt(x));
+            int codePoint = text.codePointCount(0, x);
+            assertEquals(codePoint, index.codePointOffset(x));
+            if (!midPair) {
+                int bytes = utf8(text, x);
+                assertEquals(bytes, index.utf8Offset(x));
+                assertEquals(x, index.convert(codePoint, OffsetUnit.CODE_POINT, OffsetUnit.UTF16));
+                assertEquals(x, index.convert(bytes, OffsetUnit.UTF8, OffsetUnit.UTF16));
+                assertEquals(bytes, index.convert(codePoint, OffsetUnit.CODE_POINT, OffsetUnit.UTF8));
+                assertEquals(codePoint, index.convert(bytes, OffsetUnit.UTF8, OffsetUnit.CODE_POINT));
+            }
+        }
+    }
+
+    @Test
+    public void mixed() {
+        check(text(2000, 1));
+        check(text(128, 2));
+        check(text(65, 3));
+    }
+
+    @Test
+    public void bmpAndAscii() {
+        check("plain ascii text that is long enough to need more than one entry in the table.......");
+        check("caf\u00e9 \u4e2d\u6587 and more text that is long enough to need more than one table entry");
+        check("");
+    }
+
+    @Test
+    public void insideCharacter() {
+        // "a" + U+4E2D (3 bytes) + U+1F600 (4 bytes) + "b"
+        String text = "a\u4e2d\uD83D\uDE00b";
+        OffsetIndex index = new AnnotatedText.Builder().data(text).build().getOffsetIndex();
+        assertEquals(1, index.convert(2, OffsetUnit.UTF8, OffsetUnit.UTF16));
+        assertEquals(2, index.convert(6, OffsetUnit.UTF8, OffsetUnit.UTF16));
+        assertEquals(4, index.convert(8, OffsetUnit.UTF8, OffsetUnit.UTF16));
+        assertEquals(3, index.codePointOffset(3));
+        assertEquals(8, index.utf8Offset(4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfRange() {
+        new AnnotatedText.Builder().data("abc").build().getOffsetIndex().convert(4, OffsetUnit.UTF8, OffsetUnit.UTF16);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PersistentHashMapTest {
+
+    /* Keys with equal hash codes, to exercise collision nodes. */
+    private static final class Colliding {
+        private final int id;
+
+        Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        Map<Object, Integer> expected = new HashMap<>();
+        PersistentHashMap<Object, Integer> actual = PersistentHashMap.empty();
+        for (int x = 0; x < 20000; x++) {
+            int id = random.nextInt(500);
+            Object key = random.nextBoolean() ? (Object) ("k" + id) : new Colliding(id);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.without(key);
+            } else {
+                expected.put(key, x);
+                actual = actual.with(key, x);
+            }
+            if (x % 1000 == 0) {
+                assertEquals(expected, actual);
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        for (Object key : expected.keySet()) {
+            actual = actual.without(key);
+        }
+        assertEquals(0, actual.size());
+        assertEquals(0, actual.entrySet().size());
+    }
+
+    @Test
+    public void sharing() {
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().with("a", "1").with("b", "2");
+        String value = map.get("a");
+        assertSame(map, map.with("a", value));
+        assertSame(map, map.without("c"));
+        PersistentHashMap<String, String> derived = map.with("c", "3");
+        assertEquals(2, map.size());
+        assertNull(map.get("c"));
+        assertEquals(3, derived.size());
+        assertSame(derived, PersistentHashMap.copyOf(derived));
+    }
+
+    @Test
+    public void serializable() throws Exception {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        for (int x = 0; x < 100; x++) {
+            map = map.with("k" + x, x);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object copy = in.readObject();
+            assertEquals(PersistentHashMap.class, copy.getClass());
+            assertEquals(map, copy);
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -374,4 +375,57 @@ public class SerializableTest {
     }
 
 
+    private static byte[] serialize(Object object) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutput = new ObjectOutputStream(baos)) {
+            objectOutput.writeObject(object);
+        }
+        return baos.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInput.readObject();
+        }
+    }
+
+    @Test
+    public void packedTokens() throws Exception {
+        String[] words = {"the", "quick", "brown", "fox", "jumps", "over", "the", "lazy", "dog", "."};
+        String[] tags = {"DET", "ADJ", "ADJ", "NOUN", "VERB", "ADP", "DET", "ADJ", "NOUN", "PUNCT"};
+        ListAttribute.Builder<Token> tokenListBuilder = new ListAttribute.Builder<>(Token.class);
+        List<Token> plainTokens = Lists.newArrayList();
+        StringBuilder data = new StringBuilder();
+        for (int x = 0; x < 20000; x++) {
+            String word = words[x % words.length];
+            Token.Builder tokenBuilder = new Token.Builder(data.length(), data.length() + word.length(), word);
+            tokenBuilder.source("test");
+            MorphoAnalysis.Builder maBuilder = new MorphoAnalysis.Builder();
+            maBuilder.partOfSpeech(tags[x % tags.length]);
+            maBuilder.lemma(word);
+            maBuilder.tagSet(TagSet.UPT16_V1);
+            tokenBuilder.addAnalysis(maBuilder.build());
+            if (x % 1000 == 0) {
+                tokenBuilder.addNormalized(word.toUpperCase());
+                tokenBuilder.extendedProperty("tok-ex", x);
+                tokenBuilder.addAnalysis(token.getAnalyses().get(1));
+            }
+            Token t = tokenBuilder.build();
+            tokenListBuilder.add(t);
+            plainTokens.add(t);
+            data.append(word).append(' ');
+        }
+        tokenListBuilder.extendedProperty("list-ex", "list-ex-val");
+        ListAttribute<Token> tokens = tokenListBuilder.build();
+        AnnotatedText text = new AnnotatedText.Builder().data(data.toString()).tokens(tokens).build();
+
+        byte[] packed = serialize(text);
+        AnnotatedText read = (AnnotatedText) deserialize(packed);
+        assertEquals(tokens, read.getTokens());
+        assertEquals(tokens.getExtendedProperties(), read.getTokens().getExtendedProperties());
+
+        // the same tokens, one Token object after another.
+        byte[] unpacked = serialize(Lists.newArrayList(plainTokens));
+        assertTrue(packed.length + " vs " + unpacked.length, packed.length * 4 < unpacked.length);
+    }
 }
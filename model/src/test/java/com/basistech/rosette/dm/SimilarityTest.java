@@ -0,0 +1,105 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimilarityTest {
+
+    private static EmbeddingCollection collection() {
+        return new EmbeddingCollection.Builder()
+                .put(0, new float[] {1, 0, 0})
+                .put(1, new float[] {0, 2, 0})
+                .put(2, new float[] {1, 1, 0})
+                .put(3, new float[] {-1, 0, 0})
+                .put(5, new float[] {0, 0})
+                .build();
+    }
+
+    @Test
+    public void vectors() {
+        float[] a = {1, 2, 3, 4, 5, 6, 7};
+        float[] b = {7, 6, 5, 4, 3, 2, 1};
+        assertEquals(84f, Similarity.dot(a, b), 0f);
+        assertEquals(1f, Similarity.cosine(a, a), 1e-6f);
+        assertEquals(0f, Similarity.cosine(a, new float[7]), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lengthMismatch() {
+        Similarity.dot(new float[2], new float[3]);
+    }
+
+    @Test
+    public void items() {
+        EmbeddingCollection collection = collection();
+        assertEquals(1f, Similarity.similarity(collection, 0, 2, Similarity.Measure.DOT), 0f);
+        assertEquals((float) (1 / Math.sqrt(2)), Similarity.similarity(collection, 0, 2, Similarity.Measure.COSINE), 1e-6f);
+        assertEquals(-1f, Similarity.similarity(collection, 0, 3, Similarity.Measure.COSINE), 1e-6f);
+    }
+
+    @Test
+    public void topK() {
+        EmbeddingCollection collection = collection();
+        List<Similarity.Match> matches = Similarity.topK(collection, new float[] {1, 0.5f, 0}, 2, Similarity.Measure.COSINE);
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get(0).getIndex());
+        assertEquals(0, matches.get(1).getIndex());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+
+        matches = Similarity.topK(collection, new float[] {0, 1, 0}, 10, Similarity.Measure.DOT);
+        // item 5 has a different length and is skipped; ties keep index order.
+        assertEquals(4, matches.size());
+        assertEquals(1, matches.get(0).getIndex());
+        assertEquals(2, matches.get(1).getIndex());
+        assertEquals(0, matches.get(2).getIndex());
+        assertEquals(3, matches.get(3).getIndex());
+    }
+
+    @Test
+    public void mostSimilar() {
+        List<Similarity.Match> matches = Similarity.mostSimilar(collection(), 0, 1, Similarity.Measure.COSINE);
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getIndex());
+        assertTrue(Similarity.mostSimilar(collection(), 0, 0, Similarity.Measure.DOT).isEmpty());
+    }
+
+    @Test
+    public void reducedPrecision() {
+        EmbeddingCollection collection = collection().withPrecision(EmbeddingCollection.Precision.FLOAT16);
+        List<Similarity.Match> matches = Similarity.topK(collection, new float[] {1, 0.5f, 0}, 1, Similarity.Measure.COSINE);
+        assertEquals(2, matches.get(0).getIndex());
+    }
+
+    @Test
+    public void scalarKernel() {
+        float[] a = new float[37];
+        float[] b = new float[37];
+        float expected = 0;
+        for (int x = 0; x < a.length; x++) {
+            a[x] = x * 0.5f;
+            b[x] = 3 - x;
+            expected += a[x] * b[x];
+        }
+        assertEquals(expected, SimilarityKernel.scalarDot(a, 0, b, 0, a.length), 1e-2f);
+        assertEquals(expected, SimilarityKernel.dot(a, 0, b, 0, a.length), 1e-2f);
+    }
+}
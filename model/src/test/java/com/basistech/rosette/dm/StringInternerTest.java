@@ -0,0 +1,80 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StringInternerTest {
+
+    @Test
+    public void returnsFirstInstance() {
+        StringInterner interner = StringInterner.bounded(64);
+        String first = new String("NOUN");
+        String second = new String("NOUN");
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertNull(interner.intern(null));
+    }
+
+    @Test
+    public void bounded() {
+        StringInterner interner = StringInterner.bounded(4);
+        String first = new String("s0");
+        interner.intern(first);
+        for (int x = 1; x < 1000; x++) {
+            interner.intern("s" + x);
+        }
+        // evicted, but still equal.
+        String again = interner.intern(new String("s0"));
+        assertEquals(first, again);
+        assertNotSame(first, again);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void positiveCapacity() {
+        StringInterner.bounded(0);
+    }
+
+    @Test
+    public void builders() {
+        StringInterner interner = StringInterner.bounded(64);
+        String pos = new String("NOUN");
+        interner.intern(pos);
+        MorphoAnalysis.Builder analysisBuilder = new MorphoAnalysis.Builder();
+        analysisBuilder.interner(interner);
+        analysisBuilder.partOfSpeech(new String("NOUN"));
+        assertSame(pos, analysisBuilder.build().getPartOfSpeech());
+        KoreanMorphoAnalysis.Builder koreanBuilder = new KoreanMorphoAnalysis.Builder();
+        koreanBuilder.interner(interner);
+        koreanBuilder.addMorpheme("m", new String("NOUN"));
+        assertSame(pos, koreanBuilder.build().getMorphemeTags().get(0));
+        Entity.Builder entityBuilder = new Entity.Builder();
+        entityBuilder.interner(interner);
+        entityBuilder.type(new String("NOUN"));
+        assertSame(pos, entityBuilder.build().getType());
+        Mention.Builder mentionBuilder = new Mention.Builder(0, 1);
+        mentionBuilder.interner(interner);
+        mentionBuilder.source(new String("NOUN"));
+        Mention mention = mentionBuilder.build();
+        assertSame(pos, mention.getSource());
+    }
+}
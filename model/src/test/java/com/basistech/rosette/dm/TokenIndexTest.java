@@ -0,0 +1,83 @@
+/*
+* Copyright 2026 Basis Technology Corp.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.basistech.rosette.dm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TokenIndexTest {
+
+    private static AnnotatedText text(boolean columnar) {
+        //                01234567890123456
+        String rawText = "One two.  Three.";
+        ListAttribute.Builder<Token> tokens = new ListAttribute.Builder<>(Token.class);
+        tokens.add(new Token.Builder(0, 3, "One").build());
+        tokens.add(new Token.Builder(4, 7, "two").build());
+        tokens.add(new Token.Builder(7, 8, ".").build());
+        tokens.add(new Token.Builder(10, 15, "Three").build());
+        tokens.add(new Token.Builder(15, 16, ".").build());
+        ListAttribute.Builder<Sentence> sentences = new ListAttribute.Builder<>(Sentence.class);
+        sentences.add(new Sentence.Builder(0, 10).build());
+        sentences.add(new Sentence.Builder(10, 16).build());
+        ListAttribute<Token> tokenList = tokens.build();
+        return new AnnotatedText.Builder().data(rawText)
+                .tokens(columnar ? ColumnarTokens.copyOf(tokenList) : tokenList)
+                .sentences(sentences.build())
+                .build();
+    }
+
+    @Test
+    public void lookups() {
+        for (boolean columnar : new boolean[] {false, true}) {
+            AnnotatedText text = text(columnar);
+            TokenIndex index = text.getTokenIndex();
+            assertSame(index, text.getTokenIndex());
+            assertEquals(5, index.tokenCount());
+            assertEquals(2, index.sentenceCount());
+
+            assertEquals(0, index.tokenAt(0));
+            assertEquals(0, index.tokenAt(2));
+            assertEquals(-1, index.tokenAt(3));
+            assertEquals(2, index.tokenAt(7));
+            assertEquals(-1, index.tokenAt(9));
+            assertEquals(4, index.tokenAt(15));
+            assertEquals(-1, index.tokenAt(16));
+
+            assertEquals(0, index.sentenceIndexOf(2));
+            assertEquals(1, index.sentenceIndexOf(3));
+            assertEquals(10, index.sentenceOf(4).getStartOffset());
+
+            assertEquals(0, index.firstToken(0));
+            assertEquals(3, index.endToken(0));
+            assertEquals(3, index.firstToken(1));
+            assertEquals(5, index.endToken(1));
+            assertEquals("Three", index.tokensOf(1).get(0).getText());
+        }
+    }
+
+    @Test
+    public void noSentences() {
+        AnnotatedText text = new AnnotatedText.Builder().data("One")
+                .tokens(new ListAttribute.Builder<Token>(Token.class).add(new Token.Builder(0, 3, "One").build()).build())
+                .build();
+        assertEquals(0, text.getTokenIndex().tokenAt(1));
+        assertNull(text.getTokenIndex().sentenceOf(0));
+        assertEquals(-1, new AnnotatedText.Builder().data("").build().getTokenIndex().tokenAt(0));
+    }
+}